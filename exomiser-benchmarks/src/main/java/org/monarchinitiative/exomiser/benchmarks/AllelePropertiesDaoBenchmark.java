@@ -0,0 +1,84 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.benchmarks;
+
+import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.core.genome.dao.AllelePropertiesDaoMvStore;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookup time for the frequency and pathogenicity data of a sample's variants from an in-memory
+ * {@link MVStore} containing a mixture of the sample variants and random decoys.
+ *
+ * @since 13.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AllelePropertiesDaoBenchmark {
+
+    private static final long SEED = 42;
+    private static final int NUM_GENES = 2000;
+
+    @Param({"10000"})
+    private int numVariants;
+
+    @Param({"200000"})
+    private int numDecoys;
+
+    private List<VariantEvaluation> variants;
+    private MVStore mvStore;
+    private AllelePropertiesDaoMvStore allelePropertiesDao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Path tempDir = BenchmarkFiles.createTempDirectory("exomiser-allele-dao-benchmark");
+        try {
+            SyntheticGenome genome = SyntheticGenome.of(NUM_GENES, SEED);
+            variants = genome.annotateVcf(genome.writeTrioVcf(tempDir.resolve("trio.vcf"), numVariants, SEED));
+        } finally {
+            BenchmarkFiles.deleteRecursively(tempDir);
+        }
+        mvStore = SyntheticDataStores.alleleStore(variants, numDecoys, SEED);
+        allelePropertiesDao = new AllelePropertiesDaoMvStore(mvStore);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mvStore.close();
+    }
+
+    @Benchmark
+    public void getAlleleProperties(Blackhole blackhole) {
+        for (VariantEvaluation variant : variants) {
+            blackhole.consume(allelePropertiesDao.getAlleleProperties(variant));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.benchmarks;
+
+import htsjdk.tribble.readers.TabixReader;
+import org.monarchinitiative.exomiser.core.genome.dao.CaddDao;
+import org.monarchinitiative.exomiser.core.genome.dao.TabixDataSource;
+import org.monarchinitiative.exomiser.core.genome.dao.TabixReaderAdaptor;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time taken by the {@link CaddDao} to query a bgzipped, tabix-indexed CADD file for the variants of a
+ * sample. The same synthetic file is used for both the SNV and indel data sources.
+ *
+ * @since 13.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CaddDaoBenchmark {
+
+    private static final long SEED = 42;
+    private static final int NUM_GENES = 2000;
+
+    @Param({"10000"})
+    private int numVariants;
+
+    @Param({"200000"})
+    private int numDecoys;
+
+    private Path tempDir;
+    private List<VariantEvaluation> variants;
+    private TabixDataSource snvDataSource;
+    private TabixDataSource inDelDataSource;
+    private CaddDao caddDao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tempDir = BenchmarkFiles.createTempDirectory("exomiser-cadd-dao-benchmark");
+        SyntheticGenome genome = SyntheticGenome.of(NUM_GENES, SEED);
+        variants = genome.annotateVcf(genome.writeTrioVcf(tempDir.resolve("trio.vcf"), numVariants, SEED));
+        Path caddPath = SyntheticDataStores.writeCaddTabixFile(tempDir.resolve("cadd.tsv.gz"), variants, numDecoys, SEED);
+        snvDataSource = new TabixReaderAdaptor(new TabixReader(caddPath.toString()));
+        inDelDataSource = new TabixReaderAdaptor(new TabixReader(caddPath.toString()));
+        caddDao = new CaddDao(inDelDataSource, snvDataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        snvDataSource.close();
+        inDelDataSource.close();
+        BenchmarkFiles.deleteRecursively(tempDir);
+    }
+
+    @Benchmark
+    public void getPathogenicityData(Blackhole blackhole) {
+        for (VariantEvaluation variant : variants) {
+            blackhole.consume(caddDao.getPathogenicityData(variant));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.benchmarks;
+
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegionIndex;
+import org.monarchinitiative.exomiser.core.model.GeneticInterval;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the building and querying of a {@link ChromosomalRegionIndex} such as those used for the TAD and
+ * regulatory feature regions. The regions vary in size from 1kb to 1Mb and are randomly placed across the autosomes.
+ *
+ * @since 13.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChromosomalRegionIndexBenchmark {
+
+    private static final long SEED = 42;
+    private static final int NUM_AUTOSOMES = 22;
+    private static final int MAX_POSITION = 200_000_000;
+
+    @Param({"1000", "100000"})
+    private int numRegions;
+
+    @Param({"10000"})
+    private int numQueries;
+
+    private List<GeneticInterval> regions;
+    private ChromosomalRegionIndex<GeneticInterval> regionIndex;
+    private int[] queryChromosomes;
+    private int[] queryPositions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(SEED);
+        regions = new ArrayList<>(numRegions);
+        for (int i = 0; i < numRegions; i++) {
+            int chr = 1 + random.nextInt(NUM_AUTOSOMES);
+            int start = 1 + random.nextInt(MAX_POSITION);
+            int length = 1_000 + random.nextInt(1_000_000);
+            regions.add(new GeneticInterval(chr, start, start + length));
+        }
+        regionIndex = ChromosomalRegionIndex.of(regions);
+
+        queryChromosomes = new int[numQueries];
+        queryPositions = new int[numQueries];
+        for (int i = 0; i < numQueries; i++) {
+            queryChromosomes[i] = 1 + random.nextInt(NUM_AUTOSOMES);
+            queryPositions[i] = 1 + random.nextInt(MAX_POSITION);
+        }
+    }
+
+    @Benchmark
+    public ChromosomalRegionIndex<GeneticInterval> buildIndex() {
+        return ChromosomalRegionIndex.of(regions);
+    }
+
+    @Benchmark
+    public void getRegionsOverlappingPosition(Blackhole blackhole) {
+        for (int i = 0; i < numQueries; i++) {
+            blackhole.consume(regionIndex.getRegionsOverlappingPosition(queryChromosomes[i], queryPositions[i]));
+        }
+    }
+
+    @Benchmark
+    public void getRegionsOverlappingRegion(Blackhole blackhole) {
+        for (int i = 0; i < numQueries; i++) {
+            int start = queryPositions[i];
+            blackhole.consume(regionIndex.getRegionsOverlappingRegion(queryChromosomes[i], start, start + 1_000));
+        }
+    }
+}
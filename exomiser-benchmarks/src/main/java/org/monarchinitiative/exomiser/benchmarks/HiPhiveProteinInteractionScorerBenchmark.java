@@ -0,0 +1,95 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.benchmarks;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import org.monarchinitiative.exomiser.core.phenotype.PhenodigmModelScorer;
+import org.monarchinitiative.exomiser.core.phenotype.PhenotypeMatchService;
+import org.monarchinitiative.exomiser.core.phenotype.PhenotypeMatcher;
+import org.monarchinitiative.exomiser.core.phenotype.PhenotypeTerm;
+import org.monarchinitiative.exomiser.core.prioritisers.model.GeneModel;
+import org.monarchinitiative.exomiser.core.prioritisers.model.GeneModelPhenotypeMatch;
+import org.monarchinitiative.exomiser.core.prioritisers.util.DataMatrix;
+import org.monarchinitiative.exomiser.core.prioritisers.util.HiPhiveProteinInteractionScorer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of the weighted high-quality interaction matrix and the subsequent lookup of the closest
+ * phenotypic match in the interaction network for every gene, as performed by the HiPhive prioritiser.
+ *
+ * @since 13.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HiPhiveProteinInteractionScorerBenchmark {
+
+    private static final long SEED = 42;
+    // same value as used by the HiPhivePriority
+    private static final double HIGH_QUALITY_SCORE_CUTOFF = 0.6;
+
+    @Param({"2000"})
+    private int numGenes;
+
+    private DataMatrix dataMatrix;
+    private ListMultimap<Integer, GeneModelPhenotypeMatch> bestGeneModels;
+    private HiPhiveProteinInteractionScorer proteinInteractionScorer;
+    private int[] entrezGeneIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticPhenotypes phenotypes = SyntheticPhenotypes.of(1000, 5000, 50, SEED);
+        List<PhenotypeTerm> queryTerms = phenotypes.getQueryTerms(10);
+        PhenotypeMatcher mousePhenotypeMatcher = new PhenotypeMatchService(phenotypes.getOntologyService())
+                .getMousePhenotypeMatcherForTerms(queryTerms);
+        PhenodigmModelScorer<GeneModel> modelScorer = PhenodigmModelScorer.forSingleCrossSpecies(mousePhenotypeMatcher);
+
+        bestGeneModels = ArrayListMultimap.create();
+        List<GeneModel> models = phenotypes.getMouseModels(queryTerms, numGenes, 20);
+        for (GeneModel model : models) {
+            bestGeneModels.put(model.getEntrezGeneId(), new GeneModelPhenotypeMatch(modelScorer.scoreModel(model)));
+        }
+        entrezGeneIds = models.stream().mapToInt(GeneModel::getEntrezGeneId).toArray();
+
+        dataMatrix = phenotypes.getProteinInteractionMatrix(numGenes);
+        proteinInteractionScorer = new HiPhiveProteinInteractionScorer(dataMatrix, bestGeneModels, HIGH_QUALITY_SCORE_CUTOFF);
+    }
+
+    @Benchmark
+    public HiPhiveProteinInteractionScorer createProteinInteractionScorer() {
+        return new HiPhiveProteinInteractionScorer(dataMatrix, bestGeneModels, HIGH_QUALITY_SCORE_CUTOFF);
+    }
+
+    @Benchmark
+    public void getClosestPhenoMatchInNetwork(Blackhole blackhole) {
+        for (int entrezGeneId : entrezGeneIds) {
+            blackhole.consume(proteinInteractionScorer.getClosestPhenoMatchInNetwork(entrezGeneId));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.benchmarks;
+
+import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeAnnotator;
+import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeOptions;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the time taken by the {@link InheritanceModeAnnotator} to check the variants of each gene of a trio for
+ * compatibility with the default modes and sub-modes of inheritance.
+ *
+ * @since 13.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InheritanceModeAnnotatorBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"2000"})
+    private int numGenes;
+
+    @Param({"10000"})
+    private int numVariants;
+
+    private InheritanceModeAnnotator inheritanceModeAnnotator;
+    private List<List<VariantEvaluation>> geneVariants;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticGenome genome = SyntheticGenome.of(numGenes, SEED);
+        Path tempDir = BenchmarkFiles.createTempDirectory("exomiser-inheritance-mode-benchmark");
+        List<VariantEvaluation> variants;
+        try {
+            variants = genome.annotateVcf(genome.writeTrioVcf(tempDir.resolve("trio.vcf"), numVariants, SEED));
+        } finally {
+            BenchmarkFiles.deleteRecursively(tempDir);
+        }
+        Collection<List<VariantEvaluation>> variantsByGene = variants.stream()
+                .collect(Collectors.groupingBy(VariantEvaluation::getGeneSymbol))
+                .values();
+        geneVariants = new ArrayList<>(variantsByGene);
+        inheritanceModeAnnotator = new InheritanceModeAnnotator(genome.getTrioPedigree(), InheritanceModeOptions.defaults());
+    }
+
+    @Benchmark
+    public void computeCompatibleInheritanceModes(Blackhole blackhole) {
+        for (List<VariantEvaluation> variants : geneVariants) {
+            blackhole.consume(inheritanceModeAnnotator.computeCompatibleInheritanceModes(variants));
+        }
+    }
+
+    @Benchmark
+    public void computeCompatibleInheritanceSubModes(Blackhole blackhole) {
+        for (List<VariantEvaluation> variants : geneVariants) {
+            blackhole.consume(inheritanceModeAnnotator.computeCompatibleInheritanceSubModes(variants));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.benchmarks;
+
+import org.monarchinitiative.exomiser.core.phenotype.PhenodigmModelScorer;
+import org.monarchinitiative.exomiser.core.phenotype.PhenotypeMatchService;
+import org.monarchinitiative.exomiser.core.phenotype.PhenotypeMatcher;
+import org.monarchinitiative.exomiser.core.phenotype.PhenotypeTerm;
+import org.monarchinitiative.exomiser.core.prioritisers.model.GeneModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cross-species (HP-MP) phenotype matching of a set of query HPO terms against a set of mouse models,
+ * using the {@link PhenotypeMatcher} built by the {@link PhenotypeMatchService} and the {@link PhenodigmModelScorer}.
+ *
+ * @since 13.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PhenotypeMatcherBenchmark {
+
+    private static final long SEED = 42;
+    private static final int NUM_HPO_TERMS = 1000;
+    private static final int NUM_MPO_TERMS = 5000;
+    private static final int MATCHES_PER_TERM = 50;
+
+    @Param({"5", "20"})
+    private int numQueryTerms;
+
+    @Param({"5000"})
+    private int numModels;
+
+    @Param({"20"})
+    private int phenotypesPerModel;
+
+    private PhenotypeMatchService phenotypeMatchService;
+    private List<PhenotypeTerm> queryTerms;
+    private List<GeneModel> models;
+    private PhenotypeMatcher mousePhenotypeMatcher;
+    private PhenodigmModelScorer<GeneModel> modelScorer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticPhenotypes phenotypes = SyntheticPhenotypes.of(NUM_HPO_TERMS, NUM_MPO_TERMS, MATCHES_PER_TERM, SEED);
+        phenotypeMatchService = new PhenotypeMatchService(phenotypes.getOntologyService());
+        queryTerms = phenotypes.getQueryTerms(numQueryTerms);
+        models = phenotypes.getMouseModels(queryTerms, numModels, phenotypesPerModel);
+        mousePhenotypeMatcher = phenotypeMatchService.getMousePhenotypeMatcherForTerms(queryTerms);
+        modelScorer = PhenodigmModelScorer.forSingleCrossSpecies(mousePhenotypeMatcher);
+    }
+
+    @Benchmark
+    public PhenotypeMatcher createMousePhenotypeMatcher() {
+        return phenotypeMatchService.getMousePhenotypeMatcherForTerms(queryTerms);
+    }
+
+    @Benchmark
+    public void matchPhenotypeIds(Blackhole blackhole) {
+        for (GeneModel model : models) {
+            blackhole.consume(mousePhenotypeMatcher.matchPhenotypeIds(model.getPhenotypeIds()));
+        }
+    }
+
+    @Benchmark
+    public void scoreModels(Blackhole blackhole) {
+        for (GeneModel model : models) {
+            blackhole.consume(modelScorer.scoreModel(model));
+        }
+    }
+}
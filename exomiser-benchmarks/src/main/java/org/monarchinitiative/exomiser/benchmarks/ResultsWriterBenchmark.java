@@ -0,0 +1,135 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.benchmarks;
+
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.analysis.sample.Sample;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.GeneScore;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.writers.OutputFormat;
+import org.monarchinitiative.exomiser.core.writers.OutputSettings;
+import org.monarchinitiative.exomiser.core.writers.ResultsWriter;
+import org.monarchinitiative.exomiser.core.writers.ResultsWriterFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the time taken by each {@link ResultsWriter} to write the results of an analysis of a synthetic trio to a
+ * String. Each gene is given a random score with its first two variants contributing to the score.
+ *
+ * @since 13.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.nio=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class ResultsWriterBenchmark {
+
+    private static final long SEED = 42;
+
+    // n.b. JMH will run the benchmark for every OutputFormat
+    @Param
+    private OutputFormat outputFormat;
+
+    @Param({"2000"})
+    private int numGenes;
+
+    @Param({"10000"})
+    private int numVariants;
+
+    private Path tempDir;
+    private ResultsWriter resultsWriter;
+    private AnalysisResults analysisResults;
+    private OutputSettings outputSettings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tempDir = BenchmarkFiles.createTempDirectory("exomiser-results-writer-benchmark");
+        SyntheticGenome genome = SyntheticGenome.of(numGenes, SEED);
+        // the VCF writers require the input VCF for the header, so this can't be deleted until the trial has finished
+        Path vcfPath = genome.writeTrioVcf(tempDir.resolve("trio.vcf"), numVariants, SEED);
+        List<VariantEvaluation> variants = genome.annotateVcf(vcfPath);
+
+        Sample sample = Sample.builder()
+                .genomeAssembly(genome.getGenomeAssembly())
+                .vcfPath(vcfPath)
+                .probandSampleName(SyntheticGenome.PROBAND)
+                .pedigree(genome.getTrioPedigree())
+                .build();
+
+        analysisResults = AnalysisResults.builder()
+                .sample(sample)
+                .sampleNames(List.of(SyntheticGenome.PROBAND, SyntheticGenome.MOTHER, SyntheticGenome.FATHER))
+                .variantEvaluations(variants)
+                .genes(scoredGenes(variants, new Random(SEED)))
+                .build();
+        outputSettings = OutputSettings.builder()
+                .outputFormats(EnumSet.of(outputFormat))
+                .outputPrefix(tempDir.resolve("results").toString())
+                .build();
+        resultsWriter = ResultsWriterFactory.getResultsWriter(outputFormat);
+    }
+
+    private static List<Gene> scoredGenes(List<VariantEvaluation> variants, Random random) {
+        Map<String, Gene> genesBySymbol = new LinkedHashMap<>();
+        for (VariantEvaluation variant : variants) {
+            Gene gene = genesBySymbol.computeIfAbsent(variant.getGeneSymbol(), symbol -> new Gene(symbol, Integer.parseInt(variant.getGeneId())));
+            gene.addVariant(variant);
+        }
+        List<Gene> genes = new ArrayList<>(genesBySymbol.values());
+        for (Gene gene : genes) {
+            List<VariantEvaluation> contributingVariants = gene.getVariantEvaluations().stream()
+                    .limit(2)
+                    .collect(Collectors.toList());
+            contributingVariants.forEach(variant -> variant.setContributesToGeneScoreUnderMode(ModeOfInheritance.ANY));
+            double phenotypeScore = random.nextDouble();
+            double variantScore = random.nextDouble();
+            gene.addGeneScore(GeneScore.builder()
+                    .geneIdentifier(gene.getGeneIdentifier())
+                    .modeOfInheritance(ModeOfInheritance.ANY)
+                    .phenotypeScore(phenotypeScore)
+                    .variantScore(variantScore)
+                    .combinedScore((phenotypeScore + variantScore) / 2)
+                    .contributingVariants(contributingVariants)
+                    .build());
+        }
+        genes.sort(Gene.comparingScoreForInheritanceMode(ModeOfInheritance.ANY));
+        return genes;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.deleteRecursively(tempDir);
+    }
+
+    @Benchmark
+    public String writeString() {
+        return resultsWriter.writeString(ModeOfInheritance.ANY, analysisResults, outputSettings);
+    }
+}
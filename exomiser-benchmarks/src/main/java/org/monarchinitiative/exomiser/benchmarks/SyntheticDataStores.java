@@ -0,0 +1,189 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.benchmarks;
+
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.tribble.SimpleFeature;
+import htsjdk.tribble.index.Index;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.index.tabix.TabixIndexCreator;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
+import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+import org.monarchinitiative.svart.Variant;
+import org.monarchinitiative.svart.VariantType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds small synthetic versions of the variant data stores so that the DAO benchmarks can be run offline. Each store
+ * contains data for a random half of the input variants plus a set of random decoy records, so that the lookups are a
+ * realistic mix of hits and misses.
+ *
+ * @since 13.1.0
+ */
+public class SyntheticDataStores {
+
+    private static final String[] BASES = {"A", "C", "G", "T"};
+    private static final String[] FREQUENCY_KEYS = {"KG", "TOPMED", "ESP_ALL", "EXAC_NFE", "GNOMAD_E_NFE", "GNOMAD_G_NFE"};
+    private static final String[] PATHOGENICITY_KEYS = {"POLYPHEN", "SIFT", "MUT_TASTER", "REVEL", "MVP"};
+
+    private SyntheticDataStores() {
+        //static utility class
+    }
+
+    /**
+     * Creates an in-memory {@link MVStore} containing an allele map in the same format as the Exomiser variants
+     * database.
+     */
+    public static MVStore alleleStore(List<? extends Variant> variants, int numDecoys, long seed) {
+        Random random = new Random(seed);
+        MVStore mvStore = new MVStore.Builder().open();
+        MVMap<AlleleKey, AlleleProperties> alleleMap = MvStoreUtil.openAlleleMVMap(mvStore);
+        for (Variant variant : variants) {
+            if (random.nextBoolean()) {
+                alleleMap.put(AlleleProtoAdaptor.toAlleleKey(variant), randomAlleleProperties(random));
+            }
+        }
+        for (int i = 0; i < numDecoys; i++) {
+            AlleleKey decoy = AlleleKey.newBuilder()
+                    .setChr(1 + random.nextInt(22))
+                    .setPosition(1 + random.nextInt(50_000_000))
+                    .setRef(BASES[random.nextInt(BASES.length)])
+                    .setAlt(BASES[random.nextInt(BASES.length)])
+                    .build();
+            alleleMap.put(decoy, randomAlleleProperties(random));
+        }
+        mvStore.commit();
+        return mvStore;
+    }
+
+    private static AlleleProperties randomAlleleProperties(Random random) {
+        AlleleProperties.Builder builder = AlleleProperties.newBuilder()
+                .setRsId("rs" + random.nextInt(Integer.MAX_VALUE));
+        for (String key : FREQUENCY_KEYS) {
+            if (random.nextBoolean()) {
+                builder.putProperties(key, random.nextFloat());
+            }
+        }
+        for (String key : PATHOGENICITY_KEYS) {
+            if (random.nextBoolean()) {
+                builder.putProperties(key, random.nextFloat());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes a bgzipped and tabix-indexed file in the CADD format:
+     * <pre>
+     * #Chrom  Pos     Ref     Alt     RawScore        PHRED
+     * </pre>
+     * SNVs are written with all three possible alternate alleles, in the same way as the whole-genome CADD file.
+     *
+     * @return the path of the bgzipped file, the index will be written alongside this with the extension .tbi
+     */
+    public static Path writeCaddTabixFile(Path path, List<? extends Variant> variants, int numDecoys, long seed) {
+        Random random = new Random(seed);
+        List<CaddRecord> records = new ArrayList<>();
+        for (Variant variant : variants) {
+            if (random.nextBoolean()) {
+                continue;
+            }
+            if (variant.variantType() == VariantType.SNV) {
+                for (String alt : BASES) {
+                    if (!alt.equals(variant.ref())) {
+                        records.add(CaddRecord.random(variant.contigId(), variant.start(), variant.ref(), alt, random));
+                    }
+                }
+            } else {
+                records.add(CaddRecord.random(variant.contigId(), variant.start(), variant.ref(), variant.alt(), random));
+            }
+        }
+        for (int i = 0; i < numDecoys; i++) {
+            String ref = BASES[random.nextInt(BASES.length)];
+            records.add(CaddRecord.random(1 + random.nextInt(22), 1 + random.nextInt(50_000_000), ref, ref + BASES[random.nextInt(BASES.length)], random));
+        }
+        records.sort(Comparator.comparingInt(CaddRecord::getChr).thenComparingInt(CaddRecord::getPos));
+
+        // columns are 1-based: chr=1, start=2, end=2, with the header starting with a '#'
+        TabixIndexCreator indexCreator = new TabixIndexCreator(new TabixFormat(TabixFormat.GENERIC_FLAGS, 1, 2, 2, '#', 0));
+        try (BlockCompressedOutputStream outputStream = new BlockCompressedOutputStream(path.toFile())) {
+            outputStream.write("#Chrom\tPos\tRef\tAlt\tRawScore\tPHRED\n".getBytes(StandardCharsets.UTF_8));
+            for (CaddRecord record : records) {
+                String chr = String.valueOf(record.chr);
+                indexCreator.addFeature(new SimpleFeature(chr, record.pos, record.pos), outputStream.getFilePointer());
+                outputStream.write(record.toLine().getBytes(StandardCharsets.UTF_8));
+            }
+            outputStream.flush();
+            Index index = indexCreator.finalizeIndex(outputStream.getFilePointer());
+            index.write(Path.of(path + ".tbi"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write synthetic CADD file " + path, e);
+        }
+        return path;
+    }
+
+    private static class CaddRecord {
+
+        private final int chr;
+        private final int pos;
+        private final String ref;
+        private final String alt;
+        private final float rawScore;
+        private final float phredScore;
+
+        private CaddRecord(int chr, int pos, String ref, String alt, float rawScore, float phredScore) {
+            this.chr = chr;
+            this.pos = pos;
+            this.ref = ref;
+            this.alt = alt;
+            this.rawScore = rawScore;
+            this.phredScore = phredScore;
+        }
+
+        static CaddRecord random(int chr, int pos, String ref, String alt, Random random) {
+            return new CaddRecord(chr, pos, ref, alt, random.nextFloat() * 4f - 1f, random.nextFloat() * 40f);
+        }
+
+        int getChr() {
+            return chr;
+        }
+
+        int getPos() {
+            return pos;
+        }
+
+        String toLine() {
+            return chr + "\t" + pos + "\t" + ref + "\t" + alt + "\t" + rawScore + "\t" + phredScore + "\n";
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.JannovarVariantAnnotator;
+import org.monarchinitiative.exomiser.core.genome.VariantAnnotator;
+import org.monarchinitiative.exomiser.core.genome.VariantFactory;
+import org.monarchinitiative.exomiser.core.genome.VariantFactoryImpl;
+import org.monarchinitiative.exomiser.core.genome.VcfFileReader;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegionIndex;
+import org.monarchinitiative.exomiser.core.model.Pedigree;
+import org.monarchinitiative.exomiser.core.model.Pedigree.Individual;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.test.synthetic.SyntheticTranscriptModels;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A small, entirely synthetic, HG19 genome and trio VCF used as the fixture for the variant benchmarks. The genes are
+ * those created by the {@link SyntheticTranscriptModels} and the variants are randomly placed in their exons using a
+ * fixed seed so that successive runs of the benchmarks, and runs against different releases, are measuring exactly the
+ * same data.
+ *
+ * @since 13.1.0
+ */
+public class SyntheticGenome {
+
+    public static final String PROBAND = "proband";
+    public static final String MOTHER = "mother";
+    public static final String FATHER = "father";
+
+    private static final ReferenceDictionary REF_DICT = SyntheticTranscriptModels.referenceDictionary();
+    private static final GenomeAssembly GENOME_ASSEMBLY = GenomeAssembly.HG19;
+
+    private static final int NUM_AUTOSOMES = 22;
+
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+    private static final String[] PROBAND_GENOTYPES = {"0/1", "0/1", "1/1"};
+    private static final String[] PARENT_GENOTYPES = {"0/0", "0/1", "0/1", "1/1"};
+
+    private final List<TranscriptModel> transcriptModels;
+    private final JannovarData jannovarData;
+    private final VariantAnnotator variantAnnotator;
+
+    private SyntheticGenome(List<TranscriptModel> transcriptModels) {
+        this.transcriptModels = transcriptModels;
+        this.jannovarData = new JannovarData(REF_DICT, ImmutableList.copyOf(transcriptModels));
+        this.variantAnnotator = new JannovarVariantAnnotator(GENOME_ASSEMBLY, jannovarData, ChromosomalRegionIndex.empty());
+    }
+
+    public static SyntheticGenome of(int numGenes, long seed) {
+        return new SyntheticGenome(SyntheticTranscriptModels.create(numGenes, seed));
+    }
+
+    public GenomeAssembly getGenomeAssembly() {
+        return GENOME_ASSEMBLY;
+    }
+
+    public List<TranscriptModel> getTranscriptModels() {
+        return transcriptModels;
+    }
+
+    public JannovarData getJannovarData() {
+        return jannovarData;
+    }
+
+    public VariantAnnotator getVariantAnnotator() {
+        return variantAnnotator;
+    }
+
+    /**
+     * @return the proband, mother and father in the synthetic VCF files with the proband being the only affected member
+     */
+    public Pedigree getTrioPedigree() {
+        Individual mother = Individual.builder()
+                .familyId("family").id(MOTHER).sex(Individual.Sex.FEMALE).status(Individual.Status.UNAFFECTED)
+                .build();
+        Individual father = Individual.builder()
+                .familyId("family").id(FATHER).sex(Individual.Sex.MALE).status(Individual.Status.UNAFFECTED)
+                .build();
+        Individual proband = Individual.builder()
+                .familyId("family").id(PROBAND).motherId(MOTHER).fatherId(FATHER)
+                .sex(Individual.Sex.FEMALE).status(Individual.Status.AFFECTED)
+                .build();
+        return Pedigree.of(proband, mother, father);
+    }
+
+    /**
+     * Writes an uncompressed, coordinate-sorted, trio VCF file with the given number of records. Around one in ten
+     * records is a single base insertion or deletion, the remainder are SNVs.
+     *
+     * @param vcfPath     the path of the VCF file to write
+     * @param numVariants the number of VCF records to write
+     * @param seed        seed for the random placement of the variants
+     * @return the path of the written VCF file
+     */
+    public Path writeTrioVcf(Path vcfPath, int numVariants, long seed) {
+        Random random = new Random(seed);
+        List<int[]> chrPositions = new ArrayList<>(numVariants);
+        for (int i = 0; i < numVariants; i++) {
+            TranscriptModel transcriptModel = transcriptModels.get(random.nextInt(transcriptModels.size()));
+            GenomeInterval exon = transcriptModel.getExonRegions().get(random.nextInt(transcriptModel.getExonRegions().size()));
+            // 1-based position avoiding the first and last bases of the zero-based exon
+            int position = exon.getBeginPos() + 2 + random.nextInt(exon.length() - 4);
+            chrPositions.add(new int[]{transcriptModel.getChr(), position});
+        }
+        chrPositions.sort((a, b) -> a[0] == b[0] ? Integer.compare(a[1], b[1]) : Integer.compare(a[0], b[0]));
+
+        try (BufferedWriter writer = Files.newBufferedWriter(vcfPath, StandardCharsets.UTF_8)) {
+            writer.write("##fileformat=VCFv4.2\n");
+            writer.write("##FILTER=<ID=PASS,Description=\"All filters passed\">\n");
+            writer.write("##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">\n");
+            for (int chr = 1; chr <= NUM_AUTOSOMES; chr++) {
+                writer.write(String.format("##contig=<ID=%d,length=%d,assembly=GRCh37>\n", chr, REF_DICT.getContigIDToLength().get(chr)));
+            }
+            writer.write(String.join("\t", "#CHROM", "POS", "ID", "REF", "ALT", "QUAL", "FILTER", "INFO", "FORMAT", PROBAND, MOTHER, FATHER));
+            writer.write('\n');
+            for (int[] chrPosition : chrPositions) {
+                String ref = String.valueOf(BASES[random.nextInt(BASES.length)]);
+                String alt = String.valueOf(BASES[(indexOf(ref.charAt(0)) + 1 + random.nextInt(3)) % BASES.length]);
+                int variantType = random.nextInt(20);
+                if (variantType == 0) {
+                    alt = ref + alt;
+                } else if (variantType == 1) {
+                    ref = ref + alt;
+                    alt = ref.substring(0, 1);
+                }
+                writer.write(String.join("\t",
+                        String.valueOf(chrPosition[0]), String.valueOf(chrPosition[1]), ".", ref, alt, "100", "PASS", ".", "GT",
+                        PROBAND_GENOTYPES[random.nextInt(PROBAND_GENOTYPES.length)],
+                        PARENT_GENOTYPES[random.nextInt(PARENT_GENOTYPES.length)],
+                        PARENT_GENOTYPES[random.nextInt(PARENT_GENOTYPES.length)]));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write synthetic VCF " + vcfPath, e);
+        }
+        return vcfPath;
+    }
+
+    private static int indexOf(char base) {
+        for (int i = 0; i < BASES.length; i++) {
+            if (BASES[i] == base) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown base " + base);
+    }
+
+    public VariantFactory variantFactory(Path vcfPath) {
+        return new VariantFactoryImpl(variantAnnotator, new VcfFileReader(vcfPath));
+    }
+
+    /**
+     * @return the fully annotated {@link VariantEvaluation} from the given VCF file
+     */
+    public List<VariantEvaluation> annotateVcf(Path vcfPath) {
+        try (Stream<VariantEvaluation> variantEvaluations = variantFactory(vcfPath).createVariantEvaluations()) {
+            return variantEvaluations.collect(Collectors.toList());
+        }
+    }
+}
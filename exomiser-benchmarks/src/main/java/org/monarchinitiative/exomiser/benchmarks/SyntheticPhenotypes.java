@@ -0,0 +1,200 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.benchmarks;
+
+import org.monarchinitiative.exomiser.core.phenotype.Organism;
+import org.monarchinitiative.exomiser.core.phenotype.PhenotypeMatch;
+import org.monarchinitiative.exomiser.core.phenotype.PhenotypeTerm;
+import org.monarchinitiative.exomiser.core.phenotype.service.OntologyService;
+import org.monarchinitiative.exomiser.core.prioritisers.model.GeneModel;
+import org.monarchinitiative.exomiser.core.prioritisers.model.GeneOrthologModel;
+import org.monarchinitiative.exomiser.core.prioritisers.util.DataMatrix;
+import org.monarchinitiative.exomiser.core.prioritisers.util.InMemoryDataMatrix;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Synthetic HPO and MPO terms with HP-HP and HP-MP matches between them, mouse models annotated with those terms and a
+ * protein-protein interaction matrix linking the genes of the models. Everything is generated using a fixed seed so
+ * that benchmark runs are directly comparable.
+ *
+ * @since 13.1.0
+ */
+public class SyntheticPhenotypes {
+
+    private static final int FIRST_ENTREZ_ID = 100_000;
+
+    private final Random random;
+
+    private final Map<String, PhenotypeTerm> hpoTerms;
+    private final List<PhenotypeTerm> mpoTerms;
+
+    private final Map<PhenotypeTerm, Set<PhenotypeMatch>> hpHpMatches;
+    private final Map<PhenotypeTerm, Set<PhenotypeMatch>> hpMpMatches;
+
+    private SyntheticPhenotypes(int numHpoTerms, int numMpoTerms, int matchesPerTerm, long seed) {
+        this.random = new Random(seed);
+        List<PhenotypeTerm> hpoTermList = makeTerms("HP", numHpoTerms);
+        this.hpoTerms = hpoTermList.stream()
+                .collect(Collectors.toMap(PhenotypeTerm::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+        this.mpoTerms = makeTerms("MP", numMpoTerms);
+        this.hpHpMatches = makeMatches(hpoTermList, hpoTermList, matchesPerTerm);
+        this.hpMpMatches = makeMatches(hpoTermList, mpoTerms, matchesPerTerm);
+    }
+
+    public static SyntheticPhenotypes of(int numHpoTerms, int numMpoTerms, int matchesPerTerm, long seed) {
+        return new SyntheticPhenotypes(numHpoTerms, numMpoTerms, matchesPerTerm, seed);
+    }
+
+    private static List<PhenotypeTerm> makeTerms(String prefix, int numTerms) {
+        List<PhenotypeTerm> terms = new ArrayList<>(numTerms);
+        for (int i = 1; i <= numTerms; i++) {
+            terms.add(PhenotypeTerm.of(String.format("%s:%07d", prefix, i), prefix + " term " + i));
+        }
+        return terms;
+    }
+
+    private Map<PhenotypeTerm, Set<PhenotypeMatch>> makeMatches(List<PhenotypeTerm> queryTerms, List<PhenotypeTerm> matchTerms, int matchesPerTerm) {
+        Map<PhenotypeTerm, Set<PhenotypeMatch>> matches = new HashMap<>();
+        for (PhenotypeTerm queryTerm : queryTerms) {
+            // each query-match pair must be unique, otherwise the PhenotypeMatcher will reject the matches
+            Set<PhenotypeTerm> distinctMatchTerms = new LinkedHashSet<>();
+            while (distinctMatchTerms.size() < Math.min(matchesPerTerm, matchTerms.size())) {
+                distinctMatchTerms.add(matchTerms.get(random.nextInt(matchTerms.size())));
+            }
+            Set<PhenotypeMatch> termMatches = new LinkedHashSet<>();
+            for (PhenotypeTerm matchTerm : distinctMatchTerms) {
+                double ic = 1.0 + random.nextDouble() * 9.0;
+                double simJ = 0.2 + random.nextDouble() * 0.8;
+                termMatches.add(PhenotypeMatch.builder()
+                        .query(queryTerm)
+                        .match(matchTerm)
+                        .lcs(queryTerms.get(random.nextInt(queryTerms.size())))
+                        .ic(ic)
+                        .simj(simJ)
+                        .score(Math.sqrt(ic * simJ))
+                        .build());
+            }
+            matches.put(queryTerm, termMatches);
+        }
+        return matches;
+    }
+
+    public OntologyService getOntologyService() {
+        return new SyntheticOntologyService();
+    }
+
+    /**
+     * @return the first n HPO terms, for use as the query phenotypes for a sample
+     */
+    public List<PhenotypeTerm> getQueryTerms(int numTerms) {
+        return hpoTerms.values().stream().limit(numTerms).collect(Collectors.toList());
+    }
+
+    /**
+     * Creates a mouse model for each of the genes. Half of the phenotypes of each model are drawn from those matching
+     * the query terms so that a reasonable proportion of the models are good phenotypic matches.
+     */
+    public List<GeneModel> getMouseModels(List<PhenotypeTerm> queryTerms, int numGenes, int phenotypesPerModel) {
+        List<String> matchedMpoIds = queryTerms.stream()
+                .flatMap(term -> hpMpMatches.getOrDefault(term, Set.of()).stream())
+                .map(PhenotypeMatch::getMatchPhenotypeId)
+                .distinct()
+                .collect(Collectors.toList());
+        List<GeneModel> models = new ArrayList<>(numGenes);
+        for (int i = 0; i < numGenes; i++) {
+            int entrezId = FIRST_ENTREZ_ID + i;
+            List<String> phenotypeIds = new ArrayList<>(phenotypesPerModel);
+            for (int p = 0; p < phenotypesPerModel; p++) {
+                if (!matchedMpoIds.isEmpty() && random.nextBoolean()) {
+                    phenotypeIds.add(matchedMpoIds.get(random.nextInt(matchedMpoIds.size())));
+                } else {
+                    phenotypeIds.add(mpoTerms.get(random.nextInt(mpoTerms.size())).getId());
+                }
+            }
+            models.add(new GeneOrthologModel("MGI:" + entrezId + "_" + i, Organism.MOUSE, entrezId, "GENE" + i, "MGI:" + entrezId, "Gene" + i, phenotypeIds));
+        }
+        return models;
+    }
+
+    /**
+     * @return a dense random-walk style matrix of interaction weights between the genes of the models
+     */
+    public DataMatrix getProteinInteractionMatrix(int numGenes) {
+        Map<Integer, Integer> entrezIdToRowIndex = new LinkedHashMap<>();
+        Map<Integer, float[]> columns = new HashMap<>();
+        for (int i = 0; i < numGenes; i++) {
+            int entrezId = FIRST_ENTREZ_ID + i;
+            entrezIdToRowIndex.put(entrezId, i);
+            float[] column = new float[numGenes];
+            for (int row = 0; row < numGenes; row++) {
+                column[row] = row == i ? 1f : random.nextFloat() * 0.01f;
+            }
+            columns.put(entrezId, column);
+        }
+        return InMemoryDataMatrix.fromMap(columns, entrezIdToRowIndex);
+    }
+
+    private class SyntheticOntologyService implements OntologyService {
+
+        @Override
+        public Set<PhenotypeTerm> getHpoTerms() {
+            return Set.copyOf(hpoTerms.values());
+        }
+
+        @Override
+        public Set<PhenotypeTerm> getMpoTerms() {
+            return Set.copyOf(mpoTerms);
+        }
+
+        @Override
+        public Set<PhenotypeTerm> getZpoTerms() {
+            return Set.of();
+        }
+
+        @Override
+        public Set<PhenotypeMatch> getHpoMatchesForHpoTerm(PhenotypeTerm hpoTerm) {
+            return hpHpMatches.getOrDefault(hpoTerm, Set.of());
+        }
+
+        @Override
+        public Set<PhenotypeMatch> getMpoMatchesForHpoTerm(PhenotypeTerm hpoTerm) {
+            return hpMpMatches.getOrDefault(hpoTerm, Set.of());
+        }
+
+        @Override
+        public Set<PhenotypeMatch> getZpoMatchesForHpoTerm(PhenotypeTerm hpoTerm) {
+            return Set.of();
+        }
+
+        @Override
+        public PhenotypeTerm getPhenotypeTermForHpoId(String hpoId) {
+            return hpoTerms.get(hpoId);
+        }
+
+        @Override
+        public List<String> getCurrentHpoIds(List<String> hpoIds) {
+            return hpoIds;
+        }
+    }
+}
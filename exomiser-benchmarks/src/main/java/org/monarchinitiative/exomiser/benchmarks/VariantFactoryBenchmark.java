@@ -0,0 +1,87 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.benchmarks;
+
+import org.monarchinitiative.exomiser.core.genome.VariantAnnotator;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the time taken for the {@link org.monarchinitiative.exomiser.core.genome.VariantFactoryImpl} to read and
+ * annotate a trio VCF file, and the time taken for just the Jannovar annotation step for the same variants.
+ *
+ * @since 13.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VariantFactoryBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"2000"})
+    private int numGenes;
+
+    @Param({"10000"})
+    private int numVariants;
+
+    private Path tempDir;
+    private SyntheticGenome genome;
+    private Path vcfPath;
+    private List<VariantEvaluation> variants;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tempDir = BenchmarkFiles.createTempDirectory("exomiser-variant-factory-benchmark");
+        genome = SyntheticGenome.of(numGenes, SEED);
+        vcfPath = genome.writeTrioVcf(tempDir.resolve("trio.vcf"), numVariants, SEED);
+        variants = genome.annotateVcf(vcfPath);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.deleteRecursively(tempDir);
+    }
+
+    @Benchmark
+    public void createVariantEvaluations(Blackhole blackhole) {
+        try (Stream<VariantEvaluation> variantEvaluations = genome.variantFactory(vcfPath).createVariantEvaluations()) {
+            variantEvaluations.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void annotateVariants(Blackhole blackhole) {
+        VariantAnnotator variantAnnotator = genome.getVariantAnnotator();
+        for (VariantEvaluation variant : variants) {
+            blackhole.consume(variantAnnotator.annotate(variant));
+        }
+    }
+}
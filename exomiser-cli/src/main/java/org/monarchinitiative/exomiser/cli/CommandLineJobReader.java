@@ -58,6 +58,8 @@ public class CommandLineJobReader {
     public List<JobProto.Job> readJobs(CommandLine commandLine) {
         Set<String> userOptions = Arrays.stream(commandLine.getOptions())
                 .map(Option::getLongOpt)
+                // this only affects how the jobs are run, not what they are
+                .filter(option -> !"metrics-report".equals(option))
                 .collect(Collectors.toSet());
         logger.debug("Parsed options: {}", userOptions);
 
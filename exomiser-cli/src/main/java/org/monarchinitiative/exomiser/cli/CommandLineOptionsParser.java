@@ -109,6 +109,13 @@ public class CommandLineOptionsParser {
                 .hasArg()
                 .argName("string")
                 .build());
+
+        options.addOption(Option.builder()
+                .longOpt("metrics-report")
+                .desc("Path to which a JSON report of the time spent in each stage of the analysis will be written once all jobs have finished.")
+                .hasArg()
+                .argName("path")
+                .build());
     }
 
     private CommandLineOptionsParser() {
@@ -131,7 +138,8 @@ private static CommandLine validate(CommandLine commandLine) {
             // return the commandLine here as this will allow Main to print the help message
             return commandLine;
         }
-        if (commandLine.hasOption("job") && commandLine.getOptions().length > 1) {
+        int numJobOptions = commandLine.hasOption("metrics-report") ? 2 : 1;
+        if (commandLine.hasOption("job") && commandLine.getOptions().length > numJobOptions) {
             throw new CommandLineParseError("job option is exclusive");
         }
 
@@ -20,19 +20,31 @@
 
 package org.monarchinitiative.exomiser.cli;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.apache.commons.cli.CommandLine;
 import org.monarchinitiative.exomiser.api.v1.JobProto;
+import org.monarchinitiative.exomiser.autoconfigure.genome.VariantCaches;
 import org.monarchinitiative.exomiser.core.Exomiser;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
+import org.monarchinitiative.exomiser.core.metrics.SimpleAnalysisMetrics;
 import org.monarchinitiative.exomiser.core.writers.AnalysisResultsWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
@@ -43,9 +55,13 @@ public class ExomiserCommandLineRunner implements CommandLineRunner {
     private static final Logger logger = LoggerFactory.getLogger(ExomiserCommandLineRunner.class);
 
     private final Exomiser exomiser;
+    private final AnalysisMetrics analysisMetrics;
+    private final VariantCaches variantCaches;
 
-    public ExomiserCommandLineRunner(Exomiser exomiser) {
+    public ExomiserCommandLineRunner(Exomiser exomiser, AnalysisMetrics analysisMetrics, VariantCaches variantCaches) {
         this.exomiser = exomiser;
+        this.analysisMetrics = analysisMetrics;
+        this.variantCaches = variantCaches;
     }
 
     @Override
@@ -54,7 +70,12 @@ public void run(String... args) {
         CommandLineJobReader jobReader = new CommandLineJobReader();
         List<JobProto.Job> jobs = jobReader.readJobs(commandLine);
         logger.info("Exomiser running...");
+        Instant timeStart = Instant.now();
         runJobs(jobs);
+        if (commandLine.hasOption("metrics-report")) {
+            Path reportPath = Path.of(commandLine.getOptionValue("metrics-report"));
+            writeMetricsReport(reportPath, jobs.size(), Duration.between(timeStart, Instant.now()));
+        }
     }
 
     private void runJobs(List<JobProto.Job> jobs) {
@@ -63,11 +84,23 @@ private void runJobs(List<JobProto.Job> jobs) {
         }
         if (jobs.size() > 1) {
             Instant timeStart = Instant.now();
-            //this *could* be run in parallel using parallelStream() at the expense of RAM in order to hold all the variants in memory.
-            //HOWEVER there may be threading issues so this needs investigation.
-            for (int i = 0; i < jobs.size(); i++) {
-                logger.info("Running job {} of {}", i + 1, jobs.size());
-                runJob(jobs.get(i));
+            // The jobs are analysed one after another, but the results of each job are written while the next job is
+            // running. Only the results of the previous job are held while waiting for these to be written, so this
+            // only costs the RAM of one extra sample.
+            ExecutorService writerExecutor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+            try {
+                CompletableFuture<Void> pendingWrite = CompletableFuture.completedFuture(null);
+                for (int i = 0; i < jobs.size(); i++) {
+                    logger.info("Running job {} of {}", i + 1, jobs.size());
+                    JobProto.Job job = jobs.get(i);
+                    AnalysisResults analysisResults = exomiser.run(job);
+                    pendingWrite.join();
+                    logger.info("Writing results...");
+                    pendingWrite = AnalysisResultsWriter.writeToFileAsync(analysisResults, job.getOutputOptions(), writerExecutor, analysisMetrics);
+                }
+                pendingWrite.join();
+            } finally {
+                writerExecutor.shutdown();
             }
             Duration duration = Duration.between(timeStart, Instant.now());
             long ms = duration.toMillis();
@@ -78,6 +111,26 @@ private void runJobs(List<JobProto.Job> jobs) {
     private void runJob(JobProto.Job job) {
         AnalysisResults analysisResults = exomiser.run(job);
         logger.info("Writing results...");
-        AnalysisResultsWriter.writeToFile(analysisResults, job.getOutputOptions());
+        AnalysisResultsWriter.writeToFile(analysisResults, job.getOutputOptions(), analysisMetrics);
+    }
+
+    private void writeMetricsReport(Path reportPath, int numJobs, Duration duration) {
+        if (!(analysisMetrics instanceof SimpleAnalysisMetrics)) {
+            logger.warn("Unable to write metrics report - analysis metrics are being recorded by {}", analysisMetrics);
+            return;
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("jobs", numJobs);
+        report.put("wallClockMillis", duration.toMillis());
+        report.putAll(((SimpleAnalysisMetrics) analysisMetrics).getReport());
+        report.put("caches", variantCaches.getReport());
+        report.put("jvm", JvmMetrics.report());
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        try {
+            objectMapper.writeValue(reportPath.toFile(), report);
+            logger.info("Written metrics report to {}", reportPath.toAbsolutePath());
+        } catch (IOException ex) {
+            logger.error("Unable to write metrics report to {}", reportPath, ex);
+        }
     }
 }
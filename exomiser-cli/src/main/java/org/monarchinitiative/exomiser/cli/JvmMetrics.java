@@ -0,0 +1,105 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.cli;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Snapshot of the resource usage of the running JVM for inclusion in the metrics report. The peak resident set size is
+ * read from procfs so is only available on Linux, elsewhere it is reported as -1.
+ *
+ * @since 13.1.0
+ */
+class JvmMetrics {
+
+    private static final Path PROC_SELF_STATUS = Path.of("/proc/self/status");
+
+    private JvmMetrics() {
+        //static utility class
+    }
+
+    static Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("peakRssBytes", peakRssBytes());
+        report.put("peakHeapBytes", peakHeapBytes());
+
+        long gcCount = 0;
+        long gcTimeMillis = 0;
+        Map<String, Object> collectors = new TreeMap<>();
+        for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            long count = Math.max(0, garbageCollector.getCollectionCount());
+            long timeMillis = Math.max(0, garbageCollector.getCollectionTime());
+            gcCount += count;
+            gcTimeMillis += timeMillis;
+            collectors.put(garbageCollector.getName(), Map.of("count", count, "timeMillis", timeMillis));
+        }
+        report.put("gcCount", gcCount);
+        report.put("gcTimeMillis", gcTimeMillis);
+        report.put("gcCollectors", collectors);
+        return report;
+    }
+
+    /**
+     * @return the high-water mark of the resident set size of this process in bytes, or -1 if this is unavailable
+     */
+    static long peakRssBytes() {
+        if (!Files.isReadable(PROC_SELF_STATUS)) {
+            return -1;
+        }
+        try {
+            List<String> lines = Files.readAllLines(PROC_SELF_STATUS);
+            for (String line : lines) {
+                // e.g. VmHWM:	  123456 kB
+                if (line.startsWith("VmHWM:")) {
+                    String[] fields = line.substring("VmHWM:".length()).trim().split("\\s+");
+                    return Long.parseLong(fields[0]) * 1024L;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // fall through - this is a best-effort measurement
+        }
+        return -1;
+    }
+
+    /**
+     * @return the sum of the peak usage of each of the heap memory pools. This is an upper bound on the actual peak
+     * heap usage as the pools will not all have peaked at the same time.
+     */
+    static long peakHeapBytes() {
+        long peakHeapBytes = 0;
+        for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (memoryPool.getType() == MemoryType.HEAP && memoryPool.getPeakUsage() != null) {
+                peakHeapBytes += memoryPool.getPeakUsage().getUsed();
+            }
+        }
+        return peakHeapBytes;
+    }
+}
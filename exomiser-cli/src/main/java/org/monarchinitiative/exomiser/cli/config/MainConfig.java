@@ -22,8 +22,11 @@
 
 import org.monarchinitiative.exomiser.autoconfigure.UndefinedDataDirectoryException;
 import org.monarchinitiative.exomiser.cli.Main;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
+import org.monarchinitiative.exomiser.core.metrics.SimpleAnalysisMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.system.ApplicationHome;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -84,6 +87,18 @@ public Path exomiserDataDirectory(Path exomiserHome, Environment env) {
         return dataPath;
     }
 
+    /**
+     * The analysis stages are only timed if the user has asked for a metrics report, otherwise these are a no-op.
+     */
+    @Bean
+    public AnalysisMetrics analysisMetrics(ApplicationArguments applicationArguments) {
+        if (applicationArguments.containsOption("metrics-report")) {
+            logger.info("Recording analysis metrics");
+            return new SimpleAnalysisMetrics();
+        }
+        return AnalysisMetrics.noOp();
+    }
+
     private Path findDefaultDataDir(Path exomiserHome) {
         logger.info("Exomiser data directory not defined in properties. Checking for default...");
         Path dataPath = exomiserHome.resolve("data").toAbsolutePath();
@@ -0,0 +1,238 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.cli;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.monarchinitiative.exomiser.test.synthetic.SyntheticDataDirectory;
+import org.monarchinitiative.exomiser.test.synthetic.SyntheticVcfWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Macro benchmark which runs the CLI against a synthetic whole-genome sized VCF and a tiny synthetic data directory
+ * for each of the analysis presets. Each preset is run in a fresh JVM so that the peak RSS, heap and GC figures are
+ * for that analysis alone, with these being collected from the CLI metrics report. The combined results are written as
+ * JSON to the path given by the load-test.report system property so that they can be compared between releases.
+ * <p>
+ * This is excluded from the normal build, use the load-test profile to run it. The profile supplies the template data
+ * directory, without which the test is skipped:
+ * <pre>
+ *     ./mvnw -pl exomiser-cli -am test -P load-test -Dload-test.records=1000000
+ * </pre>
+ *
+ * @since 13.1.0
+ */
+@Tag("load-test")
+class SyntheticGenomeLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticGenomeLoadTest.class);
+
+    private static final long SEED = 42;
+    private static final int NUM_GENES = 20_000;
+    private static final List<String> HPO_IDS = List.of("HP:0001156", "HP:0001363", "HP:0011304", "HP:0010055");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @TempDir
+    static Path workDirectory;
+
+    private static final int numRecords = Integer.getInteger("load-test.records", 100_000);
+    private static final int numSamples = Integer.getInteger("load-test.samples", 3);
+    private static final double svFraction = Double.parseDouble(System.getProperty("load-test.sv-fraction", "0.005"));
+    private static final String jvmArgs = System.getProperty("load-test.jvm-args", "");
+    // set to an absolute path by the load-test profile
+    private static final String templateDataDirectory = System.getProperty("load-test.template-data-directory");
+    private static final Path reportPath = Path.of(System.getProperty("load-test.report", "target/load-test-report.json"));
+
+    private static SyntheticVcfWriter vcfWriter;
+    private static Path vcfPath;
+    private static Path pedPath;
+    private static SyntheticDataDirectory dataDirectory;
+    private static final Map<String, Object> report = new LinkedHashMap<>();
+    private static final List<Map<String, Object>> runs = new ArrayList<>();
+
+    static Stream<String> presets() {
+        return Arrays.stream(System.getProperty("load-test.presets", "exome,genome,phenotype-only").split(","))
+                .map(String::trim)
+                .filter(preset -> !preset.isEmpty());
+    }
+
+    @BeforeAll
+    static void createSyntheticData() {
+        assumeTrue(templateDataDirectory != null, "load-test.template-data-directory is not set - run using the load-test profile");
+        Instant start = Instant.now();
+        vcfWriter = SyntheticVcfWriter.builder()
+                .numRecords(numRecords)
+                .numSamples(numSamples)
+                .svFraction(svFraction)
+                .seed(SEED)
+                .build();
+        vcfPath = vcfWriter.write(workDirectory.resolve("synthetic-genome.vcf.gz"));
+        pedPath = numSamples > 1 ? vcfWriter.writePed(workDirectory.resolve("synthetic-genome.ped")) : null;
+        dataDirectory = SyntheticDataDirectory.builder()
+                .templateDataDirectory(Path.of(templateDataDirectory))
+                .vcfPath(vcfPath)
+                .numGenes(NUM_GENES)
+                .seed(SEED)
+                .build(workDirectory.resolve("data"));
+        long dataGenerationMillis = Duration.between(start, Instant.now()).toMillis();
+        logger.info("Created synthetic VCF of {} records for {} samples and data directory in {} ms", numRecords, numSamples, dataGenerationMillis);
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("records", numRecords);
+        config.put("samples", numSamples);
+        config.put("svFraction", svFraction);
+        config.put("genes", NUM_GENES);
+        config.put("seed", SEED);
+        config.put("jvmArgs", jvmArgs);
+        config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        config.put("javaVersion", System.getProperty("java.version"));
+        report.put("config", config);
+        report.put("dataGenerationMillis", dataGenerationMillis);
+        report.put("runs", runs);
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        if (runs.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        objectMapper.writeValue(reportPath.toFile(), report);
+        logger.info("Written load test report to {}", reportPath.toAbsolutePath());
+    }
+
+    @ParameterizedTest
+    @MethodSource("presets")
+    void runPreset(String preset) throws Exception {
+        Path presetDirectory = Files.createDirectories(workDirectory.resolve(preset));
+        Path samplePath = writeSample(presetDirectory);
+        Path outputPath = writeOutputOptions(presetDirectory);
+        Path metricsPath = presetDirectory.resolve("metrics.json");
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String jvmArg : jvmArgs.trim().split("\\s+")) {
+            if (!jvmArg.isEmpty()) {
+                command.add(jvmArg);
+            }
+        }
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), Main.class.getName()));
+        command.addAll(List.of("--sample", samplePath.toString(), "--preset", preset, "--output", outputPath.toString()));
+        // the phenotype-only preset is a prioritisation of the HPO terms alone
+        if (!"phenotype-only".equals(preset)) {
+            command.addAll(List.of("--vcf", vcfPath.toString(), "--assembly", "hg19"));
+            if (pedPath != null) {
+                command.addAll(List.of("--ped", pedPath.toString()));
+            }
+        }
+        command.addAll(List.of("--metrics-report", metricsPath.toString()));
+        // Spring properties must follow the exomiser options
+        dataDirectory.getProperties().forEach((key, value) -> command.add("--" + key + "=" + value));
+
+        logger.info("Running {} preset", preset);
+        Instant start = Instant.now();
+        Process process = new ProcessBuilder(command)
+                .directory(presetDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(presetDirectory.resolve("exomiser.log").toFile())
+                .start();
+        int exitCode = process.waitFor();
+        long wallClockMillis = Duration.between(start, Instant.now()).toMillis();
+        logger.info("Finished {} preset with exit code {} in {} ms", preset, exitCode, wallClockMillis);
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("preset", preset);
+        run.put("exitCode", exitCode);
+        run.put("wallClockMillis", wallClockMillis);
+        if (Files.exists(metricsPath)) {
+            Map<String, Object> metrics = objectMapper.readValue(metricsPath.toFile(), new TypeReference<Map<String, Object>>() {});
+            Map<String, Object> variants = subMap(metrics, "variants");
+            Map<String, Object> jvm = subMap(metrics, "jvm");
+            long analysisWallClockMillis = ((Number) metrics.getOrDefault("wallClockMillis", 0)).longValue();
+            long variantsLoaded = ((Number) variants.getOrDefault("loaded", 0)).longValue();
+            run.put("analysisWallClockMillis", analysisWallClockMillis);
+            run.put("peakRssBytes", jvm.get("peakRssBytes"));
+            run.put("peakHeapBytes", jvm.get("peakHeapBytes"));
+            run.put("gcCount", jvm.get("gcCount"));
+            run.put("gcTimeMillis", jvm.get("gcTimeMillis"));
+            run.put("variantsLoaded", variantsLoaded);
+            run.put("variantsPerSecond", analysisWallClockMillis == 0 ? 0 : variantsLoaded * 1000.0 / analysisWallClockMillis);
+            run.put("metrics", metrics);
+        }
+        runs.add(run);
+
+        assertThat("Exomiser exited with an error, see " + presetDirectory.resolve("exomiser.log"), exitCode, equalTo(0));
+        assertThat(Files.exists(metricsPath), is(true));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> subMap(Map<String, Object> metrics, String key) {
+        Object value = metrics.get(key);
+        return value instanceof Map ? (Map<String, Object>) value : Map.of();
+    }
+
+    private Path writeSample(Path presetDirectory) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("---");
+        lines.add("genomeAssembly: hg19");
+        lines.add("proband: \"" + vcfWriter.getProbandSampleName() + "\"");
+        lines.add("hpoIds:");
+        HPO_IDS.forEach(hpoId -> lines.add("  - \"" + hpoId + "\""));
+        return Files.write(presetDirectory.resolve("sample.yml"), lines);
+    }
+
+    private Path writeOutputOptions(Path presetDirectory) throws IOException {
+        List<String> lines = List.of(
+                "---",
+                "outputContributingVariantsOnly: false",
+                "numGenes: 0",
+                "outputPrefix: \"" + presetDirectory.resolve("results").resolve("synthetic-genome") + "\"",
+                "outputFormats: [JSON, TSV_GENE, TSV_VARIANT]"
+        );
+        return Files.write(presetDirectory.resolve("output.yml"), lines);
+    }
+}
@@ -76,10 +76,21 @@ public AnalysisResults run(JobProto.Job job) {
      * @since 13.0.0
      */
     public AnalysisResults run(Sample sample, Analysis analysis) {
+        return run(sample, analysis, AnalysisProgressListener.noOp());
+    }
+
+    /**
+     * @param sample           The {@link Sample} representing the proband and possibly the proband's family to be analysed
+     * @param analysis         The {@link Analysis} through which a {@link Sample} is to be run.
+     * @param progressListener An {@link AnalysisProgressListener} to be notified of the number of variants loaded.
+     * @return an {@link AnalysisResults} instance
+     * @since 13.1.0
+     */
+    public AnalysisResults run(Sample sample, Analysis analysis, AnalysisProgressListener progressListener) {
         GenomeAssembly genomeAssembly = sample.getGenomeAssembly();
         AnalysisMode analysisMode = analysis.getAnalysisMode();
         logger.info("Running analysis using {} assembly with mode: {}", genomeAssembly, analysisMode);
         AnalysisRunner analysisRunner = analysisFactory.getAnalysisRunner(genomeAssembly, analysisMode);
-        return analysisRunner.run(sample, analysis);
+        return analysisRunner.run(sample, analysis, progressListener);
     }
 }
@@ -25,12 +25,17 @@
 import org.monarchinitiative.exomiser.core.analysis.util.*;
 import org.monarchinitiative.exomiser.core.filters.*;
 import org.monarchinitiative.exomiser.core.genome.*;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisStage;
 import org.monarchinitiative.exomiser.core.model.*;
 import org.monarchinitiative.exomiser.core.prioritisers.Prioritiser;
 import org.monarchinitiative.exomiser.core.prioritisers.PriorityType;
+import org.monarchinitiative.exomiser.core.writers.VariantEffectCount;
+import org.monarchinitiative.exomiser.core.writers.VariantEffectCounter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
@@ -38,9 +43,12 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
@@ -56,12 +64,34 @@ abstract class AbstractAnalysisRunner implements AnalysisRunner {
     private static final Logger logger = LoggerFactory.getLogger(AbstractAnalysisRunner.class);
 
     private final GenomeAnalysisService genomeAnalysisService;
+    private final VariantDataService variantDataService;
 
     protected final VariantFilterRunner variantFilterRunner;
     private final GeneFilterRunner geneFilterRunner;
 
+    private final AnalysisMetrics analysisMetrics;
+    private final VcfReaderFactory vcfReaderFactory;
+    private final AnnotatedSampleStore annotatedSampleStore;
+
     public AbstractAnalysisRunner(GenomeAnalysisService genomeAnalysisService, VariantFilterRunner variantFilterRunner, GeneFilterRunner geneFilterRunner) {
+        this(genomeAnalysisService, variantFilterRunner, geneFilterRunner, AnalysisMetrics.noOp());
+    }
+
+    public AbstractAnalysisRunner(GenomeAnalysisService genomeAnalysisService, VariantFilterRunner variantFilterRunner, GeneFilterRunner geneFilterRunner, AnalysisMetrics analysisMetrics) {
+        this(genomeAnalysisService, variantFilterRunner, geneFilterRunner, analysisMetrics, VcfReaderFactory.sequential());
+    }
+
+    public AbstractAnalysisRunner(GenomeAnalysisService genomeAnalysisService, VariantFilterRunner variantFilterRunner, GeneFilterRunner geneFilterRunner, AnalysisMetrics analysisMetrics, VcfReaderFactory vcfReaderFactory) {
+        this(genomeAnalysisService, variantFilterRunner, geneFilterRunner, analysisMetrics, vcfReaderFactory, AnnotatedSampleStore.disabled());
+    }
+
+    public AbstractAnalysisRunner(GenomeAnalysisService genomeAnalysisService, VariantFilterRunner variantFilterRunner, GeneFilterRunner geneFilterRunner, AnalysisMetrics analysisMetrics, VcfReaderFactory vcfReaderFactory, AnnotatedSampleStore annotatedSampleStore) {
         this.genomeAnalysisService = genomeAnalysisService;
+        this.analysisMetrics = Objects.requireNonNull(analysisMetrics);
+        this.vcfReaderFactory = Objects.requireNonNull(vcfReaderFactory);
+        this.annotatedSampleStore = Objects.requireNonNull(annotatedSampleStore);
+        // only pay for the timing of the data lookups when the measurements are actually being recorded
+        this.variantDataService = analysisMetrics.isEnabled() ? new MeasuredVariantDataService(genomeAnalysisService, analysisMetrics) : genomeAnalysisService;
 
         this.variantFilterRunner = variantFilterRunner;
         this.geneFilterRunner = geneFilterRunner;
@@ -69,6 +99,11 @@ public AbstractAnalysisRunner(GenomeAnalysisService genomeAnalysisService, Varia
 
     @Override
     public AnalysisResults run(Sample sample, Analysis analysis) {
+        return run(sample, analysis, AnalysisProgressListener.noOp());
+    }
+
+    @Override
+    public AnalysisResults run(Sample sample, Analysis analysis, AnalysisProgressListener progressListener) {
         // This is a critical step. It will validate that all the relevant information is present for the specified steps.
         AnalysisSampleValidator.validate(sample, analysis);
 
@@ -76,11 +111,11 @@ public AnalysisResults run(Sample sample, Analysis analysis) {
         logger.info("Using genome assembly {}", sample.getGenomeAssembly());
         // all the sample-related bits, might be worth encapsulating
         Path vcfPath = sample.getVcfPath();
-        VcfReader vcfReader = vcfPath == null ? new NoOpVcfReader() : new VcfFileReader(vcfPath);
+        VcfReader vcfReader = vcfPath == null ? new NoOpVcfReader() : vcfReaderFactory.createVcfReader(vcfPath);
         // n.b. this next block will safely handle a null VCF file
         logger.info("Checking proband and pedigree for VCF {}", vcfPath);
         List<String> sampleNames = vcfReader.readSampleIdentifiers();
-        VariantFactory variantFactory = new VariantFactoryImpl(genomeAnalysisService.getVariantAnnotator(), vcfReader);
+        VariantFactory variantFactory = new VariantFactoryImpl(genomeAnalysisService.getVariantAnnotator(), vcfReader, analysisMetrics);
 
         String probandIdentifier = SampleIdentifiers.checkProbandIdentifier(sample.getProbandSampleName(), sampleNames);
         Pedigree validatedPedigree = PedigreeSampleValidator.validate(sample.getPedigree(), probandIdentifier, sampleNames);
@@ -110,7 +145,13 @@ public AnalysisResults run(Sample sample, Analysis analysis) {
                 // Variants take up 99% of all the memory in an analysis - this scales approximately linearly with the
                 //  sample size so for whole genomes this is best run as a stream to filter out the unwanted variants
                 //  with as many filters as possible in one go
-                variantEvaluations = loadAndFilterVariants(variantFactory, probandIdentifier, allGenes, analysisGroup, analysis, filterStats);
+                // The annotated sample can only be re-used when the variants are loaded before any other steps have been
+                //  run, as the PASS_ONLY runner will not load the variants of genes which failed a preceding gene filter.
+                AnnotatedSampleKey annotatedSampleKey = null;
+                if (annotatedSampleStore.isEnabled() && vcfPath != null && analysisGroup == analysisStepGroups.get(0)) {
+                    annotatedSampleKey = AnnotatedSampleKey.of(vcfPath, sample.getGenomeAssembly(), probandIdentifier, analysis, getVariantFilters(analysisGroup));
+                }
+                variantEvaluations = loadAndFilterVariants(variantFactory, sampleNames, probandIdentifier, allGenes, analysisGroup, analysis, filterStats, progressListener, annotatedSampleKey);
                 // This is done here as there are GeneFilter steps which may require Variants in the genes, or the
                 //  InheritanceModeDependent steps which definitely need them...
                 assignVariantsToGenes(variantEvaluations, allGenes);
@@ -124,6 +165,9 @@ public AnalysisResults run(Sample sample, Analysis analysis) {
             logger.info("Variant filter stats are:");
             filterStats.getFilterCounts().forEach(filterStat -> logger.info("{}: pass={} fail={}",
                     filterStat.getFilterType(), filterStat.getPassCount(), filterStat.getFailCount()));
+            if (!filterStats.getVariantFilterOrder().isEmpty()) {
+                logger.info("Variant filters were run in the order: {}", filterStats.getVariantFilterOrder());
+            }
         }
 
         //maybe only the non-variant dependent steps have been run in which case we need to load the variants although
@@ -133,9 +177,13 @@ public AnalysisResults run(Sample sample, Analysis analysis) {
         //this would fit well with a lot of people's pipelines where they only want the phenotype score as they are using VEP or ANNOVAR for variant analysis.
 
         if (!variantsLoaded && sample.hasVcf()) {
+            VariantLogger variantLogger = new VariantLogger(progressListener, analysisMetrics);
             try (Stream<VariantEvaluation> variantStream = variantFactory.createVariantEvaluations()) {
-                variantEvaluations = variantStream.collect(toList());
+                variantEvaluations = variantStream
+                        .peek(variantLogger.logLoadedAndPassedVariants())
+                        .collect(toList());
             }
+            variantLogger.logResults();
             assignVariantsToGenes(variantEvaluations, allGenes);
             variantsLoaded = true;
         }
@@ -143,14 +191,22 @@ public AnalysisResults run(Sample sample, Analysis analysis) {
         logger.info("Scoring genes");
         List<Gene> genes;
         List<VariantEvaluation> variants;
+        List<VariantEffectCount> variantEffectCounts;
         GeneScorer geneScorer = new RawScoreGeneScorer(probandIdentifier, sample.getSex(), inheritanceModeAnnotator);
+        long scoringStart = System.nanoTime();
         if (variantsLoaded) {
             genes = geneScorer.scoreGenes(getGenesWithVariants(allGenes));
-            variants = getFinalVariantList(variantEvaluations);
+            // counted while selecting the final variants, rather than while loading, so that the counts only include the
+            // variants in the results
+            VariantEffectCounter variantEffectCounter = new VariantEffectCounter(sampleNames);
+            variants = getFinalVariantList(variantEvaluations, variantEffectCounter);
+            variantEffectCounts = variantEffectCounter.getVariantEffectCounts();
         } else {
             genes = geneScorer.scoreGenes(new ArrayList<>(allGenes.values()));
             variants = Collections.emptyList();
+            variantEffectCounts = Collections.emptyList();
         }
+        analysisMetrics.recordStage(AnalysisStage.GENE_SCORING, null, System.nanoTime() - scoringStart);
 
         logger.info("Analysed {} genes containing {} filtered variants", genes.size(), variants.size());
 
@@ -162,9 +218,11 @@ public AnalysisResults run(Sample sample, Analysis analysis) {
                 .sampleNames(sampleNames)
                 .genes(genes)
                 .variantEvaluations(variants)
+                .variantEffectCounts(variantEffectCounts)
                 .build();
 
         Duration duration = Duration.between(timeStart, Instant.now());
+        analysisMetrics.recordStage(AnalysisStage.ANALYSIS, analysis.getAnalysisMode().name(), duration.toNanos());
         long ms = duration.toMillis();
         logger.info("Finished analysis in {}m {}s {}ms ({} ms)", (ms / 1000) / 60 % 60, ms / 1000 % 60, ms % 1000, ms);
         return analysisResults;
@@ -179,13 +237,21 @@ private Map<String, Gene> makeKnownGenes() {
                 .collect(toConcurrentMap(Gene::getGeneSymbol, Function.identity()));
     }
 
-    private List<VariantEvaluation> loadAndFilterVariants(VariantFactory variantFactory, String probandIdentifier, Map<String, Gene> allGenes, AnalysisGroup analysisGroup, Analysis analysis, FilterStats filterStats) {
+    private List<VariantEvaluation> loadAndFilterVariants(VariantFactory variantFactory, List<String> sampleNames, String probandIdentifier, Map<String, Gene> allGenes, AnalysisGroup analysisGroup, Analysis analysis, FilterStats filterStats, AnalysisProgressListener progressListener, @Nullable AnnotatedSampleKey annotatedSampleKey) {
+        if (annotatedSampleKey != null) {
+            Optional<AnnotatedSample> annotatedSample = annotatedSampleStore.load(annotatedSampleKey);
+            if (annotatedSample.isPresent()) {
+                return restoreAnnotatedSample(annotatedSample.get(), probandIdentifier, filterStats, progressListener);
+            }
+        }
         GeneReassigner geneReassigner = createNonCodingVariantGeneReassigner(analysis, allGenes);
         List<VariantFilter> variantFilters = prepareVariantFilterSteps(analysis, analysisGroup);
+        // skips the records which would fail the isObservedInProband check before they are decoded and annotated
+        ProbandGenotypeLineFilter probandGenotypeLineFilter = ProbandGenotypeLineFilter.of(sampleNames, probandIdentifier);
 
         List<VariantEvaluation> filteredVariants;
-        VariantLogger variantLogger = new VariantLogger();
-        try (Stream<VariantEvaluation> variantStream = variantFactory.createVariantEvaluations()) {
+        VariantLogger variantLogger = new VariantLogger(progressListener, analysisMetrics, probandGenotypeLineFilter::getRejectedCount);
+        try (Stream<VariantEvaluation> variantStream = variantFactory.createVariantEvaluations(probandGenotypeLineFilter)) {
             filteredVariants = variantStream
                     .peek(variantLogger.logLoadedAndPassedVariants())
                     .filter(isObservedInProband(probandIdentifier))
@@ -196,10 +262,40 @@ private List<VariantEvaluation> loadAndFilterVariants(VariantFactory variantFact
                     .peek(variantLogger.countPassedVariant())
                     .collect(toList());
         }
+        logger.info("Skipped {} VCF records not called in proband {}", probandGenotypeLineFilter.getRejectedCount(), probandIdentifier);
         variantLogger.logResults();
+        if (annotatedSampleKey != null) {
+            AnnotatedSample annotatedSample = new AnnotatedSample(variantLogger.getLoadedCount(), probandGenotypeLineFilter.getRejectedCount(), filterStats.getFilterCounts(), filteredVariants);
+            annotatedSampleStore.save(annotatedSampleKey, annotatedSample);
+        }
         return filteredVariants;
     }
 
+    /**
+     * Returns the variants of a previously stored {@link AnnotatedSample} in place of loading and filtering the variants
+     * from the VCF file, reporting the same counts as the original run.
+     */
+    private List<VariantEvaluation> restoreAnnotatedSample(AnnotatedSample annotatedSample, String probandIdentifier, FilterStats filterStats, AnalysisProgressListener progressListener) {
+        annotatedSample.getFilterCounts().forEach(filterStats::addFilterCount);
+        VariantLogger variantLogger = new VariantLogger(progressListener, analysisMetrics, annotatedSample::getSkippedRecordCount);
+        variantLogger.addLoadedCount(annotatedSample.getLoadedVariantCount());
+        List<VariantEvaluation> variantEvaluations = new ArrayList<>(annotatedSample.getVariantEvaluations());
+        variantEvaluations.forEach(variantLogger.countPassedVariant());
+        logger.info("Skipped {} VCF records not called in proband {}", annotatedSample.getSkippedRecordCount(), probandIdentifier);
+        variantLogger.logResults();
+        return variantEvaluations;
+    }
+
+    private static List<VariantFilter> getVariantFilters(AnalysisGroup analysisGroup) {
+        List<VariantFilter> variantFilters = new ArrayList<>();
+        for (AnalysisStep analysisStep : analysisGroup.getAnalysisSteps()) {
+            if (analysisStep instanceof VariantFilter) {
+                variantFilters.add((VariantFilter) analysisStep);
+            }
+        }
+        return variantFilters;
+    }
+
     // TODO: might be worth pulling out into an AnalysisSupport class or adding to the GenomeAnalysisService?
     private GeneReassigner createNonCodingVariantGeneReassigner(Analysis analysis, Map<String, Gene> allGenes) {
         ChromosomalRegionIndex<TopologicalDomain> tadIndex = genomeAnalysisService.getTopologicallyAssociatedDomainIndex();
@@ -224,11 +320,11 @@ private List<VariantFilter> prepareVariantFilterSteps(Analysis analysis, Analysi
     private VariantFilter wrapWithFilterDataProvider(VariantFilter variantFilter, Analysis analysis) {
         if (variantFilter instanceof FrequencyFilter || variantFilter instanceof KnownVariantFilter) {
             logger.info("Wrapping {} with VariantDataProvider for sources {}", variantFilter, analysis.getFrequencySources());
-            return new FrequencyDataProvider(genomeAnalysisService, analysis.getFrequencySources(), variantFilter);
+            return new FrequencyDataProvider(variantDataService, analysis.getFrequencySources(), variantFilter);
         }
         if (variantFilter instanceof PathogenicityFilter) {
             logger.info("Wrapping {} with VariantDataProvider for sources {}", variantFilter, analysis.getPathogenicitySources());
-            return new PathogenicityDataProvider(genomeAnalysisService, analysis.getPathogenicitySources(), variantFilter);
+            return new PathogenicityDataProvider(variantDataService, analysis.getPathogenicitySources(), variantFilter);
         }
         return variantFilter;
     }
@@ -238,13 +334,13 @@ private Predicate<VariantEvaluation> isObservedInProband(String probandId) {
             SampleGenotype probandGenotype = variantEvaluation.getSampleGenotype(probandId);
             // Getting a SampleGenotype.empty() really shouldn't happen, as the samples and pedigree should have been checked previously
             // only add VariantEvaluation where the proband has an ALT allele (OTHER_ALT should be present as an ALT in another VariantEvaluation)
-            return probandGenotype.getCalls().contains(AlleleCall.ALT);
+            return probandGenotype.hasAltCall();
         };
     }
 
     private UnaryOperator<VariantEvaluation> flagWhiteListedVariants() {
         return variantEvaluation -> {
-            if (genomeAnalysisService.variantIsWhiteListed(variantEvaluation)) {
+            if (variantDataService.variantIsWhiteListed(variantEvaluation)) {
                 variantEvaluation.setWhiteListed(true);
             }
             return variantEvaluation;
@@ -290,22 +386,37 @@ protected List<Gene> getGenesWithVariants(Map<String, Gene> allGenes) {
         return allGenes.values().stream().filter(Gene::hasVariants).collect(toList());
     }
 
-    abstract List<VariantEvaluation> getFinalVariantList(List<VariantEvaluation> variants);
+    private List<VariantEvaluation> getFinalVariantList(List<VariantEvaluation> variants, VariantEffectCounter variantEffectCounter) {
+        List<VariantEvaluation> finalVariants = new ArrayList<>();
+        for (VariantEvaluation variantEvaluation : variants) {
+            if (isIncludedInResults(variantEvaluation)) {
+                finalVariants.add(variantEvaluation);
+                variantEffectCounter.countVariant(variantEvaluation);
+            }
+        }
+        return finalVariants;
+    }
+
+    /**
+     * Defines whether a variant is included in the final list of variants of the {@link AnalysisResults}.
+     *
+     * @param variantEvaluation a variant loaded by the analysis
+     * @return true if the variant is to be included in the results
+     */
+    abstract boolean isIncludedInResults(VariantEvaluation variantEvaluation);
 
     //might this be a nascent class waiting to get out here?
     private void runSteps(AnalysisGroup analysisGroup, List<String> hpoIds, List<Gene> genes, InheritanceModeAnnotator inheritanceModeAnnotator, FilterStats filterStats) {
         boolean inheritanceModesCalculated = false;
         for (AnalysisStep analysisStep : analysisGroup.getAnalysisSteps()) {
             if (!inheritanceModesCalculated && analysisStep.isInheritanceModeDependent()) {
-                analyseGeneCompatibilityWithInheritanceMode(genes, inheritanceModeAnnotator);
+                analysisMetrics.measure(AnalysisStage.INHERITANCE_MODE_ANALYSIS, null, () -> analyseGeneCompatibilityWithInheritanceMode(genes, inheritanceModeAnnotator));
                 inheritanceModesCalculated = true;
             }
 
-            runStep(analysisStep, hpoIds, genes);
-
-            if (analysisStep instanceof Filter<?>) {
-                collectFilterStatsForFilter((Filter<?>) analysisStep, genes, filterStats);
-            }
+            long stepStart = System.nanoTime();
+            runStep(analysisStep, hpoIds, genes, filterStats);
+            recordStepTime(analysisStep, System.nanoTime() - stepStart);
         }
     }
 
@@ -316,21 +427,25 @@ private void analyseGeneCompatibilityWithInheritanceMode(List<Gene> genes, Inher
         inheritanceModeAnalyser.analyseInheritanceModes(genes);
     }
 
-    private void runStep(AnalysisStep analysisStep, List<String> hpoIds, List<Gene> genes) {
+    private void runStep(AnalysisStep analysisStep, List<String> hpoIds, List<Gene> genes, FilterStats filterStats) {
 
         if (analysisStep instanceof VariantFilter) {
             VariantFilter filter = (VariantFilter) analysisStep;
             logger.info("Running VariantFilter: {}", filter);
+            FilterResultCounter filterResultCounter = new FilterResultCounter();
             for (Gene gene : genes) {
-                variantFilterRunner.run(filter, gene.getVariantEvaluations());
+                variantFilterRunner.run(filter, gene.getVariantEvaluations(), filterResultCounter);
             }
+            addFilterCount(filterStats, filter.getFilterType(), filterResultCounter);
             return;
         }
 
         if (analysisStep instanceof GeneFilter) {
             GeneFilter filter = (GeneFilter) analysisStep;
             logger.info("Running GeneFilter: {}", filter);
-            geneFilterRunner.run(filter, genes);
+            FilterResultCounter filterResultCounter = new FilterResultCounter();
+            geneFilterRunner.run(filter, genes, filterResultCounter);
+            addFilterCount(filterStats, filter.getFilterType(), filterResultCounter);
             return;
         }
 
@@ -341,38 +456,76 @@ private void runStep(AnalysisStep analysisStep, List<String> hpoIds, List<Gene>
         }
     }
 
-    private void collectFilterStatsForFilter(Filter<?> filter, List<Gene> genes, FilterStats filterStats) {
-        FilterType filterType = filter.getFilterType();
-        FilterResult passFilterResult = FilterResult.pass(filterType);
-        FilterResult failFilterResult = FilterResult.fail(filterType);
-        if (filter.isOnlyGeneDependent()) {
-            // Cater for the case where the PriorityScoreFilter is run before any variants are loaded
-            // don't add variant filter counts here as they can get mixed with genes which did have variants
-            // so the numbers don't add up correctly. The alternative is to implement FilterStats::addGeneResult
-            // but this also gets messy
-            genes.stream()
-                    .map(gene -> gene.passedFilter(filterType) ? passFilterResult : failFilterResult)
-                    .forEach(filterStats::addResult);
-        } else {
-            genes.stream()
-                    .flatMap(gene -> gene.getVariantEvaluations().stream())
-                    .map(variantEvaluation -> variantEvaluation.passedFilter(filterType) ? passFilterResult : failFilterResult)
-                    .forEach(filterStats::addResult);
+    private void recordStepTime(AnalysisStep analysisStep, long durationNanos) {
+        if (analysisStep instanceof VariantFilter) {
+            analysisMetrics.recordStage(AnalysisStage.VARIANT_FILTER_STEP, ((VariantFilter) analysisStep).getFilterType().name(), durationNanos);
+        } else if (analysisStep instanceof GeneFilter) {
+            analysisMetrics.recordStage(AnalysisStage.GENE_FILTER, ((GeneFilter) analysisStep).getFilterType().name(), durationNanos);
+        } else if (analysisStep instanceof Prioritiser) {
+            analysisMetrics.recordStage(AnalysisStage.PRIORITISER, ((Prioritiser<?>) analysisStep).getPriorityType().name(), durationNanos);
+        }
+    }
+
+    /**
+     * Runs the filter over the variant using the {@link VariantFilterRunner}, recording the time taken to the
+     * {@link AnalysisMetrics} if these are enabled. For use by the concrete runners when streaming the variants.
+     */
+    protected FilterResult runVariantFilter(VariantFilter variantFilter, VariantEvaluation variantEvaluation) {
+        if (!analysisMetrics.isEnabled()) {
+            return variantFilterRunner.run(variantFilter, variantEvaluation);
+        }
+        long start = System.nanoTime();
+        FilterResult filterResult = variantFilterRunner.run(variantFilter, variantEvaluation);
+        analysisMetrics.recordStage(AnalysisStage.VARIANT_FILTER, variantFilter.getFilterType().name(), System.nanoTime() - start);
+        return filterResult;
+    }
+
+    private static void addFilterCount(FilterStats filterStats, FilterType filterType, FilterResultCounter filterResultCounter) {
+        int passCount = filterResultCounter.getPassCount();
+        int failCount = filterResultCounter.getFailCount();
+        // a filter which had nothing to run over is not reported
+        if (passCount + failCount > 0) {
+            filterStats.addFilterCount(new FilterStats.FilterCount(filterType, passCount, failCount));
         }
     }
 
     /**
-     * Utility class for logging numbers of processed and passed variants.
+     * Utility class for logging numbers of processed and passed variants. These counts are also reported to the
+     * {@link AnalysisProgressListener} so that clients don't need to read the VCF a second time to find its size. The
+     * records skipped by the {@link ProbandGenotypeLineFilter} are never loaded, but are included in the count reported
+     * to the listener so that its {@link AnalysisProgressListener#variantLimit()} applies to the whole of the VCF.
      */
     private static class VariantLogger {
+        private static final int PROGRESS_INTERVAL = 1000;
+
         private final AtomicInteger loaded = new AtomicInteger();
         private final AtomicInteger passed = new AtomicInteger();
+        private final AnalysisProgressListener progressListener;
+        private final long variantLimit;
+        private final AnalysisMetrics analysisMetrics;
+        private final LongSupplier skippedRecordCount;
+
+        private VariantLogger(AnalysisProgressListener progressListener, AnalysisMetrics analysisMetrics) {
+            this(progressListener, analysisMetrics, () -> 0L);
+        }
+
+        private VariantLogger(AnalysisProgressListener progressListener, AnalysisMetrics analysisMetrics, LongSupplier skippedRecordCount) {
+            this.progressListener = progressListener;
+            this.variantLimit = progressListener.variantLimit();
+            this.analysisMetrics = analysisMetrics;
+            this.skippedRecordCount = skippedRecordCount;
+        }
 
         private Consumer<VariantEvaluation> logLoadedAndPassedVariants() {
             return variantEvaluation -> {
-                loaded.incrementAndGet();
-                if (loaded.get() % 100000 == 0) {
-                    logger.info("Loaded {} variants - {} passed variant filters...", loaded.get(), passed.get());
+                int count = loaded.incrementAndGet();
+                // the skipped records are counted as they are read, so the total can jump past the limit
+                int readCount = readCount(count);
+                if (count % PROGRESS_INTERVAL == 0 || readCount > variantLimit) {
+                    progressListener.variantsLoaded(readCount, passed.get());
+                }
+                if (count % 100000 == 0) {
+                    logger.info("Loaded {} variants - {} passed variant filters...", count, passed.get());
                 }
             };
         }
@@ -385,7 +538,21 @@ private Consumer<VariantEvaluation> countPassedVariant() {
             };
         }
 
+        void addLoadedCount(int count) {
+            loaded.addAndGet(count);
+        }
+
+        int getLoadedCount() {
+            return loaded.get();
+        }
+
+        private int readCount(int loadedCount) {
+            return (int) Math.min(Integer.MAX_VALUE, loadedCount + skippedRecordCount.getAsLong());
+        }
+
         void logResults() {
+            progressListener.variantsLoaded(readCount(loaded.get()), passed.get());
+            analysisMetrics.recordVariantCounts(loaded.get(), passed.get());
             logger.info("Loaded {} variants - {} passed variant filters", loaded.get(), passed.get());
         }
     }
@@ -0,0 +1,186 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import org.monarchinitiative.exomiser.core.filters.FilterResult;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.filters.VariantFilter;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Runs the variant filters over each variant, stopping at the first failed filter, in an order chosen to minimise the
+ * cost of filtering. The filters are run in the order given in the analysis for the first variants, whilst measuring
+ * the time taken and the fail rate of each filter. Once enough variants have been seen the filters are re-ordered by
+ * their expected cost per failed variant, so that cheap and selective filters such as the {@link FilterType#QUALITY_FILTER}
+ * are run before those needing to look up data such as the {@link FilterType#FREQUENCY_FILTER}.
+ * <p>
+ * The result of each variant filter only depends on the variant, so the variants passing all the filters are the same
+ * regardless of the order. Only the numbers of variants run through each filter, as reported in the {@link FilterStats}
+ * along with the chosen order, will differ.
+ * <p>
+ * This class is thread-safe so can be used to filter a parallel stream of variants.
+ *
+ * @since 13.1.0
+ */
+final class AdaptiveVariantFilterScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveVariantFilterScheduler.class);
+
+    static final int DEFAULT_SAMPLE_SIZE = 1000;
+
+    private final List<VariantFilter> variantFilters;
+    private final BiFunction<VariantFilter, VariantEvaluation, FilterResult> filterRunner;
+    private final FilterStats filterStats;
+    private final int sampleSize;
+
+    private final FilterMeasurement[] measurements;
+    private final AtomicInteger sampledCount = new AtomicInteger();
+    private volatile List<VariantFilter> scheduledFilters;
+
+    AdaptiveVariantFilterScheduler(List<VariantFilter> variantFilters, BiFunction<VariantFilter, VariantEvaluation, FilterResult> filterRunner, FilterStats filterStats) {
+        this(variantFilters, filterRunner, filterStats, DEFAULT_SAMPLE_SIZE);
+    }
+
+    AdaptiveVariantFilterScheduler(List<VariantFilter> variantFilters, BiFunction<VariantFilter, VariantEvaluation, FilterResult> filterRunner, FilterStats filterStats, int sampleSize) {
+        this.variantFilters = List.copyOf(variantFilters);
+        this.filterRunner = filterRunner;
+        this.filterStats = filterStats;
+        this.sampleSize = sampleSize;
+        this.measurements = new FilterMeasurement[this.variantFilters.size()];
+        for (int i = 0; i < measurements.length; i++) {
+            measurements[i] = new FilterMeasurement();
+        }
+        // there is nothing to re-order with a single filter
+        this.scheduledFilters = this.variantFilters.size() > 1 ? null : this.variantFilters;
+    }
+
+    /**
+     * Runs the filters over the variant until it fails one of them, adding the results to the {@link FilterStats}.
+     *
+     * @return true if the variant passed all the filters
+     */
+    boolean runFilters(VariantEvaluation variantEvaluation) {
+        List<VariantFilter> filters = scheduledFilters;
+        if (filters != null) {
+            for (VariantFilter filter : filters) {
+                if (!variantEvaluation.passedFilters()) {
+                    break;
+                }
+                runFilter(filter, variantEvaluation);
+            }
+        } else {
+            runAndMeasureFilters(variantEvaluation);
+        }
+        return variantEvaluation.passedFilters();
+    }
+
+    private void runAndMeasureFilters(VariantEvaluation variantEvaluation) {
+        for (int i = 0; i < variantFilters.size() && variantEvaluation.passedFilters(); i++) {
+            long start = System.nanoTime();
+            FilterResult filterResult = runFilter(variantFilters.get(i), variantEvaluation);
+            measurements[i].add(System.nanoTime() - start, filterResult.failed());
+        }
+        if (sampledCount.incrementAndGet() == sampleSize) {
+            scheduleFilters();
+        }
+    }
+
+    private FilterResult runFilter(VariantFilter filter, VariantEvaluation variantEvaluation) {
+        FilterResult filterResult = filterRunner.apply(filter, variantEvaluation);
+        filterStats.addResult(filterResult);
+        return filterResult;
+    }
+
+    private void scheduleFilters() {
+        List<Integer> order = new ArrayList<>(variantFilters.size());
+        for (int i = 0; i < variantFilters.size(); i++) {
+            order.add(i);
+        }
+        // the sort is stable, so filters with the same expected cost, or which were never run, keep their original order
+        order.sort(Comparator.comparingDouble(i -> measurements[i].expectedCostPerFail()));
+        List<VariantFilter> filters = order.stream().map(variantFilters::get).collect(toList());
+        if (logger.isInfoEnabled()) {
+            for (int i : order) {
+                FilterMeasurement measurement = measurements[i];
+                logger.info("{} ran {} times, failing {}, taking {} ns per variant", variantFilters.get(i).getFilterType(), measurement.runs.sum(), measurement.fails.sum(), measurement.meanNanos());
+            }
+        }
+        logger.info("Running variant filters in order {} after sampling {} variants", toFilterTypes(filters), sampleSize);
+        filterStats.setVariantFilterOrder(toFilterTypes(filters));
+        scheduledFilters = List.copyOf(filters);
+    }
+
+    private static List<FilterType> toFilterTypes(List<VariantFilter> variantFilters) {
+        return variantFilters.stream().map(VariantFilter::getFilterType).collect(toList());
+    }
+
+    /**
+     * @return the filters in the order in which they are being run.
+     */
+    List<VariantFilter> getFilterOrder() {
+        List<VariantFilter> filters = scheduledFilters;
+        return filters == null ? variantFilters : filters;
+    }
+
+    private static class FilterMeasurement {
+
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder fails = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private void add(long durationNanos, boolean failed) {
+            runs.increment();
+            nanos.add(durationNanos);
+            if (failed) {
+                fails.increment();
+            }
+        }
+
+        private double meanNanos() {
+            long runCount = runs.sum();
+            return runCount == 0 ? 0 : (double) nanos.sum() / runCount;
+        }
+
+        /**
+         * The mean time taken divided by the fail rate. Running filters in ascending order of this minimises the total
+         * time taken to find the first failed filter of each variant.
+         */
+        private double expectedCostPerFail() {
+            long failCount = fails.sum();
+            if (failCount == 0) {
+                // a filter which never fails can't save running any others so should be run last
+                return Double.MAX_VALUE;
+            }
+            return meanNanos() * runs.sum() / failCount;
+        }
+    }
+}
@@ -24,6 +24,8 @@
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisServiceProvider;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.VcfReaderFactory;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
 import org.monarchinitiative.exomiser.core.phenotype.service.OntologyService;
 import org.monarchinitiative.exomiser.core.prioritisers.PriorityFactory;
 import org.slf4j.Logger;
@@ -49,12 +51,49 @@ public class AnalysisFactory {
     private final GenomeAnalysisServiceProvider genomeAnalysisServiceProvider;
     private final PriorityFactory priorityFactory;
     private final OntologyService ontologyService;
+    private final AnalysisMetrics analysisMetrics;
+    private final VcfReaderFactory vcfReaderFactory;
+    private final AnnotatedSampleStore annotatedSampleStore;
 
-    @Autowired
     public AnalysisFactory(GenomeAnalysisServiceProvider genomeAnalysisServiceProvider, PriorityFactory priorityFactory, OntologyService ontologyService) {
+        this(genomeAnalysisServiceProvider, priorityFactory, ontologyService, AnalysisMetrics.noOp());
+    }
+
+    /**
+     * @param analysisMetrics the {@link AnalysisMetrics} to which the {@link AnalysisRunner} will report the time spent
+     *                        in each stage of the analysis
+     * @since 13.1.0
+     */
+    public AnalysisFactory(GenomeAnalysisServiceProvider genomeAnalysisServiceProvider, PriorityFactory priorityFactory, OntologyService ontologyService, AnalysisMetrics analysisMetrics) {
+        this(genomeAnalysisServiceProvider, priorityFactory, ontologyService, analysisMetrics, VcfReaderFactory.sequential());
+    }
+
+    /**
+     * @param analysisMetrics  the {@link AnalysisMetrics} to which the {@link AnalysisRunner} will report the time spent
+     *                         in each stage of the analysis
+     * @param vcfReaderFactory the {@link VcfReaderFactory} used by the {@link AnalysisRunner} to read the sample VCF
+     * @since 13.1.0
+     */
+    public AnalysisFactory(GenomeAnalysisServiceProvider genomeAnalysisServiceProvider, PriorityFactory priorityFactory, OntologyService ontologyService, AnalysisMetrics analysisMetrics, VcfReaderFactory vcfReaderFactory) {
+        this(genomeAnalysisServiceProvider, priorityFactory, ontologyService, analysisMetrics, vcfReaderFactory, AnnotatedSampleStore.disabled());
+    }
+
+    /**
+     * @param analysisMetrics      the {@link AnalysisMetrics} to which the {@link AnalysisRunner} will report the time
+     *                             spent in each stage of the analysis
+     * @param vcfReaderFactory     the {@link VcfReaderFactory} used by the {@link AnalysisRunner} to read the sample VCF
+     * @param annotatedSampleStore the {@link AnnotatedSampleStore} used by the {@link AnalysisRunner} to save and re-use
+     *                             the annotated and filtered variants of a sample
+     * @since 13.1.0
+     */
+    @Autowired
+    public AnalysisFactory(GenomeAnalysisServiceProvider genomeAnalysisServiceProvider, PriorityFactory priorityFactory, OntologyService ontologyService, AnalysisMetrics analysisMetrics, VcfReaderFactory vcfReaderFactory, AnnotatedSampleStore annotatedSampleStore) {
         this.genomeAnalysisServiceProvider = genomeAnalysisServiceProvider;
         this.priorityFactory = priorityFactory;
         this.ontologyService = ontologyService;
+        this.analysisMetrics = analysisMetrics;
+        this.vcfReaderFactory = vcfReaderFactory;
+        this.annotatedSampleStore = annotatedSampleStore;
     }
 
     public AnalysisRunner getAnalysisRunner(GenomeAssembly genomeAssembly, AnalysisMode analysisMode) {
@@ -65,11 +104,11 @@ public AnalysisRunner getAnalysisRunner(GenomeAssembly genomeAssembly, AnalysisM
 
         switch (analysisMode) {
             case FULL:
-                return new SimpleAnalysisRunner(genomeAnalysisService);
+                return new SimpleAnalysisRunner(genomeAnalysisService, analysisMetrics, vcfReaderFactory, annotatedSampleStore);
             case PASS_ONLY:
             default:
                 //this guy takes up the least RAM
-                return new PassOnlyAnalysisRunner(genomeAnalysisService);
+                return new PassOnlyAnalysisRunner(genomeAnalysisService, analysisMetrics, vcfReaderFactory, annotatedSampleStore);
         }
     }
 
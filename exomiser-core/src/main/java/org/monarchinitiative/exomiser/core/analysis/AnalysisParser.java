@@ -25,6 +25,7 @@
 import de.charite.compbio.jannovar.annotation.VariantEffect;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
 import de.charite.compbio.jannovar.mendel.SubModeOfInheritance;
+import org.apache.arrow.vector.compression.CompressionUtil;
 import org.monarchinitiative.exomiser.api.v1.JobProto;
 import org.monarchinitiative.exomiser.core.analysis.sample.Sample;
 import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeOptions;
@@ -235,6 +236,9 @@ public OutputSettings construct(Map analysisMap) {
                     .minExomiserGeneScore(parseMinExomiserScore(analysisMap))
                     .outputPrefix(parseOutputPrefix(analysisMap))
                     .outputFormats(parseOutputFormats(analysisMap))
+                    .vcfMaxRecordsInRam(parseVcfMaxRecordsInRam(analysisMap))
+                    .arrowCompression(parseArrowCompression(analysisMap))
+                    .htmlMaxGenes(parseHtmlMaxGenes(analysisMap))
                     .build();
         }
 
@@ -268,6 +272,30 @@ private int parseNumberOfGenesToShow(Map<String, Integer> analysisMap) {
             return genesToShow;
         }
 
+        private int parseVcfMaxRecordsInRam(Map<String, Integer> analysisMap) {
+            Integer vcfMaxRecordsInRam = analysisMap.get("vcfMaxRecordsInRam");
+            if (vcfMaxRecordsInRam == null) {
+                vcfMaxRecordsInRam = OutputSettings.defaults().getVcfMaxRecordsInRam();
+            }
+            return vcfMaxRecordsInRam;
+        }
+
+        private int parseHtmlMaxGenes(Map<String, Integer> analysisMap) {
+            Integer htmlMaxGenes = analysisMap.get("htmlMaxGenes");
+            if (htmlMaxGenes == null) {
+                htmlMaxGenes = 0;
+            }
+            return htmlMaxGenes;
+        }
+
+        private CompressionUtil.CodecType parseArrowCompression(Map<String, String> analysisMap) {
+            String arrowCompression = analysisMap.get("arrowCompression");
+            if (arrowCompression == null) {
+                return OutputSettings.defaults().getArrowCompression();
+            }
+            return CompressionUtil.CodecType.valueOf(arrowCompression);
+        }
+
         private float parseMinExomiserScore(Map<String, Float> analysisMap) {
             Float minExomiserGeneScore = analysisMap.get("minExomiserGeneScore");
             if (minExomiserGeneScore == null) {
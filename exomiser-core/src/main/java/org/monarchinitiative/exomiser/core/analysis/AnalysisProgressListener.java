@@ -0,0 +1,59 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+/**
+ * Callback for reporting the progress of an {@link AnalysisRunner} whilst it streams variants from the sample VCF.
+ * Implementations are called from the analysis thread so should return quickly. Throwing an unchecked exception from
+ * the callback will abort the analysis, which can be used to enforce limits such as a maximum number of variants
+ * without having to read the VCF file twice.
+ *
+ * @since 13.1.0
+ */
+@FunctionalInterface
+public interface AnalysisProgressListener {
+
+    /**
+     * Called periodically during, and once at the end of, variant loading.
+     *
+     * @param loaded the number of variants read from the VCF so far. This includes the records which were skipped
+     *               without being loaded as the proband has no ALT allele.
+     * @param passed the number of variants passing the variant filters so far
+     */
+    void variantsLoaded(int loaded, int passed);
+
+    /**
+     * The {@link #variantsLoaded(int, int)} callback is also made as soon as the number of read variants exceeds this
+     * limit, rather than at the next periodic update, so that a limit can be enforced from the running count of the
+     * analysis. Skipped records are only added to the count when the next variant is loaded, so the count can overshoot
+     * the limit.
+     *
+     * @return the maximum number of variants the listener expects to be read. Defaults to no limit.
+     */
+    default int variantLimit() {
+        return Integer.MAX_VALUE;
+    }
+
+    static AnalysisProgressListener noOp() {
+        return (loaded, passed) -> {
+        };
+    }
+}
@@ -32,6 +32,7 @@
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.GeneScore;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.writers.VariantEffectCount;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -58,6 +59,8 @@ public class AnalysisResults {
     private final List<Gene> genes;
     @JsonIgnore
     private final List<VariantEvaluation> variantEvaluations;
+    @JsonIgnore
+    private final List<VariantEffectCount> variantEffectCounts;
 
     public AnalysisResults(Builder builder) {
         this.sample = builder.sample;
@@ -67,6 +70,7 @@ public AnalysisResults(Builder builder) {
 
         this.genes = builder.genes;
         this.variantEvaluations = builder.variantEvaluations;
+        this.variantEffectCounts = builder.variantEffectCounts;
     }
 
     /**
@@ -130,6 +134,19 @@ public List<VariantEvaluation> getVariantEvaluations() {
         return variantEvaluations;
     }
 
+    /**
+     * The number of variants of each {@link de.charite.compbio.jannovar.annotation.VariantEffect} per sample in the
+     * final list of variants, i.e. those returned by {@link #getVariantEvaluations()}. These are counted while the
+     * final list of variants is built, which saves traversing all the variants again when writing the results.
+     *
+     * @return the variant effect counts for each sample, or an empty list if these were not counted during the analysis.
+     * @since 13.1.0
+     */
+    @JsonIgnore
+    public List<VariantEffectCount> getVariantEffectCounts() {
+        return variantEffectCounts;
+    }
+
     /**
      * Returns a list of {@link GeneScore} objects computed from the gene results. These {@link GeneScore} will be ranked
      * by the combined score and will contain the results for all {@link ModeOfInheritance}. The {@link GeneScore} objects
@@ -205,6 +222,26 @@ private Stream<GeneScore> sortedGeneScoresWithContributingVariantsForMode(ModeOf
                 .sorted();
     }
 
+    /**
+     * Returns a read-only view of these results with the genes ranked by their {@link GeneScore} for the given
+     * {@link ModeOfInheritance}. The genes of this instance are left in their original order, so views for different
+     * modes can be used concurrently, for instance when writing the results for each mode in parallel.
+     *
+     * @param modeOfInheritance the {@link ModeOfInheritance} by which the genes should be ranked
+     * @return an {@link AnalysisResults} sharing the data of this instance, with the genes ranked for the given mode
+     * @since 13.1.0
+     */
+    public AnalysisResults rankedForInheritanceMode(ModeOfInheritance modeOfInheritance) {
+        return AnalysisResults.builder()
+                .sample(sample)
+                .analysis(analysis)
+                .sampleNames(sampleNames)
+                .variantEvaluations(variantEvaluations)
+                .variantEffectCounts(variantEffectCounts)
+                .genes(InheritanceModeRankedGenes.of(genes, modeOfInheritance))
+                .build();
+    }
+
     @JsonIgnore
     public List<VariantEvaluation> getUnAnnotatedVariantEvaluations() {
         return variantEvaluations.stream().filter(varEval -> !varEval.hasTranscriptAnnotations()).collect(toList());
@@ -249,7 +286,7 @@ public static class Builder {
 
         private List<VariantEvaluation> variantEvaluations = Collections.emptyList();
         private List<Gene> genes = Collections.emptyList();
-
+        private List<VariantEffectCount> variantEffectCounts = Collections.emptyList();
 
         public Builder sample(Sample sample) {
             this.sample = Objects.requireNonNull(sample);
@@ -276,6 +313,14 @@ public Builder genes(List<Gene> geneList) {
             return this;
         }
 
+        /**
+         * @since 13.1.0
+         */
+        public Builder variantEffectCounts(List<VariantEffectCount> variantEffectCounts) {
+            this.variantEffectCounts = Objects.requireNonNull(variantEffectCounts);
+            return this;
+        }
+
         public AnalysisResults build() {
             return new AnalysisResults(this);
         }
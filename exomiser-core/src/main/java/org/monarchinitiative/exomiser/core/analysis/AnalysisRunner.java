@@ -35,4 +35,15 @@ public interface AnalysisRunner {
      * @since 13.0.0
      */
     public AnalysisResults run(Sample sample, Analysis analysis);
+
+    /**
+     * @param sample           The {@link Sample} data detailing the phenotypes and genome source data.
+     * @param analysis         The {@link Analysis} settings to be run on the {@link Sample}
+     * @param progressListener The {@link AnalysisProgressListener} to be notified as variants are loaded
+     * @return The results of the {@link Analysis} having been run on the {@link Sample}
+     * @since 13.1.0
+     */
+    public default AnalysisResults run(Sample sample, Analysis analysis, AnalysisProgressListener progressListener) {
+        return run(sample, analysis);
+    }
 }
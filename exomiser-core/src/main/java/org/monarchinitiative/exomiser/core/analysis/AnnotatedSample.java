@@ -0,0 +1,81 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The annotated and filtered variants of a sample, as collected from the VCF file by the first group of variant filters
+ * of an analysis, together with the counts needed to report on the analysis without reading the VCF again. These are
+ * persisted by the {@link AnnotatedSampleStore} so that re-analyses of the sample using different phenotypes or
+ * prioritisers can skip straight to the prioritisation and scoring.
+ *
+ * @since 13.1.0
+ */
+final class AnnotatedSample {
+
+    private final int loadedVariantCount;
+    private final long skippedRecordCount;
+    private final List<FilterStats.FilterCount> filterCounts;
+    private final List<VariantEvaluation> variantEvaluations;
+
+    AnnotatedSample(int loadedVariantCount, long skippedRecordCount, List<FilterStats.FilterCount> filterCounts, List<VariantEvaluation> variantEvaluations) {
+        this.loadedVariantCount = loadedVariantCount;
+        this.skippedRecordCount = skippedRecordCount;
+        this.filterCounts = List.copyOf(filterCounts);
+        this.variantEvaluations = Objects.requireNonNull(variantEvaluations);
+    }
+
+    /**
+     * @return the number of variants loaded from the VCF file, before filtering
+     */
+    int getLoadedVariantCount() {
+        return loadedVariantCount;
+    }
+
+    /**
+     * @return the number of VCF records which were skipped as they were not called in the proband
+     */
+    long getSkippedRecordCount() {
+        return skippedRecordCount;
+    }
+
+    List<FilterStats.FilterCount> getFilterCounts() {
+        return filterCounts;
+    }
+
+    List<VariantEvaluation> getVariantEvaluations() {
+        return variantEvaluations;
+    }
+
+    @Override
+    public String toString() {
+        return "AnnotatedSample{" +
+                "loadedVariantCount=" + loadedVariantCount +
+                ", skippedRecordCount=" + skippedRecordCount +
+                ", filterCounts=" + filterCounts +
+                ", variantEvaluations=" + variantEvaluations.size() +
+                '}';
+    }
+}
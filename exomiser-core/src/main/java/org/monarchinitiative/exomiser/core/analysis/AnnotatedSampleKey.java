@@ -0,0 +1,147 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import org.monarchinitiative.exomiser.core.filters.VariantFilter;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.VcfFiles;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Identifies an {@link AnnotatedSample} by the VCF file and the analysis settings which determine the
+ * variants loaded from it, i.e. the proband, the analysis mode, the main prioritiser, used to re-assign non-coding
+ * variants to genes, the frequency and pathogenicity sources and the variant filters of the first group of steps. The
+ * HPO terms and the prioritisers are deliberately not part of the key.
+ * <p>
+ * The VCF file is identified by its absolute path, size, last modified time and a digest of its header lines, rather
+ * than a checksum of the whole file, so that looking up a large VCF file does not require reading all of it.
+ *
+ * @since 13.1.0
+ */
+final class AnnotatedSampleKey {
+
+    private final Path vcfPath;
+    private final GenomeAssembly genomeAssembly;
+    private final String settings;
+
+    private String vcfFingerprint;
+
+    private AnnotatedSampleKey(Path vcfPath, GenomeAssembly genomeAssembly, String settings) {
+        this.vcfPath = Objects.requireNonNull(vcfPath);
+        this.genomeAssembly = Objects.requireNonNull(genomeAssembly);
+        this.settings = settings;
+    }
+
+    static AnnotatedSampleKey of(Path vcfPath, GenomeAssembly genomeAssembly, String probandIdentifier, Analysis analysis, List<VariantFilter> variantFilters) {
+        String settings = "proband=" + probandIdentifier +
+                "\nanalysisMode=" + analysis.getAnalysisMode() +
+                "\nmainPrioritiserType=" + analysis.getMainPrioritiserType() +
+                "\nfrequencySources=" + sortedNames(analysis.getFrequencySources()) +
+                "\npathogenicitySources=" + sortedNames(analysis.getPathogenicitySources()) +
+                "\nvariantFilters=" + variantFilters.stream().map(Object::toString).collect(joining("\n"));
+        return new AnnotatedSampleKey(vcfPath, genomeAssembly, settings);
+    }
+
+    private static String sortedNames(Collection<? extends Enum<?>> values) {
+        return values.stream().map(Enum::name).sorted().collect(joining(","));
+    }
+
+    Path getVcfPath() {
+        return vcfPath;
+    }
+
+    GenomeAssembly getGenomeAssembly() {
+        return genomeAssembly;
+    }
+
+    String getSettings() {
+        return settings;
+    }
+
+    /**
+     * @return the absolute path, size, last modified time and header digest of the VCF file. This is calculated when
+     * first called.
+     */
+    String getVcfFingerprint() {
+        if (vcfFingerprint == null) {
+            vcfFingerprint = fingerprint(vcfPath);
+        }
+        return vcfFingerprint;
+    }
+
+    private static String fingerprint(Path path) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read VCF file " + path, e);
+        }
+        MessageDigest messageDigest = newSha256Digest();
+        for (String headerLine : VcfFiles.readHeaderLines(path)) {
+            messageDigest.update(headerLine.getBytes(StandardCharsets.UTF_8));
+            messageDigest.update((byte) '\n');
+        }
+        return path.toAbsolutePath().normalize() +
+                "\nsize=" + attributes.size() +
+                "\nlastModified=" + attributes.lastModifiedTime().toMillis() +
+                "\nheader=" + toHex(messageDigest.digest());
+    }
+
+    static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // all Java platforms are required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder stringBuilder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            stringBuilder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            stringBuilder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "AnnotatedSampleKey{" +
+                "vcfPath=" + vcfPath +
+                ", genomeAssembly=" + genomeAssembly +
+                ", settings='" + settings + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import de.charite.compbio.jannovar.annotation.VariantEffect;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.writer.VCFEncoder;
+import htsjdk.variant.vcf.VCFCodec;
+import org.monarchinitiative.exomiser.core.filters.FilterResult;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.VariantContextConverter;
+import org.monarchinitiative.exomiser.core.genome.VariantContextSampleGenotypeConverter;
+import org.monarchinitiative.exomiser.core.genome.VcfFiles;
+import org.monarchinitiative.exomiser.core.model.SampleIndex;
+import org.monarchinitiative.exomiser.core.model.TranscriptAnnotation;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.ClinVarData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityScore;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
+import org.monarchinitiative.exomiser.core.proto.AnnotatedSampleProto.AnnotatedSampleHeader;
+import org.monarchinitiative.exomiser.core.proto.AnnotatedSampleProto.AnnotatedVariant;
+import org.monarchinitiative.svart.Variant;
+import org.monarchinitiative.svart.util.VariantTrimmer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+
+/**
+ * Reads and writes an {@link AnnotatedSample} as a stream of length-delimited protobuf messages, as defined in
+ * annotated_sample.proto. The variant coordinates and sample genotypes are not stored, instead the original VCF record
+ * of each variant is stored and these are re-created from the record when read, in the same way as by the
+ * {@link org.monarchinitiative.exomiser.core.genome.VariantFactory}. The expensive parts, the transcript annotations,
+ * the frequency and pathogenicity data and the filter results, are stored as is.
+ *
+ * @since 13.1.0
+ */
+final class AnnotatedSampleProtoSerialiser {
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final byte[] MAGIC_BYTES = {'E', 'A', 'S', 'P'};
+
+    private AnnotatedSampleProtoSerialiser() {
+        //un-instantiable utility class
+    }
+
+    static void write(OutputStream outputStream, AnnotatedSample annotatedSample, GenomeAssembly genomeAssembly, List<String> vcfHeaderLines) throws IOException {
+        outputStream.write(MAGIC_BYTES);
+        List<VariantEvaluation> variantEvaluations = annotatedSample.getVariantEvaluations();
+        AnnotatedSampleHeader.newBuilder()
+                .setFormatVersion(FORMAT_VERSION)
+                .setGenomeAssembly(genomeAssembly.name())
+                .addAllVcfHeaderLines(vcfHeaderLines)
+                .setLoadedVariantCount(annotatedSample.getLoadedVariantCount())
+                .setSkippedRecordCount(annotatedSample.getSkippedRecordCount())
+                .addAllFilterCounts(toProtoFilterCounts(annotatedSample.getFilterCounts()))
+                .setVariantCount(variantEvaluations.size())
+                .build()
+                .writeDelimitedTo(outputStream);
+
+        VCFEncoder vcfEncoder = new VCFEncoder(VcfFiles.createVcfCodec(vcfHeaderLines).getHeader(), true, false);
+        VariantContext previousVariantContext = null;
+        for (VariantEvaluation variantEvaluation : variantEvaluations) {
+            VariantContext variantContext = variantEvaluation.getVariantContext();
+            // multi-allelic records and variants overlapping several genes share the same record
+            String vcfRecord = variantContext == previousVariantContext ? "" : vcfEncoder.encode(variantContext);
+            toProto(variantEvaluation, vcfRecord).writeDelimitedTo(outputStream);
+            previousVariantContext = variantContext;
+        }
+    }
+
+    private static List<AnnotatedSampleHeader.FilterCount> toProtoFilterCounts(List<FilterStats.FilterCount> filterCounts) {
+        List<AnnotatedSampleHeader.FilterCount> protoFilterCounts = new ArrayList<>(filterCounts.size());
+        for (FilterStats.FilterCount filterCount : filterCounts) {
+            protoFilterCounts.add(AnnotatedSampleHeader.FilterCount.newBuilder()
+                    .setFilterType(filterCount.getFilterType().name())
+                    .setPassCount(filterCount.getPassCount())
+                    .setFailCount(filterCount.getFailCount())
+                    .build());
+        }
+        return protoFilterCounts;
+    }
+
+    private static AnnotatedVariant toProto(VariantEvaluation variantEvaluation, String vcfRecord) {
+        AnnotatedVariant.Builder builder = AnnotatedVariant.newBuilder()
+                .setVcfRecord(vcfRecord)
+                .setAltAlleleId(variantEvaluation.getAltAlleleId())
+                .setGeneSymbol(variantEvaluation.getGeneSymbol())
+                .setGeneId(variantEvaluation.getGeneId())
+                .setVariantEffect(variantEvaluation.getVariantEffect().name())
+                .setWhiteListed(variantEvaluation.isWhiteListed());
+
+        for (TranscriptAnnotation transcriptAnnotation : variantEvaluation.getTranscriptAnnotations()) {
+            builder.addTranscriptAnnotations(toProto(transcriptAnnotation));
+        }
+        variantEvaluation.getPassedFilterTypes().forEach(filterType -> builder.addPassedFilterTypes(filterType.name()));
+        variantEvaluation.getFailedFilterTypes().forEach(filterType -> builder.addFailedFilterTypes(filterType.name()));
+
+        FrequencyData frequencyData = variantEvaluation.getFrequencyData();
+        builder.setRsId(frequencyData.getRsId());
+        for (Frequency frequency : frequencyData.getKnownFrequencies()) {
+            builder.putFrequencies(frequency.getSource().name(), frequency.getFrequency());
+        }
+
+        PathogenicityData pathogenicityData = variantEvaluation.getPathogenicityData();
+        for (PathogenicityScore pathogenicityScore : pathogenicityData.getPredictedPathogenicityScores()) {
+            builder.putPathogenicityScores(pathogenicityScore.getSource().name(), pathogenicityScore.getRawScore());
+        }
+        if (pathogenicityData.hasClinVarData()) {
+            builder.setClinVar(toProto(pathogenicityData.getClinVarData()));
+        }
+        return builder.build();
+    }
+
+    private static AnnotatedVariant.TranscriptAnnotation toProto(TranscriptAnnotation transcriptAnnotation) {
+        return AnnotatedVariant.TranscriptAnnotation.newBuilder()
+                .setVariantEffect(transcriptAnnotation.getVariantEffect().name())
+                .setGeneSymbol(transcriptAnnotation.getGeneSymbol())
+                .setAccession(transcriptAnnotation.getAccession())
+                .setHgvsGenomic(transcriptAnnotation.getHgvsGenomic())
+                .setHgvsCdna(transcriptAnnotation.getHgvsCdna())
+                .setHgvsProtein(transcriptAnnotation.getHgvsProtein())
+                .setDistanceFromNearestGene(transcriptAnnotation.getDistanceFromNearestGene())
+                .build();
+    }
+
+    private static AnnotatedVariant.ClinVar toProto(ClinVarData clinVarData) {
+        AnnotatedVariant.ClinVar.Builder builder = AnnotatedVariant.ClinVar.newBuilder()
+                .setAlleleId(clinVarData.getAlleleId())
+                .setPrimaryInterpretation(clinVarData.getPrimaryInterpretation().name())
+                .setReviewStatus(clinVarData.getReviewStatus());
+        clinVarData.getSecondaryInterpretations().forEach(clinSig -> builder.addSecondaryInterpretations(clinSig.name()));
+        clinVarData.getIncludedAlleles().forEach((alleleId, clinSig) -> builder.putIncludedAlleles(alleleId, clinSig.name()));
+        return builder.build();
+    }
+
+    /**
+     * @throws IOException if the input is not a readable annotated sample of the current format version
+     */
+    static AnnotatedSample read(InputStream inputStream) throws IOException {
+        byte[] bytes = inputStream.readNBytes(MAGIC_BYTES.length);
+        if (!Arrays.equals(bytes, MAGIC_BYTES)) {
+            throw new IOException("Not an Exomiser annotated sample");
+        }
+        AnnotatedSampleHeader header = AnnotatedSampleHeader.parseDelimitedFrom(inputStream);
+        if (header == null) {
+            throw new EOFException("Annotated sample has no header");
+        }
+        if (header.getFormatVersion() != FORMAT_VERSION) {
+            throw new IOException("Unsupported annotated sample format version " + header.getFormatVersion());
+        }
+        GenomeAssembly genomeAssembly = GenomeAssembly.valueOf(header.getGenomeAssembly());
+        VariantContextConverter variantContextConverter = VariantContextConverter.of(genomeAssembly.genomicAssembly(), VariantTrimmer.leftShiftingTrimmer(VariantTrimmer.retainingCommonBase()));
+        VCFCodec vcfCodec = VcfFiles.createVcfCodec(header.getVcfHeaderLinesList());
+        SampleIndex sampleIndex = SampleIndex.of(vcfCodec.getHeader().getGenotypeSamples());
+
+        int variantCount = header.getVariantCount();
+        List<VariantEvaluation> variantEvaluations = new ArrayList<>(variantCount);
+        VariantContext variantContext = null;
+        for (int i = 0; i < variantCount; i++) {
+            AnnotatedVariant annotatedVariant = AnnotatedVariant.parseDelimitedFrom(inputStream);
+            if (annotatedVariant == null) {
+                throw new EOFException("Expected " + variantCount + " variants but only found " + i);
+            }
+            if (!annotatedVariant.getVcfRecord().isEmpty()) {
+                variantContext = vcfCodec.decode(annotatedVariant.getVcfRecord());
+            }
+            if (variantContext == null) {
+                throw new IOException("No VCF record for variant " + i);
+            }
+            variantEvaluations.add(toVariantEvaluation(annotatedVariant, variantContext, sampleIndex, genomeAssembly, variantContextConverter));
+        }
+        return new AnnotatedSample(header.getLoadedVariantCount(), header.getSkippedRecordCount(), toFilterCounts(header.getFilterCountsList()), variantEvaluations);
+    }
+
+    private static List<FilterStats.FilterCount> toFilterCounts(List<AnnotatedSampleHeader.FilterCount> protoFilterCounts) {
+        List<FilterStats.FilterCount> filterCounts = new ArrayList<>(protoFilterCounts.size());
+        for (AnnotatedSampleHeader.FilterCount protoFilterCount : protoFilterCounts) {
+            filterCounts.add(new FilterStats.FilterCount(FilterType.valueOf(protoFilterCount.getFilterType()), protoFilterCount.getPassCount(), protoFilterCount.getFailCount()));
+        }
+        return filterCounts;
+    }
+
+    private static VariantEvaluation toVariantEvaluation(AnnotatedVariant annotatedVariant, VariantContext variantContext, SampleIndex sampleIndex, GenomeAssembly genomeAssembly, VariantContextConverter variantContextConverter) throws IOException {
+        int altAlleleId = annotatedVariant.getAltAlleleId();
+        Allele altAllele = variantContext.getAlternateAllele(altAlleleId);
+        Variant variant = variantContextConverter.convertToVariant(variantContext, altAllele);
+        if (variant == null) {
+            throw new IOException("Unable to convert allele " + altAllele + " of VCF record " + variantContext);
+        }
+        return VariantEvaluation.builder()
+                .with(variant)
+                .genomeAssembly(genomeAssembly)
+                .variantContext(variantContext)
+                .altAlleleId(altAlleleId)
+                .id((".".equals(variantContext.getID())) ? "" : variantContext.getID())
+                .sampleGenotypes(VariantContextSampleGenotypeConverter.createAlleleSampleGenotypes(variantContext, altAlleleId, sampleIndex))
+                .quality(variantContext.getPhredScaledQual())
+                .geneSymbol(annotatedVariant.getGeneSymbol())
+                .geneId(annotatedVariant.getGeneId())
+                .variantEffect(VariantEffect.valueOf(annotatedVariant.getVariantEffect()))
+                .annotations(toTranscriptAnnotations(annotatedVariant.getTranscriptAnnotationsList()))
+                .filterResults(toFilterResults(annotatedVariant))
+                .whiteListed(annotatedVariant.getWhiteListed())
+                .frequencyData(toFrequencyData(annotatedVariant))
+                .pathogenicityData(toPathogenicityData(annotatedVariant))
+                .build();
+    }
+
+    private static List<TranscriptAnnotation> toTranscriptAnnotations(List<AnnotatedVariant.TranscriptAnnotation> protoTranscriptAnnotations) {
+        List<TranscriptAnnotation> transcriptAnnotations = new ArrayList<>(protoTranscriptAnnotations.size());
+        for (AnnotatedVariant.TranscriptAnnotation protoTranscriptAnnotation : protoTranscriptAnnotations) {
+            transcriptAnnotations.add(TranscriptAnnotation.builder()
+                    .variantEffect(VariantEffect.valueOf(protoTranscriptAnnotation.getVariantEffect()))
+                    .geneSymbol(protoTranscriptAnnotation.getGeneSymbol())
+                    .accession(protoTranscriptAnnotation.getAccession())
+                    .hgvsGenomic(protoTranscriptAnnotation.getHgvsGenomic())
+                    .hgvsCdna(protoTranscriptAnnotation.getHgvsCdna())
+                    .hgvsProtein(protoTranscriptAnnotation.getHgvsProtein())
+                    .distanceFromNearestGene(protoTranscriptAnnotation.getDistanceFromNearestGene())
+                    .build());
+        }
+        return transcriptAnnotations;
+    }
+
+    private static FilterResult[] toFilterResults(AnnotatedVariant annotatedVariant) {
+        List<FilterResult> filterResults = new ArrayList<>();
+        for (String filterType : annotatedVariant.getPassedFilterTypesList()) {
+            filterResults.add(FilterResult.pass(FilterType.valueOf(filterType)));
+        }
+        for (String filterType : annotatedVariant.getFailedFilterTypesList()) {
+            filterResults.add(FilterResult.fail(FilterType.valueOf(filterType)));
+        }
+        return filterResults.toArray(new FilterResult[0]);
+    }
+
+    private static FrequencyData toFrequencyData(AnnotatedVariant annotatedVariant) {
+        List<Frequency> frequencies = new ArrayList<>(annotatedVariant.getFrequenciesCount());
+        annotatedVariant.getFrequenciesMap().forEach((source, value) -> frequencies.add(Frequency.of(FrequencySource.valueOf(source), value)));
+        return FrequencyData.of(annotatedVariant.getRsId(), frequencies);
+    }
+
+    private static PathogenicityData toPathogenicityData(AnnotatedVariant annotatedVariant) {
+        List<PathogenicityScore> pathogenicityScores = new ArrayList<>(annotatedVariant.getPathogenicityScoresCount());
+        annotatedVariant.getPathogenicityScoresMap().forEach((source, score) -> pathogenicityScores.add(PathogenicityScore.of(PathogenicitySource.valueOf(source), score)));
+        ClinVarData clinVarData = annotatedVariant.hasClinVar() ? toClinVarData(annotatedVariant.getClinVar()) : ClinVarData.empty();
+        if (pathogenicityScores.isEmpty() && clinVarData.isEmpty()) {
+            return PathogenicityData.empty();
+        }
+        return PathogenicityData.of(clinVarData, pathogenicityScores);
+    }
+
+    private static ClinVarData toClinVarData(AnnotatedVariant.ClinVar protoClinVar) {
+        Set<ClinVarData.ClinSig> secondaryInterpretations = EnumSet.noneOf(ClinVarData.ClinSig.class);
+        protoClinVar.getSecondaryInterpretationsList().forEach(clinSig -> secondaryInterpretations.add(ClinVarData.ClinSig.valueOf(clinSig)));
+        Map<String, ClinVarData.ClinSig> includedAlleles = new HashMap<>(protoClinVar.getIncludedAllelesCount());
+        protoClinVar.getIncludedAllelesMap().forEach((alleleId, clinSig) -> includedAlleles.put(alleleId, ClinVarData.ClinSig.valueOf(clinSig)));
+        return ClinVarData.builder()
+                .alleleId(protoClinVar.getAlleleId())
+                .primaryInterpretation(ClinVarData.ClinSig.valueOf(protoClinVar.getPrimaryInterpretation()))
+                .secondaryInterpretations(secondaryInterpretations)
+                .reviewStatus(protoClinVar.getReviewStatus())
+                .includedAlleles(includedAlleles)
+                .build();
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import org.monarchinitiative.exomiser.core.genome.VcfFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persists the {@link AnnotatedSample} of an analysis so that a re-analysis of the same VCF file with the same variant
+ * filters, but with different phenotypes or prioritisers, can skip the reading, annotation and filtering of the
+ * variants. Each annotated sample is stored in its own file in the store directory, named after a SHA-256 digest of the
+ * data version, the VCF file fingerprint and the variant filter settings, so any change to these will result in a new
+ * file.
+ * <p>
+ * The store holds at most {@code maxEntries} annotated samples. Loading an annotated sample updates the last modified
+ * time of its file and, after saving a new one, the least recently used files are deleted until the store is within
+ * this limit. Files written with a previous data version are therefore removed once they have not been used for
+ * {@code maxEntries} saves.
+ * <p>
+ * Failing to read or write an annotated sample is logged and treated as a cache miss rather than failing the analysis.
+ *
+ * @since 13.1.0
+ */
+public final class AnnotatedSampleStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnnotatedSampleStore.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 100;
+
+    private static final AnnotatedSampleStore DISABLED = new AnnotatedSampleStore(null, "", 0);
+
+    private static final String FILE_EXTENSION = ".pb.gz";
+
+    @Nullable
+    private final Path directory;
+    private final String dataVersion;
+    private final int maxEntries;
+
+    private AnnotatedSampleStore(@Nullable Path directory, String dataVersion, int maxEntries) {
+        this.directory = directory;
+        this.dataVersion = dataVersion;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return a store which never loads or saves an annotated sample
+     */
+    public static AnnotatedSampleStore disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @param directory   directory in which to store the annotated samples. This will be created if it does not exist.
+     * @param dataVersion the version of the genome data used to annotate the variants e.g. hg19_2109_ensembl. Annotated
+     *                    samples stored with another data version will not be loaded.
+     * @return a store for annotated samples in the given directory
+     */
+    public static AnnotatedSampleStore of(Path directory, String dataVersion) {
+        return of(directory, dataVersion, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param directory   directory in which to store the annotated samples. This will be created if it does not exist.
+     * @param dataVersion the version of the genome data used to annotate the variants e.g. hg19_2109_ensembl. Annotated
+     *                    samples stored with another data version will not be loaded.
+     * @param maxEntries  the maximum number of annotated samples to keep in the directory
+     * @return a store for annotated samples in the given directory
+     */
+    public static AnnotatedSampleStore of(Path directory, String dataVersion, int maxEntries) {
+        Objects.requireNonNull(directory, "directory cannot be null");
+        Objects.requireNonNull(dataVersion, "dataVersion cannot be null");
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be greater than 0, but was " + maxEntries);
+        }
+        return new AnnotatedSampleStore(directory, dataVersion, maxEntries);
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    Optional<AnnotatedSample> load(AnnotatedSampleKey annotatedSampleKey) {
+        if (directory == null) {
+            return Optional.empty();
+        }
+        Path annotatedSamplePath;
+        try {
+            annotatedSamplePath = annotatedSamplePath(annotatedSampleKey);
+        } catch (UncheckedIOException e) {
+            logger.warn("Unable to calculate annotated sample key for {}", annotatedSampleKey.getVcfPath(), e);
+            return Optional.empty();
+        }
+        if (!Files.isRegularFile(annotatedSamplePath)) {
+            logger.info("No annotated sample found for {} in {}", annotatedSampleKey.getVcfPath(), directory);
+            return Optional.empty();
+        }
+        logger.info("Loading annotated sample for {} from {}", annotatedSampleKey.getVcfPath(), annotatedSamplePath);
+        Instant start = Instant.now();
+        try (InputStream inputStream = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(annotatedSamplePath)))) {
+            AnnotatedSample annotatedSample = AnnotatedSampleProtoSerialiser.read(inputStream);
+            logger.info("Loaded {} annotated variants in {} ms", annotatedSample.getVariantEvaluations().size(), Duration.between(start, Instant.now()).toMillis());
+            markUsed(annotatedSamplePath);
+            return Optional.of(annotatedSample);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to read annotated sample {} - the variants will be re-annotated", annotatedSamplePath, e);
+            return Optional.empty();
+        }
+    }
+
+    void save(AnnotatedSampleKey annotatedSampleKey, AnnotatedSample annotatedSample) {
+        if (directory == null) {
+            return;
+        }
+        Path tempFile = null;
+        try {
+            Path annotatedSamplePath = annotatedSamplePath(annotatedSampleKey);
+            Files.createDirectories(directory);
+            // write to a temporary file first so that a concurrent analysis never sees a partially written file
+            tempFile = Files.createTempFile(directory, "annotated-sample", ".tmp");
+            try (OutputStream outputStream = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                AnnotatedSampleProtoSerialiser.write(outputStream, annotatedSample, annotatedSampleKey.getGenomeAssembly(), VcfFiles.readHeaderLines(annotatedSampleKey.getVcfPath()));
+            }
+            Files.move(tempFile, annotatedSamplePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved annotated sample with {} variants to {}", annotatedSample.getVariantEvaluations().size(), annotatedSamplePath);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to save annotated sample for {} to {}", annotatedSampleKey.getVcfPath(), directory, e);
+            deleteQuietly(tempFile);
+            return;
+        }
+        removeLeastRecentlyUsed(directory);
+    }
+
+    private static void markUsed(Path annotatedSamplePath) {
+        try {
+            Files.setLastModifiedTime(annotatedSamplePath, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            logger.debug("Unable to update last modified time of {}", annotatedSamplePath, e);
+        }
+    }
+
+    private void removeLeastRecentlyUsed(Path directory) {
+        List<StoredFile> storedFiles = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(FILE_EXTENSION))
+                    .forEach(path -> lastModifiedTime(path).ifPresent(time -> storedFiles.add(new StoredFile(path, time))));
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Unable to list annotated samples in {}", directory, e);
+            return;
+        }
+        if (storedFiles.size() <= maxEntries) {
+            return;
+        }
+        storedFiles.sort(Comparator.comparing(StoredFile::getLastModifiedTime).reversed());
+        List<StoredFile> leastRecentlyUsed = storedFiles.subList(maxEntries, storedFiles.size());
+        logger.info("Removing {} least recently used annotated samples from {}", leastRecentlyUsed.size(), directory);
+        leastRecentlyUsed.forEach(storedFile -> deleteQuietly(storedFile.getPath()));
+    }
+
+    private static Optional<FileTime> lastModifiedTime(Path path) {
+        try {
+            return Optional.of(Files.getLastModifiedTime(path));
+        } catch (IOException e) {
+            // most likely removed by another analysis
+            logger.debug("Unable to read last modified time of {}", path, e);
+            return Optional.empty();
+        }
+    }
+
+    private static final class StoredFile {
+
+        private final Path path;
+        private final FileTime lastModifiedTime;
+
+        private StoredFile(Path path, FileTime lastModifiedTime) {
+            this.path = path;
+            this.lastModifiedTime = lastModifiedTime;
+        }
+
+        Path getPath() {
+            return path;
+        }
+
+        FileTime getLastModifiedTime() {
+            return lastModifiedTime;
+        }
+    }
+
+    private static void deleteQuietly(@Nullable Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Unable to delete {}", path, e);
+        }
+    }
+
+    Path annotatedSamplePath(AnnotatedSampleKey annotatedSampleKey) {
+        Objects.requireNonNull(directory, "Annotated sample store is disabled");
+        MessageDigest messageDigest = AnnotatedSampleKey.newSha256Digest();
+        String identity = AnnotatedSampleProtoSerialiser.FORMAT_VERSION +
+                "\n" + dataVersion +
+                "\n" + annotatedSampleKey.getGenomeAssembly() +
+                "\n" + annotatedSampleKey.getVcfFingerprint() +
+                "\n" + annotatedSampleKey.getSettings();
+        byte[] digest = messageDigest.digest(identity.getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(AnnotatedSampleKey.toHex(digest) + FILE_EXTENSION);
+    }
+
+    @Override
+    public String toString() {
+        return "AnnotatedSampleStore{" +
+                "directory=" + directory +
+                ", dataVersion='" + dataVersion + '\'' +
+                ", maxEntries=" + maxEntries +
+                '}';
+    }
+}
@@ -24,39 +24,85 @@
 import org.monarchinitiative.exomiser.core.filters.FilterType;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
+ * Counts the filter results of an analysis. This is lock-free so that it can be shared by the threads filtering a
+ * parallel stream of variants. There is a counter for every {@link FilterType} created up-front, so the map of counters
+ * is never modified after construction.
+ *
  * @since 12.0.0
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
 class FilterStats {
 
     private final Map<FilterType, FilterCounter> filterCounters = new EnumMap<>(FilterType.class);
-    // filtersRun requires an ordered map.
-    private final Set<FilterType> filtersRun = new LinkedHashSet<>();
+    // filtersRun records the order in which the filters were first run
+    private final Queue<FilterType> filtersRun = new ConcurrentLinkedQueue<>();
+    private volatile List<FilterType> variantFilterOrder = List.of();
 
-    public synchronized void addResult(FilterResult result) {
-        FilterType filterType = result.getFilterType();
-        filtersRun.add(filterType);
+    FilterStats() {
+        for (FilterType filterType : FilterType.values()) {
+            filterCounters.put(filterType, new FilterCounter());
+        }
+    }
 
-        FilterCounter counter = filterCounters.getOrDefault(filterType, new FilterCounter());
+    public void addResult(FilterResult result) {
+        FilterType filterType = result.getFilterType();
+        FilterCounter counter = markRun(filterType);
         if (result.passed()) {
-            counter.passCount++;
+            counter.passCount.increment();
         } else if (result.failed()) {
-            counter.failCount++;
+            counter.failCount.increment();
+        }
+    }
+
+    private FilterCounter markRun(FilterType filterType) {
+        FilterCounter counter = filterCounters.get(filterType);
+        if (!counter.run.get() && counter.run.compareAndSet(false, true)) {
+            filtersRun.add(filterType);
         }
-        filterCounters.put(filterType, counter);
+        return counter;
+    }
+
+    /**
+     * Adds the counts of a previous run of a filter, for example those stored in an {@link AnnotatedSample}.
+     *
+     * @since 13.1.0
+     */
+    public void addFilterCount(FilterCount filterCount) {
+        FilterCounter counter = markRun(filterCount.getFilterType());
+        counter.passCount.add(filterCount.getPassCount());
+        counter.failCount.add(filterCount.getFailCount());
+    }
+
+    /**
+     * Records the order in which the variant filters were run, where this was changed from that of the analysis by the
+     * {@link AdaptiveVariantFilterScheduler}.
+     *
+     * @since 13.1.0
+     */
+    public void setVariantFilterOrder(List<FilterType> variantFilterOrder) {
+        this.variantFilterOrder = List.copyOf(variantFilterOrder);
+    }
+
+    /**
+     * @return the order in which the variant filters were run, or an empty list if this was the order of the analysis.
+     * @since 13.1.0
+     */
+    public List<FilterType> getVariantFilterOrder() {
+        return variantFilterOrder;
     }
 
     public int getPassCountForFilter(FilterType filterType) {
-        FilterCounter filterCounter = filterCounters.get(filterType);
-        return filterCounter == null ? 0 : filterCounter.getPassCount();
+        return filterCounters.get(filterType).getPassCount();
     }
 
     public int getFailCountForFilter(FilterType filterType) {
-        FilterCounter filterCounter = filterCounters.get(filterType);
-        return filterCounter == null ? 0 : filterCounter.getFailCount();
+        return filterCounters.get(filterType).getFailCount();
     }
 
     public List<FilterType> getFilters() {
@@ -89,9 +135,13 @@ public static class FilterCount {
         private final int failCount;
 
         private FilterCount(FilterType filterType, FilterCounter filterCounter) {
+            this(filterType, filterCounter.getPassCount(), filterCounter.getFailCount());
+        }
+
+        FilterCount(FilterType filterType, int passCount, int failCount) {
             this.filterType = filterType;
-            this.passCount = filterCounter.passCount;
-            this.failCount = filterCounter.failCount;
+            this.passCount = passCount;
+            this.failCount = failCount;
         }
 
         public FilterType getFilterType() {
@@ -132,15 +182,16 @@ public String toString() {
     }
 
     private static class FilterCounter {
-        int passCount = 0;
-        int failCount = 0;
+        final AtomicBoolean run = new AtomicBoolean();
+        final LongAdder passCount = new LongAdder();
+        final LongAdder failCount = new LongAdder();
 
         int getPassCount() {
-            return passCount;
+            return passCount.intValue();
         }
 
         int getFailCount() {
-            return failCount;
+            return failCount.intValue();
         }
     }
 
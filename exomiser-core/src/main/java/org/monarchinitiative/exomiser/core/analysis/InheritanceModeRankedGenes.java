@@ -0,0 +1,77 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.GeneScore;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of a list of {@link Gene} ranked according to their {@link GeneScore} for a given
+ * {@link ModeOfInheritance}. The underlying list is not modified, only an index permutation is stored, so any number
+ * of these can be used concurrently over the same genes. This ranking is identical to sorting the genes with
+ * {@link Gene#comparingScoreForInheritanceMode(ModeOfInheritance)}.
+ *
+ * @since 13.1.0
+ */
+final class InheritanceModeRankedGenes extends AbstractList<Gene> implements RandomAccess {
+
+    private final Gene[] genes;
+    private final int[] ranking;
+
+    private InheritanceModeRankedGenes(Gene[] genes, int[] ranking) {
+        this.genes = genes;
+        this.ranking = ranking;
+    }
+
+    static InheritanceModeRankedGenes of(List<Gene> genes, ModeOfInheritance modeOfInheritance) {
+        Gene[] geneArray = genes.toArray(new Gene[0]);
+        // Gene.getGeneScoreForMode creates an empty score for incompatible modes, so look these up once rather
+        // than on every comparison
+        GeneScore[] scores = new GeneScore[geneArray.length];
+        Integer[] order = new Integer[geneArray.length];
+        for (int i = 0; i < geneArray.length; i++) {
+            scores[i] = geneArray[i].getGeneScoreForMode(modeOfInheritance);
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> GeneScore.compare(scores[i], scores[j]));
+        int[] ranking = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ranking[i] = order[i];
+        }
+        return new InheritanceModeRankedGenes(geneArray, ranking);
+    }
+
+    @Override
+    public Gene get(int index) {
+        return genes[ranking[index]];
+    }
+
+    @Override
+    public int size() {
+        return ranking.length;
+    }
+}
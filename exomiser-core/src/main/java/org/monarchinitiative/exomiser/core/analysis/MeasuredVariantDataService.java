@@ -0,0 +1,87 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import org.monarchinitiative.exomiser.core.genome.VariantDataService;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Decorator recording the latency of each lookup made against the variant data sources to the {@link AnalysisMetrics}.
+ * Pathogenicity lookups requiring one of the tabix-backed sources are reported separately to those only using the
+ * allele store as these differ in speed by orders of magnitude.
+ *
+ * @since 13.1.0
+ */
+class MeasuredVariantDataService implements VariantDataService {
+
+    private static final Set<PathogenicitySource> TABIX_SOURCES = EnumSet.of(PathogenicitySource.CADD, PathogenicitySource.REMM, PathogenicitySource.TEST);
+
+    private final VariantDataService variantDataService;
+    private final AnalysisMetrics analysisMetrics;
+
+    MeasuredVariantDataService(VariantDataService variantDataService, AnalysisMetrics analysisMetrics) {
+        this.variantDataService = variantDataService;
+        this.analysisMetrics = analysisMetrics;
+    }
+
+    @Override
+    public boolean variantIsWhiteListed(Variant variant) {
+        long start = System.nanoTime();
+        boolean whiteListed = variantDataService.variantIsWhiteListed(variant);
+        analysisMetrics.recordDataSourceLatency("whitelist", System.nanoTime() - start);
+        return whiteListed;
+    }
+
+    @Override
+    public FrequencyData getVariantFrequencyData(Variant variant, Set<FrequencySource> frequencySources) {
+        long start = System.nanoTime();
+        FrequencyData frequencyData = variantDataService.getVariantFrequencyData(variant, frequencySources);
+        String dataSource = frequencySources.contains(FrequencySource.LOCAL) ? "frequency-local" : "frequency";
+        analysisMetrics.recordDataSourceLatency(dataSource, System.nanoTime() - start);
+        return frequencyData;
+    }
+
+    @Override
+    public PathogenicityData getVariantPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources) {
+        long start = System.nanoTime();
+        PathogenicityData pathogenicityData = variantDataService.getVariantPathogenicityData(variant, pathogenicitySources);
+        String dataSource = containsTabixSource(pathogenicitySources) ? "pathogenicity-tabix" : "pathogenicity";
+        analysisMetrics.recordDataSourceLatency(dataSource, System.nanoTime() - start);
+        return pathogenicityData;
+    }
+
+    private boolean containsTabixSource(Set<PathogenicitySource> pathogenicitySources) {
+        for (PathogenicitySource source : TABIX_SOURCES) {
+            if (pathogenicitySources.contains(source)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
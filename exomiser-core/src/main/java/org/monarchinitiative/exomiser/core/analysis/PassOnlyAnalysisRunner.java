@@ -20,11 +20,12 @@
 
 package org.monarchinitiative.exomiser.core.analysis;
 
-import org.monarchinitiative.exomiser.core.filters.FilterResult;
 import org.monarchinitiative.exomiser.core.filters.SimpleGeneFilterRunner;
 import org.monarchinitiative.exomiser.core.filters.SparseVariantFilterRunner;
 import org.monarchinitiative.exomiser.core.filters.VariantFilter;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
+import org.monarchinitiative.exomiser.core.genome.VcfReaderFactory;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
@@ -42,7 +43,19 @@
 class PassOnlyAnalysisRunner extends AbstractAnalysisRunner {
 
     PassOnlyAnalysisRunner(GenomeAnalysisService genomeAnalysisService) {
-        super(genomeAnalysisService, new SparseVariantFilterRunner(), new SimpleGeneFilterRunner());
+        this(genomeAnalysisService, AnalysisMetrics.noOp());
+    }
+
+    PassOnlyAnalysisRunner(GenomeAnalysisService genomeAnalysisService, AnalysisMetrics analysisMetrics) {
+        this(genomeAnalysisService, analysisMetrics, VcfReaderFactory.sequential());
+    }
+
+    PassOnlyAnalysisRunner(GenomeAnalysisService genomeAnalysisService, AnalysisMetrics analysisMetrics, VcfReaderFactory vcfReaderFactory) {
+        this(genomeAnalysisService, analysisMetrics, vcfReaderFactory, AnnotatedSampleStore.disabled());
+    }
+
+    PassOnlyAnalysisRunner(GenomeAnalysisService genomeAnalysisService, AnalysisMetrics analysisMetrics, VcfReaderFactory vcfReaderFactory, AnnotatedSampleStore annotatedSampleStore) {
+        super(genomeAnalysisService, new SparseVariantFilterRunner(), new SimpleGeneFilterRunner(), analysisMetrics, vcfReaderFactory, annotatedSampleStore);
     }
 
     @Override
@@ -57,16 +70,9 @@ protected Predicate<VariantEvaluation> isAssociatedWithKnownGene(Map<String, Gen
 
     @Override
     protected Predicate<VariantEvaluation> runVariantFilters(List<VariantFilter> variantFilters, FilterStats filterStats) {
-        return variantEvaluation -> {
-            //loop through the filters and only run if the variantEvaluation has passed all prior filters
-            for (VariantFilter filter : variantFilters) {
-                if (variantEvaluation.passedFilters()) {
-                    FilterResult result = variantFilterRunner.run(filter, variantEvaluation);
-                    filterStats.addResult(result);
-                }
-            }
-            return variantEvaluation.passedFilters();
-        };
+        //only run a filter if the variantEvaluation has passed all prior filters, running the most selective filters first
+        AdaptiveVariantFilterScheduler variantFilterScheduler = new AdaptiveVariantFilterScheduler(variantFilters, this::runVariantFilter, filterStats);
+        return variantFilterScheduler::runFilters;
     }
 
     @Override
@@ -91,9 +97,7 @@ private Predicate<VariantEvaluation> variantFailedFilters() {
     }
     
     @Override
-    protected List<VariantEvaluation> getFinalVariantList(List<VariantEvaluation> variants) {
-        return variants.stream()
-                .filter(VariantEvaluation::passedFilters)
-                .collect(toList());
+    protected boolean isIncludedInResults(VariantEvaluation variantEvaluation) {
+        return variantEvaluation.passedFilters();
     }
 }
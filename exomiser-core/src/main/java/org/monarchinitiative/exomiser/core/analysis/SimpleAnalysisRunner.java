@@ -25,6 +25,8 @@
 import org.monarchinitiative.exomiser.core.filters.SimpleVariantFilterRunner;
 import org.monarchinitiative.exomiser.core.filters.VariantFilter;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
+import org.monarchinitiative.exomiser.core.genome.VcfReaderFactory;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
@@ -40,7 +42,19 @@
 class SimpleAnalysisRunner extends AbstractAnalysisRunner {
 
     SimpleAnalysisRunner(GenomeAnalysisService genomeAnalysisService) {
-        super(genomeAnalysisService, new SimpleVariantFilterRunner(), new SimpleGeneFilterRunner());
+        this(genomeAnalysisService, AnalysisMetrics.noOp());
+    }
+
+    SimpleAnalysisRunner(GenomeAnalysisService genomeAnalysisService, AnalysisMetrics analysisMetrics) {
+        this(genomeAnalysisService, analysisMetrics, VcfReaderFactory.sequential());
+    }
+
+    SimpleAnalysisRunner(GenomeAnalysisService genomeAnalysisService, AnalysisMetrics analysisMetrics, VcfReaderFactory vcfReaderFactory) {
+        this(genomeAnalysisService, analysisMetrics, vcfReaderFactory, AnnotatedSampleStore.disabled());
+    }
+
+    SimpleAnalysisRunner(GenomeAnalysisService genomeAnalysisService, AnalysisMetrics analysisMetrics, VcfReaderFactory vcfReaderFactory, AnnotatedSampleStore annotatedSampleStore) {
+        super(genomeAnalysisService, new SimpleVariantFilterRunner(), new SimpleGeneFilterRunner(), analysisMetrics, vcfReaderFactory, annotatedSampleStore);
     }
 
     @Override
@@ -53,7 +67,7 @@ protected Predicate<VariantEvaluation> runVariantFilters(List<VariantFilter> var
         return variantEvaluation -> {
             //loop through the filters and run them over the variantEvaluation according to the variantFilterRunner behaviour
             variantFilters.forEach(filter -> {
-                FilterResult result = variantFilterRunner.run(filter, variantEvaluation);
+                FilterResult result = runVariantFilter(filter, variantEvaluation);
                 filterStats.addResult(result);
             });
             return true;
@@ -61,7 +75,7 @@ protected Predicate<VariantEvaluation> runVariantFilters(List<VariantFilter> var
     }
 
     @Override
-    protected List<VariantEvaluation> getFinalVariantList(List<VariantEvaluation> variants) {
-        return variants;
+    protected boolean isIncludedInResults(VariantEvaluation variantEvaluation) {
+        return true;
     }
 }
@@ -0,0 +1,63 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.filters;
+
+/**
+ * Counts the results of running a single {@link Filter} so that the {@link FilterRunner} can count these as the filter
+ * is run, rather than the filtered variants or genes being traversed a second time. Anything not run through the filter,
+ * for instance a variant skipped by the {@link SparseVariantFilterRunner} as it failed a previous filter, is counted as
+ * a failure. This class is not thread-safe.
+ *
+ * @since 13.1.0
+ */
+public class FilterResultCounter {
+
+    private int passCount;
+    private int failCount;
+
+    public void count(FilterResult filterResult) {
+        if (filterResult.passed()) {
+            passCount++;
+        } else {
+            failCount++;
+        }
+    }
+
+    public void countFailed(int count) {
+        failCount += count;
+    }
+
+    public int getPassCount() {
+        return passCount;
+    }
+
+    public int getFailCount() {
+        return failCount;
+    }
+
+    @Override
+    public String toString() {
+        return "FilterResultCounter{" +
+                "passCount=" + passCount +
+                ", failCount=" + failCount +
+                '}';
+    }
+}
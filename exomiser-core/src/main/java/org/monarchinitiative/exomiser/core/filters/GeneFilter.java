@@ -43,4 +43,20 @@ public interface GeneFilter extends Filter<Gene> {
     @Override
     FilterResult runFilter(Gene gene);
 
+    /**
+     * Runs the filter over the {@code Gene}, counting the result in the {@link FilterResultCounter}. Filters which are
+     * not only gene dependent, such as the {@link InheritanceFilter}, count the results added to the variants of the
+     * gene instead.
+     *
+     * @param gene                to be filtered
+     * @param filterResultCounter counts the results of the filter
+     * @return the result of filtering the {@code Gene}
+     * @since 13.1.0
+     */
+    default FilterResult runFilter(Gene gene, FilterResultCounter filterResultCounter) {
+        FilterResult filterResult = runFilter(gene);
+        filterResultCounter.count(filterResult);
+        return filterResult;
+    }
+
 }
@@ -36,6 +36,17 @@
 public interface GeneFilterRunner extends FilterRunner<GeneFilter, Gene>{
 
     @Override
-    List<Gene> run(GeneFilter geneFilter, List<Gene> genes);
+    default List<Gene> run(GeneFilter geneFilter, List<Gene> genes) {
+        return run(geneFilter, genes, new FilterResultCounter());
+    }
+
+    /**
+     * Runs the filter over the genes, counting the results in the {@link FilterResultCounter} as they are added. Only
+     * gene dependent filters count the genes, other filters, such as the {@link InheritanceFilter}, count the variants
+     * of each gene.
+     *
+     * @since 13.1.0
+     */
+    List<Gene> run(GeneFilter geneFilter, List<Gene> genes, FilterResultCounter filterResultCounter);
 
 }
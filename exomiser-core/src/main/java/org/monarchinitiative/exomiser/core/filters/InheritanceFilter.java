@@ -71,12 +71,21 @@ public Set<ModeOfInheritance> getCompatibleModes() {
     
     @Override
     public FilterResult runFilter(Gene gene) {
+        return runFilter(gene, new FilterResultCounter());
+    }
+
+    /**
+     * Counts the results added to the variants of the gene, rather than that of the gene.
+     */
+    @Override
+    public FilterResult runFilter(Gene gene, FilterResultCounter filterResultCounter) {
         if (compatibleModes.isEmpty() || compatibleModes.equals(JUST_ANY)) {
             //if ModeOfInheritance.ANY pass the runFilter - ideally it shouldn't be applied in the first place.
+            filterResultCounter.countFailed(gene.getNumberOfVariants());
             return NOT_RUN;
         }
 
-        addFilterResultToVariants(gene.getVariantEvaluations());
+        addFilterResultToVariants(gene.getVariantEvaluations(), filterResultCounter);
 
         //If we're going to score against multiple inheritance models we're going to want to keep them and filter when scoring.
         //On the other hand - if there is only one or two modes it makes sense to filter them out if incompatible.
@@ -88,13 +97,11 @@ public FilterResult runFilter(Gene gene) {
         return FAIL;
     }
 
-    private void addFilterResultToVariants(List<VariantEvaluation> variantEvaluations) {
+    private void addFilterResultToVariants(List<VariantEvaluation> variantEvaluations, FilterResultCounter filterResultCounter) {
         for (VariantEvaluation variant : variantEvaluations) {
-            if (compatibleWithAtLeastOneModeOfInheritance(variant)) {
-                variant.addFilterResult(PASS);
-            } else {
-                variant.addFilterResult(FAIL);
-            }
+            FilterResult filterResult = compatibleWithAtLeastOneModeOfInheritance(variant) ? PASS : FAIL;
+            variant.addFilterResult(filterResult);
+            filterResultCounter.count(filterResult);
         }
     }
 
@@ -36,17 +36,21 @@
 public class SimpleGeneFilterRunner implements GeneFilterRunner {
 
     @Override
-    public List<Gene> run(GeneFilter filter, List<Gene> genes) {
+    public List<Gene> run(GeneFilter filter, List<Gene> genes, FilterResultCounter filterResultCounter) {
         for (Gene gene : genes) {
             if (gene.passedFilters()) {
-                runFilterAndAddResult(filter, gene);
+                runFilterAndAddResult(filter, gene, filterResultCounter);
+            } else {
+                // Cater for the case where the PriorityScoreFilter is run before any variants are loaded - only gene
+                // dependent filters count the genes, otherwise the numbers get mixed with the variant counts.
+                filterResultCounter.countFailed(filter.isOnlyGeneDependent() ? 1 : gene.getNumberOfVariants());
             }
         }
         return genes;
     }
 
-    private void runFilterAndAddResult(GeneFilter filter, Gene gene) {
-        FilterResult filterResult = filter.runFilter(gene);
+    private void runFilterAndAddResult(GeneFilter filter, Gene gene, FilterResultCounter filterResultCounter) {
+        FilterResult filterResult = filter.runFilter(gene, filterResultCounter);
         if (filterResult.wasRun()) {
             gene.addFilterResult(filterResult);
         }
@@ -45,9 +45,9 @@
 public class SimpleVariantFilterRunner implements VariantFilterRunner {
 
     @Override
-    public List<VariantEvaluation> run(VariantFilter filter, List<VariantEvaluation> variantEvaluations) {
+    public List<VariantEvaluation> run(VariantFilter filter, List<VariantEvaluation> variantEvaluations, FilterResultCounter filterResultCounter) {
         for (VariantEvaluation variantEvaluation : variantEvaluations) {
-            run(filter, variantEvaluation);
+            filterResultCounter.count(run(filter, variantEvaluation));
         }
         return variantEvaluations;
     }
@@ -55,10 +55,13 @@
 public class SparseVariantFilterRunner implements VariantFilterRunner {
 
     @Override
-    public List<VariantEvaluation> run(VariantFilter filter, List<VariantEvaluation> variantEvaluations) {
+    public List<VariantEvaluation> run(VariantFilter filter, List<VariantEvaluation> variantEvaluations, FilterResultCounter filterResultCounter) {
         for (VariantEvaluation variantEvaluation : variantEvaluations) {
             if (variantEvaluation.passedFilters()) {
-                run(filter, variantEvaluation);
+                filterResultCounter.count(run(filter, variantEvaluation));
+            } else {
+                // not run as it already failed a previous filter, so this is reported as failing this one too
+                filterResultCounter.countFailed(1);
             }
         }
         return passedFilteredVariants(variantEvaluations);
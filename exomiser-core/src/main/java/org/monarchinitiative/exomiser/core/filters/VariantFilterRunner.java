@@ -36,7 +36,17 @@
 public interface VariantFilterRunner extends FilterRunner<VariantFilter, VariantEvaluation>{
 
     @Override
-    List<VariantEvaluation> run(VariantFilter variantFilter, List<VariantEvaluation> variantEvaluations);
+    default List<VariantEvaluation> run(VariantFilter variantFilter, List<VariantEvaluation> variantEvaluations) {
+        return run(variantFilter, variantEvaluations, new FilterResultCounter());
+    }
+
+    /**
+     * Runs the filter over the variants, counting the result for each variant in the {@link FilterResultCounter} as it
+     * is added.
+     *
+     * @since 13.1.0
+     */
+    List<VariantEvaluation> run(VariantFilter variantFilter, List<VariantEvaluation> variantEvaluations, FilterResultCounter filterResultCounter);
 
     default FilterResult run(VariantFilter filter, VariantEvaluation variantEvaluation) {
         FilterResult filterResult = filter.runFilter(variantEvaluation);
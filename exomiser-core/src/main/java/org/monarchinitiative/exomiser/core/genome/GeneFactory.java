@@ -56,6 +56,18 @@ public GeneFactory(JannovarData jannovarData) {
         this.jannovarData = jannovarData;
     }
 
+    /**
+     * Creates a {@link GeneFactory} for a known set of {@link GeneIdentifier}, e.g. those stored in a
+     * {@link org.monarchinitiative.exomiser.core.genome.jannovar.TranscriptSnapshot}, without requiring the
+     * {@link JannovarData}.
+     *
+     * @since 13.1.0
+     */
+    public GeneFactory(Set<GeneIdentifier> geneIdentifiers) {
+        this.jannovarData = null;
+        this.geneIdentifiers = ImmutableSet.copyOf(geneIdentifiers);
+    }
+
     /**
      * Returns a list of genes from the JannovarData TranscriptModels.
      * @return a mutable list of {@link Gene} objects. DO NOT SHARE THESE. If you need a new list, call this method again.
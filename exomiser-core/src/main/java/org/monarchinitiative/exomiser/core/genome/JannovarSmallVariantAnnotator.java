@@ -73,6 +73,8 @@ public List<VariantAnnotation> annotate(Variant variant) {
         if (variant == null) {
             return List.of();
         }
+        // There is deliberately no cache here - repeated alleles are served by the CachingVariantAnnotator when one is
+        // configured and the transcript interval query happens inside Jannovar, so it can't be shared between alleles.
         GenomeVariant genomeVariant = jannovarVariantConverter.toGenomeVariant(variant);
         VariantAnnotations variantAnnotations = jannovarAnnotationService.annotateGenomeVariant(genomeVariant);
         return buildVariantAnnotations(variant, variantAnnotations);
@@ -0,0 +1,93 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import org.monarchinitiative.exomiser.core.genome.jannovar.TranscriptSnapshot;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegionIndex;
+import org.monarchinitiative.exomiser.core.model.RegulatoryFeature;
+import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.Variant;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link VariantAnnotator} which only decodes the transcripts of a contig from a {@link TranscriptSnapshot} when a
+ * variant on that contig is first annotated. The {@link JannovarVariantAnnotator} for each contig is held in a cache
+ * bounded to {@code maxContigs}, so the least recently used contigs are discarded rather than keeping the whole
+ * transcriptome on the heap. Contigs which have no variants are never decoded.
+ * <p>
+ * Breakends are not annotated by the {@link JannovarVariantAnnotator}, so all the annotated variants lie on a single
+ * contig.
+ *
+ * @since 13.1.0
+ */
+public class LazyJannovarVariantAnnotator implements VariantAnnotator {
+
+    public static final int DEFAULT_MAX_CONTIGS = 4;
+
+    private final GenomeAssembly genomeAssembly;
+    private final Map<String, Integer> contigNameToId;
+    private final LoadingCache<Integer, JannovarVariantAnnotator> contigAnnotators;
+
+    public LazyJannovarVariantAnnotator(GenomeAssembly genomeAssembly, TranscriptSnapshot transcriptSnapshot, ChromosomalRegionIndex<RegulatoryFeature> regulatoryRegionIndex) {
+        this(genomeAssembly, transcriptSnapshot, regulatoryRegionIndex, DEFAULT_MAX_CONTIGS);
+    }
+
+    public LazyJannovarVariantAnnotator(GenomeAssembly genomeAssembly, TranscriptSnapshot transcriptSnapshot, ChromosomalRegionIndex<RegulatoryFeature> regulatoryRegionIndex, int maxContigs) {
+        if (maxContigs <= 0) {
+            throw new IllegalArgumentException("maxContigs must be greater than 0, but was " + maxContigs);
+        }
+        this.genomeAssembly = genomeAssembly;
+        ReferenceDictionary referenceDictionary = transcriptSnapshot.getReferenceDictionary();
+        this.contigNameToId = referenceDictionary.getContigNameToID();
+        this.contigAnnotators = CacheBuilder.newBuilder()
+                .maximumSize(maxContigs)
+                .build(CacheLoader.from(contigId -> new JannovarVariantAnnotator(genomeAssembly, transcriptSnapshot.toJannovarData(contigId), regulatoryRegionIndex)));
+    }
+
+    @Override
+    public GenomeAssembly genomeAssembly() {
+        return genomeAssembly;
+    }
+
+    @Override
+    public List<VariantAnnotation> annotate(Variant variant) {
+        if (variant == null) {
+            return List.of();
+        }
+        int contigId = contigNameToId.getOrDefault(variant.contig().name(), Contig.unknown().id());
+        return contigAnnotators.getUnchecked(contigId).annotate(variant);
+    }
+
+    /**
+     * @return the Jannovar ids of the contigs with currently decoded transcripts
+     */
+    Set<Integer> decodedContigIds() {
+        return Set.copyOf(contigAnnotators.asMap().keySet());
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import htsjdk.samtools.util.AsyncBlockCompressedInputStream;
+import htsjdk.samtools.util.BlockCompressedInputStream;
+import htsjdk.samtools.util.IOUtil;
+import htsjdk.tribble.readers.LineIterator;
+import htsjdk.tribble.readers.LineIteratorImpl;
+import htsjdk.tribble.readers.SynchronousLineReader;
+import htsjdk.variant.variantcontext.GenotypesContext;
+import htsjdk.variant.variantcontext.LazyGenotypesContext;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * {@link VcfReader} for large VCF files which moves the decompression and parsing of the records off the consuming
+ * thread. BGZF blocks are inflated ahead of the reader by HTSJDK's {@link AsyncBlockCompressedInputStream}, a reader
+ * thread splits the text into batches of record lines and these are decoded by a pool of parser threads, each with its
+ * own {@link VCFCodec}. The decoded batches are returned in file order through a bounded queue, so memory use is
+ * limited to a few batches per parser thread regardless of the size of the file.
+ * <p>
+ * The genotypes are fully decoded by the parser threads rather than lazily on first access. The returned
+ * {@code Stream} should be closed after use in order to stop the reader and parser threads.
+ *
+ * @since 13.1.0
+ */
+public class ParallelVcfFileReader implements VcfReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelVcfFileReader.class);
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 128 * 1024;
+
+    private final Path vcfPath;
+    private final int parserThreads;
+    private final int batchSize;
+
+    public ParallelVcfFileReader(Path vcfPath, int parserThreads) {
+        this(vcfPath, parserThreads, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param vcfPath       path of the VCF file, which can be plain text, gzip or BGZF compressed
+     * @param parserThreads number of threads used to decode the VCF records
+     * @param batchSize     number of record lines decoded by a parser thread in one go
+     */
+    public ParallelVcfFileReader(Path vcfPath, int parserThreads, int batchSize) {
+        this.vcfPath = Objects.requireNonNull(vcfPath, "Cannot read from null vcfPath");
+        if (parserThreads < 1) {
+            throw new IllegalArgumentException("parserThreads must be greater than 0");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be greater than 0");
+        }
+        this.parserThreads = parserThreads;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<String> readSampleIdentifiers() {
+        return VcfFiles.readSampleIdentifiers(vcfPath);
+    }
+
+    @Override
+    public Stream<VariantContext> readVariantContexts() {
+        return readVariantContexts(line -> true);
+    }
+
+    /**
+     * Reads the {@link VariantContext} from the records accepted by the recordLineFilter. The filter is only ever called
+     * from the single reader thread, so it need not be thread-safe.
+     */
+    @Override
+    public Stream<VariantContext> readVariantContexts(Predicate<String> recordLineFilter) {
+        Objects.requireNonNull(recordLineFilter);
+        logger.debug("Reading variants from VCF file {} using {} parser threads", vcfPath, parserThreads);
+        BufferedReader bufferedReader = openBufferedReader(vcfPath);
+        LineIterator lineIterator = new LineIteratorImpl(new SynchronousLineReader(bufferedReader));
+        List<String> headerLines = new ArrayList<>();
+        try {
+            while (lineIterator.hasNext() && lineIterator.peek().startsWith("#")) {
+                headerLines.add(lineIterator.next());
+            }
+            // fail early, on the calling thread, if the header is invalid
+            VcfFiles.createVcfCodec(headerLines);
+        } catch (RuntimeException e) {
+            closeQuietly(bufferedReader);
+            throw e;
+        }
+        RecordPipeline recordPipeline = new RecordPipeline(headerLines, lineIterator, bufferedReader, recordLineFilter);
+        recordPipeline.start();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(recordPipeline, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(recordPipeline::close);
+    }
+
+    private static BufferedReader openBufferedReader(Path vcfPath) {
+        try {
+            InputStream inputStream = new BufferedInputStream(Files.newInputStream(vcfPath), BUFFER_SIZE);
+            if (BlockCompressedInputStream.isValidFile(inputStream)) {
+                inputStream = new AsyncBlockCompressedInputStream(inputStream);
+            } else if (IOUtil.isGZIPInputStream(inputStream)) {
+                inputStream = new GZIPInputStream(inputStream, BUFFER_SIZE);
+            }
+            return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read VCF file " + vcfPath, e);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.debug("Error closing {}", closeable, e);
+        }
+    }
+
+    /**
+     * Reads batches of lines on a single reader thread, submits these for decoding to the parser threads and queues the
+     * results in file order. The consumer takes the decoded batches from the head of the queue.
+     */
+    private class RecordPipeline implements Iterator<VariantContext> {
+
+        private final Future<List<VariantContext>> endOfFile = CompletableFuture.completedFuture(List.of());
+
+        private final LineIterator lineIterator;
+        private final Closeable input;
+        private final Predicate<String> recordLineFilter;
+
+        private final ThreadLocal<VCFCodec> vcfCodecs;
+        private final ExecutorService parserExecutor;
+        private final BlockingQueue<Future<List<VariantContext>>> decodedBatches;
+        private final Thread readerThread;
+
+        private Iterator<VariantContext> currentBatch = Collections.emptyIterator();
+        private boolean finished = false;
+
+        private RecordPipeline(List<String> headerLines, LineIterator lineIterator, Closeable input, Predicate<String> recordLineFilter) {
+            this.lineIterator = lineIterator;
+            this.input = input;
+            this.recordLineFilter = recordLineFilter;
+            this.vcfCodecs = ThreadLocal.withInitial(() -> VcfFiles.createVcfCodec(headerLines));
+            this.parserExecutor = Executors.newFixedThreadPool(parserThreads, daemonThreadFactory("vcf-parser"));
+            // enough to keep all the parsers busy while the consumer works through the head of the queue
+            this.decodedBatches = new ArrayBlockingQueue<>(parserThreads * 2);
+            this.readerThread = daemonThreadFactory("vcf-reader").newThread(this::readBatches);
+        }
+
+        private void start() {
+            readerThread.start();
+        }
+
+        private void readBatches() {
+            try {
+                List<String> batch = new ArrayList<>(batchSize);
+                while (lineIterator.hasNext() && !Thread.currentThread().isInterrupted()) {
+                    String line = lineIterator.next();
+                    if (!line.isEmpty() && recordLineFilter.test(line)) {
+                        batch.add(line);
+                        if (batch.size() == batchSize) {
+                            submit(batch);
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    submit(batch);
+                }
+                decodedBatches.put(endOfFile);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.debug("Error reading VCF file {}", vcfPath, e);
+                putQuietly(CompletableFuture.failedFuture(e));
+            } finally {
+                closeQuietly(input);
+            }
+        }
+
+        private void putQuietly(Future<List<VariantContext>> batch) {
+            try {
+                decodedBatches.put(batch);
+            } catch (InterruptedException e) {
+                // the consumer has closed the stream
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void submit(List<String> batch) throws InterruptedException {
+            decodedBatches.put(parserExecutor.submit(() -> decode(batch)));
+        }
+
+        private List<VariantContext> decode(List<String> lines) {
+            VCFCodec vcfCodec = vcfCodecs.get();
+            List<VariantContext> variantContexts = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                VariantContext variantContext = vcfCodec.decode(line);
+                if (variantContext != null) {
+                    // Decode the genotypes here, in parallel. Lazy decoding would use this thread's VCFCodec from the
+                    // consumer thread at the same time as this thread is using it to decode the next batch.
+                    GenotypesContext genotypes = variantContext.getGenotypes();
+                    if (genotypes instanceof LazyGenotypesContext) {
+                        ((LazyGenotypesContext) genotypes).decode();
+                    }
+                    variantContexts.add(variantContext);
+                }
+            }
+            return variantContexts;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!currentBatch.hasNext()) {
+                if (finished) {
+                    return false;
+                }
+                currentBatch = takeNextBatch();
+            }
+            return true;
+        }
+
+        private Iterator<VariantContext> takeNextBatch() {
+            try {
+                Future<List<VariantContext>> nextBatch = decodedBatches.take();
+                if (nextBatch == endOfFile) {
+                    finished = true;
+                    parserExecutor.shutdown();
+                }
+                return nextBatch.get().iterator();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted reading VCF file " + vcfPath, e);
+            } catch (ExecutionException e) {
+                close();
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException("Error reading VCF file " + vcfPath, cause);
+            }
+        }
+
+        @Override
+        public VariantContext next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentBatch.next();
+        }
+
+        private void close() {
+            finished = true;
+            readerThread.interrupt();
+            parserExecutor.shutdownNow();
+            decodedBatches.clear();
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelVcfFileReader{" +
+                "vcfPath=" + vcfPath +
+                ", parserThreads=" + parserThreads +
+                ", batchSize=" + batchSize +
+                '}';
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Cheap pre-scan of a raw, tab-separated VCF record line which rejects records where the proband has no ALT allele
+ * called, e.g. 0/0, 0|0 or ./. genotypes, which are common in joint-called cohort VCF files. These records would be
+ * removed by the proband check in the analysis anyway, but this way they are never decoded, converted or annotated.
+ * <p>
+ * The test is conservative - any record which can't be positively identified as not being observed in the proband is
+ * accepted. This includes records where GT isn't the first FORMAT key, truncated sample columns, and no-call genotypes
+ * with a CN key, as these can be converted to an ALT genotype using the copy number.
+ *
+ * @since 13.1.0
+ */
+public final class ProbandGenotypeLineFilter implements Predicate<String> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProbandGenotypeLineFilter.class);
+
+    private static final int FORMAT_COLUMN = 8;
+
+    private final int probandColumn;
+    // the filter can be called from several threads when reading a sharded VCF
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private ProbandGenotypeLineFilter(int probandColumn) {
+        this.probandColumn = probandColumn;
+    }
+
+    /**
+     * Creates a filter for the proband in the given VCF samples. If the proband is not one of the samples, a filter
+     * which accepts every line is returned.
+     *
+     * @param sampleNames     the sample names from the VCF header, in column order
+     * @param probandSampleId the proband sample identifier
+     * @return a filter which returns false for lines where the proband has no ALT allele
+     */
+    public static ProbandGenotypeLineFilter of(List<String> sampleNames, String probandSampleId) {
+        Objects.requireNonNull(sampleNames);
+        int probandPosition = sampleNames.indexOf(probandSampleId);
+        if (probandPosition == -1) {
+            logger.debug("Proband {} not found in samples {} - VCF records will not be pre-filtered", probandSampleId, sampleNames);
+            return new ProbandGenotypeLineFilter(-1);
+        }
+        return new ProbandGenotypeLineFilter(FORMAT_COLUMN + 1 + probandPosition);
+    }
+
+    /**
+     * @return the number of lines rejected by this filter
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public boolean test(String line) {
+        if (probandColumn != -1 && isNotObservedInProband(line)) {
+            rejectedCount.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isNotObservedInProband(String line) {
+        int formatStart = columnStart(line, 0, 0, FORMAT_COLUMN);
+        if (formatStart == -1 || !line.startsWith("GT", formatStart) || !isKeyEnd(line, formatStart + 2)) {
+            return false;
+        }
+        int sampleStart = columnStart(line, formatStart, FORMAT_COLUMN, probandColumn);
+        if (sampleStart == -1) {
+            return false;
+        }
+        boolean hasRefCall = false;
+        boolean hasNoCall = false;
+        for (int i = sampleStart; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == ':' || c == '\t') {
+                break;
+            }
+            if (c == '0') {
+                hasRefCall = true;
+            } else if (c == '.') {
+                hasNoCall = true;
+            } else if (c != '/' && c != '|') {
+                // an ALT allele or something unexpected
+                return false;
+            }
+        }
+        if (hasRefCall) {
+            // only REF or NO_CALL alleles
+            return true;
+        }
+        // no-call genotypes can be converted to an ALT using the CN, so only reject these if there isn't one
+        return hasNoCall && !hasFormatKey(line, formatStart, "CN");
+    }
+
+    private static int columnStart(String line, int fromIndex, int fromColumn, int column) {
+        int index = fromIndex;
+        for (int currentColumn = fromColumn; currentColumn < column; currentColumn++) {
+            int tab = line.indexOf('\t', index);
+            if (tab == -1) {
+                return -1;
+            }
+            index = tab + 1;
+        }
+        return index;
+    }
+
+    private static boolean isKeyEnd(String line, int index) {
+        return index == line.length() || line.charAt(index) == ':' || line.charAt(index) == '\t';
+    }
+
+    private static boolean hasFormatKey(String line, int formatStart, String key) {
+        int keyStart = formatStart;
+        while (keyStart < line.length() && line.charAt(keyStart) != '\t') {
+            if (line.startsWith(key, keyStart) && isKeyEnd(line, keyStart + key.length())) {
+                return true;
+            }
+            int separator = line.indexOf(':', keyStart);
+            int tab = line.indexOf('\t', keyStart);
+            if (separator == -1 || (tab != -1 && tab < separator)) {
+                return false;
+            }
+            keyStart = separator + 1;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "ProbandGenotypeLineFilter{" +
+                "probandColumn=" + probandColumn +
+                ", rejectedCount=" + rejectedCount.sum() +
+                '}';
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.tribble.readers.TabixReader;
+import htsjdk.variant.variantcontext.GenotypesContext;
+import htsjdk.variant.variantcontext.LazyGenotypesContext;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link VcfReader} for BGZF compressed and tabix indexed VCF files which splits the file into genomic regions, or
+ * shards, and reads these in parallel. Each shard is queried from the index using its own {@link TabixReader} and
+ * decoded with its own {@link VCFCodec}, so the returned {@code Stream} is a parallel stream which is processed using
+ * the common {@link java.util.concurrent.ForkJoinPool}. The encounter order of the records is the order of the shards,
+ * which are sorted by contig, then by position, and within a shard the file order.
+ * <p>
+ * A record belongs to the shard containing its POS, so records spanning the boundary of two shards are only read once.
+ * Shards are made by splitting each contig into regions of the given shard length where the header contains the
+ * {@code ##contig} lengths, otherwise each contig in the index is read as a single shard.
+ * <p>
+ * The record line filter and any downstream stream operations will be called concurrently, so these must be
+ * thread-safe. The returned {@code Stream} should be closed after use.
+ *
+ * @since 13.1.0
+ */
+public class ShardedVcfFileReader implements VcfReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedVcfFileReader.class);
+
+    public static final int DEFAULT_SHARD_LENGTH = 10_000_000;
+
+    private final Path vcfPath;
+    private final int shardLength;
+
+    public ShardedVcfFileReader(Path vcfPath) {
+        this(vcfPath, DEFAULT_SHARD_LENGTH);
+    }
+
+    /**
+     * @param vcfPath     path of the BGZF compressed VCF file. The tabix index is expected to be found alongside it,
+     *                    with a .tbi extension
+     * @param shardLength maximum length, in bases, of the regions read in parallel
+     */
+    public ShardedVcfFileReader(Path vcfPath, int shardLength) {
+        this.vcfPath = Objects.requireNonNull(vcfPath, "Cannot read from null vcfPath");
+        if (shardLength < 1) {
+            throw new IllegalArgumentException("shardLength must be greater than 0");
+        }
+        if (!isIndexed(vcfPath)) {
+            throw new IllegalArgumentException("No tabix index found for VCF file " + vcfPath);
+        }
+        this.shardLength = shardLength;
+    }
+
+    /**
+     * @param vcfPath path of a VCF file
+     * @return true if there is a tabix index for the VCF file
+     */
+    public static boolean isIndexed(Path vcfPath) {
+        return Files.isRegularFile(tabixIndexPath(vcfPath));
+    }
+
+    private static Path tabixIndexPath(Path vcfPath) {
+        return vcfPath.resolveSibling(vcfPath.getFileName() + ".tbi");
+    }
+
+    @Override
+    public List<String> readSampleIdentifiers() {
+        return VcfFiles.readSampleIdentifiers(vcfPath);
+    }
+
+    @Override
+    public Stream<VariantContext> readVariantContexts() {
+        return readVariantContexts(line -> true);
+    }
+
+    /**
+     * Reads the {@link VariantContext} from the records accepted by the recordLineFilter. The filter will be called from
+     * several threads at once, so it must be thread-safe.
+     */
+    @Override
+    public Stream<VariantContext> readVariantContexts(Predicate<String> recordLineFilter) {
+        Objects.requireNonNull(recordLineFilter);
+        List<String> headerLines = VcfFiles.readHeaderLines(vcfPath);
+        // fail early, on the calling thread, if the header is invalid
+        VCFCodec headerCodec = VcfFiles.createVcfCodec(headerLines);
+        List<VcfShard> shards = createShards(readIndexedContigs(), headerCodec.getHeader().getSequenceDictionary());
+        logger.debug("Reading variants from VCF file {} in {} shards", vcfPath, shards.size());
+        return shards.parallelStream()
+                .flatMap(shard -> readShard(shard, headerLines, recordLineFilter));
+    }
+
+    /**
+     * @return the regions of the VCF file, in the order they are read
+     */
+    public List<VcfShard> getShards() {
+        List<String> headerLines = VcfFiles.readHeaderLines(vcfPath);
+        VCFCodec headerCodec = VcfFiles.createVcfCodec(headerLines);
+        return createShards(readIndexedContigs(), headerCodec.getHeader().getSequenceDictionary());
+    }
+
+    private Set<String> readIndexedContigs() {
+        TabixReader tabixReader = openTabixReader();
+        try {
+            return tabixReader.getChromosomes();
+        } finally {
+            closeQuietly(tabixReader);
+        }
+    }
+
+    private TabixReader openTabixReader() {
+        try {
+            return new TabixReader(vcfPath.toString(), tabixIndexPath(vcfPath).toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read tabix index for VCF file " + vcfPath, e);
+        }
+    }
+
+    private static void closeQuietly(TabixReader tabixReader) {
+        try {
+            tabixReader.close();
+        } catch (Exception e) {
+            logger.debug("Error closing {}", tabixReader, e);
+        }
+    }
+
+    private List<VcfShard> createShards(Set<String> indexedContigs, SAMSequenceDictionary sequenceDictionary) {
+        List<VcfShard> shards = new ArrayList<>();
+        for (String contig : sortContigs(indexedContigs)) {
+            SAMSequenceRecord sequenceRecord = sequenceDictionary == null ? null : sequenceDictionary.getSequence(contig);
+            int contigLength = sequenceRecord == null ? SAMSequenceRecord.UNKNOWN_SEQUENCE_LENGTH : sequenceRecord.getSequenceLength();
+            if (contigLength <= 0) {
+                shards.add(VcfShard.of(contig));
+            } else {
+                for (int start = 1; start <= contigLength; start += shardLength) {
+                    int end = (int) Math.min((long) start + shardLength - 1, contigLength);
+                    // the final shard of a contig is open-ended in case of records beyond the stated contig length
+                    shards.add(end == contigLength ? new VcfShard(contig, start, Integer.MAX_VALUE) : new VcfShard(contig, start, end));
+                }
+            }
+        }
+        return shards;
+    }
+
+    private static List<String> sortContigs(Set<String> contigs) {
+        List<String> sortedContigs = new ArrayList<>(contigs);
+        // unplaced and unrecognised contigs have an id of 0, so these are put after the main assembled chromosomes
+        sortedContigs.sort(Comparator.comparingInt((String contig) -> Contigs.parseId(contig) == 0 ? Integer.MAX_VALUE : Contigs.parseId(contig))
+                .thenComparing(Comparator.naturalOrder()));
+        return sortedContigs;
+    }
+
+    private Stream<VariantContext> readShard(VcfShard shard, List<String> headerLines, Predicate<String> recordLineFilter) {
+        TabixReader tabixReader = openTabixReader();
+        VCFCodec vcfCodec = VcfFiles.createVcfCodec(headerLines);
+        // TabixReader.query(int, int, int) takes a 0-based start, so the first record of the shard is not missed
+        TabixReader.Iterator lines = tabixReader.query(tabixReader.chr2tid(shard.getContig()), shard.getStart() - 1, shard.getEnd());
+        Iterator<VariantContext> shardIterator = new ShardIterator(shard, lines, vcfCodec, recordLineFilter);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(shardIterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> closeQuietly(tabixReader));
+    }
+
+    /**
+     * Decodes the record lines returned by the index for a shard. The index returns all the records overlapping the
+     * region, so records which start before the shard are skipped, as these belong to the previous shard.
+     */
+    private class ShardIterator implements Iterator<VariantContext> {
+
+        private final VcfShard shard;
+        private final TabixReader.Iterator lines;
+        private final VCFCodec vcfCodec;
+        private final Predicate<String> recordLineFilter;
+
+        private VariantContext next;
+        private boolean finished = false;
+
+        private ShardIterator(VcfShard shard, TabixReader.Iterator lines, VCFCodec vcfCodec, Predicate<String> recordLineFilter) {
+            this.shard = shard;
+            this.lines = lines;
+            this.vcfCodec = vcfCodec;
+            this.recordLineFilter = recordLineFilter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !finished) {
+                String line = readLine();
+                if (line == null) {
+                    finished = true;
+                } else if (shard.containsStart(parsePos(line)) && recordLineFilter.test(line)) {
+                    next = decode(line);
+                }
+            }
+            return next != null;
+        }
+
+        private String readLine() {
+            try {
+                return lines.next();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading " + shard + " of VCF file " + vcfPath, e);
+            }
+        }
+
+        private VariantContext decode(String line) {
+            VariantContext variantContext = vcfCodec.decode(line);
+            if (variantContext != null) {
+                // decode the genotypes on this thread rather than lazily on first access by a downstream operation
+                GenotypesContext genotypes = variantContext.getGenotypes();
+                if (genotypes instanceof LazyGenotypesContext) {
+                    ((LazyGenotypesContext) genotypes).decode();
+                }
+            }
+            return variantContext;
+        }
+
+        @Override
+        public VariantContext next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            VariantContext variantContext = next;
+            next = null;
+            return variantContext;
+        }
+    }
+
+    private static int parsePos(String line) {
+        int posStart = line.indexOf('\t') + 1;
+        int posEnd = line.indexOf('\t', posStart);
+        if (posStart == 0 || posEnd == -1) {
+            throw new IllegalStateException("Invalid VCF record line: " + line);
+        }
+        return Integer.parseInt(line, posStart, posEnd, 10);
+    }
+
+    /**
+     * A 1-based, fully-closed region of a contig read as a single unit by a {@link ShardedVcfFileReader}.
+     */
+    public static final class VcfShard {
+
+        private final String contig;
+        private final int start;
+        private final int end;
+
+        private VcfShard(String contig, int start, int end) {
+            this.contig = contig;
+            this.start = start;
+            this.end = end;
+        }
+
+        private static VcfShard of(String contig) {
+            return new VcfShard(contig, 1, Integer.MAX_VALUE);
+        }
+
+        public String getContig() {
+            return contig;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        boolean containsStart(int pos) {
+            return start <= pos && pos <= end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            VcfShard vcfShard = (VcfShard) o;
+            return start == vcfShard.start && end == vcfShard.end && contig.equals(vcfShard.contig);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contig, start, end);
+        }
+
+        @Override
+        public String toString() {
+            return "VcfShard{" +
+                    "contig='" + contig + '\'' +
+                    ", start=" + start +
+                    ", end=" + end +
+                    '}';
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedVcfFileReader{" +
+                "vcfPath=" + vcfPath +
+                ", shardLength=" + shardLength +
+                '}';
+    }
+}
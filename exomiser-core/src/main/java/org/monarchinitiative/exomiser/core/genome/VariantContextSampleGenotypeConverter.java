@@ -22,6 +22,7 @@
 
 import htsjdk.variant.variantcontext.Allele;
 import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.GenotypesContext;
 import htsjdk.variant.variantcontext.VariantContext;
 import org.monarchinitiative.exomiser.core.model.*;
 import org.slf4j.Logger;
@@ -58,37 +59,59 @@ private VariantContextSampleGenotypeConverter() {
      * @return
      */
     public static SampleGenotypes createAlleleSampleGenotypes(VariantContext variantContext, int altAlleleId) {
+        return createAlleleSampleGenotypes(variantContext, altAlleleId, createSampleIndex(variantContext.getGenotypes()));
+    }
+
+    /**
+     * As {@link #createAlleleSampleGenotypes(VariantContext, int)}, but using the {@link SampleIndex} for the samples of
+     * the VCF the {@link VariantContext} was read from. This should be created once from the VCF header and shared by
+     * all the records of that VCF, rather than a new one being created for each allele.
+     *
+     * @param variantContext
+     * @param altAlleleId
+     * @param sampleIndex    the samples of the VCF, in the same order as the header
+     * @return
+     * @since 13.1.0
+     */
+    public static SampleGenotypes createAlleleSampleGenotypes(VariantContext variantContext, int altAlleleId, SampleIndex sampleIndex) {
         Allele refAllele = variantContext.getReference();
         Allele altAllele = variantContext.getAlternateAllele(altAlleleId);
         logger.debug("Making sample genotypes for altAllele: {} {} {} {}", altAlleleId, refAllele, altAllele, variantContext);
-        List<SampleData> samples = new ArrayList<>(variantContext.getNSamples());
-        for (Genotype genotype : variantContext.getGenotypes()) {
+        GenotypesContext genotypes = variantContext.getGenotypes();
+        SampleGenotypes.Builder sampleGenotypesBuilder = SampleGenotypes.builder(sampleIndex);
+        for (int i = 0; i < genotypes.size(); i++) {
+            Genotype genotype = genotypes.get(i);
             logger.debug("Building sample genotype for {}", genotype);
-            String sampleName = genotype.getSampleName();
             SampleGenotype sampleGenotype = buildSampleGenotype(refAllele, altAllele, genotype);
-            CopyNumber copyNumber = buildCopyNumber(genotype);
-            if (sampleGenotype.isNoCall() && !copyNumber.isEmpty()) {
+            int copyNumber = buildCopyNumber(genotype);
+            if (sampleGenotype.isNoCall() && copyNumber != -1) {
                 // Canvas hack to
                 logger.debug("Building sample genotype from CN {}", genotype);
-                int CN = copyNumber.copies();
                 // BUT chrX 140205371 Canvas:REF:chrX:140205371-140208082 N . 7.53 PASS DQ=31.0549859513643;dq20;END=140208082;CIPOS=-221,221;CIEND=-291,221 RC:BC:CN 56:5:1
                 // MCC is a Canvas-specific major chromosome count - WT is 1 (1 maternal, 1 paternal)
                 int MCC = parseIntAttribute(genotype, "MCC", -1);
-                sampleGenotype = (CN == 0 || CN == MCC) ? SampleGenotype.homAlt() : SampleGenotype.het();
+                sampleGenotype = (copyNumber == 0 || copyNumber == MCC) ? SampleGenotype.homAlt() : SampleGenotype.het();
             }
             logger.debug("Variant [{} {}] sample {} {} has genotype {}", variantContext.getReference(), altAllele, genotype, genotype.getType(), sampleGenotype);
-            SampleData sampleData = SampleData.of(sampleName, sampleGenotype, copyNumber);
-            samples.add(sampleData);
+            sampleGenotypesBuilder.sampleGenotype(i, sampleGenotype);
+            sampleGenotypesBuilder.copyNumber(i, copyNumber);
+        }
+        return sampleGenotypesBuilder.build();
+    }
+
+    private static SampleIndex createSampleIndex(GenotypesContext genotypes) {
+        List<String> sampleNames = new ArrayList<>(genotypes.size());
+        for (int i = 0; i < genotypes.size(); i++) {
+            sampleNames.add(genotypes.get(i).getSampleName());
         }
-        return SampleGenotypes.of(samples);
+        return SampleIndex.of(sampleNames);
     }
 
-    private static CopyNumber buildCopyNumber(Genotype genotype) {
+    private static int buildCopyNumber(Genotype genotype) {
         if (genotype.hasExtendedAttribute("CN")) {
-            int copyNumber = parseIntAttribute(genotype, "CN", -1);
-            return CopyNumber.of(copyNumber);
+            return parseIntAttribute(genotype, "CN", -1);
         }
-        return CopyNumber.empty();
+        return -1;
     }
 
     private static int parseIntAttribute(Genotype genotype, String key, int defaultValue) {
@@ -22,10 +22,7 @@
 package org.monarchinitiative.exomiser.core.genome;
 
 import de.charite.compbio.jannovar.annotation.VariantEffect;
-import org.monarchinitiative.exomiser.core.genome.dao.FrequencyDao;
-import org.monarchinitiative.exomiser.core.genome.dao.InMemoryVariantWhiteList;
-import org.monarchinitiative.exomiser.core.genome.dao.PathogenicityDao;
-import org.monarchinitiative.exomiser.core.genome.dao.VariantWhiteList;
+import org.monarchinitiative.exomiser.core.genome.dao.*;
 import org.monarchinitiative.exomiser.core.model.Variant;
 import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
@@ -56,6 +53,8 @@ public class VariantDataServiceImpl implements VariantDataService {
     private static final Set<PathogenicitySource> TABIX_SOURCES = EnumSet.of(CADD, REMM, TEST);
 
     private final VariantWhiteList whiteList;
+    // Guards the default data sources - the vast majority of variants in a WGS are not present in the allele store
+    private final AlleleKeyFilter alleleKeyFilter;
     // Default data sources
     private final FrequencyDao defaultFrequencyDao;
     private final PathogenicityDao defaultPathogenicityDao;
@@ -73,6 +72,7 @@ public class VariantDataServiceImpl implements VariantDataService {
     private VariantDataServiceImpl(Builder builder) {
 
         this.whiteList = builder.variantWhiteList;
+        this.alleleKeyFilter = builder.alleleKeyFilter;
 
         this.defaultFrequencyDao = builder.defaultFrequencyDao;
         this.defaultPathogenicityDao = builder.defaultPathogenicityDao;
@@ -98,7 +98,7 @@ public FrequencyData getVariantFrequencyData(Variant variant, Set<FrequencySourc
             return svFrequencyDao.getFrequencyData(variant);
         }
         // This could be run alongside the pathogenicities as they are all stored in the same datastore
-        FrequencyData defaultFrequencyData = defaultFrequencyDao.getFrequencyData(variant);
+        FrequencyData defaultFrequencyData = alleleKeyFilter.mightContain(variant) ? defaultFrequencyDao.getFrequencyData(variant) : FrequencyData.empty();
 
         List<Frequency> allFrequencies = new ArrayList<>();
         for (Frequency frequency : defaultFrequencyData.getKnownFrequencies()) {
@@ -129,8 +129,9 @@ public PathogenicityData getVariantPathogenicityData(Variant variant, Set<Pathog
         }
 
         // This could be run alongside the frequencies as they are all stored in the same datastore
+        boolean inDefaultStore = alleleKeyFilter.mightContain(variant);
         if (pathogenicitySources.isEmpty()) {
-            PathogenicityData defaultPathogenicityData = defaultPathogenicityDao.getPathogenicityData(variant);
+            PathogenicityData defaultPathogenicityData = inDefaultStore ? defaultPathogenicityDao.getPathogenicityData(variant) : PathogenicityData.empty();
             // Fast-path for the unlikely case when no sources are defined - we'll just return the ClinVar data
             return PathogenicityData.of(defaultPathogenicityData.getClinVarData());
         }
@@ -138,8 +139,8 @@ public PathogenicityData getVariantPathogenicityData(Variant variant, Set<Pathog
         PathogenicityData defaultPathogenicityData;
         List<PathogenicityScore> allPathScores = new ArrayList<>();
         if (containsTabixSource(pathogenicitySources)) {
-            CompletableFuture<PathogenicityData> futureDefaultData = CompletableFuture.supplyAsync(() -> defaultPathogenicityDao
-                    .getPathogenicityData(variant));
+            CompletableFuture<PathogenicityData> futureDefaultData = inDefaultStore ? CompletableFuture.supplyAsync(() -> defaultPathogenicityDao
+                    .getPathogenicityData(variant)) : CompletableFuture.completedFuture(PathogenicityData.empty());
             // run async - tabix sources are slow compared to MVStore
             List<CompletableFuture<PathogenicityData>> futurePathData = new ArrayList<>();
             // REMM is trained on non-coding regulatory bits of the genome, this outperforms CADD for non-coding variants
@@ -159,7 +160,7 @@ public PathogenicityData getVariantPathogenicityData(Variant variant, Set<Pathog
             }
             defaultPathogenicityData = futureDefaultData.join();
         } else {
-            defaultPathogenicityData = defaultPathogenicityDao.getPathogenicityData(variant);
+            defaultPathogenicityData = inDefaultStore ? defaultPathogenicityDao.getPathogenicityData(variant) : PathogenicityData.empty();
         }
 
         // we're going to deliberately ignore synonymous variants from dbNSFP as these shouldn't be there
@@ -216,6 +217,7 @@ public static Builder builder() {
     public static class Builder {
 
         private VariantWhiteList variantWhiteList = InMemoryVariantWhiteList.empty();
+        private AlleleKeyFilter alleleKeyFilter = AlleleKeyFilter.acceptAll();
 
         private FrequencyDao defaultFrequencyDao;
         private PathogenicityDao defaultPathogenicityDao;
@@ -234,6 +236,17 @@ public Builder variantWhiteList(VariantWhiteList variantWhiteList) {
             return this;
         }
 
+        /**
+         * Optional {@link AlleleKeyFilter} which is checked before querying the default frequency and pathogenicity
+         * data sources. Defaults to a filter which accepts all variants.
+         *
+         * @since 13.1.0
+         */
+        public Builder alleleKeyFilter(AlleleKeyFilter alleleKeyFilter) {
+            this.alleleKeyFilter = alleleKeyFilter;
+            return this;
+        }
+
         public Builder defaultFrequencyDao(FrequencyDao defaultFrequencyDao) {
             this.defaultFrequencyDao = defaultFrequencyDao;
             return this;
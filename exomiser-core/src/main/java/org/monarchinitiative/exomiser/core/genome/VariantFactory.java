@@ -23,6 +23,7 @@
 import htsjdk.variant.variantcontext.VariantContext;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -40,4 +41,15 @@ public interface VariantFactory {
      */
     public Stream<VariantEvaluation> createVariantEvaluations();
 
+    /**
+     * Creates {@link VariantEvaluation} from only those VCF records whose raw line is accepted by the
+     * vcfRecordLineFilter, e.g. a {@link ProbandGenotypeLineFilter}. Implementations may ignore the filter, so it should
+     * only be used to skip records which would otherwise be removed later on.
+     *
+     * @since 13.1.0
+     */
+    public default Stream<VariantEvaluation> createVariantEvaluations(Predicate<String> vcfRecordLineFilter) {
+        return createVariantEvaluations();
+    }
+
 }
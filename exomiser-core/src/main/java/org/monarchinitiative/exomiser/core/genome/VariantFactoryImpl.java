@@ -29,7 +29,10 @@
 import htsjdk.variant.variantcontext.Genotype;
 import htsjdk.variant.variantcontext.GenotypesContext;
 import htsjdk.variant.variantcontext.VariantContext;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisStage;
 import org.monarchinitiative.exomiser.core.model.SampleGenotypes;
+import org.monarchinitiative.exomiser.core.model.SampleIndex;
 import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 import org.monarchinitiative.svart.Variant;
@@ -44,10 +47,14 @@
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Produces Variants from VCF files.
@@ -63,43 +70,74 @@ public class VariantFactoryImpl implements VariantFactory {
     private final VariantContextConverter variantContextConverter;
 
     private final VcfReader vcfReader;
+    private final AnalysisMetrics analysisMetrics;
 
     public VariantFactoryImpl(VariantAnnotator variantAnnotator, Path vcfPath) {
         this(variantAnnotator, new VcfFileReader(vcfPath));
     }
 
     public VariantFactoryImpl(VariantAnnotator variantAnnotator, VcfReader vcfReader) {
+        this(variantAnnotator, vcfReader, AnalysisMetrics.noOp());
+    }
+
+    /**
+     * @param analysisMetrics {@link AnalysisMetrics} to which the time spent decoding and annotating the VCF records is
+     *                        reported
+     * @since 13.1.0
+     */
+    public VariantFactoryImpl(VariantAnnotator variantAnnotator, VcfReader vcfReader, AnalysisMetrics analysisMetrics) {
         Objects.requireNonNull(variantAnnotator);
         Objects.requireNonNull(vcfReader);
         this.variantAnnotator = variantAnnotator;
         this.genomeAssembly = variantAnnotator.genomeAssembly();
         this.variantContextConverter = VariantContextConverter.of(genomeAssembly.genomicAssembly(), VariantTrimmer.leftShiftingTrimmer(VariantTrimmer.retainingCommonBase()));
         this.vcfReader = vcfReader;
+        this.analysisMetrics = Objects.requireNonNull(analysisMetrics);
     }
 
     @Override
     public Stream<VariantEvaluation> createVariantEvaluations() {
+        return createVariantEvaluations(vcfReader.readVariantContexts());
+    }
+
+    @Override
+    public Stream<VariantEvaluation> createVariantEvaluations(Predicate<String> vcfRecordLineFilter) {
+        return createVariantEvaluations(vcfReader.readVariantContexts(vcfRecordLineFilter));
+    }
+
+    private Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream) {
         logger.info("Annotating variant records, trimming sequences and normalising positions...");
+        // the samples are the same for every record, so the SampleIndex is shared by all the variants from the VCF
+        SampleIndex sampleIndex = SampleIndex.of(vcfReader.readSampleIdentifiers());
         VariantCounter counter = new VariantCounter();
-        return vcfReader.readVariantContexts()
+        return timeDecoding(variantContextStream)
                 .peek(counter.countVariantContext())
-                .flatMap(toVariantEvaluations())
+                .flatMap(toVariantEvaluations(sampleIndex))
                 .peek(counter.countAnnotatedVariant())
                 .onClose(counter::logCount);
     }
 
+    private Stream<VariantContext> timeDecoding(Stream<VariantContext> variantContexts) {
+        if (!analysisMetrics.isEnabled()) {
+            return variantContexts;
+        }
+        Spliterator<VariantContext> decodeTimingSpliterator = new DecodeTimingSpliterator(variantContexts.spliterator(), analysisMetrics);
+        return StreamSupport.stream(decodeTimingSpliterator, variantContexts.isParallel())
+                .onClose(variantContexts::close);
+    }
+
     /**
      * An Exomiser VariantEvaluation is a single-allele variant whereas the VariantContext can have multiple alleles.
      * This means that a multi allele Variant record in a VCF can result in several VariantEvaluations - one for each
      * alternate allele.
      */
-    private Function<VariantContext, Stream<VariantEvaluation>> toVariantEvaluations() {
+    private Function<VariantContext, Stream<VariantEvaluation>> toVariantEvaluations(SampleIndex sampleIndex) {
         return variantContext -> variantContext.getAlternateAlleles().stream()
-                .map(buildAlleleVariantEvaluations(variantContext))
+                .map(buildAlleleVariantEvaluations(variantContext, sampleIndex))
                 .flatMap(Collection::stream);
     }
 
-    private Function<Allele, List<VariantEvaluation>> buildAlleleVariantEvaluations(VariantContext variantContext) {
+    private Function<Allele, List<VariantEvaluation>> buildAlleleVariantEvaluations(VariantContext variantContext, SampleIndex sampleIndex) {
         return altAllele -> {
             // Itererating by alleleId here this is less clean, but faster
             // alternate Alleles are always after the reference allele, which is 0
@@ -107,7 +145,7 @@ private Function<Allele, List<VariantEvaluation>> buildAlleleVariantEvaluations(
             GenotypesContext genotypes = variantContext.getGenotypes();
             // n.b. samples with no genotypes (e.g. ./. or .) will return no variants
             if (alleleIsObservedInGenotypes(altAllele, genotypes) || hasCopyNumber(altAllele, genotypes)) {
-                return buildVariantEvaluations(variantContext, altAlleleId, altAllele);
+                return buildVariantEvaluations(variantContext, altAlleleId, altAllele, sampleIndex);
             }
             logger.debug("Skipping allele {} - has no genotype or copy-number", altAllele);
             return List.of();
@@ -144,7 +182,7 @@ private boolean hasCopyNumber(Allele allele, GenotypesContext genotypesContext)
      * Creates a VariantEvaluation made from all the relevant bits of the
      * VariantContext and VariantAnnotations for a given alternative allele.
      */
-    private List<VariantEvaluation> buildVariantEvaluations(VariantContext variantContext, int altAlleleId, Allele altAllele) {
+    private List<VariantEvaluation> buildVariantEvaluations(VariantContext variantContext, int altAlleleId, Allele altAllele, SampleIndex sampleIndex) {
         // It is possible for a variant to overlap two or more genes (see issue https://github.com/exomiser/Exomiser/issues/294)
         // so we're expecting a single gene per variant annotation which might have different variant consequences and different
         // phenotypes for each gene
@@ -163,8 +201,8 @@ private List<VariantEvaluation> buildVariantEvaluations(VariantContext variantCo
         if (variant == null) {
             return List.of();
         }
-        VariantEvaluation.Builder variantBuilder = createVariantBuilder(variantContext, altAlleleId, variant);
-        List<VariantAnnotation> variantAnnotations = variantAnnotator.annotate(variant);
+        VariantEvaluation.Builder variantBuilder = createVariantBuilder(variantContext, altAlleleId, variant, sampleIndex);
+        List<VariantAnnotation> variantAnnotations = annotate(variant);
         // now we have a list of variant annotations - one per gene including affected transcripts and regulatory regions
         List<VariantEvaluation> variantEvaluations = new ArrayList<>(variantAnnotations.size());
         for (VariantAnnotation variantAnnotation : variantAnnotations) {
@@ -174,8 +212,18 @@ private List<VariantEvaluation> buildVariantEvaluations(VariantContext variantCo
         return variantEvaluations;
     }
 
-    private VariantEvaluation.Builder createVariantBuilder(VariantContext variantContext, int altAlleleId, Variant variant) {
-        SampleGenotypes sampleGenotypes = VariantContextSampleGenotypeConverter.createAlleleSampleGenotypes(variantContext, altAlleleId);
+    private List<VariantAnnotation> annotate(Variant variant) {
+        if (!analysisMetrics.isEnabled()) {
+            return variantAnnotator.annotate(variant);
+        }
+        long start = System.nanoTime();
+        List<VariantAnnotation> variantAnnotations = variantAnnotator.annotate(variant);
+        analysisMetrics.recordStage(AnalysisStage.VARIANT_ANNOTATION, null, System.nanoTime() - start);
+        return variantAnnotations;
+    }
+
+    private VariantEvaluation.Builder createVariantBuilder(VariantContext variantContext, int altAlleleId, Variant variant, SampleIndex sampleIndex) {
+        SampleGenotypes sampleGenotypes = VariantContextSampleGenotypeConverter.createAlleleSampleGenotypes(variantContext, altAlleleId, sampleIndex);
 
         return VariantEvaluation.builder()
                 .with(variant)
@@ -238,4 +286,42 @@ void logCount() {
             logger.info("Variant annotation finished in {}m {}s {}ms ({} ms)", (ms / 1000) / 60 % 60, ms / 1000 % 60, ms % 1000, ms);
         }
     }
+
+    /**
+     * Times how long it takes the underlying reader to decode each record, without including the time taken by the
+     * downstream stages of the variant stream, which are run from within the {@code tryAdvance} call.
+     */
+    private static class DecodeTimingSpliterator extends Spliterators.AbstractSpliterator<VariantContext> {
+
+        private final Spliterator<VariantContext> source;
+        private final AnalysisMetrics analysisMetrics;
+        private VariantContext next;
+
+        DecodeTimingSpliterator(Spliterator<VariantContext> source, AnalysisMetrics analysisMetrics) {
+            super(source.estimateSize(), source.characteristics());
+            this.source = source;
+            this.analysisMetrics = analysisMetrics;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super VariantContext> action) {
+            long start = System.nanoTime();
+            boolean advanced = source.tryAdvance(variantContext -> next = variantContext);
+            if (!advanced) {
+                return false;
+            }
+            analysisMetrics.recordStage(AnalysisStage.VCF_DECODING, null, System.nanoTime() - start);
+            VariantContext variantContext = next;
+            next = null;
+            action.accept(variantContext);
+            return true;
+        }
+
+        @Override
+        public Spliterator<VariantContext> trySplit() {
+            // keep the source splittable so that parallel sources, such as a sharded VCF, are decoded in parallel
+            Spliterator<VariantContext> prefix = source.trySplit();
+            return prefix == null ? null : new DecodeTimingSpliterator(prefix, analysisMetrics);
+        }
+    }
 }
@@ -27,6 +27,7 @@
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -51,4 +52,9 @@ public List<String> readSampleIdentifiers() {
     public Stream<VariantContext> readVariantContexts() {
         return VcfFiles.readVariantContexts(vcfPath);
     }
+
+    @Override
+    public Stream<VariantContext> readVariantContexts(Predicate<String> recordLineFilter) {
+        return VcfFiles.readVariantContexts(vcfPath, recordLineFilter);
+    }
 }
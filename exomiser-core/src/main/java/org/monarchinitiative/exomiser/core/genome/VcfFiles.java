@@ -20,17 +20,28 @@
 
 package org.monarchinitiative.exomiser.core.genome;
 
+import htsjdk.samtools.util.IOUtil;
+import htsjdk.tribble.readers.LineIterator;
+import htsjdk.tribble.readers.LineIteratorImpl;
+import htsjdk.tribble.readers.SynchronousLineReader;
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
 import htsjdk.variant.vcf.VCFFileReader;
 import htsjdk.variant.vcf.VCFHeader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class for providing access to VCF files.
@@ -59,6 +70,86 @@ public static Stream<VariantContext> readVariantContexts(Path vcfPath) {
         }
     }
 
+    /**
+     * Creates a {@code Stream} of {@code VariantContext} from the records of the indicated VCF file which are accepted
+     * by the recordLineFilter. The filter is tested against the raw record line, so rejected records are never decoded.
+     * The file is read sequentially and the returned {@code Stream} should be closed after use.
+     *
+     * @param vcfPath          path of the VCF file
+     * @param recordLineFilter {@link Predicate} tested against each tab-separated VCF record line
+     * @return a {@code Stream} of {@code VariantContext} from the accepted records
+     * @since 13.1.0
+     */
+    public static Stream<VariantContext> readVariantContexts(Path vcfPath, Predicate<String> recordLineFilter) {
+        Objects.requireNonNull(vcfPath, "Cannot read from null vcfPath");
+        Objects.requireNonNull(recordLineFilter);
+        logger.debug("Reading variants from VCF file {} with filter {}", vcfPath, recordLineFilter);
+        BufferedReader bufferedReader = IOUtil.openFileForBufferedReading(vcfPath.toFile());
+        LineIterator lineIterator = new LineIteratorImpl(new SynchronousLineReader(bufferedReader));
+        VCFCodec vcfCodec = new VCFCodec();
+        try {
+            vcfCodec.readActualHeader(lineIterator);
+        } catch (RuntimeException e) {
+            closeQuietly(bufferedReader);
+            throw e;
+        }
+        Iterator<VariantContext> variantContextIterator = new FilteringVariantContextIterator(lineIterator, vcfCodec, recordLineFilter);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(variantContextIterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> close(bufferedReader));
+    }
+
+    private static void close(BufferedReader bufferedReader) {
+        try {
+            bufferedReader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void closeQuietly(BufferedReader bufferedReader) {
+        try {
+            bufferedReader.close();
+        } catch (IOException e) {
+            logger.debug("Error closing reader", e);
+        }
+    }
+
+    private static class FilteringVariantContextIterator implements Iterator<VariantContext> {
+
+        private final LineIterator lineIterator;
+        private final VCFCodec vcfCodec;
+        private final Predicate<String> recordLineFilter;
+
+        private VariantContext next;
+
+        private FilteringVariantContextIterator(LineIterator lineIterator, VCFCodec vcfCodec, Predicate<String> recordLineFilter) {
+            this.lineIterator = lineIterator;
+            this.vcfCodec = vcfCodec;
+            this.recordLineFilter = recordLineFilter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && lineIterator.hasNext()) {
+                String line = lineIterator.next();
+                if (!line.isEmpty() && recordLineFilter.test(line)) {
+                    next = vcfCodec.decode(line);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public VariantContext next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            VariantContext variantContext = next;
+            next = null;
+            return variantContext;
+        }
+    }
+
     /**
      * Reads the header of the provided VCF file and returns a {@code VCFHeader}.
      *
@@ -73,6 +164,43 @@ public static VCFHeader readVcfHeader(Path vcfPath) {
         }
     }
 
+    /**
+     * Reads the raw header lines, i.e. those starting with a '#', from the provided VCF file. These can be used to
+     * create a {@link VCFCodec} using {@link #createVcfCodec(List)} to decode the record lines of the file.
+     *
+     * @param vcfPath path to the VCF file, which may be gzip or BGZF compressed
+     * @return the header lines of the VCF file, including the #CHROM line
+     * @since 13.1.0
+     */
+    public static List<String> readHeaderLines(Path vcfPath) {
+        Objects.requireNonNull(vcfPath, "Cannot read from null vcfPath");
+        List<String> headerLines = new ArrayList<>();
+        try (BufferedReader bufferedReader = IOUtil.openFileForBufferedReading(vcfPath)) {
+            String line;
+            while ((line = bufferedReader.readLine()) != null && line.startsWith("#")) {
+                headerLines.add(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read VCF file " + vcfPath, e);
+        }
+        return headerLines;
+    }
+
+    /**
+     * Creates a new {@link VCFCodec} for decoding the record lines of a VCF file with the given header lines. A codec is
+     * not thread-safe, so each thread decoding records requires its own instance.
+     *
+     * @param headerLines the header lines of the VCF file, including the #CHROM line
+     * @return a {@link VCFCodec} for the header
+     * @since 13.1.0
+     */
+    public static VCFCodec createVcfCodec(List<String> headerLines) {
+        VCFCodec vcfCodec = new VCFCodec();
+        Reader headerReader = new StringReader(String.join("\n", headerLines));
+        vcfCodec.readActualHeader(new LineIteratorImpl(new SynchronousLineReader(headerReader)));
+        return vcfCodec;
+    }
+
     /**
      * Reads the sample identifiers from the VCF header. This method will accept a null input and return an empty list.
      *
@@ -23,6 +23,7 @@
 import htsjdk.variant.variantcontext.VariantContext;
 
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 public interface VcfReader {
@@ -30,4 +31,17 @@ public interface VcfReader {
     List<String> readSampleIdentifiers();
 
     Stream<VariantContext> readVariantContexts();
+
+    /**
+     * Reads the {@link VariantContext} from records whose raw VCF line is accepted by the recordLineFilter. This is an
+     * optimisation allowing records to be skipped before they are decoded, so implementations which do not read raw
+     * lines are free to ignore the filter. It should therefore only reject records which would be removed later on.
+     *
+     * @param recordLineFilter {@link Predicate} tested against each tab-separated VCF record line
+     * @return a {@code Stream} of {@code VariantContext} from the accepted records
+     * @since 13.1.0
+     */
+    default Stream<VariantContext> readVariantContexts(Predicate<String> recordLineFilter) {
+        return readVariantContexts();
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import java.nio.file.Path;
+
+/**
+ * Creates the {@link VcfReader} used by an analysis to read the sample VCF file.
+ *
+ * @since 13.1.0
+ */
+@FunctionalInterface
+public interface VcfReaderFactory {
+
+    public VcfReader createVcfReader(Path vcfPath);
+
+    /**
+     * @return a factory for {@link VcfFileReader} which decompress and parse the VCF on the consuming thread
+     */
+    public static VcfReaderFactory sequential() {
+        return VcfFileReader::new;
+    }
+
+    /**
+     * @param parserThreads number of threads used to decode the VCF records
+     * @return a factory for {@link ParallelVcfFileReader} using the given number of parser threads
+     */
+    public static VcfReaderFactory parallel(int parserThreads) {
+        return parallel(parserThreads, 1000);
+    }
+
+    /**
+     * @param parserThreads number of threads used to decode the VCF records
+     * @param batchSize     number of record lines decoded by a parser thread in one go
+     * @return a factory for {@link ParallelVcfFileReader} using the given number of parser threads and batch size
+     */
+    public static VcfReaderFactory parallel(int parserThreads, int batchSize) {
+        return vcfPath -> new ParallelVcfFileReader(vcfPath, parserThreads, batchSize);
+    }
+
+    /**
+     * Returns a factory for {@link ShardedVcfFileReader} for VCF files with a tabix index. Files without an index are
+     * read using a {@link VcfFileReader}.
+     *
+     * @param shardLength maximum length, in bases, of the regions of the VCF file read in parallel
+     * @return a factory for {@link ShardedVcfFileReader} using the given shard length
+     */
+    public static VcfReaderFactory sharded(int shardLength) {
+        if (shardLength < 1) {
+            throw new IllegalArgumentException("shardLength must be greater than 0");
+        }
+        return vcfPath -> ShardedVcfFileReader.isIndexed(vcfPath) ? new ShardedVcfFileReader(vcfPath, shardLength) : new VcfFileReader(vcfPath);
+    }
+}
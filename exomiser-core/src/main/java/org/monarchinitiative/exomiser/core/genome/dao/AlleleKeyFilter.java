@@ -0,0 +1,57 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.monarchinitiative.exomiser.core.model.Variant;
+
+/**
+ * Probabilistic set membership test for the alleles contained in the variant store. Implementations may return false
+ * positives, but never false negatives so that a {@code false} result can be used to skip the store lookup entirely.
+ *
+ * @since 13.1.0
+ */
+public interface AlleleKeyFilter {
+
+    /**
+     * @param variant the {@link Variant} to check
+     * @return false if the variant is definitely not in the store, true if it might be.
+     */
+    boolean mightContain(Variant variant);
+
+    /**
+     * @return the number of calls to {@link #mightContain(Variant)} which returned true, i.e. where the store was queried.
+     */
+    long getHitCount();
+
+    /**
+     * @return the number of calls to {@link #mightContain(Variant)} which returned false, i.e. where the store lookup
+     * was skipped.
+     */
+    long getMissCount();
+
+    /**
+     * Returns an {@link AlleleKeyFilter} which will always return true. This is the default for when no filter file is
+     * present so that the behaviour is identical to querying the store directly.
+     */
+    static AlleleKeyFilter acceptAll() {
+        return new AcceptAllAlleleKeyFilter();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto;
+
+/**
+ * Utility class for computing a stable 64-bit hash of an allele's chr, pos, ref and alt directly from the primitive
+ * fields so that no intermediate {@link AlleleProto.AlleleKey} or {@link String} needs to be created. The values are
+ * written to disk by the data build, so this must not change between releases without a corresponding format version
+ * change in the files which use it.
+ *
+ * @since 13.1.0
+ */
+public class AlleleKeyHasher {
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long SEED = 0xcbf29ce484222325L;
+
+    private AlleleKeyHasher() {
+        // uninstantiable static utility class
+    }
+
+    public static long hash(Variant variant) {
+        return hash(variant.contigId(), variant.start(), variant.ref(), variant.alt());
+    }
+
+    public static long hash(AlleleProto.AlleleKey alleleKey) {
+        return hash(alleleKey.getChr(), alleleKey.getPosition(), alleleKey.getRef(), alleleKey.getAlt());
+    }
+
+    public static long hash(int chr, int pos, String ref, String alt) {
+        long h = SEED;
+        h = (h ^ chr) * FNV_PRIME;
+        h = (h ^ pos) * FNV_PRIME;
+        for (int i = 0; i < ref.length(); i++) {
+            h = (h ^ ref.charAt(i)) * FNV_PRIME;
+        }
+        // separator so that A-CG and AC-G do not collide
+        h = (h ^ '>') * FNV_PRIME;
+        for (int i = 0; i < alt.length(); i++) {
+            h = (h ^ alt.charAt(i)) * FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    // MurmurHash3 fmix64 finaliser - FNV alone has poor avalanche in the lower bits
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
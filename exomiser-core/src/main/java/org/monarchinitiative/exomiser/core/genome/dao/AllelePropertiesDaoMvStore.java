@@ -50,8 +50,8 @@ public AllelePropertiesDaoMvStore(MVStore mvStore) {
     }
 
     @Caching(cacheable = {
-            @Cacheable(cacheNames = "hg19.allele", condition = "#genomeAssembly == T(org.monarchinitiative.exomiser.core.genome.GenomeAssembly).HG19"),
-            @Cacheable(cacheNames = "hg38.allele", condition = "#genomeAssembly == T(org.monarchinitiative.exomiser.core.genome.GenomeAssembly).HG38"),
+            @Cacheable(cacheNames = "hg19.allele", cacheResolver = "variantCacheResolver", keyGenerator = "variantKeyGenerator", condition = "#genomeAssembly == T(org.monarchinitiative.exomiser.core.genome.GenomeAssembly).HG19"),
+            @Cacheable(cacheNames = "hg38.allele", cacheResolver = "variantCacheResolver", keyGenerator = "variantKeyGenerator", condition = "#genomeAssembly == T(org.monarchinitiative.exomiser.core.genome.GenomeAssembly).HG38"),
     })
     @Override
     public AlleleProto.AlleleProperties getAlleleProperties(AlleleProto.AlleleKey alleleKey, GenomeAssembly genomeAssembly) {
@@ -61,8 +61,8 @@ public AlleleProto.AlleleProperties getAlleleProperties(AlleleProto.AlleleKey al
     }
 
     @Caching(cacheable = {
-            @Cacheable(cacheNames = "hg19.allele", keyGenerator = "variantKeyGenerator", condition = "T(org.monarchinitiative.exomiser.core.genome.GenomeAssembly).HG19.containsContig(#variant.contig())"),
-            @Cacheable(cacheNames = "hg38.allele", keyGenerator = "variantKeyGenerator", condition = "T(org.monarchinitiative.exomiser.core.genome.GenomeAssembly).HG38.containsContig(#variant.contig())"),
+            @Cacheable(cacheNames = "hg19.allele", cacheResolver = "variantCacheResolver", keyGenerator = "variantKeyGenerator", condition = "T(org.monarchinitiative.exomiser.core.genome.GenomeAssembly).HG19.containsContig(#variant.contig())"),
+            @Cacheable(cacheNames = "hg38.allele", cacheResolver = "variantCacheResolver", keyGenerator = "variantKeyGenerator", condition = "T(org.monarchinitiative.exomiser.core.genome.GenomeAssembly).HG38.containsContig(#variant.contig())"),
     })
     @Override
     public AlleleProto.AlleleProperties getAlleleProperties(Variant variant) {
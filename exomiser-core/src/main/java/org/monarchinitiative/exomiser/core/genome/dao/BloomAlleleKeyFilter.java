@@ -0,0 +1,279 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Blocked Bloom filter implementation of the {@link AlleleKeyFilter}. Each key sets all of its bits inside a single
+ * 512-bit block (i.e. one cache-line) so that a lookup costs at most one cache miss, or one page fault when the filter
+ * is memory-mapped from disk.
+ * <p>
+ * The filter is built alongside the variants MVStore by the genome data build and written to disk using
+ * {@link #writeTo(Path)}. At runtime it is opened using {@link #load(Path)} which memory-maps the bit array so that
+ * startup time and heap usage are not affected by the size of the filter.
+ * <p>
+ * Instances are safe for concurrent reads. Calls to {@link #put(AlleleProto.AlleleKey)} are not thread-safe and are
+ * only intended to be made when building the filter.
+ *
+ * @since 13.1.0
+ */
+public class BloomAlleleKeyFilter implements AlleleKeyFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BloomAlleleKeyFilter.class);
+
+    // 'EXBF'
+    private static final int MAGIC = 0x45584246;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    public static final int DEFAULT_BITS_PER_KEY = 12;
+
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * Long.SIZE;
+    // 1 GB segments - a single MappedByteBuffer cannot exceed Integer.MAX_VALUE bytes
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final LongBuffer[] segments;
+    private final long numBlocks;
+    private final int numHashes;
+    private long numKeys;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private BloomAlleleKeyFilter(LongBuffer[] segments, long numBlocks, int numHashes, long numKeys) {
+        this.segments = segments;
+        this.numBlocks = numBlocks;
+        this.numHashes = numHashes;
+        this.numKeys = numKeys;
+    }
+
+    /**
+     * Creates a new, empty, in-memory filter with {@link #DEFAULT_BITS_PER_KEY} giving a false-positive rate of around
+     * 0.5%.
+     *
+     * @param expectedKeys the number of keys which will be added to the filter.
+     */
+    public static BloomAlleleKeyFilter create(long expectedKeys) {
+        return create(expectedKeys, DEFAULT_BITS_PER_KEY);
+    }
+
+    public static BloomAlleleKeyFilter create(long expectedKeys, int bitsPerKey) {
+        if (expectedKeys < 0) {
+            throw new IllegalArgumentException("expectedKeys must be positive, got " + expectedKeys);
+        }
+        if (bitsPerKey < 1) {
+            throw new IllegalArgumentException("bitsPerKey must be at least 1, got " + bitsPerKey);
+        }
+        long numBlocks = Math.max(1, (expectedKeys * bitsPerKey + BITS_PER_BLOCK - 1) / BITS_PER_BLOCK);
+        if (numBlocks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many keys for filter: " + expectedKeys);
+        }
+        int numHashes = (int) Math.max(1, Math.round(bitsPerKey * Math.log(2)));
+        long numWords = numBlocks * WORDS_PER_BLOCK;
+        LongBuffer[] segments = new LongBuffer[numSegments(numWords)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = LongBuffer.allocate(segmentSize(numWords, i));
+        }
+        return new BloomAlleleKeyFilter(segments, numBlocks, numHashes, 0);
+    }
+
+    /**
+     * Memory-maps a filter previously written using {@link #writeTo(Path)}.
+     *
+     * @param filterPath path to the filter file
+     * @return a read-only {@link BloomAlleleKeyFilter}
+     */
+    public static BloomAlleleKeyFilter load(Path filterPath) {
+        Objects.requireNonNull(filterPath);
+        try (FileChannel fileChannel = FileChannel.open(filterPath, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && fileChannel.read(header) != -1) {
+                // keep reading
+            }
+            header.flip();
+            if (header.remaining() != HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IllegalStateException("File " + filterPath + " is not an allele filter file");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported allele filter version " + version + " in file " + filterPath);
+            }
+            int numHashes = header.getInt();
+            header.getInt(); // reserved
+            long numBlocks = header.getLong();
+            long numKeys = header.getLong();
+
+            long numWords = numBlocks * WORDS_PER_BLOCK;
+            long expectedSize = HEADER_BYTES + numWords * Long.BYTES;
+            if (fileChannel.size() != expectedSize) {
+                throw new IllegalStateException("Allele filter file " + filterPath + " is truncated. Expected " + expectedSize + " bytes but was " + fileChannel.size());
+            }
+            LongBuffer[] segments = new LongBuffer[numSegments(numWords)];
+            long offset = HEADER_BYTES;
+            for (int i = 0; i < segments.length; i++) {
+                long segmentBytes = (long) segmentSize(numWords, i) * Long.BYTES;
+                // mappings remain valid after the channel is closed
+                segments[i] = fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, segmentBytes).asLongBuffer();
+                offset += segmentBytes;
+            }
+            logger.debug("Mapped allele filter {} containing {} keys in {} blocks", filterPath, numKeys, numBlocks);
+            return new BloomAlleleKeyFilter(segments, numBlocks, numHashes, numKeys);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load allele filter from " + filterPath, e);
+        }
+    }
+
+    private static int numSegments(long numWords) {
+        return (int) ((numWords + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+    }
+
+    private static int segmentSize(long numWords, int segment) {
+        long remaining = numWords - ((long) segment << SEGMENT_SHIFT);
+        return (int) Math.min(remaining, 1L << SEGMENT_SHIFT);
+    }
+
+    /**
+     * Writes the filter to the given path in a format suitable for memory-mapping with {@link #load(Path)}.
+     */
+    public void writeTo(Path filterPath) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(filterPath), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(numHashes);
+            out.writeInt(0);
+            out.writeLong(numBlocks);
+            out.writeLong(numKeys);
+            for (LongBuffer segment : segments) {
+                for (int i = 0; i < segment.limit(); i++) {
+                    out.writeLong(segment.get(i));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write allele filter to " + filterPath, e);
+        }
+    }
+
+    public void put(AlleleProto.AlleleKey alleleKey) {
+        put(AlleleKeyHasher.hash(alleleKey));
+    }
+
+    private void put(long hash) {
+        long firstWord = blockIndex(hash) * WORDS_PER_BLOCK;
+        int h1 = (int) hash;
+        int h2 = secondHash(hash);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = h1 >>> 23;
+            long wordIndex = firstWord + (bit >>> 6);
+            LongBuffer segment = segments[(int) (wordIndex >>> SEGMENT_SHIFT)];
+            int index = (int) (wordIndex & SEGMENT_MASK);
+            segment.put(index, segment.get(index) | (1L << bit));
+            h1 += h2;
+        }
+        numKeys++;
+    }
+
+    /**
+     * Checks the filter without updating the hit/miss counts.
+     */
+    public boolean mightContain(AlleleProto.AlleleKey alleleKey) {
+        return mightContain(AlleleKeyHasher.hash(alleleKey));
+    }
+
+    @Override
+    public boolean mightContain(Variant variant) {
+        boolean mightContain = mightContain(AlleleKeyHasher.hash(variant));
+        if (mightContain) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return mightContain;
+    }
+
+    private boolean mightContain(long hash) {
+        long firstWord = blockIndex(hash) * WORDS_PER_BLOCK;
+        int h1 = (int) hash;
+        int h2 = secondHash(hash);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = h1 >>> 23;
+            long wordIndex = firstWord + (bit >>> 6);
+            long word = segments[(int) (wordIndex >>> SEGMENT_SHIFT)].get((int) (wordIndex & SEGMENT_MASK));
+            if ((word & (1L << bit)) == 0) {
+                return false;
+            }
+            h1 += h2;
+        }
+        return true;
+    }
+
+    // upper 32 bits of the hash select the block using multiply-shift rather than a modulo
+    private long blockIndex(long hash) {
+        return ((hash >>> 32) * numBlocks) >>> 32;
+    }
+
+    private static int secondHash(long hash) {
+        return (int) ((hash * 0x9E3779B97F4A7C15L) >>> 32) | 1;
+    }
+
+    public long getNumKeys() {
+        return numKeys;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "BloomAlleleKeyFilter{" +
+                "numKeys=" + numKeys +
+                ", numBlocks=" + numBlocks +
+                ", numHashes=" + numHashes +
+                ", hits=" + hits.sum() +
+                ", misses=" + misses.sum() +
+                '}';
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Memory-mapped implementation of the {@link VariantWhiteList}. The whitelist is stored on disk as a sorted array of
+ * 64-bit {@link AlleleKeyHasher} hashes followed by the full allele records. Lookups are a binary search over the hashes
+ * followed by a comparison against the stored chr, pos, ref and alt in order to rule out hash collisions, so no objects
+ * are created when checking a {@link Variant}.
+ * <p>
+ * The file is produced by the genome data build using {@link #write(Collection, Path)}.
+ * <pre>
+ * header:  int magic, int version, int count, int reserved
+ * hashes:  long[count] sorted ascending
+ * offsets: int[count] offset of the record for each hash, relative to the start of the records
+ * records: int chr, int pos, int refLength, int altLength, byte[refLength] ref, byte[altLength] alt
+ * </pre>
+ *
+ * @since 13.1.0
+ */
+public class MappedVariantWhiteList implements VariantWhiteList {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedVariantWhiteList.class);
+
+    // 'EXWL'
+    private static final int MAGIC = 0x4558574c;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int offsetsStart;
+    private final int recordsStart;
+
+    private MappedVariantWhiteList(ByteBuffer buffer, int count) {
+        this.buffer = buffer;
+        this.count = count;
+        this.offsetsStart = HEADER_BYTES + count * Long.BYTES;
+        this.recordsStart = offsetsStart + count * Integer.BYTES;
+    }
+
+    /**
+     * Checks whether the file at the given path starts with the mapped whitelist magic number.
+     */
+    public static boolean isMappedWhiteList(Path whiteListPath) {
+        try (DataInputStream dataInputStream = new DataInputStream(Files.newInputStream(whiteListPath))) {
+            return dataInputStream.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static MappedVariantWhiteList load(Path whiteListPath) {
+        Objects.requireNonNull(whiteListPath);
+        try (FileChannel fileChannel = FileChannel.open(whiteListPath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IllegalStateException("File " + whiteListPath + " is not a variant whitelist file");
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported variant whitelist version " + version + " in file " + whiteListPath);
+            }
+            int count = buffer.getInt(8);
+            logger.info("Mapped {} variants into whitelist from {}", count, whiteListPath);
+            return new MappedVariantWhiteList(buffer, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load variant whitelist from " + whiteListPath, e);
+        }
+    }
+
+    /**
+     * Writes the alleles to a file suitable for use with {@link #load(Path)}. Duplicate alleles are removed.
+     *
+     * @param alleleKeys    the whitelisted alleles
+     * @param whiteListPath output path
+     */
+    public static void write(Collection<AlleleProto.AlleleKey> alleleKeys, Path whiteListPath) {
+        List<AlleleProto.AlleleKey> uniqueKeys = new ArrayList<>(new LinkedHashSet<>(alleleKeys));
+        int count = uniqueKeys.size();
+        long[] hashes = new long[count];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            hashes[i] = AlleleKeyHasher.hash(uniqueKeys.get(i));
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+
+        int collisions = 0;
+        int[] offsets = new int[count];
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && hashes[order[i]] == hashes[order[i - 1]]) {
+                collisions++;
+            }
+            offsets[i] = offset;
+            offset += recordLength(uniqueKeys.get(order[i]));
+        }
+        if (collisions > 0) {
+            logger.info("Found {} hash collisions in whitelist - these will be resolved on lookup", collisions);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(whiteListPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            out.writeInt(0);
+            for (int i = 0; i < count; i++) {
+                out.writeLong(hashes[order[i]]);
+            }
+            for (int i = 0; i < count; i++) {
+                out.writeInt(offsets[i]);
+            }
+            for (int i = 0; i < count; i++) {
+                AlleleProto.AlleleKey alleleKey = uniqueKeys.get(order[i]);
+                byte[] ref = alleleKey.getRef().getBytes(StandardCharsets.ISO_8859_1);
+                byte[] alt = alleleKey.getAlt().getBytes(StandardCharsets.ISO_8859_1);
+                out.writeInt(alleleKey.getChr());
+                out.writeInt(alleleKey.getPosition());
+                out.writeInt(ref.length);
+                out.writeInt(alt.length);
+                out.write(ref);
+                out.write(alt);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write variant whitelist to " + whiteListPath, e);
+        }
+        logger.info("Written {} variants to whitelist {}", count, whiteListPath);
+    }
+
+    private static int recordLength(AlleleProto.AlleleKey alleleKey) {
+        return 4 * Integer.BYTES + alleleKey.getRef().length() + alleleKey.getAlt().length();
+    }
+
+    @Override
+    public boolean contains(Variant variant) {
+        long hash = AlleleKeyHasher.hash(variant);
+        int index = firstIndexOf(hash);
+        if (index < 0) {
+            return false;
+        }
+        for (int i = index; i < count && hashAt(i) == hash; i++) {
+            if (recordMatches(i, variant.contigId(), variant.start(), variant.ref(), variant.alt())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private long hashAt(int index) {
+        return buffer.getLong(HEADER_BYTES + index * Long.BYTES);
+    }
+
+    /**
+     * Binary search returning the lowest index of the hash, or -1 if not present.
+     */
+    private int firstIndexOf(long hash) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (hashAt(mid) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < count && hashAt(low) == hash ? low : -1;
+    }
+
+    private boolean recordMatches(int index, int chr, int pos, String ref, String alt) {
+        int record = recordsStart + buffer.getInt(offsetsStart + index * Integer.BYTES);
+        if (buffer.getInt(record) != chr || buffer.getInt(record + 4) != pos) {
+            return false;
+        }
+        int refLength = buffer.getInt(record + 8);
+        int altLength = buffer.getInt(record + 12);
+        if (refLength != ref.length() || altLength != alt.length()) {
+            return false;
+        }
+        int refStart = record + 16;
+        return bytesMatch(refStart, ref) && bytesMatch(refStart + refLength, alt);
+    }
+
+    private boolean bytesMatch(int start, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if ((buffer.get(start + i) & 0xFF) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "MappedVariantWhiteList{" +
+                "count=" + count +
+                '}';
+    }
+}
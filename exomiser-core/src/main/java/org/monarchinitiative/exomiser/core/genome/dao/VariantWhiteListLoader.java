@@ -33,6 +33,7 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
+import java.util.Set;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -50,8 +51,10 @@ private VariantWhiteListLoader() {
     }
 
     /**
-     * Loads variant whitelist data from the given path into an in-memory instance of a {@link VariantWhiteList}. It is
-     * assumed that the whitelist will only contain a few tens of thousand variants.
+     * Loads variant whitelist data from the given path into an instance of a {@link VariantWhiteList}. If the file
+     * was written by {@link MappedVariantWhiteList#write(java.util.Collection, Path)} it will be memory-mapped,
+     * otherwise it will be parsed into an in-memory instance. It is assumed that the gzipped TSV whitelist will only
+     * contain a few tens of thousand variants.
      * <p>
      * The whitelist should be a gzipped TSV file containing a single allele on each line where the fields are as follows:
      * #CHR    POS REF ALT
@@ -59,10 +62,26 @@ private VariantWhiteListLoader() {
      * <p>
      * It is permissible to add further fields, but they will be ignored.
      *
-     * @param whiteListPath {@link Path) to the variant whitelist .gz file.
-     * @return An in-memory instance of the {@link VariantWhiteList}
+     * @param whiteListPath {@link Path) to the variant whitelist .gz or mapped whitelist file.
+     * @return An instance of the {@link VariantWhiteList}
      */
     public static VariantWhiteList loadVariantWhiteList(Path whiteListPath) {
+        Objects.requireNonNull(whiteListPath);
+        if (MappedVariantWhiteList.isMappedWhiteList(whiteListPath)) {
+            return MappedVariantWhiteList.load(whiteListPath);
+        }
+        Set<AlleleProto.AlleleKey> whiteList = readAlleleKeys(whiteListPath);
+        return InMemoryVariantWhiteList.of(whiteList);
+    }
+
+    /**
+     * Reads the alleles from a gzipped TSV whitelist file, as described in {@link #loadVariantWhiteList(Path)}.
+     *
+     * @param whiteListPath {@link Path) to the variant whitelist .gz file.
+     * @return the set of whitelisted alleles
+     * @since 13.1.0
+     */
+    public static Set<AlleleProto.AlleleKey> readAlleleKeys(Path whiteListPath) {
         Objects.requireNonNull(whiteListPath);
         logger.info("Loading variant whitelist from: {}", whiteListPath);
         // this should be a tabix-indexed gzip file
@@ -95,6 +114,6 @@ public static VariantWhiteList loadVariantWhiteList(Path whiteListPath) {
 
         ImmutableSet<AlleleProto.AlleleKey> whiteList = whiteListBuilder.build();
         logger.info("Loaded {} variants into whitelist", whiteList.size());
-        return InMemoryVariantWhiteList.of(whiteList);
+        return whiteList;
     }
 }
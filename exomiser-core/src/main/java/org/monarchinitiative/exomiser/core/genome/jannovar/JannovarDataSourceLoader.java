@@ -31,7 +31,8 @@
 /**
  * Utility for loading JannovarData from disk. There are two formats for this - the original which uses standard Java
  * serialisation and an Exomiser-specific Protobuf version. The Protobuf version loads about twice as fast as the
- * standard Java serialised version, although is much less compressed.
+ * standard Java serialised version, although is much less compressed. The {@link TranscriptSnapshot} format is
+ * uncompressed and memory-mapped so is larger again, but does not need to be inflated before use.
  *
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
@@ -44,6 +45,9 @@ private JannovarDataSourceLoader() {
     }
 
     public static JannovarData loadJannovarData(Path transcriptFilePath){
+        if (TranscriptSnapshot.isSnapshot(transcriptFilePath)) {
+            return TranscriptSnapshot.open(transcriptFilePath).toJannovarData();
+        }
         //first try loading the file using the new protobuf-based format (larger file-size, but faster load-time)
         try {
             return JannovarDataProtoSerialiser.load(transcriptFilePath);
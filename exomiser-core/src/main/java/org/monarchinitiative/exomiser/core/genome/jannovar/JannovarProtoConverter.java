@@ -164,7 +164,7 @@ public static JannovarData toJannovarData(JannovarProto.JannovarData protoJannov
         return new JannovarData(referenceDictionary, transcriptModels);
     }
 
-    private static ReferenceDictionary toReferenceDictionary(JannovarProto.ReferenceDictionary protoRefDict) {
+    static ReferenceDictionary toReferenceDictionary(JannovarProto.ReferenceDictionary protoRefDict) {
         ReferenceDictionaryBuilder referenceDictionaryBuilder = new ReferenceDictionaryBuilder();
         protoRefDict.getContigNameToIdMap().forEach(referenceDictionaryBuilder::putContigID);
         protoRefDict.getContigIdToNameMap().forEach(referenceDictionaryBuilder::putContigName);
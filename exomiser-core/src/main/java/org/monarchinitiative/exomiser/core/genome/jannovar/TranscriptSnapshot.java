@@ -0,0 +1,325 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.jannovar;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.InvalidProtocolBufferException;
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import org.monarchinitiative.exomiser.core.genome.GeneFactory;
+import org.monarchinitiative.exomiser.core.model.GeneIdentifier;
+import org.monarchinitiative.exomiser.core.proto.JannovarProto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Strings.nullToEmpty;
+
+/**
+ * Uncompressed, memory-mapped transcript data file. Unlike the gzipped protobuf written by
+ * {@link JannovarDataProtoSerialiser} the transcripts are stored as individual length-delimited protobuf records,
+ * grouped by contig and preceded by a table of their offsets and the range of records for each contig. This means that
+ * opening a snapshot only reads the header and tables, and that the transcripts of a single contig can be decoded with
+ * {@link #toJannovarData(int)} without touching the records of any other contig. The {@link GeneIdentifier} of all the
+ * transcripts are stored separately so that the known genes do not require any transcripts to be decoded.
+ * <pre>
+ * header:      byte[4] magic, int version
+ * refDict:     int length, byte[length] ReferenceDictionary proto
+ * genes:       int length, byte[length] int numGenes, numGenes * (7 * UTF) GeneIdentifier
+ * contigs:     int numContigs, numContigs * (int contigId, int firstIndex, int count)
+ * transcripts: int numTranscripts, numTranscripts * (int offset, int length)
+ * records:     TranscriptModel protos
+ * </pre>
+ *
+ * @since 13.1.0
+ */
+public class TranscriptSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptSnapshot.class);
+
+    private static final byte[] MAGIC_BYTES = {'J', 'T', 'S', 'N'};
+    private static final int VERSION = 2;
+    private static final int CONTIG_ENTRY_BYTES = 3 * Integer.BYTES;
+    private static final int TRANSCRIPT_ENTRY_BYTES = 2 * Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final ReferenceDictionary referenceDictionary;
+    private final int genesStart;
+    private final int genesLength;
+    // contigId -> {firstIndex, count}
+    private final Map<Integer, int[]> contigRecords;
+    private final int numTranscripts;
+    private final int transcriptIndexStart;
+
+    private final Function<JannovarProto.TranscriptModel, TranscriptModel> transcriptModelConverter;
+
+    private TranscriptSnapshot(ByteBuffer buffer, ReferenceDictionary referenceDictionary, int genesStart, int genesLength, Map<Integer, int[]> contigRecords, int numTranscripts, int transcriptIndexStart) {
+        this.buffer = buffer;
+        this.referenceDictionary = referenceDictionary;
+        this.genesStart = genesStart;
+        this.genesLength = genesLength;
+        this.contigRecords = contigRecords;
+        this.numTranscripts = numTranscripts;
+        this.transcriptIndexStart = transcriptIndexStart;
+        this.transcriptModelConverter = JannovarProtoConverter.toTranscriptModel(referenceDictionary);
+    }
+
+    /**
+     * Checks whether the file at the given path starts with the snapshot magic bytes.
+     */
+    public static boolean isSnapshot(Path path) {
+        try (DataInputStream dataInputStream = new DataInputStream(Files.newInputStream(path))) {
+            byte[] bytes = new byte[MAGIC_BYTES.length];
+            dataInputStream.readFully(bytes);
+            return Arrays.equals(bytes, MAGIC_BYTES);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static void save(Path outFilePath, JannovarData jannovarData) {
+        logger.info("Writing transcript snapshot to {}", outFilePath);
+        JannovarProto.JannovarData protoJannovarData = JannovarProtoConverter.toJannovarProto(jannovarData);
+        byte[] refDictBytes = protoJannovarData.getReferenceDictionary().toByteArray();
+        byte[] geneBytes = toBytes(new GeneFactory(jannovarData).getGeneIdentifiers());
+
+        // n.b. this is a stable sort, so the transcripts of each gene remain in their original order
+        List<JannovarProto.TranscriptModel> transcriptModels = new ArrayList<>(protoJannovarData.getTranscriptModelsList());
+        transcriptModels.sort(Comparator.comparingInt(transcriptModel -> transcriptModel.getTxRegion().getChr()));
+        List<byte[]> records = new ArrayList<>(transcriptModels.size());
+        // contigId -> {firstIndex, count}
+        Map<Integer, int[]> contigRecords = new LinkedHashMap<>();
+        for (int i = 0; i < transcriptModels.size(); i++) {
+            JannovarProto.TranscriptModel transcriptModel = transcriptModels.get(i);
+            int index = i;
+            contigRecords.computeIfAbsent(transcriptModel.getTxRegion().getChr(), contigId -> new int[]{index, 0})[1]++;
+            records.add(transcriptModel.toByteArray());
+        }
+
+        long recordsStart = (long) MAGIC_BYTES.length + Integer.BYTES
+                + Integer.BYTES + refDictBytes.length
+                + Integer.BYTES + geneBytes.length
+                + Integer.BYTES + (long) contigRecords.size() * CONTIG_ENTRY_BYTES
+                + Integer.BYTES + (long) records.size() * TRANSCRIPT_ENTRY_BYTES;
+        long totalSize = recordsStart + records.stream().mapToLong(bytes -> bytes.length).sum();
+        if (totalSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Transcript snapshot would exceed the maximum size of " + Integer.MAX_VALUE + " bytes");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(outFilePath), 1 << 16))) {
+            out.write(MAGIC_BYTES);
+            out.writeInt(VERSION);
+            out.writeInt(refDictBytes.length);
+            out.write(refDictBytes);
+            out.writeInt(geneBytes.length);
+            out.write(geneBytes);
+            out.writeInt(contigRecords.size());
+            for (Map.Entry<Integer, int[]> entry : contigRecords.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue()[0]);
+                out.writeInt(entry.getValue()[1]);
+            }
+            out.writeInt(records.size());
+            int offset = (int) recordsStart;
+            for (byte[] record : records) {
+                out.writeInt(offset);
+                out.writeInt(record.length);
+                offset += record.length;
+            }
+            for (byte[] record : records) {
+                out.write(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write transcript snapshot to " + outFilePath, e);
+        }
+        logger.info("Written {} transcripts on {} contigs", records.size(), contigRecords.size());
+    }
+
+    private static byte[] toBytes(Set<GeneIdentifier> geneIdentifiers) {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(byteArrayOutputStream)) {
+            out.writeInt(geneIdentifiers.size());
+            for (GeneIdentifier geneIdentifier : geneIdentifiers) {
+                out.writeUTF(nullToEmpty(geneIdentifier.getGeneSymbol()));
+                out.writeUTF(nullToEmpty(geneIdentifier.getGeneId()));
+                out.writeUTF(nullToEmpty(geneIdentifier.getHgncId()));
+                out.writeUTF(nullToEmpty(geneIdentifier.getHgncSymbol()));
+                out.writeUTF(nullToEmpty(geneIdentifier.getEntrezId()));
+                out.writeUTF(nullToEmpty(geneIdentifier.getEnsemblId()));
+                out.writeUTF(nullToEmpty(geneIdentifier.getUcscId()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * Memory-maps the snapshot file. Only the header, contig and transcript tables are read by this method.
+     *
+     * @param snapshotPath path to a file written by {@link #save(Path, JannovarData)}
+     * @return the mapped snapshot
+     */
+    public static TranscriptSnapshot open(Path snapshotPath) {
+        Objects.requireNonNull(snapshotPath);
+        try (FileChannel fileChannel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            if (fileChannel.size() > Integer.MAX_VALUE) {
+                throw new InvalidFileFormatException(snapshotPath + " is too large to be a transcript snapshot");
+            }
+            ByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            byte[] magic = new byte[MAGIC_BYTES.length];
+            if (buffer.remaining() < MAGIC_BYTES.length + Integer.BYTES) {
+                throw new InvalidFileFormatException(snapshotPath + " not an Exomiser transcript snapshot.");
+            }
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC_BYTES)) {
+                throw new InvalidFileFormatException(snapshotPath + " not an Exomiser transcript snapshot.");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new InvalidFileFormatException("Unsupported transcript snapshot version " + version + " in " + snapshotPath);
+            }
+            int refDictLength = buffer.getInt();
+            ByteBuffer refDictBuffer = buffer.duplicate();
+            refDictBuffer.limit(buffer.position() + refDictLength);
+            JannovarProto.ReferenceDictionary protoRefDict = JannovarProto.ReferenceDictionary.parseFrom(refDictBuffer);
+            buffer.position(buffer.position() + refDictLength);
+
+            int genesLength = buffer.getInt();
+            int genesStart = buffer.position();
+            buffer.position(genesStart + genesLength);
+
+            int numContigs = buffer.getInt();
+            Map<Integer, int[]> contigRecords = new HashMap<>();
+            for (int i = 0; i < numContigs; i++) {
+                int contigId = buffer.getInt();
+                contigRecords.put(contigId, new int[]{buffer.getInt(), buffer.getInt()});
+            }
+
+            int numTranscripts = buffer.getInt();
+            int transcriptIndexStart = buffer.position();
+
+            ReferenceDictionary referenceDictionary = JannovarProtoConverter.toReferenceDictionary(protoRefDict);
+            return new TranscriptSnapshot(buffer, referenceDictionary, genesStart, genesLength, contigRecords, numTranscripts, transcriptIndexStart);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open transcript snapshot " + snapshotPath, e);
+        }
+    }
+
+    public ReferenceDictionary getReferenceDictionary() {
+        return referenceDictionary;
+    }
+
+    public int size() {
+        return numTranscripts;
+    }
+
+    /**
+     * @return the {@link GeneIdentifier} of all the transcripts in the snapshot, in the same order as those created by a
+     * {@link GeneFactory} from the original {@link JannovarData}. No transcripts are decoded by this method.
+     */
+    public Set<GeneIdentifier> getGeneIdentifiers() {
+        ByteBuffer genesBuffer = buffer.duplicate();
+        genesBuffer.limit(genesStart + genesLength);
+        genesBuffer.position(genesStart);
+        byte[] geneBytes = new byte[genesLength];
+        genesBuffer.get(geneBytes);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(geneBytes))) {
+            int numGenes = in.readInt();
+            ImmutableSet.Builder<GeneIdentifier> geneIdentifiers = ImmutableSet.builderWithExpectedSize(numGenes);
+            for (int i = 0; i < numGenes; i++) {
+                geneIdentifiers.add(GeneIdentifier.builder()
+                        .geneSymbol(in.readUTF())
+                        .geneId(in.readUTF())
+                        .hgncId(in.readUTF())
+                        .hgncSymbol(in.readUTF())
+                        .entrezId(in.readUTF())
+                        .ensemblId(in.readUTF())
+                        .ucscId(in.readUTF())
+                        .build());
+            }
+            return geneIdentifiers.build();
+        } catch (IOException e) {
+            throw new InvalidFileFormatException("Unable to decode gene identifiers", e);
+        }
+    }
+
+    /**
+     * Decodes all the transcripts into a {@link JannovarData}.
+     */
+    public JannovarData toJannovarData() {
+        Instant start = Instant.now();
+        ImmutableList<TranscriptModel> transcriptModels = IntStream.range(0, numTranscripts)
+                .parallel()
+                .mapToObj(this::decode)
+                .collect(ImmutableList.toImmutableList());
+        JannovarData jannovarData = new JannovarData(referenceDictionary, transcriptModels);
+        logger.info("Decoded {} transcripts in {} ms", numTranscripts, Duration.between(start, Instant.now()).toMillis());
+        return jannovarData;
+    }
+
+    /**
+     * Decodes only the transcripts of the given contig into a {@link JannovarData}. The records of all other contigs
+     * are not read. A contig without any transcripts will return a {@link JannovarData} with no chromosomes.
+     *
+     * @param contigId the Jannovar contig id, as used by the {@link ReferenceDictionary}
+     */
+    public JannovarData toJannovarData(int contigId) {
+        int[] records = contigRecords.get(contigId);
+        if (records == null) {
+            return new JannovarData(referenceDictionary, ImmutableList.of());
+        }
+        Instant start = Instant.now();
+        ImmutableList<TranscriptModel> transcriptModels = IntStream.range(records[0], records[0] + records[1])
+                .mapToObj(this::decode)
+                .collect(ImmutableList.toImmutableList());
+        JannovarData jannovarData = new JannovarData(referenceDictionary, transcriptModels);
+        logger.debug("Decoded {} transcripts for contig {} in {} ms", records[1], contigId, Duration.between(start, Instant.now()).toMillis());
+        return jannovarData;
+    }
+
+    private TranscriptModel decode(int index) {
+        int entry = transcriptIndexStart + index * TRANSCRIPT_ENTRY_BYTES;
+        int offset = buffer.getInt(entry);
+        int length = buffer.getInt(entry + Integer.BYTES);
+        ByteBuffer record = buffer.duplicate();
+        record.limit(offset + length);
+        record.position(offset);
+        try {
+            return transcriptModelConverter.apply(JannovarProto.TranscriptModel.parseFrom(record));
+        } catch (InvalidProtocolBufferException e) {
+            throw new InvalidFileFormatException("Unable to decode transcript " + index, e);
+        }
+    }
+}
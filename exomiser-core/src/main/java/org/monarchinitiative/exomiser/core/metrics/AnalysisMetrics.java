@@ -0,0 +1,105 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.metrics;
+
+import org.monarchinitiative.exomiser.core.genome.dao.AlleleKeyFilter;
+
+import java.util.function.Supplier;
+
+/**
+ * Instrumentation hooks for the stages of an analysis. The analysis runners, data providers and results writers report
+ * how long they spent working to an instance of this class, which can then aggregate or export the measurements as
+ * required. By default a {@link #noOp()} instance is used which records nothing and costs nothing. A simple in-memory
+ * implementation is provided by {@link SimpleAnalysisMetrics} and the Spring Boot autoconfiguration will provide an
+ * implementation backed by a Micrometer {@code MeterRegistry} when one is available.
+ * <p>
+ * Implementations will be called concurrently and from within the variant stream, so must be thread-safe and should
+ * return quickly.
+ *
+ * @since 13.1.0
+ */
+public interface AnalysisMetrics {
+
+    /**
+     * Allows callers in the hot path to skip reading the clock if the measurements are not going to be recorded.
+     *
+     * @return true if measurements are recorded by this instance.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Records the time spent performing a step of an {@link AnalysisStage}.
+     *
+     * @param stage          the stage being timed
+     * @param step           the name of the step within the stage, for instance the filter or prioritiser type
+     * @param durationNanos  the time taken in nanoseconds
+     */
+    void recordStage(AnalysisStage stage, String step, long durationNanos);
+
+    /**
+     * Records the latency of a single lookup against an external data source, such as the allele store or a tabix file.
+     *
+     * @param dataSource    the name of the data source
+     * @param durationNanos the time taken in nanoseconds
+     */
+    void recordDataSourceLatency(String dataSource, long durationNanos);
+
+    /**
+     * Records the number of variants read from the VCF and the number which passed the variant filters.
+     *
+     * @param loaded the number of variants loaded
+     * @param passed the number of variants which passed the variant filters
+     */
+    void recordVariantCounts(long loaded, long passed);
+
+    /**
+     * Registers an {@link AlleleKeyFilter} whose hit and miss counts are to be reported with the other measurements. The
+     * counts are read from the filter when reported, so this adds nothing to the cost of a lookup.
+     *
+     * @param name            the name of the filter, for instance the genome assembly of the store it guards
+     * @param alleleKeyFilter the {@link AlleleKeyFilter} to report
+     */
+    void registerAlleleKeyFilter(String name, AlleleKeyFilter alleleKeyFilter);
+
+    default void measure(AnalysisStage stage, String step, Runnable runnable) {
+        long start = System.nanoTime();
+        try {
+            runnable.run();
+        } finally {
+            recordStage(stage, step, System.nanoTime() - start);
+        }
+    }
+
+    default <T> T measure(AnalysisStage stage, String step, Supplier<T> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            recordStage(stage, step, System.nanoTime() - start);
+        }
+    }
+
+    static AnalysisMetrics noOp() {
+        return NoOpAnalysisMetrics.INSTANCE;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.metrics;
+
+/**
+ * The stages of an analysis which are timed by an {@link AnalysisMetrics} instance.
+ *
+ * @since 13.1.0
+ */
+public enum AnalysisStage {
+
+    /**
+     * The complete analysis, from opening the VCF through to scoring the genes.
+     */
+    ANALYSIS("analysis"),
+    /**
+     * Reading and decoding the records of the input VCF.
+     */
+    VCF_DECODING("vcf-decoding"),
+    /**
+     * Normalising an allele and annotating it against the transcript and regulatory models.
+     */
+    VARIANT_ANNOTATION("variant-annotation"),
+    /**
+     * Running a {@link org.monarchinitiative.exomiser.core.filters.VariantFilter} over a single variant as it is loaded,
+     * including fetching any data required by the filter.
+     */
+    VARIANT_FILTER("variant-filter"),
+    /**
+     * Running a {@link org.monarchinitiative.exomiser.core.filters.VariantFilter} over all the variants of the genes, as
+     * a step after the variants have been loaded.
+     */
+    VARIANT_FILTER_STEP("variant-filter-step"),
+    GENE_FILTER("gene-filter"),
+    INHERITANCE_MODE_ANALYSIS("inheritance-mode-analysis"),
+    PRIORITISER("prioritiser"),
+    GENE_SCORING("gene-scoring"),
+    RESULTS_WRITER("results-writer");
+
+    private final String metricName;
+
+    AnalysisStage(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * @return the lower-case, hyphenated name used to identify this stage in exported metrics.
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+}
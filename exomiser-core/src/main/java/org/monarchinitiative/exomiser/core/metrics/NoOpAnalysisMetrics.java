@@ -0,0 +1,73 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.metrics;
+
+import org.monarchinitiative.exomiser.core.genome.dao.AlleleKeyFilter;
+
+import java.util.function.Supplier;
+
+/**
+ * @since 13.1.0
+ */
+enum NoOpAnalysisMetrics implements AnalysisMetrics {
+
+    INSTANCE;
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void recordStage(AnalysisStage stage, String step, long durationNanos) {
+        // deliberately empty
+    }
+
+    @Override
+    public void recordDataSourceLatency(String dataSource, long durationNanos) {
+        // deliberately empty
+    }
+
+    @Override
+    public void recordVariantCounts(long loaded, long passed) {
+        // deliberately empty
+    }
+
+    @Override
+    public void registerAlleleKeyFilter(String name, AlleleKeyFilter alleleKeyFilter) {
+        // deliberately empty
+    }
+
+    @Override
+    public void measure(AnalysisStage stage, String step, Runnable runnable) {
+        runnable.run();
+    }
+
+    @Override
+    public <T> T measure(AnalysisStage stage, String step, Supplier<T> supplier) {
+        return supplier.get();
+    }
+
+    @Override
+    public String toString() {
+        return "NoOpAnalysisMetrics";
+    }
+}
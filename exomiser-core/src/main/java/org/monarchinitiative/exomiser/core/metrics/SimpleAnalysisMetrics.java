@@ -0,0 +1,210 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.metrics;
+
+import org.monarchinitiative.exomiser.core.genome.dao.AlleleKeyFilter;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe, in-memory {@link AnalysisMetrics} for applications without a metrics registry, such as the CLI. The
+ * measurements from every analysis run by the application are aggregated and can be exported using {@link #getReport()}
+ * which returns a nested map of plain values suitable for serialising to JSON.
+ * <p>
+ * Data source latencies are also recorded into a histogram with power-of-two nanosecond buckets so that the shape of
+ * the distribution (e.g. fast allele store hits vs. slow tabix seeks) can be seen.
+ *
+ * @since 13.1.0
+ */
+public class SimpleAnalysisMetrics implements AnalysisMetrics {
+
+    private static final String ALL_STEPS = "all";
+
+    private final Map<AnalysisStage, ConcurrentMap<String, LatencyRecorder>> stageTimers = new EnumMap<>(AnalysisStage.class);
+    private final ConcurrentMap<String, LatencyRecorder> dataSourceTimers = new ConcurrentHashMap<>();
+    private final LongAdder variantsLoaded = new LongAdder();
+    private final LongAdder variantsPassed = new LongAdder();
+    private final ConcurrentMap<String, AlleleKeyFilter> alleleKeyFilters = new ConcurrentHashMap<>();
+
+    public SimpleAnalysisMetrics() {
+        for (AnalysisStage stage : AnalysisStage.values()) {
+            stageTimers.put(stage, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void recordStage(AnalysisStage stage, String step, long durationNanos) {
+        stageTimers.get(stage)
+                .computeIfAbsent(step == null ? ALL_STEPS : step, key -> new LatencyRecorder(false))
+                .record(durationNanos);
+    }
+
+    @Override
+    public void recordDataSourceLatency(String dataSource, long durationNanos) {
+        dataSourceTimers.computeIfAbsent(dataSource, key -> new LatencyRecorder(true))
+                .record(durationNanos);
+    }
+
+    @Override
+    public void recordVariantCounts(long loaded, long passed) {
+        variantsLoaded.add(loaded);
+        variantsPassed.add(passed);
+    }
+
+    @Override
+    public void registerAlleleKeyFilter(String name, AlleleKeyFilter alleleKeyFilter) {
+        alleleKeyFilters.put(name, alleleKeyFilter);
+    }
+
+    public long getVariantsLoaded() {
+        return variantsLoaded.sum();
+    }
+
+    public long getVariantsPassed() {
+        return variantsPassed.sum();
+    }
+
+    /**
+     * @param stage the {@link AnalysisStage} of interest
+     * @param step  the step within the stage
+     * @return the total time in nanoseconds recorded for the step of the stage, or 0 if nothing was recorded.
+     */
+    public long getTotalNanos(AnalysisStage stage, String step) {
+        LatencyRecorder recorder = stageTimers.get(stage).get(step == null ? ALL_STEPS : step);
+        return recorder == null ? 0 : recorder.total.sum();
+    }
+
+    /**
+     * Returns a snapshot of the current measurements. Times are reported in milliseconds and the data source latency
+     * histogram is keyed by the upper bound of each bucket in nanoseconds.
+     *
+     * @return a nested map of the recorded metrics.
+     */
+    public Map<String, Object> getReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("variants", variantsReport());
+
+        Map<String, Object> stages = new LinkedHashMap<>();
+        stageTimers.forEach((stage, timers) -> {
+            if (!timers.isEmpty()) {
+                Map<String, Object> steps = new TreeMap<>();
+                timers.forEach((step, recorder) -> steps.put(step, recorder.report()));
+                stages.put(stage.getMetricName(), steps);
+            }
+        });
+        report.put("stages", stages);
+
+        Map<String, Object> dataSources = new TreeMap<>();
+        dataSourceTimers.forEach((dataSource, recorder) -> dataSources.put(dataSource, recorder.report()));
+        report.put("dataSources", dataSources);
+
+        Map<String, Object> filters = new TreeMap<>();
+        alleleKeyFilters.forEach((name, alleleKeyFilter) -> filters.put(name, alleleKeyFilterReport(alleleKeyFilter)));
+        report.put("alleleKeyFilters", filters);
+        return report;
+    }
+
+    private Map<String, Object> alleleKeyFilterReport(AlleleKeyFilter alleleKeyFilter) {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        long hits = alleleKeyFilter.getHitCount();
+        long misses = alleleKeyFilter.getMissCount();
+        counts.put("hits", hits);
+        counts.put("misses", misses);
+        // the proportion of lookups which were skipped, i.e. never reached the allele store
+        counts.put("missRate", hits + misses == 0 ? 0.0 : (double) misses / (hits + misses));
+        return counts;
+    }
+
+    private Map<String, Object> variantsReport() {
+        Map<String, Object> variants = new LinkedHashMap<>();
+        long loaded = variantsLoaded.sum();
+        variants.put("loaded", loaded);
+        variants.put("passed", variantsPassed.sum());
+        long analysisNanos = stageTimers.get(AnalysisStage.ANALYSIS).values().stream()
+                .mapToLong(recorder -> recorder.total.sum())
+                .sum();
+        double analysisSeconds = analysisNanos / 1e9;
+        variants.put("loadedPerSecond", analysisSeconds == 0 ? 0 : Math.round(loaded / analysisSeconds));
+        return variants;
+    }
+
+    @Override
+    public String toString() {
+        return "SimpleAnalysisMetrics{" +
+                "variantsLoaded=" + variantsLoaded +
+                ", variantsPassed=" + variantsPassed +
+                '}';
+    }
+
+    private static class LatencyRecorder {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        // bucket i holds durations in the range (2^(i-1), 2^i] nanoseconds
+        private final AtomicLongArray histogram;
+
+        private LatencyRecorder(boolean withHistogram) {
+            this.histogram = withHistogram ? new AtomicLongArray(Long.SIZE) : null;
+        }
+
+        private void record(long durationNanos) {
+            long nanos = Math.max(0, durationNanos);
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+            if (histogram != null) {
+                histogram.incrementAndGet(nanos <= 1 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(nanos - 1));
+            }
+        }
+
+        private Map<String, Object> report() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            long n = count.sum();
+            long totalNanos = total.sum();
+            report.put("count", n);
+            report.put("totalMillis", TimeUnit.NANOSECONDS.toMillis(totalNanos));
+            report.put("meanMicros", n == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos / n));
+            report.put("maxMicros", TimeUnit.NANOSECONDS.toMicros(max.get()));
+            if (histogram != null) {
+                Map<String, Long> buckets = new LinkedHashMap<>();
+                for (int i = 0; i < histogram.length(); i++) {
+                    long bucketCount = histogram.get(i);
+                    if (bucketCount != 0) {
+                        String upperBound = i == Long.SIZE - 1 ? "+Inf" : Long.toString(1L << i);
+                        buckets.put(upperBound, bucketCount);
+                    }
+                }
+                report.put("histogramNanos", buckets);
+            }
+            return report;
+        }
+    }
+}
@@ -99,7 +99,6 @@ private AlleleProtoAdaptor() {
     }
 
     // This would make sense to have this here rather than having similar functionality in the MvStoreUtil
-    // and the VariantKeyGenerator
     public static AlleleKey toAlleleKey(Variant variant) {
         // ARGH! I didn't put the frikking genome assembly in the alleleKey!
         // adding it will probably make the data backwards-incompatible as the MVStore is essentially a TreeMap
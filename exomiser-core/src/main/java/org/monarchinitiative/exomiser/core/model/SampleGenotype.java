@@ -288,6 +288,23 @@ public boolean isNoCall() {
         return true;
     }
 
+    /**
+     * Tests whether the current {@link SampleGenotype} contains at least one ALT call. Unlike checking the result of
+     * {@link #getCalls()} this does not allocate.
+     *
+     * @return true if the genotype contains an ALT call, otherwise false
+     * @since 13.1.0
+     */
+    @JsonIgnore
+    public boolean hasAltCall() {
+        for (int i = 0; i < alleleCalls.length; i++) {
+            if (alleleCalls[i] == AlleleCall.ALT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
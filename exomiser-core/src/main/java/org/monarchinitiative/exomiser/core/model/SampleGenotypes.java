@@ -22,27 +22,68 @@
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+/**
+ * The {@link SampleGenotype} and {@link CopyNumber} of each sample for a single allele. The sample names are held in a
+ * {@link SampleIndex} which is shared between all the alleles from the same VCF, with the per-sample calls stored in
+ * sample order as a packed byte array of genotype codes and, only when present, a primitive array of copy numbers.
+ * {@link SampleData} instances are created on demand.
+ */
 public class SampleGenotypes implements Iterable<SampleData> {
 
-    private final Map<String, SampleData> sampleDataById;
+    // The common genotypes are stored as their position in this table. Any others are stored in the otherGenotypes
+    // array with a code of OTHER_GENOTYPE.
+    private static final SampleGenotype[] GENOTYPE_CODES = {
+            SampleGenotype.empty(),
+            SampleGenotype.noCall(),
+            SampleGenotype.het(),
+            SampleGenotype.homRef(),
+            SampleGenotype.homAlt(),
+            SampleGenotype.phased(AlleleCall.NO_CALL, AlleleCall.NO_CALL),
+            SampleGenotype.phased(AlleleCall.REF, AlleleCall.ALT),
+            SampleGenotype.phased(AlleleCall.ALT, AlleleCall.REF),
+            SampleGenotype.phased(AlleleCall.REF, AlleleCall.REF),
+            SampleGenotype.phased(AlleleCall.ALT, AlleleCall.ALT),
+    };
+    private static final byte OTHER_GENOTYPE = -1;
+    private static final int NO_COPY_NUMBER = -1;
+
+    private static final SampleGenotypes EMPTY = new SampleGenotypes(SampleIndex.empty(), new byte[0], null, null);
+
+    private final SampleIndex sampleIndex;
+    private final byte[] genotypeCodes;
+    @Nullable
+    private final SampleGenotype[] otherGenotypes;
+    @Nullable
+    private final int[] copyNumbers;
 
-    private SampleGenotypes(List<SampleData> sampleData) {
-        Objects.requireNonNull(sampleData);
-        this.sampleDataById = buildSamplesMap(sampleData);
+    private SampleGenotypes(SampleIndex sampleIndex, byte[] genotypeCodes, @Nullable SampleGenotype[] otherGenotypes, @Nullable int[] copyNumbers) {
+        this.sampleIndex = sampleIndex;
+        this.genotypeCodes = genotypeCodes;
+        this.otherGenotypes = otherGenotypes;
+        this.copyNumbers = copyNumbers;
     }
 
-    private Map<String, SampleData> buildSamplesMap(List<SampleData> samples) {
-        Map<String, SampleData> sampleMap = new LinkedHashMap<>(samples.size());
+    public static SampleGenotypes of(List<SampleData> samples) {
+        Objects.requireNonNull(samples);
+        if (samples.isEmpty()) {
+            return EMPTY;
+        }
+        // retains the previous Map-based behaviour where a repeated sample replaces the earlier one
+        Map<String, SampleData> sampleDataById = new LinkedHashMap<>(samples.size());
         for (SampleData sampleData : samples) {
-            sampleMap.put(sampleData.getId(), sampleData);
+            sampleDataById.put(sampleData.getId(), sampleData);
         }
-        return Collections.unmodifiableMap(sampleMap);
-    }
-
-    public static SampleGenotypes of(List<SampleData> samples) {
-        return new SampleGenotypes(samples);
+        Builder builder = builder(SampleIndex.of(new ArrayList<>(sampleDataById.keySet())));
+        int index = 0;
+        for (SampleData sampleData : sampleDataById.values()) {
+            builder.sampleGenotype(index, sampleData.getSampleGenotype());
+            builder.copyNumber(index, sampleData.getCopyNumber().copies());
+            index++;
+        }
+        return builder.build();
     }
 
     public static SampleGenotypes of(SampleData... samples) {
@@ -65,69 +106,220 @@ public static SampleGenotypes of(String s1, SampleGenotype g1, String s2, Sample
         return of(SampleData.of(s1, g1), SampleData.of(s2, g2), SampleData.of(s3, g3), SampleData.of(s4, g4));
     }
 
+    /**
+     * Returns a new {@link Builder} for the samples in the {@link SampleIndex}. All the samples start with an empty
+     * {@link SampleGenotype} and {@link CopyNumber}.
+     *
+     * @param sampleIndex the index of sample names, which should be shared by all alleles from the same VCF
+     * @return a new {@link Builder}
+     * @since 13.1.0
+     */
+    public static Builder builder(SampleIndex sampleIndex) {
+        return new Builder(sampleIndex);
+    }
+
+    /**
+     * @since 13.1.0
+     */
+    public SampleIndex getSampleIndex() {
+        return sampleIndex;
+    }
+
     public List<SampleData> getSampleData() {
-        return List.copyOf(sampleDataById.values());
+        SampleData[] sampleData = new SampleData[genotypeCodes.length];
+        for (int i = 0; i < sampleData.length; i++) {
+            sampleData[i] = sampleDataAt(i);
+        }
+        return List.of(sampleData);
     }
 
     @Nullable
     public SampleData getSampleData(String sampleId) {
-        return sampleDataById.get(sampleId);
+        int index = sampleIndex.indexOf(sampleId);
+        return index == -1 ? null : sampleDataAt(index);
     }
 
     public SampleGenotype getSampleGenotype(String sampleId) {
-        SampleData sampleData = sampleDataById.get(sampleId);
-        return sampleData == null ? SampleGenotype.empty() : sampleData.getSampleGenotype();
+        int index = sampleIndex.indexOf(sampleId);
+        return index == -1 ? SampleGenotype.empty() : sampleGenotypeAt(index);
     }
 
     public CopyNumber getSampleCopyNumber(String sampleId) {
-        SampleData sampleData = sampleDataById.get(sampleId);
-        return sampleData == null ? CopyNumber.empty() : sampleData.getCopyNumber();
+        int index = sampleIndex.indexOf(sampleId);
+        return index == -1 ? CopyNumber.empty() : CopyNumber.of(copiesAt(index));
+    }
+
+    private SampleData sampleDataAt(int index) {
+        return SampleData.of(sampleIndex.getSampleName(index), sampleGenotypeAt(index), CopyNumber.of(copiesAt(index)));
+    }
+
+    private SampleGenotype sampleGenotypeAt(int index) {
+        byte code = genotypeCodes[index];
+        return code == OTHER_GENOTYPE ? otherGenotypes[index] : GENOTYPE_CODES[code];
+    }
+
+    private int copiesAt(int index) {
+        return copyNumbers == null ? NO_COPY_NUMBER : copyNumbers[index];
     }
 
     public boolean isEmpty() {
-        return sampleDataById.isEmpty();
+        return genotypeCodes.length == 0;
     }
 
     public int size() {
-        return sampleDataById.size();
+        return genotypeCodes.length;
     }
 
     @Override
     public Iterator<SampleData> iterator() {
-        return sampleDataById.values().iterator();
+        return new Iterator<>() {
+            private int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < genotypeCodes.length;
+            }
+
+            @Override
+            public SampleData next() {
+                if (cursor >= genotypeCodes.length) {
+                    throw new NoSuchElementException();
+                }
+                return sampleDataAt(cursor++);
+            }
+        };
     }
 
     public Stream<SampleData> stream() {
-        return sampleDataById.values().stream();
+        return IntStream.range(0, genotypeCodes.length).mapToObj(this::sampleDataAt);
     }
 
+    // Samples are compared by name, not position, as were the Map-backed SampleGenotypes
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         SampleGenotypes that = (SampleGenotypes) o;
-        return sampleDataById.equals(that.sampleDataById);
+        if (genotypeCodes.length != that.genotypeCodes.length) {
+            return false;
+        }
+        boolean sameOrder = sampleIndex.equals(that.sampleIndex);
+        for (int i = 0; i < genotypeCodes.length; i++) {
+            int j = sameOrder ? i : that.sampleIndex.indexOf(sampleIndex.getSampleName(i));
+            if (j == -1 || copiesAt(i) != that.copiesAt(j) || !sampleGenotypeAt(i).equals(that.sampleGenotypeAt(j))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(sampleDataById);
+        int result = 0;
+        for (int i = 0; i < genotypeCodes.length; i++) {
+            result += sampleIndex.getSampleName(i).hashCode() ^ (31 * sampleGenotypeAt(i).hashCode() + copiesAt(i));
+        }
+        return result;
     }
 
     @Override
     public String toString() {
         StringJoiner commaSeparated = new StringJoiner(", ", "{", "}");
-        for (SampleData sampleData : sampleDataById.values()) {
-            commaSeparated.add(sampleData.getId() + "=" + formatValues(sampleData));
+        for (int i = 0; i < genotypeCodes.length; i++) {
+            commaSeparated.add(sampleIndex.getSampleName(i) + "=" + formatValues(i));
         }
         return commaSeparated.toString();
     }
 
-    private String formatValues(SampleData sampleData) {
-        String gt = sampleData.getSampleGenotype().toString();
-        return sampleData.hasCopyNumber() ? gt + ":" + sampleData.getCopyNumber().copies() : gt;
+    private String formatValues(int index) {
+        String gt = sampleGenotypeAt(index).toString();
+        int copies = copiesAt(index);
+        return copies == NO_COPY_NUMBER ? gt : gt + ":" + copies;
     }
 
+    /**
+     * Builder for the {@link SampleGenotypes} of a single allele. Samples are set by their position in the
+     * {@link SampleIndex}. A {@link Builder} can only be built once.
+     *
+     * @since 13.1.0
+     */
+    public static class Builder {
+
+        private final SampleIndex sampleIndex;
+        private byte[] genotypeCodes;
+        private SampleGenotype[] otherGenotypes;
+        private int[] copyNumbers;
+
+        private Builder(SampleIndex sampleIndex) {
+            this.sampleIndex = Objects.requireNonNull(sampleIndex);
+            this.genotypeCodes = new byte[sampleIndex.size()];
+        }
+
+        public Builder sampleGenotype(int index, SampleGenotype sampleGenotype) {
+            checkNotBuilt();
+            Objects.requireNonNull(sampleGenotype);
+            byte code = genotypeCode(sampleGenotype);
+            genotypeCodes[index] = code;
+            if (code == OTHER_GENOTYPE) {
+                if (otherGenotypes == null) {
+                    otherGenotypes = new SampleGenotype[genotypeCodes.length];
+                }
+                otherGenotypes[index] = sampleGenotype;
+            } else if (otherGenotypes != null) {
+                otherGenotypes[index] = null;
+            }
+            return this;
+        }
+
+        private static byte genotypeCode(SampleGenotype sampleGenotype) {
+            // the SampleGenotype factory methods return the cached instances, so this is nearly always an identity match
+            for (byte i = 0; i < GENOTYPE_CODES.length; i++) {
+                if (GENOTYPE_CODES[i] == sampleGenotype) {
+                    return i;
+                }
+            }
+            for (byte i = 0; i < GENOTYPE_CODES.length; i++) {
+                if (GENOTYPE_CODES[i].equals(sampleGenotype)) {
+                    return i;
+                }
+            }
+            return OTHER_GENOTYPE;
+        }
+
+        public Builder copyNumber(int index, int copyNumber) {
+            checkNotBuilt();
+            if (copyNumbers == null) {
+                if (copyNumber == NO_COPY_NUMBER) {
+                    return this;
+                }
+                copyNumbers = new int[genotypeCodes.length];
+                Arrays.fill(copyNumbers, NO_COPY_NUMBER);
+            }
+            copyNumbers[index] = copyNumber;
+            return this;
+        }
+
+        public Builder copyNumber(int index, CopyNumber copyNumber) {
+            return copyNumber(index, copyNumber.copies());
+        }
+
+        public SampleGenotypes build() {
+            checkNotBuilt();
+            if (genotypeCodes.length == 0) {
+                return EMPTY;
+            }
+            // the arrays are handed over rather than copied, so the builder can't be used again
+            SampleGenotypes sampleGenotypes = new SampleGenotypes(sampleIndex, genotypeCodes, otherGenotypes, copyNumbers);
+            genotypeCodes = null;
+            return sampleGenotypes;
+        }
+
+        private void checkNotBuilt() {
+            if (genotypeCodes == null) {
+                throw new IllegalStateException("SampleGenotypes.Builder has already been built");
+            }
+        }
+    }
 
     public static class SingleSampleGenotypes implements Iterable<SampleData> {
 
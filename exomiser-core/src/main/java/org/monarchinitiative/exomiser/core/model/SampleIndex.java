@@ -0,0 +1,123 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.model;
+
+import java.util.*;
+
+/**
+ * Immutable, ordered lookup table of sample names to their column index in a VCF file. A single instance is intended
+ * to be shared by all the {@link SampleGenotypes} created from the same VCF so that the per-variant genotypes need
+ * only store their calls in sample order.
+ *
+ * @since 13.1.0
+ */
+public final class SampleIndex {
+
+    private static final SampleIndex EMPTY = new SampleIndex(List.of(), Map.of());
+
+    private final List<String> sampleNames;
+    private final Map<String, Integer> indexBySampleName;
+
+    private SampleIndex(List<String> sampleNames, Map<String, Integer> indexBySampleName) {
+        this.sampleNames = sampleNames;
+        this.indexBySampleName = indexBySampleName;
+    }
+
+    /**
+     * Creates a new {@link SampleIndex} for the sample names in the order in which they are given.
+     *
+     * @param sampleNames the sample names, in VCF column order
+     * @return an index of the sample names
+     * @throws IllegalArgumentException if a sample name is duplicated
+     */
+    public static SampleIndex of(List<String> sampleNames) {
+        Objects.requireNonNull(sampleNames);
+        if (sampleNames.isEmpty()) {
+            return EMPTY;
+        }
+        List<String> names = List.copyOf(sampleNames);
+        Map<String, Integer> indexBySampleName = new HashMap<>(names.size() * 2);
+        for (int i = 0; i < names.size(); i++) {
+            String sampleName = names.get(i);
+            if (indexBySampleName.put(sampleName, i) != null) {
+                throw new IllegalArgumentException("Duplicate sample name " + sampleName + " in " + sampleNames);
+            }
+        }
+        return new SampleIndex(names, Collections.unmodifiableMap(indexBySampleName));
+    }
+
+    public static SampleIndex of(String... sampleNames) {
+        return of(Arrays.asList(sampleNames));
+    }
+
+    public static SampleIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the position of the sample in the index or -1 if it is not present.
+     *
+     * @param sampleName name of the sample
+     * @return the zero-based position of the sample or -1 if the sample is not present
+     */
+    public int indexOf(String sampleName) {
+        Integer index = indexBySampleName.get(sampleName);
+        return index == null ? -1 : index;
+    }
+
+    public String getSampleName(int index) {
+        return sampleNames.get(index);
+    }
+
+    public List<String> getSampleNames() {
+        return sampleNames;
+    }
+
+    public boolean contains(String sampleName) {
+        return indexBySampleName.containsKey(sampleName);
+    }
+
+    public int size() {
+        return sampleNames.size();
+    }
+
+    public boolean isEmpty() {
+        return sampleNames.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SampleIndex that = (SampleIndex) o;
+        return sampleNames.equals(that.sampleNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return sampleNames.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "SampleIndex" + sampleNames;
+    }
+}
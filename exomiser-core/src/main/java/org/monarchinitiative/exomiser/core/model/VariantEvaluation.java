@@ -38,6 +38,7 @@
 import org.monarchinitiative.svart.Strand;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class is a wrapper for the {@code Variant} class from the jannovar
@@ -57,6 +58,17 @@ public class VariantEvaluation extends AbstractVariant implements Comparable<Var
     private static final SampleData DEFAULT_SAMPLE_DATA = SampleData.of(SampleIdentifiers.defaultSample(), SampleGenotype.het());
     protected static final SampleGenotypes SINGLE_SAMPLE_DATA_HET_GENOTYPE = SampleGenotypes.of(DEFAULT_SAMPLE_DATA);
 
+    // the filter results are held as bit flags of the FilterType ordinal, so there can't be more than 32 of these
+    private static final FilterType[] FILTER_TYPES = FilterType.values();
+    private static final int FAILED_FILTER_SHIFT = 32;
+
+    static {
+        // passed filters are the low 32 bits of the filterTypeBits, failed filters the high 32 bits
+        if (FILTER_TYPES.length > FAILED_FILTER_SHIFT) {
+            throw new IllegalStateException("Unable to hold the results of " + FILTER_TYPES.length + " FilterTypes in the filter bits - the maximum is " + FAILED_FILTER_SHIFT);
+        }
+    }
+
     // HTSJDK {@link VariantContext} instance of this allele
     private final VariantContext variantContext;
 
@@ -72,9 +84,10 @@ public class VariantEvaluation extends AbstractVariant implements Comparable<Var
     private final String geneSymbol;
 
     // results from filters
-    // mutable
-    private final Set<FilterType> passedFilterTypes;
-    private final Set<FilterType> failedFilterTypes;
+    // mutable - the passed FilterTypes are held as bits in the lower 32 bits and the failed FilterTypes in the upper 32
+    // bits of a single atomic long, so that these can be updated and read consistently from multiple threads without
+    // locking.
+    private final AtomicLong filterTypeBits;
 
     // score-related stuff - these are mutable
     private boolean whiteListed;
@@ -95,8 +108,7 @@ private VariantEvaluation(Builder builder) {
 
         this.sampleGenotypes = builder.sampleGenotypes.isEmpty() ? SINGLE_SAMPLE_DATA_HET_GENOTYPE : builder.sampleGenotypes;
 
-        this.passedFilterTypes = EnumSet.copyOf(builder.passedFilterTypes);
-        this.failedFilterTypes = EnumSet.copyOf(builder.failedFilterTypes);
+        this.filterTypeBits = new AtomicLong(toFilterTypeBits(builder.passedFilterTypes, builder.failedFilterTypes));
 
         this.compatibleInheritanceModes = EnumSet.copyOf(builder.compatibleInheritanceModes);
         this.contributingModes = EnumSet.copyOf(builder.contributingModes);
@@ -106,15 +118,14 @@ private VariantEvaluation(Builder builder) {
         this.pathogenicityData = builder.pathogenicityData;
     }
 
-    private VariantEvaluation(Contig contig, String id, Strand strand, CoordinateSystem coordinateSystem, Position start, Position end, String ref, String alt, int changeLength, GenomeAssembly genomeAssembly, String geneSymbol, String geneId, VariantEffect variantEffect, List<TranscriptAnnotation> annotations, VariantContext variantContext, int altAlleleId, double phredScore, SampleGenotypes sampleGenotypes, Set<FilterType> passedFilterTypes, Set<FilterType> failedFilterTypes, boolean whiteListed, FrequencyData frequencyData, PathogenicityData pathogenicityData, Set<ModeOfInheritance> contributingModes, Set<ModeOfInheritance> compatibleInheritanceModes) {
+    private VariantEvaluation(Contig contig, String id, Strand strand, CoordinateSystem coordinateSystem, Position start, Position end, String ref, String alt, int changeLength, GenomeAssembly genomeAssembly, String geneSymbol, String geneId, VariantEffect variantEffect, List<TranscriptAnnotation> annotations, VariantContext variantContext, int altAlleleId, double phredScore, SampleGenotypes sampleGenotypes, AtomicLong filterTypeBits, boolean whiteListed, FrequencyData frequencyData, PathogenicityData pathogenicityData, Set<ModeOfInheritance> contributingModes, Set<ModeOfInheritance> compatibleInheritanceModes) {
         super(contig, id, strand, coordinateSystem, start, end, ref, alt, changeLength, genomeAssembly, geneSymbol, geneId, variantEffect, annotations);
         this.variantContext = variantContext;
         this.altAlleleId = altAlleleId;
         this.phredScore = phredScore;
         this.sampleGenotypes = sampleGenotypes;
         this.geneSymbol = geneSymbol;
-        this.passedFilterTypes = passedFilterTypes;
-        this.failedFilterTypes = failedFilterTypes;
+        this.filterTypeBits = filterTypeBits;
         this.whiteListed = whiteListed;
         this.frequencyData = frequencyData;
         this.pathogenicityData = pathogenicityData;
@@ -124,7 +135,7 @@ private VariantEvaluation(Contig contig, String id, Strand strand, CoordinateSys
 
     @Override
     protected VariantEvaluation newVariantInstance(Contig contig, String id, Strand strand, CoordinateSystem coordinateSystem, Position startPosition, Position endPosition, String ref, String alt, int changeLength) {
-        return new VariantEvaluation(contig, id, strand, coordinateSystem, startPosition, endPosition, ref, alt, changeLength, genomeAssembly, geneSymbol, geneId, variantEffect, annotations, variantContext, altAlleleId, phredScore, sampleGenotypes, passedFilterTypes, failedFilterTypes, whiteListed, frequencyData, pathogenicityData, contributingModes, compatibleInheritanceModes);
+        return new VariantEvaluation(contig, id, strand, coordinateSystem, startPosition, endPosition, ref, alt, changeLength, genomeAssembly, geneSymbol, geneId, variantEffect, annotations, variantContext, altAlleleId, phredScore, sampleGenotypes, filterTypeBits, whiteListed, frequencyData, pathogenicityData, contributingModes, compatibleInheritanceModes);
     }
 
     private String inputOrFirstValueInCommaSeparatedString(String geneSymbol) {
@@ -244,19 +255,47 @@ public SampleGenotype getSampleGenotype(String sampleId) {
     @Override
     public boolean addFilterResult(FilterResult filterResult) {
         if (filterResult.passed()) {
-            return addPassedFilterResult(filterResult);
+            addFilterTypeBit(passedBit(filterResult.getFilterType()));
+            return true;
         }
-        return addFailedFilterResult(filterResult);
+        addFilterTypeBit(failedBit(filterResult.getFilterType()));
+        return false;
     }
 
-    private synchronized boolean addPassedFilterResult(FilterResult filterResult) {
-        passedFilterTypes.add(filterResult.getFilterType());
-        return true;
+    private void addFilterTypeBit(long bit) {
+        long current = filterTypeBits.get();
+        while ((current & bit) == 0 && !filterTypeBits.compareAndSet(current, current | bit)) {
+            current = filterTypeBits.get();
+        }
     }
 
-    private synchronized boolean addFailedFilterResult(FilterResult filterResult) {
-        failedFilterTypes.add(filterResult.getFilterType());
-        return false;
+    private static long passedBit(FilterType filterType) {
+        return 1L << filterType.ordinal();
+    }
+
+    private static long failedBit(FilterType filterType) {
+        return 1L << (FAILED_FILTER_SHIFT + filterType.ordinal());
+    }
+
+    private static long toFilterTypeBits(Set<FilterType> passedFilterTypes, Set<FilterType> failedFilterTypes) {
+        long bits = 0;
+        for (FilterType filterType : passedFilterTypes) {
+            bits |= passedBit(filterType);
+        }
+        for (FilterType filterType : failedFilterTypes) {
+            bits |= failedBit(filterType);
+        }
+        return bits;
+    }
+
+    private static EnumSet<FilterType> toFilterTypes(long bits) {
+        EnumSet<FilterType> filterTypes = EnumSet.noneOf(FilterType.class);
+        for (FilterType filterType : FILTER_TYPES) {
+            if ((bits & passedBit(filterType)) != 0) {
+                filterTypes.add(filterType);
+            }
+        }
+        return filterTypes;
     }
 
     /**
@@ -264,7 +303,7 @@ private synchronized boolean addFailedFilterResult(FilterResult filterResult) {
      * filtering
      */
     public Set<FilterType> getPassedFilterTypes() {
-        return EnumSet.copyOf(passedFilterTypes);
+        return toFilterTypes(filterTypeBits.get());
     }
 
     /**
@@ -272,7 +311,7 @@ public Set<FilterType> getPassedFilterTypes() {
      * failed to pass.
      */
     public Set<FilterType> getFailedFilterTypes() {
-        return EnumSet.copyOf(failedFilterTypes);
+        return toFilterTypes(filterTypeBits.get() >>> FAILED_FILTER_SHIFT);
     }
 
     /**
@@ -284,8 +323,8 @@ public Set<FilterType> getFailedFilterTypes() {
      * @param modeOfInheritance the mode of inheritance under which the failed filters are required.
      * @return a set of failed {@code FilterType} for the variant under the {@code ModeOfInheritance} input model.
      */
-    public synchronized Set<FilterType> getFailedFilterTypesForMode(ModeOfInheritance modeOfInheritance) {
-        EnumSet<FilterType> failedFiltersCopy = EnumSet.copyOf(failedFilterTypes);
+    public Set<FilterType> getFailedFilterTypesForMode(ModeOfInheritance modeOfInheritance) {
+        Set<FilterType> failedFiltersCopy = getFailedFilterTypes();
         if (!isCompatibleWith(modeOfInheritance)) {
             failedFiltersCopy.add(FilterType.INHERITANCE_FILTER);
             return failedFiltersCopy;
@@ -305,17 +344,18 @@ public synchronized Set<FilterType> getFailedFilterTypesForMode(ModeOfInheritanc
      * @return
      */
     @Override
-    public synchronized boolean passedFilters() {
-        return failedFilterTypes.isEmpty();
+    public boolean passedFilters() {
+        return (filterTypeBits.get() >>> FAILED_FILTER_SHIFT) == 0;
     }
 
     @Override
-    public synchronized boolean passedFilter(FilterType filterType) {
-        return !failedFilterTypes.contains(filterType) && passedFilterTypes.contains(filterType);
+    public boolean passedFilter(FilterType filterType) {
+        long bits = filterTypeBits.get();
+        return (bits & failedBit(filterType)) == 0 && (bits & passedBit(filterType)) != 0;
     }
 
-    private synchronized boolean isUnFiltered() {
-        return failedFilterTypes.isEmpty() && passedFilterTypes.isEmpty();
+    private boolean isUnFiltered() {
+        return filterTypeBits.get() == 0;
     }
 
     public FilterStatus getFilterStatus() {
@@ -535,10 +575,10 @@ public String toString() {
         // expose frequency and pathogenicity scores?
         if (contributesToGeneScore()) {
             //Add a star to the output string between the variantEffect and the score
-            return "VariantEvaluation{assembly=" + genomeAssembly + " chr=" + contigId() + " strand=" + strand() + " start=" + start() + " end=" + end() + " length=" + length() + " ref=" + ref() + " alt=" + alt() + " id=" + id() + " qual=" + phredScore + " " + variantType() + " " + variantEffect + " gene=" + geneSymbol + " * score=" + getVariantScore() + " " + getFilterStatus() + " failedFilters=" + failedFilterTypes + " passedFilters=" + passedFilterTypes
+            return "VariantEvaluation{assembly=" + genomeAssembly + " chr=" + contigId() + " strand=" + strand() + " start=" + start() + " end=" + end() + " length=" + length() + " ref=" + ref() + " alt=" + alt() + " id=" + id() + " qual=" + phredScore + " " + variantType() + " " + variantEffect + " gene=" + geneSymbol + " * score=" + getVariantScore() + " " + getFilterStatus() + " failedFilters=" + getFailedFilterTypes() + " passedFilters=" + getPassedFilterTypes()
                     + " compatibleWith=" + compatibleInheritanceModes + " sampleGenotypes=" + sampleGenotypes + "}";
         }
-        return "VariantEvaluation{assembly=" + genomeAssembly + " chr=" + contigId() + " strand=" + strand() + " start=" + start() + " end=" + end() + " length=" + length() + " ref=" + ref() + " alt=" + alt() + " id=" + id() + " qual=" + phredScore + " " + variantType() + " " + variantEffect + " gene=" + geneSymbol + " score=" + getVariantScore() + " " + getFilterStatus() + " failedFilters=" + failedFilterTypes + " passedFilters=" + passedFilterTypes
+        return "VariantEvaluation{assembly=" + genomeAssembly + " chr=" + contigId() + " strand=" + strand() + " start=" + start() + " end=" + end() + " length=" + length() + " ref=" + ref() + " alt=" + alt() + " id=" + id() + " qual=" + phredScore + " " + variantType() + " " + variantEffect + " gene=" + geneSymbol + " score=" + getVariantScore() + " " + getFilterStatus() + " failedFilters=" + getFailedFilterTypes() + " passedFilters=" + getPassedFilterTypes()
                 + " compatibleWith=" + compatibleInheritanceModes + " sampleGenotypes=" + sampleGenotypes + "}";
     }
 
@@ -557,8 +597,8 @@ public VariantEvaluation.Builder toBuilder() {
                 .whiteListed(this.whiteListed)
                 .frequencyData(this.frequencyData)
                 .pathogenicityData(this.pathogenicityData)
-                .failedFilters(this.failedFilterTypes)
-                .passedFilters(this.passedFilterTypes)
+                .failedFilters(getFailedFilterTypes())
+                .passedFilters(getPassedFilterTypes())
                 .compatibleInheritanceModes(this.compatibleInheritanceModes)
                 .contributingModes(this.contributingModes);
     }
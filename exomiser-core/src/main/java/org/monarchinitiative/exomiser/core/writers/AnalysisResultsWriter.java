@@ -20,20 +20,32 @@
 
 package org.monarchinitiative.exomiser.core.writers;
 
+import com.google.common.base.Suppliers;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import htsjdk.variant.vcf.VCFHeader;
 import org.monarchinitiative.exomiser.api.v1.OutputProto;
 import org.monarchinitiative.exomiser.core.analysis.Analysis;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
 import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeOptions;
-import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * Facade for handling writing out {@link org.monarchinitiative.exomiser.core.analysis.AnalysisResults}
+ * <p>
+ * The genes are ranked for each {@link ModeOfInheritance} using a read-only view over the {@link AnalysisResults}
+ * rather than being sorted in place, so the output files for every format and mode can be written concurrently.
  *
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
@@ -41,6 +53,9 @@ public class AnalysisResultsWriter {
 
     private static final Logger logger = LoggerFactory.getLogger(AnalysisResultsWriter.class);
 
+    private static final Set<OutputFormat> COMBINED_MOI_FORMATS = EnumSet.of(OutputFormat.HTML, OutputFormat.JSON, OutputFormat.NDJSON, OutputFormat.NDJSON_GZ);
+    private static final Set<OutputFormat> VCF_FORMATS = EnumSet.of(OutputFormat.VCF, OutputFormat.VCF_GZ);
+
     private AnalysisResultsWriter() {
     }
 
@@ -50,46 +65,122 @@ private AnalysisResultsWriter() {
      * @since 13.0.0
      */
     public static void writeToFile(AnalysisResults analysisResults, OutputProto.OutputOptions outputOptions) {
+        writeToFile(analysisResults, outputOptions, AnalysisMetrics.noOp());
+    }
+
+    /**
+     * @param analysisResults the results to write
+     * @param outputOptions   the output options for the results
+     * @param analysisMetrics the {@link AnalysisMetrics} to which the time taken to write each format is reported
+     * @since 13.1.0
+     */
+    public static void writeToFile(AnalysisResults analysisResults, OutputProto.OutputOptions outputOptions, AnalysisMetrics analysisMetrics) {
         OutputSettings outputSettings = new OutputSettingsProtoConverter().toDomain(outputOptions);
-        writeToFile(analysisResults, outputSettings);
+        writeToFile(analysisResults, outputSettings, analysisMetrics);
     }
 
     public static void writeToFile(AnalysisResults analysisResults, OutputSettings outputSettings) {
+        writeToFile(analysisResults, outputSettings, AnalysisMetrics.noOp());
+    }
+
+    /**
+     * @since 13.1.0
+     */
+    public static void writeToFile(AnalysisResults analysisResults, OutputSettings outputSettings, AnalysisMetrics analysisMetrics) {
         logger.debug("Writing results...");
+        createWriteTasks(analysisResults, outputSettings, analysisMetrics)
+                .parallelStream()
+                .forEach(Runnable::run);
+    }
+
+    /**
+     * Writes the results on the supplied {@link Executor}, allowing the caller to get on with something else, such as
+     * running the next analysis, in the meantime.
+     *
+     * @param analysisResults the results to write
+     * @param outputOptions   the output options for the results
+     * @param executor        the {@link Executor} on which to write the output files
+     * @return a {@link CompletableFuture} which completes once all the output files have been written
+     * @since 13.1.0
+     */
+    public static CompletableFuture<Void> writeToFileAsync(AnalysisResults analysisResults, OutputProto.OutputOptions outputOptions, Executor executor) {
+        return writeToFileAsync(analysisResults, outputOptions, executor, AnalysisMetrics.noOp());
+    }
+
+    /**
+     * @since 13.1.0
+     */
+    public static CompletableFuture<Void> writeToFileAsync(AnalysisResults analysisResults, OutputProto.OutputOptions outputOptions, Executor executor, AnalysisMetrics analysisMetrics) {
+        OutputSettings outputSettings = new OutputSettingsProtoConverter().toDomain(outputOptions);
+        return writeToFileAsync(analysisResults, outputSettings, executor, analysisMetrics);
+    }
+
+    /**
+     * @since 13.1.0
+     */
+    public static CompletableFuture<Void> writeToFileAsync(AnalysisResults analysisResults, OutputSettings outputSettings, Executor executor) {
+        return writeToFileAsync(analysisResults, outputSettings, executor, AnalysisMetrics.noOp());
+    }
+
+    /**
+     * @since 13.1.0
+     */
+    public static CompletableFuture<Void> writeToFileAsync(AnalysisResults analysisResults, OutputSettings outputSettings, Executor executor, AnalysisMetrics analysisMetrics) {
+        logger.debug("Writing results asynchronously...");
+        return CompletableFuture.supplyAsync(() -> createWriteTasks(analysisResults, outputSettings, analysisMetrics), executor)
+                .thenCompose(writeTasks -> CompletableFuture.allOf(writeTasks.stream()
+                        .map(writeTask -> CompletableFuture.runAsync(writeTask, executor))
+                        .toArray(CompletableFuture[]::new)));
+    }
+
+    private static List<Runnable> createWriteTasks(AnalysisResults analysisResults, OutputSettings outputSettings, AnalysisMetrics analysisMetrics) {
+        // the VCF header is read from the input VCF at most once per run and shared by the VCF writers for each mode
+        Supplier<VCFHeader> vcfHeaderSupplier = Suppliers.memoize(() -> readOutputVcfHeader(analysisResults));
+        List<Runnable> writeTasks = new ArrayList<>();
         Set<OutputFormat> outputFormatsForAnyMoi = EnumSet.noneOf(OutputFormat.class);
         for (OutputFormat outputFormat : outputSettings.getOutputFormats()) {
-            if (outputFormat == OutputFormat.HTML || outputFormat == OutputFormat.JSON) {
-                writeResultsToFileForMoiWithFormat(ModeOfInheritance.ANY, outputFormat, analysisResults, outputSettings);
+            if (COMBINED_MOI_FORMATS.contains(outputFormat)) {
+                // these present a combined view of all the modes and use the results in their original order
+                writeTasks.add(writeTask(ModeOfInheritance.ANY, outputFormat, analysisResults, outputSettings, vcfHeaderSupplier, analysisMetrics));
             } else {
                 outputFormatsForAnyMoi.add(outputFormat);
             }
         }
+        if (outputFormatsForAnyMoi.isEmpty()) {
+            return writeTasks;
+        }
 
         Analysis analysis = analysisResults.getAnalysis();
         InheritanceModeOptions inheritanceModeOptions = analysis.getInheritanceModeOptions();
         if (inheritanceModeOptions.isEmpty()) {
-            writeForInheritanceMode(ModeOfInheritance.ANY, outputFormatsForAnyMoi, analysisResults, outputSettings);
+            addWriteTasksForInheritanceMode(writeTasks, ModeOfInheritance.ANY, outputFormatsForAnyMoi, analysisResults, outputSettings, vcfHeaderSupplier, analysisMetrics);
         } else {
             for (ModeOfInheritance modeOfInheritance : inheritanceModeOptions.getDefinedModes()) {
-                logger.debug("Writing {} results:", modeOfInheritance);
-                // Can't do this in parallel because theses are mutated each time for a different mode here.
-                // AnalysisResults could return a view for a ModeOfInheritance which can be called by the Writer
-                // without interfering with other writes for different modes. Check RAM requirements.
-                // Will only save a few seconds, so is not a rate-limiting step.
-                analysisResults.getGenes().sort(Gene.comparingScoreForInheritanceMode(modeOfInheritance));
-                writeForInheritanceMode(modeOfInheritance, outputFormatsForAnyMoi, analysisResults, outputSettings);
+                AnalysisResults rankedResults = analysisResults.rankedForInheritanceMode(modeOfInheritance);
+                addWriteTasksForInheritanceMode(writeTasks, modeOfInheritance, outputFormatsForAnyMoi, rankedResults, outputSettings, vcfHeaderSupplier, analysisMetrics);
             }
         }
+        return writeTasks;
     }
 
-    private static void writeForInheritanceMode(ModeOfInheritance modeOfInheritance, Set<OutputFormat> outputFormats, AnalysisResults analysisResults, OutputSettings outputSettings) {
+    private static void addWriteTasksForInheritanceMode(List<Runnable> writeTasks, ModeOfInheritance modeOfInheritance, Set<OutputFormat> outputFormats, AnalysisResults analysisResults, OutputSettings outputSettings, Supplier<VCFHeader> vcfHeaderSupplier, AnalysisMetrics analysisMetrics) {
         for (OutputFormat outFormat : outputFormats) {
-            writeResultsToFileForMoiWithFormat(modeOfInheritance, outFormat, analysisResults, outputSettings);
+            writeTasks.add(writeTask(modeOfInheritance, outFormat, analysisResults, outputSettings, vcfHeaderSupplier, analysisMetrics));
         }
     }
 
-    private static void writeResultsToFileForMoiWithFormat(ModeOfInheritance modeOfInheritance, OutputFormat outputFormat, AnalysisResults analysisResults, OutputSettings outputSettings) {
-        ResultsWriter resultsWriter = ResultsWriterFactory.getResultsWriter(outputFormat);
-        resultsWriter.writeFile(modeOfInheritance, analysisResults, outputSettings);
+    private static Runnable writeTask(ModeOfInheritance modeOfInheritance, OutputFormat outputFormat, AnalysisResults analysisResults, OutputSettings outputSettings, Supplier<VCFHeader> vcfHeaderSupplier, AnalysisMetrics analysisMetrics) {
+        return () -> analysisMetrics.measure(AnalysisStage.RESULTS_WRITER, outputFormat.name(), () -> {
+            logger.debug("Writing {} {} results", modeOfInheritance, outputFormat);
+            // ResultsWriter are not thread-safe, so a new one is required for each task
+            ResultsWriter resultsWriter = VCF_FORMATS.contains(outputFormat) ? new VcfResultsWriter(outputFormat, vcfHeaderSupplier.get()) : ResultsWriterFactory.getResultsWriter(outputFormat);
+            resultsWriter.writeFile(modeOfInheritance, analysisResults, outputSettings);
+        });
+    }
+
+    private static VCFHeader readOutputVcfHeader(AnalysisResults analysisResults) {
+        Path vcfPath = analysisResults.getSample().getVcfPath();
+        // the VcfResultsWriter will skip writing the output if there is no input VCF
+        return vcfPath == null ? null : VcfResultsWriter.readOutputVcfHeader(vcfPath);
     }
 }
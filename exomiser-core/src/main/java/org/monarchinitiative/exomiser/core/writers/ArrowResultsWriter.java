@@ -0,0 +1,494 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.*;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.*;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.analysis.sample.Sample;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.model.FilterStatus;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.TranscriptAnnotation;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityScore;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
+import org.monarchinitiative.exomiser.core.prioritisers.HiPhivePriorityResult;
+import org.monarchinitiative.exomiser.core.prioritisers.OmimPriorityResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+/**
+ * Writes the gene or variant results as an <a href="https://arrow.apache.org/docs/format/Columnar.html">Apache Arrow</a>
+ * IPC file. This is a typed, columnar format which can be loaded directly by tools such as pyarrow, pandas, DuckDB or
+ * Spark without needing to parse any text, and so is better suited to loading the results of large cohorts into an
+ * analytics database than the TSV output.
+ * <p>
+ * Scores are written as 32-bit floats, flags as booleans and the contig and filter status columns are dictionary
+ * encoded. The variant table is written as one or more record batches per contig, sorted by position, with each row
+ * carrying the rank of the gene it was reported under. The mode of inheritance is recorded in the schema metadata.
+ * The record batches can optionally be compressed using LZ4 or ZSTD, as set by
+ * {@link OutputSettings#getArrowCompression()}.
+ * <p>
+ * Arrow manages its off-heap memory using reflection into {@code java.nio}, so on JDK 16 and above the JVM must be
+ * started with {@code --add-opens java.base/java.nio=ALL-UNNAMED}. This is added to the manifest of the CLI and web
+ * application jars.
+ *
+ * @since 13.1.0
+ */
+public class ArrowResultsWriter implements ResultsWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArrowResultsWriter.class);
+
+    static final int MAX_BATCH_SIZE = 65_536;
+
+    private static final ArrowType INT = new ArrowType.Int(32, true);
+    private static final ArrowType FLOAT = new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+    private static final ArrowType STRING = ArrowType.Utf8.INSTANCE;
+    private static final ArrowType BOOLEAN = ArrowType.Bool.INSTANCE;
+
+    private static final DictionaryEncoding FILTER_STATUS_ENCODING = new DictionaryEncoding(0L, false, new ArrowType.Int(8, true));
+    private static final DictionaryEncoding CONTIG_ENCODING = new DictionaryEncoding(1L, false, INT);
+
+    private static final List<String> FILTER_STATUS_VALUES = Arrays.stream(FilterStatus.values())
+            .map(FilterStatus::name)
+            .collect(toUnmodifiableList());
+
+    private static final Comparator<VariantRow> COORDINATE_ORDER = Comparator
+            .comparingInt((VariantRow row) -> row.variant.contigId() == 0 ? Integer.MAX_VALUE : row.variant.contigId())
+            .thenComparing(row -> row.variant.contigName())
+            .thenComparingInt(row -> row.variant.start())
+            .thenComparingInt(row -> row.variant.end())
+            .thenComparingInt(row -> row.geneRank);
+
+    private final OutputFormat outputFormat;
+
+    /**
+     * @param outputFormat one of {@link OutputFormat#ARROW_GENE} or {@link OutputFormat#ARROW_VARIANT}
+     */
+    public ArrowResultsWriter(OutputFormat outputFormat) {
+        if (outputFormat != OutputFormat.ARROW_GENE && outputFormat != OutputFormat.ARROW_VARIANT) {
+            throw new IllegalArgumentException(outputFormat + " is not an Arrow output format");
+        }
+        this.outputFormat = outputFormat;
+    }
+
+    @Override
+    public void writeFile(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings outputSettings) {
+        Sample sample = analysisResults.getSample();
+        String outFileName = ResultsWriterUtils.makeOutputFilename(sample.getVcfPath(), outputSettings.getOutputPrefix(), outputFormat, modeOfInheritance);
+        Path outFile = Paths.get(outFileName);
+        Table<?> table = buildTable(modeOfInheritance, analysisResults, outputSettings);
+        CompressionUtil.CodecType codecType = outputSettings.getArrowCompression();
+        try (BufferAllocator allocator = newRootAllocator();
+             TableVectors tableVectors = table.allocateVectors(allocator);
+             FileChannel channel = FileChannel.open(outFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             ArrowFileWriter writer = new ArrowFileWriter(tableVectors.root, tableVectors.dictionaryProvider, channel, table.metadata, IpcOption.DEFAULT, CommonsCompressionFactory.INSTANCE, codecType)) {
+            writer.start();
+            table.writeBatches(tableVectors.root, writer::writeBatch);
+            writer.end();
+        } catch (IOException ex) {
+            logger.error("Unable to write results to file {}", outFileName, ex);
+        }
+        logger.debug("{} {} results written to file {}", outputFormat, modeOfInheritance.getAbbreviation(), outFileName);
+    }
+
+    /**
+     * Returns a tab-separated rendering of the record batches, with the dictionary encoded columns shown as their
+     * dictionary indices. This is intended for debugging - the columnar format is only useful when written to file.
+     */
+    @Override
+    public String writeString(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings outputSettings) {
+        StringBuilder stringBuilder = new StringBuilder();
+        Table<?> table = buildTable(modeOfInheritance, analysisResults, outputSettings);
+        try (BufferAllocator allocator = newRootAllocator();
+             TableVectors tableVectors = table.allocateVectors(allocator)) {
+            table.writeBatches(tableVectors.root, () -> stringBuilder.append(tableVectors.root.contentToTSVString()));
+        } catch (IOException ex) {
+            logger.error("Unable to write results to string {}", stringBuilder, ex);
+        }
+        return stringBuilder.toString();
+    }
+
+    private static BufferAllocator newRootAllocator() {
+        try {
+            return new RootAllocator();
+        } catch (RuntimeException | LinkageError e) {
+            // Arrow fails to initialise its MemoryUtil if java.nio is not opened to it, which is the default from JDK 16
+            throw new IllegalStateException("Unable to allocate memory for Arrow output. Java " + Runtime.version().feature() +
+                    " requires the JVM option '--add-opens java.base/java.nio=ALL-UNNAMED' to write the ARROW_GENE and ARROW_VARIANT formats", e);
+        }
+    }
+
+    private Table<?> buildTable(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings outputSettings) {
+        String probandSampleName = analysisResults.getProbandSampleName();
+        Map<String, String> metadata = Map.of(
+                "exomiser.mode_of_inheritance", modeOfInheritance.name(),
+                "exomiser.sample", probandSampleName == null ? "" : probandSampleName
+        );
+        List<Gene> passedGenes = outputSettings.filterGenesForOutput(analysisResults.getGenes());
+        if (outputFormat == OutputFormat.ARROW_GENE) {
+            return buildGeneTable(modeOfInheritance, passedGenes, metadata);
+        }
+        return buildVariantTable(modeOfInheritance, passedGenes, outputSettings.outputContributingVariantsOnly(), metadata);
+    }
+
+    private Table<GeneRow> buildGeneTable(ModeOfInheritance modeOfInheritance, List<Gene> genes, Map<String, String> metadata) {
+        List<GeneRow> rows = new ArrayList<>(genes.size());
+        for (int i = 0; i < genes.size(); i++) {
+            rows.add(new GeneRow(i + 1, genes.get(i)));
+        }
+        List<Column<GeneRow>> columns = List.of(
+                intColumn("rank", row -> row.rank),
+                stringColumn("gene_symbol", row -> row.gene.getGeneSymbol()),
+                stringColumn("gene_id", row -> row.gene.getGeneId()),
+                intColumn("entrez_gene_id", row -> row.gene.getEntrezGeneID()),
+                dictionaryColumn("filter_status", FILTER_STATUS_ENCODING, row -> geneFilterStatus(row.gene).ordinal()),
+                booleanColumn("compatible_with_moi", row -> row.gene.isCompatibleWith(modeOfInheritance)),
+                intColumn("number_of_variants", row -> row.gene.getNumberOfVariants()),
+                floatColumn("priority_score", row -> (float) row.gene.getPriorityScoreForMode(modeOfInheritance)),
+                floatColumn("variant_score", row -> (float) row.gene.getVariantScoreForMode(modeOfInheritance)),
+                floatColumn("combined_score", row -> (float) row.gene.getCombinedScoreForMode(modeOfInheritance)),
+                floatColumn("human_pheno_score", row -> hiPhiveScore(row.gene, HiPhivePriorityResult::getHumanScore)),
+                floatColumn("mouse_pheno_score", row -> hiPhiveScore(row.gene, HiPhivePriorityResult::getMouseScore)),
+                floatColumn("fish_pheno_score", row -> hiPhiveScore(row.gene, HiPhivePriorityResult::getFishScore)),
+                floatColumn("ppi_score", row -> hiPhiveScore(row.gene, HiPhivePriorityResult::getPpiScore)),
+                floatColumn("phive_all_species_score", row -> hiPhiveScore(row.gene, HiPhivePriorityResult::getScore)),
+                floatColumn("omim_score", row -> omimScore(row.gene, modeOfInheritance)),
+                booleanColumn("matches_candidate_gene", row -> matchesCandidateGene(row.gene))
+        );
+        List<List<GeneRow>> batches = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += MAX_BATCH_SIZE) {
+            batches.add(rows.subList(from, Math.min(rows.size(), from + MAX_BATCH_SIZE)));
+        }
+        return new Table<>(columns, Map.of(FILTER_STATUS_ENCODING, FILTER_STATUS_VALUES), metadata, batches);
+    }
+
+    private Table<VariantRow> buildVariantTable(ModeOfInheritance modeOfInheritance, List<Gene> genes, boolean contributingVariantsOnly, Map<String, String> metadata) {
+        List<VariantRow> rows = new ArrayList<>();
+        for (int i = 0; i < genes.size(); i++) {
+            Gene gene = genes.get(i);
+            if (contributingVariantsOnly) {
+                if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
+                    for (VariantEvaluation variant : gene.getGeneScoreForMode(modeOfInheritance).getContributingVariants()) {
+                        rows.add(new VariantRow(i + 1, gene, variant));
+                    }
+                }
+            } else {
+                for (VariantEvaluation variant : gene.getVariantEvaluations()) {
+                    rows.add(new VariantRow(i + 1, gene, variant));
+                }
+            }
+        }
+        rows.sort(COORDINATE_ORDER);
+
+        // one or more batches per contig so that readers can skip whole contigs
+        List<String> contigs = new ArrayList<>();
+        List<List<VariantRow>> batches = new ArrayList<>();
+        int batchStart = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            String contig = rows.get(i).variant.contigName();
+            if (contigs.isEmpty() || !contigs.get(contigs.size() - 1).equals(contig)) {
+                contigs.add(contig);
+                if (i > batchStart) {
+                    batches.add(rows.subList(batchStart, i));
+                    batchStart = i;
+                }
+            } else if (i - batchStart == MAX_BATCH_SIZE) {
+                batches.add(rows.subList(batchStart, i));
+                batchStart = i;
+            }
+        }
+        if (batchStart < rows.size()) {
+            batches.add(rows.subList(batchStart, rows.size()));
+        }
+        Map<String, Integer> contigIndex = new HashMap<>();
+        for (String contig : contigs) {
+            contigIndex.put(contig, contigIndex.size());
+        }
+
+        List<Column<VariantRow>> columns = List.of(
+                dictionaryColumn("contig", CONTIG_ENCODING, row -> contigIndex.get(row.variant.contigName())),
+                intColumn("start", row -> row.variant.start()),
+                intColumn("end", row -> row.variant.end()),
+                stringColumn("ref", row -> row.variant.ref()),
+                stringColumn("alt", row -> row.variant.alt()),
+                floatColumn("qual", row -> (float) row.variant.getPhredScore()),
+                dictionaryColumn("filter_status", FILTER_STATUS_ENCODING, row -> row.variant.getFilterStatusForMode(modeOfInheritance).ordinal()),
+                stringColumn("failed_filters", row -> failedFilters(row.variant, modeOfInheritance)),
+                stringColumn("genotype", row -> row.variant.getGenotypeString()),
+                stringColumn("variant_effect", row -> row.variant.getVariantEffect().getSequenceOntologyTerm()),
+                stringColumn("hgvs", row -> representativeAnnotation(row.variant.getTranscriptAnnotations())),
+                stringColumn("rs_id", row -> emptyToNull(row.variant.getFrequencyData().getRsId())),
+                floatColumn("max_frequency", row -> row.variant.getFrequencyData().getMaxFreq()),
+                floatColumn("cadd", row -> pathogenicityScore(row.variant, PathogenicitySource.CADD)),
+                floatColumn("polyphen", row -> pathogenicityScore(row.variant, PathogenicitySource.POLYPHEN)),
+                floatColumn("mutation_taster", row -> pathogenicityScore(row.variant, PathogenicitySource.MUTATION_TASTER)),
+                floatColumn("sift", row -> pathogenicityScore(row.variant, PathogenicitySource.SIFT)),
+                floatColumn("remm", row -> pathogenicityScore(row.variant, PathogenicitySource.REMM)),
+                floatColumn("frequency_score", row -> row.variant.getFrequencyScore()),
+                floatColumn("pathogenicity_score", row -> row.variant.getPathogenicityScore()),
+                floatColumn("variant_score", row -> row.variant.getVariantScore()),
+                booleanColumn("contributing_variant", row -> row.variant.contributesToGeneScoreUnderMode(modeOfInheritance)),
+                booleanColumn("whitelisted", row -> row.variant.isWhiteListed()),
+                intColumn("gene_rank", row -> row.geneRank),
+                stringColumn("gene_symbol", row -> row.gene.getGeneSymbol()),
+                stringColumn("gene_id", row -> row.gene.getGeneId()),
+                floatColumn("gene_combined_score", row -> (float) row.gene.getCombinedScoreForMode(modeOfInheritance))
+        );
+        Map<DictionaryEncoding, List<String>> dictionaries = new LinkedHashMap<>();
+        dictionaries.put(FILTER_STATUS_ENCODING, FILTER_STATUS_VALUES);
+        dictionaries.put(CONTIG_ENCODING, contigs);
+        return new Table<>(columns, dictionaries, metadata, batches);
+    }
+
+    private static FilterStatus geneFilterStatus(Gene gene) {
+        return gene.passedFilters() ? FilterStatus.PASSED : FilterStatus.FAILED;
+    }
+
+    private static float hiPhiveScore(Gene gene, Function<HiPhivePriorityResult, Double> scoreFunction) {
+        HiPhivePriorityResult hiPhivePriorityResult = gene.getPriorityResult(HiPhivePriorityResult.class);
+        return hiPhivePriorityResult == null ? 0f : scoreFunction.apply(hiPhivePriorityResult).floatValue();
+    }
+
+    private static float omimScore(Gene gene, ModeOfInheritance modeOfInheritance) {
+        OmimPriorityResult omimPriorityResult = gene.getPriorityResult(OmimPriorityResult.class);
+        return omimPriorityResult == null ? 0f : (float) omimPriorityResult.getScoreForMode(modeOfInheritance);
+    }
+
+    private static boolean matchesCandidateGene(Gene gene) {
+        HiPhivePriorityResult hiPhivePriorityResult = gene.getPriorityResult(HiPhivePriorityResult.class);
+        return hiPhivePriorityResult != null && hiPhivePriorityResult.isCandidateGeneMatch();
+    }
+
+    private static Float pathogenicityScore(VariantEvaluation variantEvaluation, PathogenicitySource source) {
+        PathogenicityScore score = variantEvaluation.getPathogenicityData().getPredictedScore(source);
+        return score == null ? null : score.getScore();
+    }
+
+    private static String failedFilters(VariantEvaluation variantEvaluation, ModeOfInheritance modeOfInheritance) {
+        Set<FilterType> failedFilterTypes = variantEvaluation.getFailedFilterTypesForMode(modeOfInheritance);
+        if (failedFilterTypes.isEmpty()) {
+            return null;
+        }
+        StringJoiner stringJoiner = new StringJoiner(";");
+        for (FilterType filterType : failedFilterTypes) {
+            stringJoiner.add(filterType.vcfValue());
+        }
+        return stringJoiner.toString();
+    }
+
+    private static String representativeAnnotation(List<TranscriptAnnotation> annotations) {
+        if (annotations.isEmpty()) {
+            return null;
+        }
+        TranscriptAnnotation annotation = annotations.get(0);
+        StringJoiner stringJoiner = new StringJoiner(":");
+        stringJoiner.add(annotation.getGeneSymbol());
+        stringJoiner.add(annotation.getAccession());
+        stringJoiner.add(annotation.getHgvsCdna());
+        stringJoiner.add(annotation.getHgvsProtein());
+        return stringJoiner.toString();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static <T> Column<T> intColumn(String name, ToIntFunction<T> getter) {
+        return new Column<>(field(name, INT, false, null), (vector, index, row) -> ((IntVector) vector).setSafe(index, getter.applyAsInt(row)));
+    }
+
+    private static <T> Column<T> floatColumn(String name, Function<T, Float> getter) {
+        return new Column<>(field(name, FLOAT, true, null), (vector, index, row) -> {
+            Float value = getter.apply(row);
+            if (value == null) {
+                ((Float4Vector) vector).setNull(index);
+            } else {
+                ((Float4Vector) vector).setSafe(index, value);
+            }
+        });
+    }
+
+    private static <T> Column<T> stringColumn(String name, Function<T, String> getter) {
+        return new Column<>(field(name, STRING, true, null), (vector, index, row) -> {
+            String value = getter.apply(row);
+            if (value == null) {
+                ((VarCharVector) vector).setNull(index);
+            } else {
+                ((VarCharVector) vector).setSafe(index, value.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    private static <T> Column<T> booleanColumn(String name, Predicate<T> getter) {
+        return new Column<>(field(name, BOOLEAN, false, null), (vector, index, row) -> ((BitVector) vector).setSafe(index, getter.test(row) ? 1 : 0));
+    }
+
+    private static <T> Column<T> dictionaryColumn(String name, DictionaryEncoding encoding, ToIntFunction<T> dictionaryIndex) {
+        // n.b. the vectors are allocated with the capacity of the batch, so it is safe to use the non-resizing setter
+        return new Column<>(field(name, encoding.getIndexType(), false, encoding), (vector, index, row) -> ((BaseIntVector) vector).setWithPossibleTruncate(index, dictionaryIndex.applyAsInt(row)));
+    }
+
+    private static Field field(String name, ArrowType arrowType, boolean nullable, DictionaryEncoding encoding) {
+        return new Field(name, new FieldType(nullable, arrowType, encoding), null);
+    }
+
+    @FunctionalInterface
+    private interface ValueSetter<T> {
+        void set(FieldVector vector, int index, T row);
+    }
+
+    @FunctionalInterface
+    private interface BatchWriter {
+        void writeBatch() throws IOException;
+    }
+
+    private static class Column<T> {
+        private final Field field;
+        private final ValueSetter<T> valueSetter;
+
+        private Column(Field field, ValueSetter<T> valueSetter) {
+            this.field = field;
+            this.valueSetter = valueSetter;
+        }
+    }
+
+    private static class Table<T> {
+
+        private final List<Column<T>> columns;
+        private final Map<DictionaryEncoding, List<String>> dictionaries;
+        private final Map<String, String> metadata;
+        private final List<List<T>> batches;
+
+        private Table(List<Column<T>> columns, Map<DictionaryEncoding, List<String>> dictionaries, Map<String, String> metadata, List<List<T>> batches) {
+            this.columns = columns;
+            this.dictionaries = dictionaries;
+            this.metadata = metadata;
+            this.batches = batches;
+        }
+
+        private TableVectors allocateVectors(BufferAllocator allocator) {
+            List<Field> fields = new ArrayList<>(columns.size());
+            for (Column<T> column : columns) {
+                fields.add(column.field);
+            }
+            DictionaryProvider.MapDictionaryProvider dictionaryProvider = new DictionaryProvider.MapDictionaryProvider();
+            List<VarCharVector> dictionaryVectors = new ArrayList<>(dictionaries.size());
+            for (Map.Entry<DictionaryEncoding, List<String>> entry : dictionaries.entrySet()) {
+                DictionaryEncoding encoding = entry.getKey();
+                List<String> values = entry.getValue();
+                VarCharVector dictionaryVector = new VarCharVector("dictionary-" + encoding.getId(), allocator);
+                dictionaryVector.allocateNew(values.size());
+                for (int i = 0; i < values.size(); i++) {
+                    dictionaryVector.setSafe(i, values.get(i).getBytes(StandardCharsets.UTF_8));
+                }
+                dictionaryVector.setValueCount(values.size());
+                dictionaryVectors.add(dictionaryVector);
+                dictionaryProvider.put(new Dictionary(dictionaryVector, encoding));
+            }
+            VectorSchemaRoot root = VectorSchemaRoot.create(new Schema(fields, metadata), allocator);
+            return new TableVectors(root, dictionaryProvider, dictionaryVectors);
+        }
+
+        private void writeBatches(VectorSchemaRoot root, BatchWriter batchWriter) throws IOException {
+            List<FieldVector> vectors = root.getFieldVectors();
+            for (List<T> batch : batches) {
+                for (FieldVector vector : vectors) {
+                    vector.setInitialCapacity(batch.size());
+                }
+                root.allocateNew();
+                for (int index = 0; index < batch.size(); index++) {
+                    T row = batch.get(index);
+                    for (int i = 0; i < columns.size(); i++) {
+                        columns.get(i).valueSetter.set(vectors.get(i), index, row);
+                    }
+                }
+                root.setRowCount(batch.size());
+                batchWriter.writeBatch();
+            }
+        }
+    }
+
+    private static class TableVectors implements AutoCloseable {
+
+        private final VectorSchemaRoot root;
+        private final DictionaryProvider dictionaryProvider;
+        private final List<VarCharVector> dictionaryVectors;
+
+        private TableVectors(VectorSchemaRoot root, DictionaryProvider dictionaryProvider, List<VarCharVector> dictionaryVectors) {
+            this.root = root;
+            this.dictionaryProvider = dictionaryProvider;
+            this.dictionaryVectors = dictionaryVectors;
+        }
+
+        @Override
+        public void close() {
+            root.close();
+            dictionaryVectors.forEach(VarCharVector::close);
+        }
+    }
+
+    private static class GeneRow {
+        private final int rank;
+        private final Gene gene;
+
+        private GeneRow(int rank, Gene gene) {
+            this.rank = rank;
+            this.gene = gene;
+        }
+    }
+
+    private static class VariantRow {
+        private final int geneRank;
+        private final Gene gene;
+        private final VariantEvaluation variant;
+
+        private VariantRow(int geneRank, Gene gene, VariantEvaluation variant) {
+            this.geneRank = geneRank;
+            this.gene = gene;
+            this.variant = variant;
+        }
+    }
+}
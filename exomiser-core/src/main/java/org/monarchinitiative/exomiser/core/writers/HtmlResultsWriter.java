@@ -48,6 +48,7 @@
 import org.slf4j.LoggerFactory;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
+import org.thymeleaf.engine.IThrottledTemplateProcessor;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
@@ -59,19 +60,31 @@
 import java.util.Locale;
 
 /**
+ * Writes the results as a human-readable HTML report.
+ * <p>
+ * The report can be limited to the top {@link OutputSettings#getHtmlMaxGenes()} passed genes, which is applied before
+ * the template context is built, as larger reports are of little use and are expensive to render. The template engine,
+ * and therefore the parsed template, is shared between all instances and the output is written to file in chunks, so
+ * the whole report is never held in memory.
+ *
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  */
 public class HtmlResultsWriter implements ResultsWriter {
 
     private static final Logger logger = LoggerFactory.getLogger(HtmlResultsWriter.class);
 
-    private final TemplateEngine templateEngine;
+    private static final int OUTPUT_CHUNK_SIZE = 64 * 1024;
+
+    // TemplateEngine is thread-safe and caches the parsed templates, so only one is needed
+    private static final TemplateEngine TEMPLATE_ENGINE = ThymeleafConfig.coreTemplateEngine();
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final YAMLMapper YAML_MAPPER = new YAMLMapper();
 
     private static final OutputFormat OUTPUT_FORMAT = OutputFormat.HTML;
 
     public HtmlResultsWriter() {
         Locale.setDefault(Locale.UK);
-        this.templateEngine = ThymeleafConfig.coreTemplateEngine();
     }
 
     @Override
@@ -82,7 +95,12 @@ public void writeFile(ModeOfInheritance modeOfInheritance, AnalysisResults analy
         Path outFile = Paths.get(outFileName);
         try (BufferedWriter writer = Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)) {
             Context context = buildContext(modeOfInheritance, analysisResults, settings);
-            templateEngine.process("results", context, writer);
+            // write the output in chunks, flushing each to disk, rather than building the whole document in the buffer
+            IThrottledTemplateProcessor templateProcessor = TEMPLATE_ENGINE.processThrottled("results", context);
+            while (!templateProcessor.isFinished()) {
+                templateProcessor.process(OUTPUT_CHUNK_SIZE, writer);
+                writer.flush();
+            }
         } catch (IOException ex) {
             logger.error("Unable to write results to file {}", outFileName, ex);
         }
@@ -93,7 +111,7 @@ public void writeFile(ModeOfInheritance modeOfInheritance, AnalysisResults analy
     public String writeString(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings settings) {
         logger.debug("Writing HTML results");
         Context context = buildContext(modeOfInheritance, analysisResults, settings);
-        return templateEngine.process("results", context);
+        return TEMPLATE_ENGINE.process("results", context);
     }
 
     private Context buildContext(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings outputSettings) {
@@ -114,8 +132,7 @@ private Context buildContext(ModeOfInheritance modeOfInheritance, AnalysisResult
         context.setVariable("filterReports", analysisStepReports);
         //write out the variant type counters
         List<String> sampleNames = analysisResults.getSampleNames();
-        List<VariantEffectCount> variantTypeCounters = ResultsWriterUtils.makeVariantEffectCounters(sampleNames, analysisResults
-                .getVariantEvaluations());
+        List<VariantEffectCount> variantTypeCounters = makeVariantEffectCounts(analysisResults);
         String sampleName = "Anonymous";
         if (!sample.getProbandSampleName().isEmpty()) {
             sampleName = sample.getProbandSampleName();
@@ -126,6 +143,15 @@ private Context buildContext(ModeOfInheritance modeOfInheritance, AnalysisResult
 
         context.setVariable("modeOfInheritance", modeOfInheritance);
         List<Gene> filteredGenes = outputSettings.filterPassedGenesForOutput(analysisResults.getGenes());
+        context.setVariable("geneResultsTruncated", false);
+        int maxGenes = outputSettings.getHtmlMaxGenes();
+        if (maxGenes > 0 && filteredGenes.size() > maxGenes) {
+            logger.info("Truncating number of genes in HTML output to {} of {}", maxGenes, filteredGenes.size());
+            context.setVariable("geneResultsTruncated", true);
+            context.setVariable("maxGenes", maxGenes);
+            context.setVariable("numCandidateGenes", filteredGenes.size());
+            filteredGenes = filteredGenes.subList(0, maxGenes);
+        }
         context.setVariable("genes", filteredGenes);
 
         //this will change the links to the relevant resource.
@@ -137,6 +163,15 @@ private Context buildContext(ModeOfInheritance modeOfInheritance, AnalysisResult
         return context;
     }
 
+    private List<VariantEffectCount> makeVariantEffectCounts(AnalysisResults analysisResults) {
+        List<VariantEffectCount> variantEffectCounts = analysisResults.getVariantEffectCounts();
+        if (variantEffectCounts.isEmpty()) {
+            // not counted during the analysis, so count them here
+            return ResultsWriterUtils.makeVariantEffectCounters(analysisResults.getSampleNames(), analysisResults.getVariantEvaluations());
+        }
+        return ResultsWriterUtils.selectReportedVariantEffectCounts(variantEffectCounts);
+    }
+
     String toYamlJobString(Sample sample, Analysis analysis, OutputSettings outputSettings) {
         SampleProto.Sample protoSample = new SampleProtoConverter().toProto(sample);
         AnalysisProto.Analysis protoAnalysis = new AnalysisProtoConverter().toProto(analysis);
@@ -150,8 +185,8 @@ String toYamlJobString(Sample sample, Analysis analysis, OutputSettings outputSe
 
         try {
             String jsonString = JsonFormat.printer().print(protoJob);
-            JsonNode jsonNodeTree = new ObjectMapper().readTree(jsonString);
-            return new YAMLMapper().writeValueAsString(jsonNodeTree);
+            JsonNode jsonNodeTree = JSON_MAPPER.readTree(jsonString);
+            return YAML_MAPPER.writeValueAsString(jsonNodeTree);
         } catch (InvalidProtocolBufferException | JsonProcessingException e) {
             logger.error("Unable to process JSON settings", e);
         }
@@ -21,8 +21,10 @@
 package org.monarchinitiative.exomiser.core.writers;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
 import org.monarchinitiative.exomiser.core.analysis.sample.Sample;
@@ -32,19 +34,23 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.io.StringWriter;
-import java.io.Writer;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
-
-import static java.util.stream.Collectors.toList;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 /**
+ * Writes the genes and their variants as JSON. The genes are serialised one at a time as they are streamed from the
+ * {@link AnalysisResults}, so the output is never held in memory in its entirety.
+ * <p>
+ * The {@link OutputFormat#JSON} format is a single JSON array of genes. The {@link OutputFormat#NDJSON} and
+ * {@link OutputFormat#NDJSON_GZ} formats are newline-delimited JSON, with one gene per line, suitable for ingestion by
+ * tools such as Spark.
+ *
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  * @since 10.1.0
  */
@@ -52,36 +58,66 @@ public class JsonResultsWriter implements ResultsWriter {
 
     private static final Logger logger = LoggerFactory.getLogger(JsonResultsWriter.class);
 
-    private static final OutputFormat OUTPUT_FORMAT = OutputFormat.JSON;
+    private static final Set<OutputFormat> JSON_FORMATS = EnumSet.of(OutputFormat.JSON, OutputFormat.NDJSON, OutputFormat.NDJSON_GZ);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // ObjectMapper and ObjectWriter are thread-safe once configured, so these are shared rather than created per-write
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .addMixIn(Variant.class, JsonVariantMixin.class)
+            .setDefaultPropertyInclusion(JsonInclude.Include.NON_DEFAULT);
+    // the caller is responsible for closing the output
+    private static final ObjectWriter COMPACT_WRITER = OBJECT_MAPPER.writer()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final ObjectWriter PRETTY_WRITER = OBJECT_MAPPER.writerWithDefaultPrettyPrinter()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final OutputFormat outputFormat;
+
+    public JsonResultsWriter() {
+        this(OutputFormat.JSON);
+    }
+
+    /**
+     * @param outputFormat one of {@link OutputFormat#JSON}, {@link OutputFormat#NDJSON} or {@link OutputFormat#NDJSON_GZ}
+     * @since 13.1.0
+     */
+    public JsonResultsWriter(OutputFormat outputFormat) {
+        if (!JSON_FORMATS.contains(outputFormat)) {
+            throw new IllegalArgumentException(outputFormat + " is not a JSON output format. Expected one of " + JSON_FORMATS);
+        }
+        this.outputFormat = outputFormat;
+    }
 
     @Override
     public void writeFile(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings settings) {
         Sample sample = analysisResults.getSample();
-        String outFileName = ResultsWriterUtils.makeOutputFilename(sample.getVcfPath(), settings.getOutputPrefix(), OUTPUT_FORMAT, modeOfInheritance);
+        String outFileName = ResultsWriterUtils.makeOutputFilename(sample.getVcfPath(), settings.getOutputPrefix(), outputFormat, modeOfInheritance);
         Path outFile = Paths.get(outFileName);
-        ObjectWriter objectWriter = new ObjectMapper()
-                .addMixIn(Variant.class, JsonVariantMixin.class)
-                .setDefaultPropertyInclusion(JsonInclude.Include.NON_DEFAULT)
-                .writer();
-        try (Writer bufferedWriter = Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)) {
-            writeData(modeOfInheritance, analysisResults, settings, objectWriter, bufferedWriter);
+        try (Writer bufferedWriter = newBufferedWriter(outFile)) {
+            writeData(modeOfInheritance, analysisResults, settings, COMPACT_WRITER, bufferedWriter);
         } catch (IOException ex) {
             logger.error("Unable to write results to file {}", outFileName, ex);
         }
-        logger.debug("{} {} results written to file {}", OUTPUT_FORMAT, (modeOfInheritance.getAbbreviation() == null) ? "ALL" : modeOfInheritance
+        logger.debug("{} {} results written to file {}", outputFormat, (modeOfInheritance.getAbbreviation() == null) ? "ALL" : modeOfInheritance
                 .getAbbreviation(), outFileName);
     }
 
+    private Writer newBufferedWriter(Path outFile) throws IOException {
+        OutputStream outputStream = Files.newOutputStream(outFile);
+        if (outputFormat == OutputFormat.NDJSON_GZ) {
+            outputStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
     @Override
     public String writeString(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings settings) {
-        ObjectWriter objectWriter = new ObjectMapper()
-                .addMixIn(Variant.class, JsonVariantMixin.class)
-                .setDefaultPropertyInclusion(JsonInclude.Include.NON_DEFAULT)
-                .writerWithDefaultPrettyPrinter();
+        // newline-delimited JSON can't be pretty-printed as each record must be on a single line
+        ObjectWriter objectWriter = outputFormat == OutputFormat.JSON ? PRETTY_WRITER : COMPACT_WRITER;
         try (Writer stringWriter = new StringWriter()) {
             writeData(modeOfInheritance, analysisResults, settings, objectWriter, stringWriter);
             stringWriter.flush();
-            logger.info("{} {} results written to string", OUTPUT_FORMAT, (modeOfInheritance.getAbbreviation() == null) ? "ALL" : modeOfInheritance
+            logger.info("{} {} results written to string", outputFormat, (modeOfInheritance.getAbbreviation() == null) ? "ALL" : modeOfInheritance
                     .getAbbreviation());
             return stringWriter.toString();
         } catch (IOException ex) {
@@ -91,34 +127,48 @@ public String writeString(ModeOfInheritance modeOfInheritance, AnalysisResults a
     }
 
     private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings settings, ObjectWriter objectWriter, Writer writer) throws IOException {
-        List<Gene> compatibleGenes = getCompatibleGenesForMoi(modeOfInheritance, analysisResults.getGenes());
-        if (settings.outputContributingVariantsOnly()) {
+        boolean contributingVariantsOnly = settings.outputContributingVariantsOnly();
+        if (contributingVariantsOnly) {
             logger.debug("Writing out only CONTRIBUTING variants");
-            List<Gene> passedGenes = makePassedGenes(modeOfInheritance, compatibleGenes);
-            objectWriter.writeValue(writer, settings.filterGenesForOutput(passedGenes));
-        } else {
-            objectWriter.writeValue(writer, settings.filterGenesForOutput(compatibleGenes));
         }
-    }
+        int numberOfGenesToShow = settings.getNumberOfGenesToShow();
+        float minExomiserGeneScore = settings.getMinExomiserGeneScore();
 
-    private List<Gene> getCompatibleGenesForMoi(ModeOfInheritance modeOfInheritance, List<Gene> genes) {
-        if (modeOfInheritance == ModeOfInheritance.ANY) {
-            return genes;
+        int genesWritten = 0;
+        try (SequenceWriter sequenceWriter = newSequenceWriter(objectWriter, writer)) {
+            for (Gene gene : analysisResults.getGenes()) {
+                if (numberOfGenesToShow > 0 && genesWritten >= numberOfGenesToShow) {
+                    break;
+                }
+                if (modeOfInheritance != ModeOfInheritance.ANY && !gene.isCompatibleWith(modeOfInheritance)) {
+                    continue;
+                }
+                if (contributingVariantsOnly && !gene.passedFilters()) {
+                    continue;
+                }
+                // the contributing-only gene only has the scores for the mode, so the min score needs checking on this
+                Gene outputGene = contributingVariantsOnly ? makeContributingOnlyGene(modeOfInheritance, gene) : gene;
+                if (outputGene.getCombinedScore() >= minExomiserGeneScore) {
+                    sequenceWriter.write(outputGene);
+                    genesWritten++;
+                }
+            }
+        }
+        if (isNewlineDelimited() && genesWritten > 0) {
+            writer.write('\n');
         }
-        return genes.stream()
-                .filter(gene -> gene.isCompatibleWith(modeOfInheritance))
-                .collect(toList());
+        writer.flush();
     }
 
-    private List<Gene> makePassedGenes(ModeOfInheritance modeOfInheritance, List<Gene> compatibleGenes) {
-        List<Gene> passedGenes = new ArrayList<>();
-        for (Gene gene : compatibleGenes) {
-            if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
-                Gene makePassOnlyGene = makeContributingOnlyGene(modeOfInheritance, gene);
-                passedGenes.add(makePassOnlyGene);
-            }
+    private SequenceWriter newSequenceWriter(ObjectWriter objectWriter, Writer writer) throws IOException {
+        if (isNewlineDelimited()) {
+            return objectWriter.withRootValueSeparator("\n").writeValues(writer);
         }
-        return passedGenes;
+        return objectWriter.writeValuesAsArray(writer);
+    }
+
+    private boolean isNewlineDelimited() {
+        return outputFormat == OutputFormat.NDJSON || outputFormat == OutputFormat.NDJSON_GZ;
     }
 
     private Gene makeContributingOnlyGene(ModeOfInheritance modeOfInheritance, Gene gene) {
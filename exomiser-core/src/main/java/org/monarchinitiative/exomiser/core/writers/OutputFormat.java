@@ -39,9 +39,39 @@ public enum OutputFormat {
 
     HTML("html"),
     VCF("vcf"),
+    /**
+     * Coordinate-sorted, BGZF compressed VCF with an accompanying tabix index.
+     *
+     * @since 13.1.0
+     */
+    VCF_GZ("vcf.gz"),
     TSV_GENE("genes.tsv"),
     TSV_VARIANT("variants.tsv"),
-    JSON("json");
+    JSON("json"),
+    /**
+     * Newline-delimited JSON with one gene per line.
+     *
+     * @since 13.1.0
+     */
+    NDJSON("ndjson"),
+    /**
+     * Gzip compressed newline-delimited JSON with one gene per line.
+     *
+     * @since 13.1.0
+     */
+    NDJSON_GZ("ndjson.gz"),
+    /**
+     * Apache Arrow IPC file of the gene results.
+     *
+     * @since 13.1.0
+     */
+    ARROW_GENE("genes.arrow"),
+    /**
+     * Apache Arrow IPC file of the variant results.
+     *
+     * @since 13.1.0
+     */
+    ARROW_VARIANT("variants.arrow");
 
     private static final Logger logger = LoggerFactory.getLogger(OutputFormat.class);
 
@@ -67,8 +97,25 @@ public static OutputFormat parseFormat(String value) {
                 return OutputFormat.TSV_VARIANT;
             case "VCF":
                 return OutputFormat.VCF;
+            case "VCF_GZ":
+            case "VCF-GZ":
+            case "VCF.GZ":
+                return OutputFormat.VCF_GZ;
             case "JSON":
                 return OutputFormat.JSON;
+            case "NDJSON":
+            case "JSONL":
+                return OutputFormat.NDJSON;
+            case "NDJSON_GZ":
+            case "NDJSON-GZ":
+            case "JSONL-GZ":
+                return OutputFormat.NDJSON_GZ;
+            case "ARROW_GENE":
+            case "ARROW-GENE":
+                return OutputFormat.ARROW_GENE;
+            case "ARROW_VARIANT":
+            case "ARROW-VARIANT":
+                return OutputFormat.ARROW_VARIANT;
             case "HTML":
                 return OutputFormat.HTML;
             default:
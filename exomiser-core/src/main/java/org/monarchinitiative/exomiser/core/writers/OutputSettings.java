@@ -30,6 +30,7 @@
 import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.google.common.collect.Sets;
+import org.apache.arrow.vector.compression.CompressionUtil;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.writers.OutputSettings.Builder;
 
@@ -59,6 +60,9 @@ public class OutputSettings {
     private final float minExomiserGeneScore;
     private final String outputPrefix;
     private final Set<OutputFormat> outputFormats;
+    private final int vcfMaxRecordsInRam;
+    private final CompressionUtil.CodecType arrowCompression;
+    private final int htmlMaxGenes;
 
     private OutputSettings(Builder builder) {
         this.outputContributingVariantsOnly = builder.outputContributingVariantsOnly;
@@ -66,6 +70,9 @@ private OutputSettings(Builder builder) {
         this.minExomiserGeneScore = builder.minExomiserGeneScore;
         this.outputPrefix = builder.outputPrefix;
         this.outputFormats = Sets.immutableEnumSet(builder.outputFormats);
+        this.vcfMaxRecordsInRam = builder.vcfMaxRecordsInRam;
+        this.arrowCompression = builder.arrowCompression;
+        this.htmlMaxGenes = builder.htmlMaxGenes;
     }
 
     @JsonIgnore
@@ -93,6 +100,33 @@ public String getOutputPrefix() {
         return outputPrefix;
     }
 
+    /**
+     * @return the maximum number of records held in memory whilst sorting the {@link OutputFormat#VCF_GZ} output,
+     * before spilling to temporary files.
+     * @since 13.1.0
+     */
+    public int getVcfMaxRecordsInRam() {
+        return vcfMaxRecordsInRam;
+    }
+
+    /**
+     * @return the codec used to compress the record batches of the {@link OutputFormat#ARROW_GENE} and
+     * {@link OutputFormat#ARROW_VARIANT} output.
+     * @since 13.1.0
+     */
+    public CompressionUtil.CodecType getArrowCompression() {
+        return arrowCompression;
+    }
+
+    /**
+     * @return the maximum number of passed genes shown in the {@link OutputFormat#HTML} report, after those removed by
+     * the {@link #getNumberOfGenesToShow()} and {@link #getMinExomiserGeneScore()} criteria. A value of 0 shows all of them.
+     * @since 13.1.0
+     */
+    public int getHtmlMaxGenes() {
+        return htmlMaxGenes;
+    }
+
     /**
      * Filters the input genes for those meeting the defined minimum Exomiser gene score and number of genes to return.
      * This method DOES NOT filter the contributing variants and will return all genes irrespective of their PASS/FAIL
@@ -146,6 +180,9 @@ public static class Builder {
         private float minExomiserGeneScore = 0f;
         private String outputPrefix = "";
         private Set<OutputFormat> outputFormats = EnumSet.of(OutputFormat.HTML);
+        private int vcfMaxRecordsInRam = VcfResultsWriter.DEFAULT_MAX_RECORDS_IN_RAM;
+        private CompressionUtil.CodecType arrowCompression = CompressionUtil.CodecType.NO_COMPRESSION;
+        private int htmlMaxGenes = 0;
 
         private Builder() {}
 
@@ -182,6 +219,30 @@ public Builder outputFormats(Set<OutputFormat> outputFormats) {
             this.outputFormats = outputFormats;
             return this;
         }
+
+        @JsonSetter
+        public Builder vcfMaxRecordsInRam(int vcfMaxRecordsInRam) {
+            if (vcfMaxRecordsInRam < 1) {
+                throw new IllegalArgumentException("vcfMaxRecordsInRam must be greater than 0, but was " + vcfMaxRecordsInRam);
+            }
+            this.vcfMaxRecordsInRam = vcfMaxRecordsInRam;
+            return this;
+        }
+
+        @JsonSetter
+        public Builder arrowCompression(CompressionUtil.CodecType arrowCompression) {
+            this.arrowCompression = Objects.requireNonNull(arrowCompression);
+            return this;
+        }
+
+        @JsonSetter
+        public Builder htmlMaxGenes(int htmlMaxGenes) {
+            if (htmlMaxGenes < 0) {
+                throw new IllegalArgumentException("htmlMaxGenes must be zero or greater, but was " + htmlMaxGenes);
+            }
+            this.htmlMaxGenes = htmlMaxGenes;
+            return this;
+        }
     }
 
     @Override
@@ -189,12 +250,12 @@ public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         OutputSettings that = (OutputSettings) o;
-        return outputContributingVariantsOnly == that.outputContributingVariantsOnly && numberOfGenesToShow == that.numberOfGenesToShow && minExomiserGeneScore == that.minExomiserGeneScore && outputPrefix.equals(that.outputPrefix) && outputFormats.equals(that.outputFormats);
+        return outputContributingVariantsOnly == that.outputContributingVariantsOnly && numberOfGenesToShow == that.numberOfGenesToShow && minExomiserGeneScore == that.minExomiserGeneScore && outputPrefix.equals(that.outputPrefix) && outputFormats.equals(that.outputFormats) && vcfMaxRecordsInRam == that.vcfMaxRecordsInRam && arrowCompression == that.arrowCompression && htmlMaxGenes == that.htmlMaxGenes;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(outputContributingVariantsOnly, numberOfGenesToShow, minExomiserGeneScore, outputPrefix, outputFormats);
+        return Objects.hash(outputContributingVariantsOnly, numberOfGenesToShow, minExomiserGeneScore, outputPrefix, outputFormats, vcfMaxRecordsInRam, arrowCompression, htmlMaxGenes);
     }
 
     @Override
@@ -205,6 +266,9 @@ public String toString() {
                 ", minExomiserGeneScore=" + minExomiserGeneScore +
                 ", outputPrefix='" + outputPrefix + '\'' +
                 ", outputFormats=" + outputFormats +
+                ", vcfMaxRecordsInRam=" + vcfMaxRecordsInRam +
+                ", arrowCompression=" + arrowCompression +
+                ", htmlMaxGenes=" + htmlMaxGenes +
                 '}';
     }
 }
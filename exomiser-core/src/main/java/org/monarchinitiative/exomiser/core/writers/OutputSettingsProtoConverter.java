@@ -21,6 +21,7 @@
 package org.monarchinitiative.exomiser.core.writers;
 
 import com.google.common.collect.Sets;
+import org.apache.arrow.vector.compression.CompressionUtil;
 import org.monarchinitiative.exomiser.api.v1.OutputProto;
 import org.monarchinitiative.exomiser.core.proto.ProtoConverter;
 
@@ -41,6 +42,9 @@ public OutputProto.OutputOptions toProto(OutputSettings outputOptions) {
                 .setNumGenes(outputOptions.getNumberOfGenesToShow())
                 .setMinExomiserGeneScore(outputOptions.getMinExomiserGeneScore())
                 .setOutputContributingVariantsOnly(outputOptions.outputContributingVariantsOnly())
+                .setVcfMaxRecordsInRam(outputOptions.getVcfMaxRecordsInRam())
+                .setArrowCompression(outputOptions.getArrowCompression().name())
+                .setHtmlMaxGenes(outputOptions.getHtmlMaxGenes())
                 .addAllOutputFormats(outputOptions
                         .getOutputFormats()
                         .stream()
@@ -51,11 +55,20 @@ public OutputProto.OutputOptions toProto(OutputSettings outputOptions) {
 
     @Override
     public OutputSettings toDomain(OutputProto.OutputOptions outputOptions) {
-        return OutputSettings.builder()
+        OutputSettings.Builder builder = OutputSettings.builder();
+        // proto3 has no null, so unset values are 0
+        if (outputOptions.getVcfMaxRecordsInRam() > 0) {
+            builder.vcfMaxRecordsInRam(outputOptions.getVcfMaxRecordsInRam());
+        }
+        if (!outputOptions.getArrowCompression().isEmpty()) {
+            builder.arrowCompression(CompressionUtil.CodecType.valueOf(outputOptions.getArrowCompression()));
+        }
+        return builder
                 .outputPrefix(outputOptions.getOutputPrefix())
                 .numberOfGenesToShow(outputOptions.getNumGenes())
                 .minExomiserGeneScore(outputOptions.getMinExomiserGeneScore())
                 .outputContributingVariantsOnly(outputOptions.getOutputContributingVariantsOnly())
+                .htmlMaxGenes(outputOptions.getHtmlMaxGenes())
                 .outputFormats(outputOptions
                         .getOutputFormatsList().stream()
                         .map(OutputFormat::parseFormat)
@@ -51,9 +51,15 @@ public static ResultsWriter getResultsWriter(OutputFormat outputFormat) {
             case TSV_VARIANT:
                 return new TsvVariantResultsWriter();
             case VCF:
-                return new VcfResultsWriter();
+            case VCF_GZ:
+                return new VcfResultsWriter(outputFormat);
             case JSON:
-                return new JsonResultsWriter();
+            case NDJSON:
+            case NDJSON_GZ:
+                return new JsonResultsWriter(outputFormat);
+            case ARROW_GENE:
+            case ARROW_VARIANT:
+                return new ArrowResultsWriter(outputFormat);
             case HTML:
             default:
                 return new HtmlResultsWriter();
@@ -54,6 +54,29 @@ public class ResultsWriterUtils {
 
     private static final String DEFAULT_OUTPUT_DIR = "results";
 
+    // all used Jannovar VariantEffects
+    private static final Set<VariantEffect> REPORTED_VARIANT_EFFECTS = ImmutableSet.of(
+            VariantEffect.FRAMESHIFT_ELONGATION,
+            VariantEffect.FRAMESHIFT_TRUNCATION, VariantEffect.FRAMESHIFT_VARIANT,
+            VariantEffect.INTERNAL_FEATURE_ELONGATION, VariantEffect.FEATURE_TRUNCATION, VariantEffect.MNV,
+            VariantEffect.STOP_GAINED, VariantEffect.STOP_LOST, VariantEffect.START_LOST,
+            VariantEffect.SPLICE_ACCEPTOR_VARIANT, VariantEffect.SPLICE_DONOR_VARIANT,
+            VariantEffect.MISSENSE_VARIANT,
+            VariantEffect.INFRAME_INSERTION, VariantEffect.DISRUPTIVE_INFRAME_INSERTION,
+            VariantEffect.INFRAME_DELETION, VariantEffect.DISRUPTIVE_INFRAME_DELETION,
+            VariantEffect.SPLICE_REGION_VARIANT, VariantEffect.STOP_RETAINED_VARIANT,
+            VariantEffect.INITIATOR_CODON_VARIANT, VariantEffect.SYNONYMOUS_VARIANT,
+            VariantEffect.FIVE_PRIME_UTR_TRUNCATION,
+            VariantEffect.FIVE_PRIME_UTR_INTRON_VARIANT,
+            VariantEffect.FIVE_PRIME_UTR_INTRON_VARIANT,
+            VariantEffect.THREE_PRIME_UTR_TRUNCATION,
+            VariantEffect.THREE_PRIME_UTR_INTRON_VARIANT,
+            VariantEffect.THREE_PRIME_UTR_EXON_VARIANT,
+            VariantEffect.CODING_TRANSCRIPT_INTRON_VARIANT, VariantEffect.NON_CODING_TRANSCRIPT_EXON_VARIANT,
+            VariantEffect.NON_CODING_TRANSCRIPT_INTRON_VARIANT, VariantEffect.UPSTREAM_GENE_VARIANT,
+            VariantEffect.DOWNSTREAM_GENE_VARIANT, VariantEffect.INTERGENIC_VARIANT,
+            VariantEffect.REGULATORY_REGION_VARIANT);
+
     private ResultsWriterUtils() {
         //Empty - this is a static class.
     }
@@ -97,32 +120,22 @@ private static String moiAbbreviation(ModeOfInheritance modeOfInheritance) {
      * @return
      */
     public static List<VariantEffectCount> makeVariantEffectCounters(List<String> sampleNames, List<VariantEvaluation> variantEvaluations) {
-
-        // all used Jannovar VariantEffects
-        final Set<VariantEffect> variantEffects = ImmutableSet.of(
-                VariantEffect.FRAMESHIFT_ELONGATION,
-                VariantEffect.FRAMESHIFT_TRUNCATION, VariantEffect.FRAMESHIFT_VARIANT,
-                VariantEffect.INTERNAL_FEATURE_ELONGATION, VariantEffect.FEATURE_TRUNCATION, VariantEffect.MNV,
-                VariantEffect.STOP_GAINED, VariantEffect.STOP_LOST, VariantEffect.START_LOST,
-                VariantEffect.SPLICE_ACCEPTOR_VARIANT, VariantEffect.SPLICE_DONOR_VARIANT,
-                VariantEffect.MISSENSE_VARIANT,
-                VariantEffect.INFRAME_INSERTION, VariantEffect.DISRUPTIVE_INFRAME_INSERTION,
-                VariantEffect.INFRAME_DELETION, VariantEffect.DISRUPTIVE_INFRAME_DELETION,
-                VariantEffect.SPLICE_REGION_VARIANT, VariantEffect.STOP_RETAINED_VARIANT,
-                VariantEffect.INITIATOR_CODON_VARIANT, VariantEffect.SYNONYMOUS_VARIANT,
-                VariantEffect.FIVE_PRIME_UTR_TRUNCATION,
-                VariantEffect.FIVE_PRIME_UTR_INTRON_VARIANT,
-                VariantEffect.FIVE_PRIME_UTR_INTRON_VARIANT,
-                VariantEffect.THREE_PRIME_UTR_TRUNCATION,
-                VariantEffect.THREE_PRIME_UTR_INTRON_VARIANT,
-                VariantEffect.THREE_PRIME_UTR_EXON_VARIANT,
-                VariantEffect.CODING_TRANSCRIPT_INTRON_VARIANT, VariantEffect.NON_CODING_TRANSCRIPT_EXON_VARIANT,
-                VariantEffect.NON_CODING_TRANSCRIPT_INTRON_VARIANT, VariantEffect.UPSTREAM_GENE_VARIANT,
-                VariantEffect.DOWNSTREAM_GENE_VARIANT, VariantEffect.INTERGENIC_VARIANT,
-                VariantEffect.REGULATORY_REGION_VARIANT);
-
         VariantEffectCounter variantEffectCounter = new VariantEffectCounter(sampleNames, variantEvaluations);
-        return variantEffectCounter.getVariantEffectCounts(variantEffects);
+        return variantEffectCounter.getVariantEffectCounts(REPORTED_VARIANT_EFFECTS);
+    }
+
+    /**
+     * Selects the reported {@link VariantEffect} from counts made elsewhere, for instance those made during the
+     * analysis with {@link VariantEffectCounter#countVariant(VariantEvaluation)}.
+     *
+     * @param variantEffectCounts counts for all {@link VariantEffect}
+     * @return the counts for the reported {@link VariantEffect}
+     * @since 13.1.0
+     */
+    public static List<VariantEffectCount> selectReportedVariantEffectCounts(List<VariantEffectCount> variantEffectCounts) {
+        return variantEffectCounts.stream()
+                .filter(variantEffectCount -> REPORTED_VARIANT_EFFECTS.contains(variantEffectCount.getVariantType()))
+                .collect(Collectors.toList());
     }
 
     public static List<FilterReport> makeFilterReports(Analysis analysis, AnalysisResults analysisResults) {
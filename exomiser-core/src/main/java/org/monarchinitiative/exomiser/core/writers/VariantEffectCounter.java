@@ -34,62 +34,69 @@
 
 import static java.util.stream.Collectors.toList;
 
+/**
+ * Counts the number of variants of each {@link VariantEffect} observed in each sample. The counts can either be made in
+ * one go from a list of variants, or accumulated one variant at a time using {@link #countVariant(VariantEvaluation)},
+ * for example while the final list of variants is being built, so that the variants do not need to be traversed a
+ * second time. This class is not thread-safe.
+ */
 public class VariantEffectCounter {
 
-    private final List<VariantEffectCount> variantEffectCounts;
-
-    public VariantEffectCounter(List<String> sampleNames, List<VariantEvaluation> variantEvaluations) {
-        variantEffectCounts = setup(sampleNames.size(), variantEvaluations);
-    }
-
-    private List<VariantEffectCount> setup(int numSamples, List<VariantEvaluation> variantEvaluations) {
-        Map<VariantEffect, int[]> tempCounts = countVariantEffects(numSamples, variantEvaluations);
-
-        return tempCounts.entrySet()
-                .stream()
-                .map(entry -> {
-                    VariantEffect variantEffect = entry.getKey();
-                    List<Integer> counts = IntStream.of(entry.getValue())
-                            .boxed()
-                            .collect(toList());
-                    return new VariantEffectCount(variantEffect, counts);
-                })
-                .collect(toList());
-    }
+    private final int numSamples;
+    private final Map<VariantEffect, int[]> variantEffectCounts;
 
-    private Map<VariantEffect, int[]> countVariantEffects(int numSamples, List<VariantEvaluation> variantEvaluations) {
-        Map<VariantEffect, int[]> tempCounts = new EnumMap<>(VariantEffect.class);
+    /**
+     * @param sampleNames the names of the samples in the order declared in the VCF header
+     * @since 13.1.0
+     */
+    public VariantEffectCounter(List<String> sampleNames) {
+        this.numSamples = sampleNames.size();
+        this.variantEffectCounts = new EnumMap<>(VariantEffect.class);
         // ensure all cases are created as the input set may not contain them all
         for (VariantEffect variantEffect : VariantEffect.values()) {
-            tempCounts.put(variantEffect, zeroes(numSamples));
+            variantEffectCounts.put(variantEffect, new int[numSamples]);
         }
+    }
 
+    public VariantEffectCounter(List<String> sampleNames, List<VariantEvaluation> variantEvaluations) {
+        this(sampleNames);
         for (VariantEvaluation variant : variantEvaluations) {
-            // this is always in the order of the sample names declared in the VCF header
-            List<SampleData> sampleData = variant.getSampleGenotypes().getSampleData();
-            VariantEffect effect = variant.getVariantEffect();
-            int[] effectCounts = tempCounts.get(effect);
-            for (int i = 0; i < sampleData.size(); i++) {
-                SampleGenotype sampleGenotype = sampleData.get(i).getSampleGenotype();
-                List<AlleleCall> calls = sampleGenotype.getCalls();
-                if (calls.size() == 2 && calls.contains(AlleleCall.ALT)) {
-                    effectCounts[i]++;
-                }
-            }
+            countVariant(variant);
         }
-        return tempCounts;
     }
 
-    private int[] zeroes(int numSamples) {
-        int[] zeroes = new int[numSamples];
-        for (int i = 0; i < numSamples; i++) {
-            zeroes[i] = 0;
+    /**
+     * Adds the variant to the counts for each sample with an ALT allele.
+     *
+     * @param variant the variant to count
+     * @since 13.1.0
+     */
+    public void countVariant(VariantEvaluation variant) {
+        // this is always in the order of the sample names declared in the VCF header
+        List<SampleData> sampleData = variant.getSampleGenotypes().getSampleData();
+        int[] effectCounts = variantEffectCounts.get(variant.getVariantEffect());
+        for (int i = 0; i < sampleData.size() && i < numSamples; i++) {
+            SampleGenotype sampleGenotype = sampleData.get(i).getSampleGenotype();
+            List<AlleleCall> calls = sampleGenotype.getCalls();
+            if (calls.size() == 2 && calls.contains(AlleleCall.ALT)) {
+                effectCounts[i]++;
+            }
         }
-        return zeroes;
+    }
+
+    /**
+     * @return the counts for all {@link VariantEffect}
+     * @since 13.1.0
+     */
+    public List<VariantEffectCount> getVariantEffectCounts() {
+        return variantEffectCounts.entrySet()
+                .stream()
+                .map(entry -> new VariantEffectCount(entry.getKey(), IntStream.of(entry.getValue()).boxed().collect(toList())))
+                .collect(toList());
     }
 
     public List<VariantEffectCount> getVariantEffectCounts(Set<VariantEffect> variantEffects) {
-        return variantEffectCounts.stream()
+        return getVariantEffectCounts().stream()
                 .filter(variantEffectCount -> variantEffects.contains(variantEffectCount.getVariantType()))
                 .collect(toList());
     }
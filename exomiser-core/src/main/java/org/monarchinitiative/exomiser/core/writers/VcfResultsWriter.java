@@ -24,6 +24,10 @@
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import htsjdk.samtools.util.CloseableIterator;
+import htsjdk.samtools.util.SortingCollection;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.index.tabix.TabixIndexCreator;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
 import htsjdk.variant.variantcontext.writer.Options;
@@ -33,6 +37,7 @@
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
 import org.monarchinitiative.exomiser.core.analysis.sample.Sample;
 import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.genome.Contigs;
 import org.monarchinitiative.exomiser.core.genome.VcfFiles;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
@@ -45,12 +50,18 @@
 import java.nio.file.Paths;
 import java.text.NumberFormat;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 /**
  * Generate results in VCF format using HTS-JDK.
+ * <p>
+ * The {@link OutputFormat#VCF} output lists the variants in gene rank order. The {@link OutputFormat#VCF_GZ} output
+ * is sorted by chromosomal coordinate, BGZF compressed and written with a tabix index, so that it can be used directly
+ * by downstream tools. The records are sorted using an external merge sort which holds at most
+ * {@link OutputSettings#getVcfMaxRecordsInRam()} records in memory, spilling any more to temporary files.
  *
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  * @author Manuel Holtgrewe <manuel.holtgrewe@charite.de>
@@ -100,8 +111,18 @@ VCFHeaderLine getVcfHeaderLine() {
 
     private static final Logger logger = LoggerFactory.getLogger(VcfResultsWriter.class);
 
-    private static final OutputFormat OUTPUT_FORMAT = OutputFormat.VCF;
+    static final int DEFAULT_MAX_RECORDS_IN_RAM = 100_000;
 
+    // Unplaced contigs are sorted after the assembled chromosomes. This is consistent for all input VCF, regardless of
+    // whether they have a sequence dictionary or not, and keeps each contig contiguous as required by tabix.
+    private static final Comparator<VariantContext> COORDINATE_ORDER = Comparator
+            .comparingInt((VariantContext variantContext) -> contigRank(variantContext.getContig()))
+            .thenComparing(VariantContext::getContig)
+            .thenComparingInt(VariantContext::getStart)
+            .thenComparingInt(VariantContext::getEnd);
+
+    private final OutputFormat outputFormat;
+    private final VCFHeader outputVcfHeader;
     private final NumberFormat numberFormat;
 
     /**
@@ -109,6 +130,29 @@ VCFHeaderLine getVcfHeaderLine() {
      * input.
      */
     public VcfResultsWriter() {
+        this(OutputFormat.VCF, null);
+    }
+
+    /**
+     * @param outputFormat one of {@link OutputFormat#VCF} or {@link OutputFormat#VCF_GZ}
+     * @since 13.1.0
+     */
+    public VcfResultsWriter(OutputFormat outputFormat) {
+        this(outputFormat, null);
+    }
+
+    /**
+     * @param outputFormat    one of {@link OutputFormat#VCF} or {@link OutputFormat#VCF_GZ}
+     * @param outputVcfHeader header created with {@link #readOutputVcfHeader(Path)} to share between writers for the
+     *                        same sample, rather than reading it from the input VCF on each write. Can be null.
+     * @since 13.1.0
+     */
+    public VcfResultsWriter(OutputFormat outputFormat, VCFHeader outputVcfHeader) {
+        if (outputFormat != OutputFormat.VCF && outputFormat != OutputFormat.VCF_GZ) {
+            throw new IllegalArgumentException(outputFormat + " is not a VCF output format");
+        }
+        this.outputFormat = outputFormat;
+        this.outputVcfHeader = outputVcfHeader;
         numberFormat = NumberFormat.getInstance(Locale.UK);
         numberFormat.setMinimumFractionDigits(1);
         numberFormat.setMaximumFractionDigits(4);
@@ -123,14 +167,21 @@ public void writeFile(ModeOfInheritance modeOfInheritance, AnalysisResults analy
             logger.info("Skipping writing VCF results as no input VCF has been defined");
             return;
         }
-        String outFileName = ResultsWriterUtils.makeOutputFilename(vcfPath, settings.getOutputPrefix(), OUTPUT_FORMAT, modeOfInheritance);
+        String outFileName = ResultsWriterUtils.makeOutputFilename(vcfPath, settings.getOutputPrefix(), outputFormat, modeOfInheritance);
         Path outFile = Paths.get(outFileName);
-        VCFHeader vcfHeader = readAndUpdateVcfHeader(vcfPath);
-        try (VariantContextWriter writer = newNonIndexingVariantContextWriterBuilder().setOutputPath(outFile).build()) {
-            writer.writeHeader(vcfHeader);
-            writeData(modeOfInheritance, analysisResults, settings, writer);
+        VCFHeader vcfHeader = getOutputVcfHeader(vcfPath);
+        if (outputFormat == OutputFormat.VCF_GZ) {
+            try (VariantContextWriter writer = newSortedIndexingVariantContextWriterBuilder().setOutputPath(outFile).build()) {
+                writer.writeHeader(vcfHeader);
+                writeSortedData(modeOfInheritance, analysisResults, settings, vcfHeader, writer);
+            }
+        } else {
+            try (VariantContextWriter writer = newNonIndexingVariantContextWriterBuilder().setOutputPath(outFile).build()) {
+                writer.writeHeader(vcfHeader);
+                writeData(modeOfInheritance, analysisResults, settings, writer::add);
+            }
         }
-        logger.debug("{} {} results written to file {}.", OUTPUT_FORMAT, modeOfInheritance.getAbbreviation(), outFileName);
+        logger.debug("{} {} results written to file {}.", outputFormat, modeOfInheritance.getAbbreviation(), outFileName);
     }
 
     @Override
@@ -142,17 +193,37 @@ public String writeString(ModeOfInheritance modeOfInheritance, AnalysisResults a
             return "";
         }
         // create a VariantContextWriter writing to a buffer
+        // n.b. VCF_GZ output is written as plain text, albeit sorted, as a compressed String makes little sense
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        VCFHeader vcfHeader = readAndUpdateVcfHeader(vcfPath);
+        VCFHeader vcfHeader = getOutputVcfHeader(vcfPath);
         try (VariantContextWriter writer = newNonIndexingVariantContextWriterBuilder().setOutputStream(baos).build()) {
             writer.writeHeader(vcfHeader);
-            writeData(modeOfInheritance, analysisResults, settings, writer);
+            if (outputFormat == OutputFormat.VCF_GZ) {
+                writeSortedData(modeOfInheritance, analysisResults, settings, vcfHeader, writer);
+            } else {
+                writeData(modeOfInheritance, analysisResults, settings, writer::add);
+            }
         }
-        logger.debug("{} results written to string buffer", OUTPUT_FORMAT);
+        logger.debug("{} results written to string buffer", outputFormat);
         return baos.toString(StandardCharsets.UTF_8);
     }
 
-    private VCFHeader readAndUpdateVcfHeader(Path vcfPath) {
+    private VCFHeader getOutputVcfHeader(Path vcfPath) {
+        if (outputVcfHeader == null) {
+            return readOutputVcfHeader(vcfPath);
+        }
+        // VCFHeader is mutable, so each writer gets its own copy
+        return new VCFHeader(outputVcfHeader);
+    }
+
+    /**
+     * Reads the header of the input VCF and adds the Exomiser INFO and FILTER fields to it.
+     *
+     * @param vcfPath path of the input VCF file
+     * @return the header for the VCF output
+     * @since 13.1.0
+     */
+    public static VCFHeader readOutputVcfHeader(Path vcfPath) {
         VCFHeader vcfHeader = VcfFiles.readVcfHeader(vcfPath);
         // add INFO descriptions
         for (ExomiserVcfInfoField infoField : ExomiserVcfInfoField.values()) {
@@ -171,7 +242,40 @@ private VariantContextWriterBuilder newNonIndexingVariantContextWriterBuilder()
                 .unsetOption(Options.INDEX_ON_THE_FLY);
     }
 
-    private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings outputSettings, VariantContextWriter writer) {
+    private VariantContextWriterBuilder newSortedIndexingVariantContextWriterBuilder() {
+        return new VariantContextWriterBuilder()
+                .setOutputFileType(VariantContextWriterBuilder.OutputType.BLOCK_COMPRESSED_VCF)
+                .setOption(Options.ALLOW_MISSING_FIELDS_IN_HEADER)
+                .setOption(Options.INDEX_ON_THE_FLY)
+                .setIndexCreator(new TabixIndexCreator(TabixFormat.VCF));
+    }
+
+    private static int contigRank(String contig) {
+        int contigId = Contigs.parseId(contig);
+        return contigId == 0 ? Integer.MAX_VALUE : contigId;
+    }
+
+    /**
+     * Writes the records in coordinate order. The records are first written to a {@link SortingCollection} which
+     * spills to disk should there be more than {@link OutputSettings#getVcfMaxRecordsInRam()} of them.
+     */
+    private void writeSortedData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings outputSettings, VCFHeader vcfHeader, VariantContextWriter writer) {
+        SortingCollection<VariantContext> sortedRecords = SortingCollection.newInstance(VariantContext.class,
+                new VCFRecordCodec(vcfHeader, true), COORDINATE_ORDER, outputSettings.getVcfMaxRecordsInRam(), Paths.get(System.getProperty("java.io.tmpdir")));
+        try {
+            writeData(modeOfInheritance, analysisResults, outputSettings, sortedRecords::add);
+            sortedRecords.doneAdding();
+            try (CloseableIterator<VariantContext> iterator = sortedRecords.iterator()) {
+                while (iterator.hasNext()) {
+                    writer.add(iterator.next());
+                }
+            }
+        } finally {
+            sortedRecords.cleanup();
+        }
+    }
+
+    private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings outputSettings, Consumer<VariantContext> writer) {
         writeUnannotatedVariants(modeOfInheritance, analysisResults, writer);
         List<Gene> passedGenes = outputSettings.filterGenesForOutput(analysisResults.getGenes());
         // actually write the data and close writer again
@@ -183,17 +287,17 @@ private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults anal
         }
     }
 
-    private void writeUnannotatedVariants(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, VariantContextWriter writer) {
+    private void writeUnannotatedVariants(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, Consumer<VariantContext> writer) {
         List<VariantContext> updatedRecords = updateGeneVariantRecords(modeOfInheritance, null, analysisResults.getUnAnnotatedVariantEvaluations());
-        updatedRecords.forEach(writer::add);
+        updatedRecords.forEach(writer);
     }
 
-    private void writeOnlyContributingData(ModeOfInheritance modeOfInheritance, List<Gene> genes, VariantContextWriter writer) {
+    private void writeOnlyContributingData(ModeOfInheritance modeOfInheritance, List<Gene> genes, Consumer<VariantContext> writer) {
         for (Gene gene : genes) {
             if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
                 List<VariantEvaluation> compatibleVariants = gene.getGeneScoreForMode(modeOfInheritance).getContributingVariants();
                 List<VariantContext> updatedRecords = updateGeneVariantRecords(modeOfInheritance, gene, compatibleVariants);
-                updatedRecords.forEach(writer::add);
+                updatedRecords.forEach(writer);
             }
         }
     }
@@ -208,11 +312,11 @@ private void writeOnlyContributingData(ModeOfInheritance modeOfInheritance, List
      * @param genes  data set to write out
      * @param writer writer to write to
      */
-    private void writeAllSampleData(ModeOfInheritance modeOfInheritance, List<Gene> genes, VariantContextWriter writer) {
+    private void writeAllSampleData(ModeOfInheritance modeOfInheritance, List<Gene> genes, Consumer<VariantContext> writer) {
         for (Gene gene : genes) {
             logger.debug("updating variant records for gene {}", gene);
             List<VariantContext> updatedRecords = updateGeneVariantRecords(modeOfInheritance, gene, gene.getVariantEvaluations());
-            updatedRecords.forEach(writer::add);
+            updatedRecords.forEach(writer);
         }
     }
 
@@ -0,0 +1,125 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.filters.*;
+import org.monarchinitiative.exomiser.core.genome.TestFactory;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class AdaptiveVariantFilterSchedulerTest {
+
+    private final VariantFilterRunner variantFilterRunner = new SparseVariantFilterRunner();
+    private final BiFunction<VariantFilter, VariantEvaluation, FilterResult> filterRunner = (filter, variantEvaluation) -> variantFilterRunner.run(filter, variantEvaluation);
+
+    /**
+     * Passes every variant, standing in for an expensive filter which very rarely fails a variant.
+     */
+    private static final VariantFilter PASS_ALL_FILTER = new VariantFilter() {
+        @Override
+        public FilterType getFilterType() {
+            return FilterType.INTERVAL_FILTER;
+        }
+
+        @Override
+        public FilterResult runFilter(VariantEvaluation variantEvaluation) {
+            return FilterResult.pass(FilterType.INTERVAL_FILTER);
+        }
+    };
+
+    private static final VariantFilter QUALITY_FILTER = new QualityFilter(50);
+
+    private static List<VariantEvaluation> variants(int numVariants) {
+        List<VariantEvaluation> variantEvaluations = new ArrayList<>(numVariants);
+        for (int i = 0; i < numVariants; i++) {
+            // every other variant fails the quality filter
+            double quality = i % 2 == 0 ? 10 : 100;
+            variantEvaluations.add(TestFactory.variantBuilder(1, 1000 + i, "A", "T").quality(quality).build());
+        }
+        return variantEvaluations;
+    }
+
+    private static List<Boolean> run(AdaptiveVariantFilterScheduler instance, List<VariantEvaluation> variantEvaluations) {
+        return variantEvaluations.stream().map(instance::runFilters).collect(toList());
+    }
+
+    @Test
+    void singleFilterIsNotReordered() {
+        FilterStats filterStats = new FilterStats();
+        AdaptiveVariantFilterScheduler instance = new AdaptiveVariantFilterScheduler(List.of(QUALITY_FILTER), filterRunner, filterStats, 10);
+        run(instance, variants(20));
+        assertThat(instance.getFilterOrder(), equalTo(List.of(QUALITY_FILTER)));
+        assertThat(filterStats.getVariantFilterOrder().isEmpty(), is(true));
+        assertThat(filterStats.getFailCountForFilter(FilterType.QUALITY_FILTER), equalTo(10));
+    }
+
+    @Test
+    void filtersRunInAnalysisOrderWhileSampling() {
+        FilterStats filterStats = new FilterStats();
+        AdaptiveVariantFilterScheduler instance = new AdaptiveVariantFilterScheduler(List.of(PASS_ALL_FILTER, QUALITY_FILTER), filterRunner, filterStats, 10);
+        run(instance, variants(9));
+        assertThat(instance.getFilterOrder(), equalTo(List.of(PASS_ALL_FILTER, QUALITY_FILTER)));
+        assertThat(filterStats.getVariantFilterOrder().isEmpty(), is(true));
+    }
+
+    @Test
+    void selectiveFilterIsMovedFirstAfterSampling() {
+        FilterStats filterStats = new FilterStats();
+        AdaptiveVariantFilterScheduler instance = new AdaptiveVariantFilterScheduler(List.of(PASS_ALL_FILTER, QUALITY_FILTER), filterRunner, filterStats, 10);
+        run(instance, variants(20));
+
+        assertThat(instance.getFilterOrder(), equalTo(List.of(QUALITY_FILTER, PASS_ALL_FILTER)));
+        assertThat(filterStats.getVariantFilterOrder(), equalTo(List.of(FilterType.QUALITY_FILTER, FilterType.INTERVAL_FILTER)));
+        // all 20 are run through the quality filter, but only the first 10 and those passing quality after that are
+        // run through the interval filter
+        assertThat(filterStats.getPassCountForFilter(FilterType.QUALITY_FILTER), equalTo(10));
+        assertThat(filterStats.getFailCountForFilter(FilterType.QUALITY_FILTER), equalTo(10));
+        assertThat(filterStats.getPassCountForFilter(FilterType.INTERVAL_FILTER), equalTo(15));
+    }
+
+    @Test
+    void reorderedFiltersPassSameVariants() {
+        List<VariantEvaluation> analysisOrderVariants = variants(100);
+        List<Boolean> analysisOrderResults = new ArrayList<>();
+        for (VariantEvaluation variantEvaluation : analysisOrderVariants) {
+            for (VariantFilter filter : List.of(PASS_ALL_FILTER, QUALITY_FILTER)) {
+                if (variantEvaluation.passedFilters()) {
+                    variantFilterRunner.run(filter, variantEvaluation);
+                }
+            }
+            analysisOrderResults.add(variantEvaluation.passedFilters());
+        }
+
+        AdaptiveVariantFilterScheduler instance = new AdaptiveVariantFilterScheduler(List.of(PASS_ALL_FILTER, QUALITY_FILTER), filterRunner, new FilterStats(), 10);
+        List<Boolean> scheduledResults = run(instance, variants(100));
+
+        assertThat(scheduledResults, equalTo(analysisOrderResults));
+    }
+}
@@ -42,6 +42,7 @@
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  *
@@ -196,6 +197,64 @@ public void testGetGeneScoresForMode() {
         assertThat(instance.getGeneScoresForMode(ModeOfInheritance.AUTOSOMAL_RECESSIVE), equalTo(ImmutableList.of(thirdAR)));
     }
 
+    @Test
+    public void testRankedForInheritanceMode() {
+        Gene fgfr2Gene = TestFactory.newGeneFGFR2();
+        fgfr2Gene.addGeneScore(GeneScore.builder()
+                .geneIdentifier(fgfr2Gene.getGeneIdentifier())
+                .modeOfInheritance(ModeOfInheritance.AUTOSOMAL_DOMINANT)
+                .combinedScore(0.25f)
+                .build());
+        fgfr2Gene.addGeneScore(GeneScore.builder()
+                .geneIdentifier(fgfr2Gene.getGeneIdentifier())
+                .modeOfInheritance(ModeOfInheritance.AUTOSOMAL_RECESSIVE)
+                .combinedScore(0.90f)
+                .build());
+
+        Gene rbm8aGene = TestFactory.newGeneRBM8A();
+        rbm8aGene.addGeneScore(GeneScore.builder()
+                .geneIdentifier(rbm8aGene.getGeneIdentifier())
+                .modeOfInheritance(ModeOfInheritance.AUTOSOMAL_DOMINANT)
+                .combinedScore(0.75f)
+                .build());
+
+        //no gene score for SHH
+        Gene shhGene = TestFactory.newGeneSHH();
+
+        List<Gene> genes = ImmutableList.of(shhGene, fgfr2Gene, rbm8aGene);
+        List<VariantEvaluation> variantEvaluations = ImmutableList.of(TestFactory.variantBuilder(10, 23456, "A", "T").build());
+        Sample sample = Sample.builder().probandSampleName("Slartibartfast").build();
+
+        AnalysisResults instance = AnalysisResults.builder()
+                .sample(sample)
+                .variantEvaluations(variantEvaluations)
+                .genes(genes)
+                .build();
+
+        AnalysisResults rankedForAd = instance.rankedForInheritanceMode(ModeOfInheritance.AUTOSOMAL_DOMINANT);
+        AnalysisResults rankedForAr = instance.rankedForInheritanceMode(ModeOfInheritance.AUTOSOMAL_RECESSIVE);
+
+        assertThat(rankedForAd.getGenes(), equalTo(ImmutableList.of(rbm8aGene, fgfr2Gene, shhGene)));
+        assertThat(rankedForAr.getGenes(), equalTo(ImmutableList.of(fgfr2Gene, rbm8aGene, shhGene)));
+        // same order as sorting in place
+        List<Gene> sortedForAr = new ArrayList<>(genes);
+        sortedForAr.sort(Gene.comparingScoreForInheritanceMode(ModeOfInheritance.AUTOSOMAL_RECESSIVE));
+        assertThat(rankedForAr.getGenes(), equalTo(sortedForAr));
+        // original is unchanged
+        assertThat(instance.getGenes(), equalTo(genes));
+        assertThat(rankedForAd.getSample(), equalTo(sample));
+        assertThat(rankedForAd.getVariantEvaluations(), equalTo(variantEvaluations));
+    }
+
+    @Test
+    public void testRankedForInheritanceModeIsReadOnly() {
+        List<Gene> genes = new ArrayList<>(ImmutableList.of(TestFactory.newGeneFGFR2(), TestFactory.newGeneRBM8A()));
+        AnalysisResults instance = AnalysisResults.builder().genes(genes).build();
+        List<Gene> ranked = instance.rankedForInheritanceMode(ModeOfInheritance.AUTOSOMAL_DOMINANT).getGenes();
+        assertThrows(UnsupportedOperationException.class, () -> ranked.add(TestFactory.newGeneSHH()));
+        assertThrows(UnsupportedOperationException.class, () -> ranked.set(0, TestFactory.newGeneSHH()));
+    }
+
     @Test
     public void testCanReturnUnannotatedVariantEvaluations() {
         VariantEvaluation annotatedVariantEvaluation = TestFactory.variantBuilder(10, 123353297, "G", "C")
@@ -0,0 +1,190 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import htsjdk.variant.variantcontext.VariantContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.exomiser.core.filters.FailedVariantFilter;
+import org.monarchinitiative.exomiser.core.filters.QualityFilter;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.VcfFiles;
+import org.monarchinitiative.exomiser.core.genome.VcfReader;
+import org.monarchinitiative.exomiser.core.genome.VcfReaderFactory;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.prioritisers.NoneTypePrioritiser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AnnotatedSampleStoreTest extends AnalysisRunnerTestBase {
+
+    /**
+     * Reads the sample identifiers from the VCF, but fails if the variants are read. Used to check that the variants were
+     * loaded from the {@link AnnotatedSampleStore}.
+     */
+    private final VcfReaderFactory sampleIdentifiersOnly = vcfPath -> new VcfReader() {
+        @Override
+        public List<String> readSampleIdentifiers() {
+            return VcfFiles.readSampleIdentifiers(vcfPath);
+        }
+
+        @Override
+        public Stream<VariantContext> readVariantContexts() {
+            throw new IllegalStateException("Variants should have been loaded from the annotated sample store");
+        }
+    };
+
+    private AnalysisRunner passOnlyRunner(AnnotatedSampleStore annotatedSampleStore, VcfReaderFactory vcfReaderFactory) {
+        return new PassOnlyAnalysisRunner(genomeAnalysisService, AnalysisMetrics.noOp(), vcfReaderFactory, annotatedSampleStore);
+    }
+
+    private static List<Path> storedFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(toList());
+        }
+    }
+
+    private static List<String> variantStrings(AnalysisResults analysisResults) {
+        return analysisResults.getVariantEvaluations().stream().map(VariantEvaluation::toString).collect(toList());
+    }
+
+    private static List<String> geneSymbols(AnalysisResults analysisResults) {
+        return analysisResults.getGenes().stream().map(Gene::getGeneSymbol).collect(toList());
+    }
+
+    @Test
+    void disabledStoreIsNotEnabled() {
+        assertThat(AnnotatedSampleStore.disabled().isEnabled(), is(false));
+    }
+
+    @Test
+    void disabledStoreDoesNotLoadOrSave(@TempDir Path tempDir) throws IOException {
+        Analysis analysis = makeAnalysis(new FailedVariantFilter());
+        AnalysisResults analysisResults = passOnlyRunner(AnnotatedSampleStore.disabled(), VcfReaderFactory.sequential()).run(vcfOnlySample, analysis);
+        assertThat(analysisResults.getVariantEvaluations().isEmpty(), is(false));
+        assertThat(storedFiles(tempDir).isEmpty(), is(true));
+    }
+
+    @Test
+    void reAnalysisUsesStoredVariants(@TempDir Path tempDir) throws IOException {
+        AnnotatedSampleStore annotatedSampleStore = AnnotatedSampleStore.of(tempDir, "hg19_test");
+        Analysis analysis = makeAnalysis(new FailedVariantFilter(), new QualityFilter(120));
+
+        AnalysisResults original = passOnlyRunner(annotatedSampleStore, VcfReaderFactory.sequential()).run(vcfOnlySample, analysis);
+        assertThat(storedFiles(tempDir).size(), equalTo(1));
+
+        AnalysisResults reAnalysis = passOnlyRunner(annotatedSampleStore, sampleIdentifiersOnly).run(vcfOnlySample, analysis);
+        assertThat(reAnalysis.getVariantEvaluations().size(), equalTo(2));
+        assertThat(variantStrings(reAnalysis), equalTo(variantStrings(original)));
+        assertThat(geneSymbols(reAnalysis), equalTo(geneSymbols(original)));
+        assertThat(reAnalysis.getVariantEffectCounts(), equalTo(original.getVariantEffectCounts()));
+    }
+
+    @Test
+    void changedVariantFiltersAreStoredSeparately(@TempDir Path tempDir) throws IOException {
+        AnnotatedSampleStore annotatedSampleStore = AnnotatedSampleStore.of(tempDir, "hg19_test");
+        AnalysisRunner instance = passOnlyRunner(annotatedSampleStore, VcfReaderFactory.sequential());
+
+        instance.run(vcfOnlySample, makeAnalysis(new QualityFilter(120)));
+        instance.run(vcfOnlySample, makeAnalysis(new QualityFilter(50)));
+        assertThat(storedFiles(tempDir).size(), equalTo(2));
+    }
+
+    @Test
+    void changedDataVersionIsStoredSeparately(@TempDir Path tempDir) throws IOException {
+        Analysis analysis = makeAnalysis(new QualityFilter(120));
+        passOnlyRunner(AnnotatedSampleStore.of(tempDir, "hg19_2102"), VcfReaderFactory.sequential()).run(vcfOnlySample, analysis);
+        passOnlyRunner(AnnotatedSampleStore.of(tempDir, "hg19_2109"), VcfReaderFactory.sequential()).run(vcfOnlySample, analysis);
+        assertThat(storedFiles(tempDir).size(), equalTo(2));
+    }
+
+    @Test
+    void unreadableStoredFileIsReplaced(@TempDir Path tempDir) throws IOException {
+        AnnotatedSampleStore annotatedSampleStore = AnnotatedSampleStore.of(tempDir, "hg19_test");
+        Analysis analysis = makeAnalysis(new QualityFilter(120));
+        AnalysisRunner instance = passOnlyRunner(annotatedSampleStore, VcfReaderFactory.sequential());
+
+        AnalysisResults original = instance.run(vcfOnlySample, analysis);
+        Path storedFile = storedFiles(tempDir).get(0);
+        Files.write(storedFile, new byte[]{'n', 'o', 't', ' ', 'a', ' ', 's', 'a', 'm', 'p', 'l', 'e'});
+
+        AnalysisResults reAnalysis = instance.run(vcfOnlySample, analysis);
+        assertThat(variantStrings(reAnalysis), equalTo(variantStrings(original)));
+        // the unreadable file has been overwritten
+        AnalysisResults fromStore = passOnlyRunner(annotatedSampleStore, sampleIdentifiersOnly).run(vcfOnlySample, analysis);
+        assertThat(variantStrings(fromStore), equalTo(variantStrings(original)));
+    }
+
+    @Test
+    void variantsAreNotStoredWhenLoadedAfterPrioritiser(@TempDir Path tempDir) throws IOException {
+        AnnotatedSampleStore annotatedSampleStore = AnnotatedSampleStore.of(tempDir, "hg19_test");
+        Analysis analysis = makeAnalysis(new NoneTypePrioritiser(), new QualityFilter(120));
+
+        passOnlyRunner(annotatedSampleStore, VcfReaderFactory.sequential()).run(vcfOnlySample, analysis);
+        assertThat(storedFiles(tempDir).isEmpty(), is(true));
+    }
+
+    @Test
+    void maxEntriesMustBePositive(@TempDir Path tempDir) {
+        assertThrows(IllegalArgumentException.class, () -> AnnotatedSampleStore.of(tempDir, "hg19_test", 0));
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreRemoved(@TempDir Path tempDir) throws IOException {
+        AnnotatedSampleStore annotatedSampleStore = AnnotatedSampleStore.of(tempDir, "hg19_test", 1);
+        AnalysisRunner instance = passOnlyRunner(annotatedSampleStore, VcfReaderFactory.sequential());
+
+        instance.run(vcfOnlySample, makeAnalysis(new QualityFilter(120)));
+        Path leastRecentlyUsed = storedFiles(tempDir).get(0);
+        Files.setLastModifiedTime(leastRecentlyUsed, FileTime.fromMillis(0));
+        Analysis mostRecent = makeAnalysis(new QualityFilter(50));
+        instance.run(vcfOnlySample, mostRecent);
+        assertThat(storedFiles(tempDir).size(), equalTo(1));
+        assertThat(Files.exists(leastRecentlyUsed), is(false));
+
+        AnalysisResults fromStore = passOnlyRunner(annotatedSampleStore, sampleIdentifiersOnly).run(vcfOnlySample, mostRecent);
+        assertThat(fromStore.getVariantEvaluations().isEmpty(), is(false));
+    }
+
+    @Test
+    void modifiedVcfFileHasDifferentKey(@TempDir Path tempDir) throws IOException {
+        Path vcfCopy = Files.copy(vcfPath, tempDir.resolve("copy.vcf"));
+        Analysis analysis = makeAnalysis(new QualityFilter(120));
+        AnnotatedSampleKey original = AnnotatedSampleKey.of(vcfCopy, GenomeAssembly.HG19, "", analysis, List.of());
+        String originalFingerprint = original.getVcfFingerprint();
+
+        Files.setLastModifiedTime(vcfCopy, FileTime.fromMillis(Files.getLastModifiedTime(vcfCopy).toMillis() + 60_000));
+        AnnotatedSampleKey modified = AnnotatedSampleKey.of(vcfCopy, GenomeAssembly.HG19, "", analysis, List.of());
+        assertThat(modified.getVcfFingerprint(), not(equalTo(originalFingerprint)));
+    }
+}
@@ -215,6 +215,34 @@ void canLogMultiplePassAndFailCountsForSameFilterWithMultipleThreads() {
         }
     }
 
+    @Test
+    void countsForFilterNotRunAreZero() {
+        FilterStats instance = new FilterStats();
+        instance.addResult(FilterResult.pass(FilterType.FREQUENCY_FILTER));
+
+        assertThat(instance.getPassCountForFilter(FilterType.QUALITY_FILTER), equalTo(0));
+        assertThat(instance.getFailCountForFilter(FilterType.QUALITY_FILTER), equalTo(0));
+        assertThat(instance.getFilters(), equalTo(ImmutableList.of(FilterType.FREQUENCY_FILTER)));
+    }
+
+    @Test
+    void canAddFilterCountsAndResultsWithMultipleThreads() {
+        FilterStats instance = new FilterStats();
+
+        List<FilterType> filterTypes = List.of(FilterType.values());
+        filterTypes.parallelStream()
+                .forEach(filterType -> {
+                    instance.addFilterCount(new FilterStats.FilterCount(filterType, 5, 7));
+                    new FilterRunner(filterType, 100, 200, instance).run();
+                });
+
+        for (FilterType filterType : filterTypes) {
+            assertThat(instance.getPassCountForFilter(filterType), equalTo(105));
+            assertThat(instance.getFailCountForFilter(filterType), equalTo(207));
+        }
+        assertThat(instance.getFilters().size(), equalTo(filterTypes.size()));
+    }
+
     /**
      * Utility class for testing FilterStats in a multi-threaded environment.
      */
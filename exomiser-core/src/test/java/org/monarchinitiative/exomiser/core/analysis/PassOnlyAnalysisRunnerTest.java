@@ -43,6 +43,7 @@
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.*;
@@ -102,6 +103,27 @@ public void testRunAnalysisRemovesAllelesUnobservedForProband() {
         }
     }
 
+    @Test
+    public void testRunAnalysisReportsRecordsUnobservedForProbandAsLoadedToProgressListener() {
+        Sample sample = Sample.builder()
+                .vcfPath(Paths.get("src/test/resources/multiSampleWithProbandHomRef.vcf"))
+                .probandSampleName("Seth")
+                .pedigree(TestPedigrees.trioChildAffected())
+                .build();
+
+        Analysis analysis = Analysis.builder()
+                .inheritanceModeOptions(InheritanceModeOptions.defaults())
+                .addStep(new FailedVariantFilter())
+                .build();
+
+        AtomicInteger loadedVariants = new AtomicInteger();
+        AnalysisResults analysisResults = instance.run(sample, analysis, (loaded, passed) -> loadedVariants.set(loaded));
+
+        // the record which is 0/0 for Seth is skipped before it is loaded, but still counts towards the variant limit
+        assertThat(analysisResults.getVariantEvaluations().size(), equalTo(1));
+        assertThat(loadedVariants.get(), equalTo(2));
+    }
+
     @Test
     public void testRunAnalysisVariantFilterOnlyOneVariantPasses() {
         VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
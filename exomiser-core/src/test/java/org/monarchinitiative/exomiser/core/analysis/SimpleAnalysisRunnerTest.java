@@ -25,6 +25,8 @@
 import org.monarchinitiative.exomiser.core.analysis.sample.Sample;
 import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeOptions;
 import org.monarchinitiative.exomiser.core.filters.*;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisStage;
+import org.monarchinitiative.exomiser.core.metrics.SimpleAnalysisMetrics;
 import org.monarchinitiative.exomiser.core.model.FilterStatus;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.GeneticInterval;
@@ -109,6 +111,25 @@ public void runAnalysisVariantFilterOnlyOneVariantPasses() {
 
     }
 
+    @Test
+    public void runAnalysisRecordsStageMetrics() {
+        SimpleAnalysisMetrics analysisMetrics = new SimpleAnalysisMetrics();
+        SimpleAnalysisRunner measuredInstance = new SimpleAnalysisRunner(genomeAnalysisService, analysisMetrics);
+
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
+        Analysis analysis = makeAnalysis(intervalFilter);
+
+        measuredInstance.run(vcfOnlySample, analysis);
+
+        assertThat(analysisMetrics.getVariantsLoaded() > 0, is(true));
+        assertThat(analysisMetrics.getVariantsPassed(), equalTo(1L));
+        assertThat(analysisMetrics.getTotalNanos(AnalysisStage.VCF_DECODING, null) > 0, is(true));
+        assertThat(analysisMetrics.getTotalNanos(AnalysisStage.VARIANT_ANNOTATION, null) > 0, is(true));
+        assertThat(analysisMetrics.getTotalNanos(AnalysisStage.VARIANT_FILTER, FilterType.INTERVAL_FILTER.name()) > 0, is(true));
+        assertThat(analysisMetrics.getTotalNanos(AnalysisStage.GENE_SCORING, null) > 0, is(true));
+        assertThat(analysisMetrics.getTotalNanos(AnalysisStage.ANALYSIS, analysis.getAnalysisMode().name()) > 0, is(true));
+    }
+
     @Test
     public void runAnalysisTwoVariantFiltersAllVariantsFailFiltersVariantsShouldHaveAllVariantFilterResults() {
         VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
@@ -144,4 +144,12 @@ public void testRunSingleFilterOverGenes() {
         assertFilterStatus(failGene, filters, FilterStatus.FAILED);
     }
 
+    @Test
+    public void testRunCountsVariantResultsOfInheritanceFilter() {
+        FilterResultCounter filterResultCounter = new FilterResultCounter();
+        instance.run(inheritanceFilter, genes, filterResultCounter);
+
+        assertThat(filterResultCounter.getPassCount(), equalTo(2));
+        assertThat(filterResultCounter.getFailCount(), equalTo(2));
+    }
 }
@@ -308,4 +308,20 @@ private void assertPassedFilterAndFailedAllOthers(VariantEvaluation variantEvalu
         assertThat(variantEvaluation.passedFilter(FilterType.PATHOGENICITY_FILTER), is(false));
         assertThat(variantEvaluation.passedFilter(FilterType.ENTREZ_GENE_ID_FILTER), is(false));
     }
+
+    @Test
+    public void testRunCountsVariantsSkippedByPreviousFiltersAsFailures() {
+        FilterResultCounter pathogenicityCounter = new FilterResultCounter();
+        instance.run(pathogenicityFilter, variantEvaluations, pathogenicityCounter);
+        assertThat(pathogenicityCounter.getPassCount(), equalTo(1));
+        assertThat(pathogenicityCounter.getFailCount(), equalTo(3));
+
+        FilterResultCounter variantEffectCounter = new FilterResultCounter();
+        instance.run(variantEffectFilter, variantEvaluations, variantEffectCounter);
+        // only passesAllFilters is run through the filter, the others are skipped having failed the pathogenicity filter
+        Mockito.verify(variantEffectFilter).runFilter(passesAllFilters);
+        Mockito.verify(variantEffectFilter, Mockito.never()).runFilter(passesTargetQualityFilter);
+        assertThat(variantEffectCounter.getPassCount(), equalTo(1));
+        assertThat(variantEffectCounter.getFailCount(), equalTo(3));
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import de.charite.compbio.jannovar.data.JannovarData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.exomiser.core.genome.jannovar.TranscriptSnapshot;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegionIndex;
+import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.Position;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.Variant;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LazyJannovarVariantAnnotatorTest {
+
+    private final JannovarData jannovarData = TestFactory.buildDefaultJannovarData();
+    private final JannovarVariantAnnotator eagerAnnotator = new JannovarVariantAnnotator(GenomeAssembly.HG19, jannovarData, ChromosomalRegionIndex.empty());
+
+    private TranscriptSnapshot transcriptSnapshot;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        Path snapshotPath = tempDir.resolve("transcripts.snapshot");
+        TranscriptSnapshot.save(snapshotPath, jannovarData);
+        transcriptSnapshot = TranscriptSnapshot.open(snapshotPath);
+    }
+
+    private static Variant variant(String contig, int start, String ref, String alt) {
+        return Variant.of(GenomeAssembly.HG19.getContigByName(contig), "", Strand.POSITIVE, CoordinateSystem.FULLY_CLOSED, Position.of(start), ref, alt);
+    }
+
+    private int contigId(String contigName) {
+        return jannovarData.getRefDict().getContigNameToID().get(contigName);
+    }
+
+    @Test
+    void maxContigsMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new LazyJannovarVariantAnnotator(GenomeAssembly.HG19, transcriptSnapshot, ChromosomalRegionIndex.empty(), 0));
+    }
+
+    @Test
+    void noContigsAreDecodedUntilRequired() {
+        LazyJannovarVariantAnnotator instance = new LazyJannovarVariantAnnotator(GenomeAssembly.HG19, transcriptSnapshot, ChromosomalRegionIndex.empty());
+        assertThat(instance.decodedContigIds(), equalTo(Set.of()));
+    }
+
+    @Test
+    void onlyTheContigOfTheVariantIsDecoded() {
+        LazyJannovarVariantAnnotator instance = new LazyJannovarVariantAnnotator(GenomeAssembly.HG19, transcriptSnapshot, ChromosomalRegionIndex.empty());
+        // FGFR2 missense variant - the test data also contains transcripts on chromosomes 1 and 7
+        instance.annotate(variant("10", 123256215, "T", "G"));
+        assertThat(instance.decodedContigIds(), equalTo(Set.of(contigId("10"))));
+    }
+
+    @Test
+    void annotationsAreTheSameAsWithAllTranscripts() {
+        LazyJannovarVariantAnnotator instance = new LazyJannovarVariantAnnotator(GenomeAssembly.HG19, transcriptSnapshot, ChromosomalRegionIndex.empty());
+        List<Variant> variants = List.of(
+                // FGFR2 missense, splice acceptor
+                variant("10", 123256215, "T", "G"),
+                variant("10", 123243319, "T", "G"),
+                // SHH
+                variant("7", 155604800, "C", "T"),
+                // intergenic on a contig without any transcripts
+                variant("2", 100000, "A", "T")
+        );
+        for (Variant variant : variants) {
+            List<VariantAnnotation> annotations = instance.annotate(variant);
+            assertThat(annotations, equalTo(eagerAnnotator.annotate(variant)));
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedContigsAreDiscarded() {
+        LazyJannovarVariantAnnotator instance = new LazyJannovarVariantAnnotator(GenomeAssembly.HG19, transcriptSnapshot, ChromosomalRegionIndex.empty(), 1);
+        instance.annotate(variant("10", 123256215, "T", "G"));
+        instance.annotate(variant("7", 155604800, "C", "T"));
+        assertThat(instance.decodedContigIds(), equalTo(Set.of(contigId("7"))));
+
+        // the discarded contig is decoded again when required
+        List<VariantAnnotation> annotations = instance.annotate(variant("10", 123256215, "T", "G"));
+        assertThat(annotations.get(0).getGeneSymbol(), equalTo("FGFR2"));
+        assertThat(instance.decodedContigIds(), equalTo(Set.of(contigId("10"))));
+    }
+
+    @Test
+    void nullVariantHasNoAnnotations() {
+        LazyJannovarVariantAnnotator instance = new LazyJannovarVariantAnnotator(GenomeAssembly.HG19, transcriptSnapshot, ChromosomalRegionIndex.empty());
+        assertThat(instance.annotate(null), equalTo(List.of()));
+        assertThat(instance.decodedContigIds(), is(empty()));
+    }
+}
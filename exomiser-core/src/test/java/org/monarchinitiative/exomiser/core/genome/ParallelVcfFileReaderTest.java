@@ -0,0 +1,169 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.variant.variantcontext.VariantContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelVcfFileReaderTest {
+
+    private static final Path MULTI_SAMPLE_VCF = Paths.get("src/test/resources/multiSampleWithProbandHomRef.vcf");
+
+    private static List<String> readAll(VcfReader vcfReader) {
+        try (Stream<VariantContext> variantContexts = vcfReader.readVariantContexts()) {
+            return variantContexts.map(ParallelVcfFileReaderTest::toComparableString).collect(toList());
+        }
+    }
+
+    private static String toComparableString(VariantContext variantContext) {
+        return variantContext.getContig() + ":" + variantContext.getStart() + variantContext.getAlleles() + variantContext.getPhredScaledQual() + variantContext.getGenotypes();
+    }
+
+    private static Path writeVcf(Path vcfPath, int numRecords) throws IOException {
+        OutputStream outputStream;
+        if (vcfPath.toString().endsWith(".bgz")) {
+            outputStream = new BlockCompressedOutputStream(vcfPath.toFile());
+        } else if (vcfPath.toString().endsWith(".gz")) {
+            outputStream = new GZIPOutputStream(Files.newOutputStream(vcfPath));
+        } else {
+            outputStream = Files.newOutputStream(vcfPath);
+        }
+        try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+            writer.write("##fileformat=VCFv4.2\n");
+            writer.write("##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">\n");
+            writer.write("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tproband\tmother\n");
+            for (int i = 1; i <= numRecords; i++) {
+                String probandGenotype = i % 3 == 0 ? "0/0" : "0/1";
+                writer.write("1\t" + (i * 100) + "\t.\tA\tT\t" + i + "\tPASS\t.\tGT\t" + probandGenotype + "\t0/1\n");
+            }
+        }
+        return vcfPath;
+    }
+
+    @Test
+    void throwsExceptionWithNullPath() {
+        assertThrows(NullPointerException.class, () -> new ParallelVcfFileReader(null, 2));
+    }
+
+    @Test
+    void throwsExceptionWithNoParserThreads() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelVcfFileReader(MULTI_SAMPLE_VCF, 0));
+    }
+
+    @Test
+    void readSampleIdentifiers() {
+        VcfReader instance = new ParallelVcfFileReader(MULTI_SAMPLE_VCF, 2);
+        assertThat(instance.readSampleIdentifiers(), equalTo(List.of("Seth", "Adam", "Eva")));
+    }
+
+    @Test
+    void readVariantContextsMatchesVcfFileReader() {
+        VcfReader instance = new ParallelVcfFileReader(MULTI_SAMPLE_VCF, 2);
+        assertThat(readAll(instance), equalTo(readAll(new VcfFileReader(MULTI_SAMPLE_VCF))));
+    }
+
+    @Test
+    void readVariantContextsAreInFileOrder(@TempDir Path tempDir) throws IOException {
+        Path vcfPath = writeVcf(tempDir.resolve("ordered.vcf"), 1000);
+        VcfReader instance = new ParallelVcfFileReader(vcfPath, 4, 7);
+
+        List<String> expected = readAll(new VcfFileReader(vcfPath));
+        assertThat(expected.size(), equalTo(1000));
+        assertThat(readAll(instance), equalTo(expected));
+    }
+
+    @Test
+    void readVariantContextsFromBgzipFile(@TempDir Path tempDir) throws IOException {
+        Path textVcf = writeVcf(tempDir.resolve("plain.vcf"), 500);
+        Path bgzipVcf = writeVcf(tempDir.resolve("compressed.vcf.bgz"), 500);
+        VcfReader instance = new ParallelVcfFileReader(bgzipVcf, 3, 10);
+        assertThat(readAll(instance), equalTo(readAll(new VcfFileReader(textVcf))));
+    }
+
+    @Test
+    void readVariantContextsFromGzipFile(@TempDir Path tempDir) throws IOException {
+        Path textVcf = writeVcf(tempDir.resolve("plain.vcf"), 500);
+        Path gzipVcf = writeVcf(tempDir.resolve("compressed.vcf.gz"), 500);
+        VcfReader instance = new ParallelVcfFileReader(gzipVcf, 3, 10);
+        assertThat(readAll(instance), equalTo(readAll(new VcfFileReader(textVcf))));
+    }
+
+    @Test
+    void readVariantContextsWithRecordLineFilter(@TempDir Path tempDir) throws IOException {
+        Path vcfPath = writeVcf(tempDir.resolve("filtered.vcf"), 300);
+        VcfReader instance = new ParallelVcfFileReader(vcfPath, 2, 16);
+        ProbandGenotypeLineFilter probandGenotypeLineFilter = ProbandGenotypeLineFilter.of(List.of("proband", "mother"), "proband");
+
+        List<VariantContext> variantContexts;
+        try (Stream<VariantContext> variantContextStream = instance.readVariantContexts(probandGenotypeLineFilter)) {
+            variantContexts = variantContextStream.collect(toList());
+        }
+        assertThat(variantContexts.size(), equalTo(200));
+        assertThat(probandGenotypeLineFilter.getRejectedCount(), equalTo(100L));
+        assertThat(variantContexts.stream().allMatch(variantContext -> variantContext.getGenotype("proband").isHet()), equalTo(true));
+    }
+
+    @Test
+    void closingStreamEarlyStopsReading(@TempDir Path tempDir) throws IOException {
+        Path vcfPath = writeVcf(tempDir.resolve("large.vcf"), 5000);
+        VcfReader instance = new ParallelVcfFileReader(vcfPath, 2, 10);
+        List<VariantContext> firstTen = new ArrayList<>();
+        try (Stream<VariantContext> variantContextStream = instance.readVariantContexts()) {
+            variantContextStream.limit(10).forEach(firstTen::add);
+        }
+        assertThat(firstTen.size(), equalTo(10));
+        assertThat(firstTen.get(9).getStart(), equalTo(1000));
+    }
+
+    @Test
+    void throwsExceptionForInvalidRecord(@TempDir Path tempDir) throws IOException {
+        Path vcfPath = tempDir.resolve("invalid.vcf");
+        Files.write(vcfPath, List.of(
+                "##fileformat=VCFv4.2",
+                "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO",
+                "1\tnot-a-position\t.\tA\tT\t.\tPASS\t."
+        ));
+        VcfReader instance = new ParallelVcfFileReader(vcfPath, 2);
+        try (Stream<VariantContext> variantContextStream = instance.readVariantContexts()) {
+            assertThrows(RuntimeException.class, variantContextStream::count);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ProbandGenotypeLineFilterTest {
+
+    private static final List<String> SAMPLES = List.of("Adam", "Eva", "Seth");
+
+    private static String line(String format, String adam, String eva, String seth) {
+        return String.join("\t", "1", "123256213", ".", "CA", "CC,CT", "100.15", "PASS", ".", format, adam, eva, seth);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0/0, false",
+            "0|0, false",
+            "0, false",
+            "./., false",
+            ".|., false",
+            ".,  false",
+            "0/., false",
+            "0/1, true",
+            "1|0, true",
+            "1/1, true",
+            "1, true",
+            "0/2, true",
+            "./1, true",
+            "0/10, true",
+            "0/-, true",
+    })
+    void probandGenotype(String probandGenotype, boolean expected) {
+        ProbandGenotypeLineFilter instance = ProbandGenotypeLineFilter.of(SAMPLES, "Seth");
+        assertThat(instance.test(line("GT:DP", "1/1:20", "1/1:20", probandGenotype + ":33")), equalTo(expected));
+        assertThat(instance.test(line("GT", "1/1", "1/1", probandGenotype)), equalTo(expected));
+    }
+
+    @Test
+    void onlyProbandColumnIsChecked() {
+        ProbandGenotypeLineFilter instance = ProbandGenotypeLineFilter.of(SAMPLES, "Eva");
+        assertThat(instance.test(line("GT:DP", "1/1:20", "0/0:20", "1/1:33")), equalTo(false));
+        assertThat(instance.test(line("GT:DP", "0/0:20", "0/1:20", "0/0:33")), equalTo(true));
+    }
+
+    @Test
+    void acceptsNoCallWithCopyNumber() {
+        ProbandGenotypeLineFilter instance = ProbandGenotypeLineFilter.of(SAMPLES, "Seth");
+        assertThat(instance.test(line("GT:RC:CN", "./.:20:2", "./.:20:2", "./.:56:1")), equalTo(true));
+        assertThat(instance.test(line("GT:CNQ", "./.:20", "./.:20", "./.:56")), equalTo(false));
+    }
+
+    @Test
+    void acceptsLinesWhichCannotBeChecked() {
+        ProbandGenotypeLineFilter instance = ProbandGenotypeLineFilter.of(SAMPLES, "Seth");
+        // GT is not the first key
+        assertThat(instance.test(line("DP:GT", "20:0/0", "20:0/0", "33:0/0")), equalTo(true));
+        assertThat(instance.test(line("GTX", "0/0", "0/0", "0/0")), equalTo(true));
+        // missing the proband column
+        assertThat(instance.test(String.join("\t", "1", "123256213", ".", "CA", "CC", "100.15", "PASS", ".", "GT", "0/0", "0/0")), equalTo(true));
+        // sites-only
+        assertThat(instance.test(String.join("\t", "1", "123256213", ".", "CA", "CC", "100.15", "PASS", ".")), equalTo(true));
+        assertThat(instance.getRejectedCount(), equalTo(0L));
+    }
+
+    @Test
+    void acceptsEverythingWhenProbandNotInSamples() {
+        ProbandGenotypeLineFilter instance = ProbandGenotypeLineFilter.of(SAMPLES, "Cain");
+        assertThat(instance.test(line("GT", "0/0", "0/0", "0/0")), equalTo(true));
+        assertThat(instance.getRejectedCount(), equalTo(0L));
+    }
+
+    @Test
+    void countsRejectedLines() {
+        ProbandGenotypeLineFilter instance = ProbandGenotypeLineFilter.of(SAMPLES, "Seth");
+        instance.test(line("GT", "0/1", "0/0", "0/0"));
+        instance.test(line("GT", "0/1", "0/0", "0/1"));
+        instance.test(line("GT", "0/1", "0/0", "./."));
+        assertThat(instance.getRejectedCount(), equalTo(2L));
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.tribble.index.IndexFactory;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.index.tabix.TabixIndex;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.exomiser.core.genome.ShardedVcfFileReader.VcfShard;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedVcfFileReaderTest {
+
+    private static final List<String> CONTIGS = List.of("1", "2", "X");
+    private static final int CONTIG_LENGTH = 2500;
+
+    private static List<String> readAll(VcfReader vcfReader) {
+        try (Stream<VariantContext> variantContexts = vcfReader.readVariantContexts()) {
+            return variantContexts.map(ShardedVcfFileReaderTest::toComparableString).collect(toList());
+        }
+    }
+
+    private static String toComparableString(VariantContext variantContext) {
+        return variantContext.getContig() + ":" + variantContext.getStart() + variantContext.getAlleles() + variantContext.getPhredScaledQual() + variantContext.getGenotypes();
+    }
+
+    /**
+     * Writes a sorted, bgzipped VCF with a record every 100 bases of each contig, a deletion spanning the 1000 base
+     * boundary and records on the first base of the contig and of the second 1000 base shard.
+     */
+    private static Path writeVcf(Path vcfPath, boolean includeContigLengths) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new BlockCompressedOutputStream(vcfPath.toFile()), StandardCharsets.UTF_8)) {
+            writer.write("##fileformat=VCFv4.2\n");
+            writer.write("##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">\n");
+            if (includeContigLengths) {
+                for (String contig : CONTIGS) {
+                    writer.write("##contig=<ID=" + contig + ",length=" + CONTIG_LENGTH + ">\n");
+                }
+            }
+            writer.write("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tproband\tmother\n");
+            for (String contig : CONTIGS) {
+                writer.write(contig + "\t1\t.\tC\tG\t1\tPASS\t.\tGT\t0/1\t0/0\n");
+                for (int pos = 100; pos <= CONTIG_LENGTH; pos += 100) {
+                    String probandGenotype = pos % 300 == 0 ? "0/0" : "0/1";
+                    writer.write(contig + "\t" + pos + "\t.\tA\tT\t" + pos / 100 + "\tPASS\t.\tGT\t" + probandGenotype + "\t0/1\n");
+                    if (pos == 900) {
+                        writer.write(contig + "\t995\t.\tAAAAAAAAAA\tA\t10\tPASS\t.\tGT\t0/1\t0/0\n");
+                    }
+                    if (pos == 1000) {
+                        writer.write(contig + "\t1001\t.\tG\tC\t10\tPASS\t.\tGT\t0/1\t0/1\n");
+                    }
+                }
+            }
+        }
+        TabixIndex tabixIndex = IndexFactory.createTabixIndex(vcfPath.toFile(), new VCFCodec(), TabixFormat.VCF, null);
+        tabixIndex.write(vcfPath.resolveSibling(vcfPath.getFileName() + ".tbi").toFile());
+        return vcfPath;
+    }
+
+    @Test
+    void throwsExceptionWithNullPath() {
+        assertThrows(NullPointerException.class, () -> new ShardedVcfFileReader(null));
+    }
+
+    @Test
+    void throwsExceptionWithNoIndex(@TempDir Path tempDir) throws IOException {
+        Path vcfPath = tempDir.resolve("unindexed.vcf");
+        Files.write(vcfPath, List.of("##fileformat=VCFv4.2", "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO"));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedVcfFileReader(vcfPath));
+    }
+
+    @Test
+    void throwsExceptionWithZeroShardLength(@TempDir Path tempDir) throws IOException {
+        Path vcfPath = writeVcf(tempDir.resolve("sharded.vcf.gz"), true);
+        assertThrows(IllegalArgumentException.class, () -> new ShardedVcfFileReader(vcfPath, 0));
+    }
+
+    @Test
+    void isIndexed(@TempDir Path tempDir) throws IOException {
+        Path indexed = writeVcf(tempDir.resolve("sharded.vcf.gz"), true);
+        assertThat(ShardedVcfFileReader.isIndexed(indexed), equalTo(true));
+        assertThat(ShardedVcfFileReader.isIndexed(tempDir.resolve("other.vcf.gz")), equalTo(false));
+    }
+
+    @Test
+    void readSampleIdentifiers(@TempDir Path tempDir) throws IOException {
+        Path vcfPath = writeVcf(tempDir.resolve("sharded.vcf.gz"), true);
+        VcfReader instance = new ShardedVcfFileReader(vcfPath);
+        assertThat(instance.readSampleIdentifiers(), equalTo(List.of("proband", "mother")));
+    }
+
+    @Test
+    void getShardsSplitsContigsUsingHeaderLengths(@TempDir Path tempDir) throws IOException {
+        Path vcfPath = writeVcf(tempDir.resolve("sharded.vcf.gz"), true);
+        ShardedVcfFileReader instance = new ShardedVcfFileReader(vcfPath, 1000);
+
+        List<VcfShard> shards = instance.getShards();
+        assertThat(shards.size(), equalTo(9));
+        assertThat(shards.get(0).getContig(), equalTo("1"));
+        assertThat(shards.get(0).getStart(), equalTo(1));
+        assertThat(shards.get(0).getEnd(), equalTo(1000));
+        assertThat(shards.get(2).getStart(), equalTo(2001));
+        assertThat(shards.get(2).getEnd(), equalTo(Integer.MAX_VALUE));
+        assertThat(shards.get(8).getContig(), equalTo("X"));
+    }
+
+    @Test
+    void getShardsUsesWholeContigsWithoutHeaderLengths(@TempDir Path tempDir) throws IOException {
+        Path vcfPath = writeVcf(tempDir.resolve("sharded.vcf.gz"), false);
+        ShardedVcfFileReader instance = new ShardedVcfFileReader(vcfPath, 1000);
+
+        List<String> contigs = instance.getShards().stream().map(VcfShard::getContig).collect(toList());
+        assertThat(contigs, equalTo(CONTIGS));
+    }
+
+    @Test
+    void readVariantContextsMatchesVcfFileReader(@TempDir Path tempDir) throws IOException {
+        Path vcfPath = writeVcf(tempDir.resolve("sharded.vcf.gz"), true);
+        VcfReader instance = new ShardedVcfFileReader(vcfPath, 1000);
+
+        List<String> expected = readAll(new VcfFileReader(vcfPath));
+        // 27 SNVs and one deletion per contig
+        assertThat(expected.size(), equalTo(84));
+        // the deletion overlaps two shards but should only be read once, and the records on the first base of a shard
+        // should not be missed
+        assertThat(readAll(instance), equalTo(expected));
+    }
+
+    @Test
+    void readVariantContextsWithoutHeaderLengthsMatchesVcfFileReader(@TempDir Path tempDir) throws IOException {
+        Path vcfPath = writeVcf(tempDir.resolve("sharded.vcf.gz"), false);
+        VcfReader instance = new ShardedVcfFileReader(vcfPath, 1000);
+        assertThat(readAll(instance), equalTo(readAll(new VcfFileReader(vcfPath))));
+    }
+
+    @Test
+    void readVariantContextsWithRecordLineFilter(@TempDir Path tempDir) throws IOException {
+        Path vcfPath = writeVcf(tempDir.resolve("sharded.vcf.gz"), true);
+        VcfReader instance = new ShardedVcfFileReader(vcfPath, 500);
+        ProbandGenotypeLineFilter probandGenotypeLineFilter = ProbandGenotypeLineFilter.of(List.of("proband", "mother"), "proband");
+
+        List<VariantContext> variantContexts;
+        try (Stream<VariantContext> variantContextStream = instance.readVariantContexts(probandGenotypeLineFilter)) {
+            variantContexts = variantContextStream.collect(toList());
+        }
+        // 8 of the 27 SNVs per contig are 0/0 in the proband
+        assertThat(variantContexts.size(), equalTo(60));
+        assertThat(probandGenotypeLineFilter.getRejectedCount(), equalTo(24L));
+        assertThat(variantContexts.stream().allMatch(variantContext -> variantContext.getGenotype("proband").isHet()), equalTo(true));
+    }
+
+    @Test
+    void shardedFactoryFallsBackToVcfFileReaderWithoutIndex(@TempDir Path tempDir) throws IOException {
+        Path indexed = writeVcf(tempDir.resolve("sharded.vcf.gz"), true);
+        Path unindexed = tempDir.resolve("unindexed.vcf");
+        Files.write(unindexed, List.of("##fileformat=VCFv4.2", "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO"));
+
+        VcfReaderFactory instance = VcfReaderFactory.sharded(1000);
+        assertThat(instance.createVcfReader(indexed), instanceOf(ShardedVcfFileReader.class));
+        assertThat(instance.createVcfReader(unindexed), instanceOf(VcfFileReader.class));
+    }
+}
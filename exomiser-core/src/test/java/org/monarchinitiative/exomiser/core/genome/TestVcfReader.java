@@ -28,6 +28,7 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -73,6 +74,17 @@ public Stream<VariantContext> readVariantContexts() {
         return vcfLines.stream().map(toVariantContext());
     }
 
+    @Override
+    public Stream<VariantContext> readVariantContexts(Predicate<String> recordLineFilter) {
+        if (vcfLines.isEmpty()) {
+            throw new IllegalStateException("No  lines to read!");
+        }
+        return vcfLines.stream()
+                .map(TestVcfReader::toTabSeparated)
+                .filter(recordLineFilter)
+                .map(vcfCodec::decode);
+    }
+
     /**
      * Accepts a VCF formatted strings either tab separated or using spaces in place of tabs to produce a
      * Stream<VariantContext>
@@ -105,7 +117,11 @@ private Function<String, VariantContext> toVariantContext() {
      * @return a VariantContext for the line provided.
      */
     public VariantContext readVariantContext(String line) {
-        return vcfCodec.decode(line.replaceAll("[ ]+", "\t").trim());
+        return vcfCodec.decode(toTabSeparated(line));
+    }
+
+    private static String toTabSeparated(String line) {
+        return line.replaceAll("[ ]+", "\t").trim();
     }
 
     public static Builder builder() {
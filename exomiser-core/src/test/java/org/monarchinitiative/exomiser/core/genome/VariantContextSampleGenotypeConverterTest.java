@@ -32,6 +32,7 @@
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 /**
@@ -89,6 +90,22 @@ public void testSingleSampleHetNonRef() {
         assertThat(allele2Result, equalTo(expected2));
     }
 
+    @Test
+    public void testMultiSampleUsesSuppliedSampleIndex() {
+        TestVcfReader vcfReader = TestVcfReader.forSamples("Cain", "Abel", "Eve", "Adam");
+        SampleIndex sampleIndex = SampleIndex.of(vcfReader.readSampleIdentifiers());
+
+        VariantContext variantContext = vcfReader.readVariantContext("1 12345 . A T,C . PASS . GT 1/2 1/1 0/1 1/2");
+
+        SampleGenotypes allele1Result = VariantContextSampleGenotypeConverter.createAlleleSampleGenotypes(variantContext, 0, sampleIndex);
+        SampleGenotypes allele2Result = VariantContextSampleGenotypeConverter.createAlleleSampleGenotypes(variantContext, 1, sampleIndex);
+
+        assertThat(allele1Result.getSampleIndex(), sameInstance(sampleIndex));
+        assertThat(allele2Result.getSampleIndex(), sameInstance(sampleIndex));
+        assertThat(allele1Result, equalTo(VariantContextSampleGenotypeConverter.createAlleleSampleGenotypes(variantContext, 0)));
+        assertThat(allele2Result, equalTo(VariantContextSampleGenotypeConverter.createAlleleSampleGenotypes(variantContext, 1)));
+    }
+
 
     @Test
     public void testMultiSample() {
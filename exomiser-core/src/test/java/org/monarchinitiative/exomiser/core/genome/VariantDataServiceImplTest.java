@@ -279,4 +279,32 @@ void whiteListedVariant() {
         assertThat(instance.variantIsWhiteListed(whiteListVariant), is(true));
         assertThat(instance.variantIsWhiteListed(nonWhiteListVariant), is(false));
     }
+
+    @Test
+    void serviceSkipsDefaultDaosForVariantsNotInAlleleKeyFilter() {
+        VariantDataServiceImpl instance = VariantDataServiceImpl.builder()
+                .alleleKeyFilter(BloomAlleleKeyFilter.create(10))
+                .defaultFrequencyDao(defaultFrequencyDao)
+                .defaultPathogenicityDao(defaultPathogenicityDao)
+                .build();
+
+        assertThat(instance.getVariantFrequencyData(variant, EnumSet.of(ESP_AFRICAN_AMERICAN)), equalTo(FrequencyData.empty()));
+        assertThat(instance.getVariantPathogenicityData(variant, EnumSet.of(PathogenicitySource.POLYPHEN)), equalTo(PathogenicityData.empty()));
+        Mockito.verifyNoInteractions(defaultFrequencyDao, defaultPathogenicityDao);
+    }
+
+    @Test
+    void serviceQueriesDefaultDaosForVariantsInAlleleKeyFilter() {
+        BloomAlleleKeyFilter alleleKeyFilter = BloomAlleleKeyFilter.create(10);
+        alleleKeyFilter.put(AlleleProtoAdaptor.toAlleleKey(variant));
+        VariantDataServiceImpl instance = VariantDataServiceImpl.builder()
+                .alleleKeyFilter(alleleKeyFilter)
+                .defaultFrequencyDao(defaultFrequencyDao)
+                .defaultPathogenicityDao(defaultPathogenicityDao)
+                .build();
+
+        assertThat(instance.getVariantFrequencyData(variant, EnumSet.of(ESP_AFRICAN_AMERICAN)), equalTo(FREQ_DATA));
+        assertThat(alleleKeyFilter.getHitCount(), equalTo(1L));
+        assertThat(alleleKeyFilter.getMissCount(), equalTo(0L));
+    }
 }
@@ -80,6 +80,29 @@ public void testCreateVariantContextsMultipleAlleles() {
         assertThat(variants.size(), equalTo(1));
     }
 
+    @Test
+    public void testReadVariantContextsWithRecordLineFilter() {
+        Path vcfPath = Paths.get("src/test/resources/multiSampleWithProbandHomRef.vcf");
+        ProbandGenotypeLineFilter probandGenotypeLineFilter = ProbandGenotypeLineFilter.of(List.of("Seth", "Adam", "Eva"), "Seth");
+        List<VariantContext> variants;
+        try (Stream<VariantContext> variantStream = VcfFiles.readVariantContexts(vcfPath, probandGenotypeLineFilter)) {
+            variants = variantStream.collect(toList());
+        }
+        assertThat(variants.size(), equalTo(1));
+        assertThat(variants.get(0).getContig(), equalTo("10"));
+        assertThat(variants.get(0).getStart(), equalTo(123239370));
+        assertThat(variants.get(0).getGenotype("Seth").isHomVar(), equalTo(true));
+        assertThat(probandGenotypeLineFilter.getRejectedCount(), equalTo(1L));
+    }
+
+    @Test
+    public void testReadVariantContextsWithRecordLineFilterAcceptingAll() {
+        Path vcfPath = Paths.get("src/test/resources/smallTest.vcf");
+        try (Stream<VariantContext> variantStream = VcfFiles.readVariantContexts(vcfPath, line -> true)) {
+            assertThat(variantStream.count(), equalTo(3L));
+        }
+    }
+
     @Test
     public void testReadVcfHeader() {
         Path vcfPath = Paths.get("src/test/resources/altAllele.vcf");
@@ -0,0 +1,137 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.exomiser.core.genome.TestFactory;
+import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BloomAlleleKeyFilterTest {
+
+    private static AlleleKey alleleKey(int chr, int pos, String ref, String alt) {
+        return AlleleKey.newBuilder().setChr(chr).setPosition(pos).setRef(ref).setAlt(alt).build();
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomAlleleKeyFilter instance = BloomAlleleKeyFilter.create(100);
+        assertThat(instance.mightContain(alleleKey(1, 12345, "A", "T")), is(false));
+    }
+
+    @Test
+    void noFalseNegatives() {
+        BloomAlleleKeyFilter instance = BloomAlleleKeyFilter.create(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            instance.put(alleleKey(1 + i % 25, i * 3, "A", "T"));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(instance.mightContain(alleleKey(1 + i % 25, i * 3, "A", "T")), is(true));
+        }
+        assertThat(instance.getNumKeys(), equalTo(10_000L));
+    }
+
+    @Test
+    void falsePositiveRateIsLow() {
+        BloomAlleleKeyFilter instance = BloomAlleleKeyFilter.create(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            instance.put(alleleKey(1, i, "A", "T"));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (instance.mightContain(alleleKey(2, i, "A", "T"))) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives, lessThan(200));
+    }
+
+    @Test
+    void hashDistinguishesRefAltBoundary() {
+        assertThat(AlleleKeyHasher.hash(1, 12345, "A", "CG"), not(equalTo(AlleleKeyHasher.hash(1, 12345, "AC", "G"))));
+    }
+
+    @Test
+    void variantHashMatchesAlleleKeyHash() {
+        Variant variant = TestFactory.variantBuilder(1, 12345, "A", "T").build();
+        assertThat(AlleleKeyHasher.hash(variant), equalTo(AlleleKeyHasher.hash(AlleleProtoAdaptor.toAlleleKey(variant))));
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        Variant present = TestFactory.variantBuilder(1, 12345, "A", "T").build();
+        Variant absent = TestFactory.variantBuilder(1, 12345, "A", "G").build();
+
+        BloomAlleleKeyFilter instance = BloomAlleleKeyFilter.create(10);
+        instance.put(AlleleProtoAdaptor.toAlleleKey(present));
+
+        assertThat(instance.mightContain(present), is(true));
+        assertThat(instance.mightContain(absent), is(false));
+        assertThat(instance.mightContain(absent), is(false));
+
+        assertThat(instance.getHitCount(), equalTo(1L));
+        assertThat(instance.getMissCount(), equalTo(2L));
+    }
+
+    @Test
+    void writeAndLoad(@TempDir Path tempDir) {
+        BloomAlleleKeyFilter instance = BloomAlleleKeyFilter.create(1000);
+        for (int i = 0; i < 1000; i++) {
+            instance.put(alleleKey(1, i, "A", "T"));
+        }
+        Path filterPath = tempDir.resolve("test_variants.bloom");
+        instance.writeTo(filterPath);
+
+        BloomAlleleKeyFilter loaded = BloomAlleleKeyFilter.load(filterPath);
+        assertThat(loaded.getNumKeys(), equalTo(1000L));
+        for (int i = 0; i < 1000; i++) {
+            assertThat(loaded.mightContain(alleleKey(1, i, "A", "T")), is(true));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertThat(loaded.mightContain(alleleKey(2, i, "A", "T")), equalTo(instance.mightContain(alleleKey(2, i, "A", "T"))));
+        }
+    }
+
+    @Test
+    void loadThrowsExceptionWithWrongFileType(@TempDir Path tempDir) throws Exception {
+        Path notAFilter = tempDir.resolve("not_a_filter.bloom");
+        Files.writeString(notAFilter, "Lorem ipsum dolor sit amet, consectetur adipiscing elit.");
+        assertThrows(IllegalStateException.class, () -> BloomAlleleKeyFilter.load(notAFilter));
+    }
+
+    @Test
+    void acceptAllFilter() {
+        Variant variant = TestFactory.variantBuilder(1, 12345, "A", "T").build();
+        AlleleKeyFilter instance = AlleleKeyFilter.acceptAll();
+        assertThat(instance.mightContain(variant), is(true));
+        assertThat(instance.getHitCount(), equalTo(1L));
+        assertThat(instance.getMissCount(), equalTo(0L));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.exomiser.core.genome.TestFactory;
+import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class MappedVariantWhiteListTest {
+
+    @Test
+    void emptyWhiteList(@TempDir Path tempDir) {
+        Path whiteListPath = tempDir.resolve("empty_whitelist.bin");
+        MappedVariantWhiteList.write(List.of(), whiteListPath);
+
+        MappedVariantWhiteList instance = MappedVariantWhiteList.load(whiteListPath);
+        assertThat(instance.size(), equalTo(0));
+        assertThat(instance.contains(TestFactory.variantBuilder(1, 12345, "A", "G").build()), is(false));
+    }
+
+    @Test
+    void testContains(@TempDir Path tempDir) {
+        Variant snv = TestFactory.variantBuilder(1, 12345, "A", "G").build();
+        Variant deletion = TestFactory.variantBuilder(2, 985052, "CTT", "C").build();
+        Variant insertion = TestFactory.variantBuilder(23, 1234, "C", "CAAGT").build();
+
+        Path whiteListPath = tempDir.resolve("whitelist.bin");
+        // duplicates are removed
+        MappedVariantWhiteList.write(List.of(AlleleProtoAdaptor.toAlleleKey(snv), AlleleProtoAdaptor.toAlleleKey(deletion), AlleleProtoAdaptor
+                .toAlleleKey(insertion), AlleleProtoAdaptor.toAlleleKey(snv)), whiteListPath);
+
+        MappedVariantWhiteList instance = MappedVariantWhiteList.load(whiteListPath);
+        assertThat(instance.size(), equalTo(3));
+
+        assertThat(instance.contains(snv), is(true));
+        assertThat(instance.contains(deletion), is(true));
+        assertThat(instance.contains(insertion), is(true));
+
+        assertThat(instance.contains(TestFactory.variantBuilder(1, 12345, "A", "T").build()), is(false));
+        assertThat(instance.contains(TestFactory.variantBuilder(1, 12346, "A", "G").build()), is(false));
+        assertThat(instance.contains(TestFactory.variantBuilder(2, 985052, "CT", "C").build()), is(false));
+        assertThat(instance.contains(TestFactory.variantBuilder(23, 1234, "C", "CAAGA").build()), is(false));
+    }
+
+    @Test
+    void isMappedWhiteList(@TempDir Path tempDir) {
+        Path whiteListPath = tempDir.resolve("whitelist.bin");
+        MappedVariantWhiteList.write(List.of(AlleleKey.newBuilder().setChr(1).setPosition(12345).setRef("A").setAlt("G").build()), whiteListPath);
+
+        assertThat(MappedVariantWhiteList.isMappedWhiteList(whiteListPath), is(true));
+        assertThat(MappedVariantWhiteList.isMappedWhiteList(Paths.get("src/test/resources/whitelist/whitelist.tsv.gz")), is(false));
+    }
+
+    @Test
+    void loaderReturnsMappedWhiteList(@TempDir Path tempDir) {
+        Path whiteListPath = tempDir.resolve("whitelist.bin");
+        MappedVariantWhiteList.write(VariantWhiteListLoader.readAlleleKeys(Paths.get("src/test/resources/whitelist/whitelist.tsv.gz")), whiteListPath);
+
+        VariantWhiteList loaded = VariantWhiteListLoader.loadVariantWhiteList(whiteListPath);
+        assertThat(loaded, instanceOf(MappedVariantWhiteList.class));
+        assertThat(loaded.contains(TestFactory.variantBuilder(1, 12345, "A", "G").build()), is(true));
+        assertThat(loaded.contains(TestFactory.variantBuilder(1, 985052, "C", "T").build()), is(true));
+        assertThat(loaded.contains(TestFactory.variantBuilder(1, 985052, "C", "G").build()), is(false));
+    }
+}
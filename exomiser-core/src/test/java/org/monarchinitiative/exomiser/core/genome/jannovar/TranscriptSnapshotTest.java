@@ -0,0 +1,129 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.jannovar;
+
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.exomiser.core.genome.GeneFactory;
+import org.monarchinitiative.exomiser.core.genome.TestFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TranscriptSnapshotTest {
+
+    @Test
+    void roundTrip(@TempDir Path tempDir) {
+        JannovarData testData = TestFactory.buildDefaultJannovarData();
+
+        Path snapshotPath = tempDir.resolve("transcripts.snapshot");
+        TranscriptSnapshot.save(snapshotPath, testData);
+
+        TranscriptSnapshot instance = TranscriptSnapshot.open(snapshotPath);
+        assertThat(instance.size(), equalTo(testData.getTmByAccession().size()));
+
+        JannovarData jannovarData = instance.toJannovarData();
+        assertThat(jannovarData.getRefDict().getContigNameToID(), equalTo(testData.getRefDict().getContigNameToID()));
+        assertThat(jannovarData.getRefDict().getContigIDToLength(), equalTo(testData.getRefDict().getContigIDToLength()));
+        assertThat(jannovarData.getRefDict().getContigIDToName(), equalTo(testData.getRefDict().getContigIDToName()));
+
+        assertThat(jannovarData.getTmByAccession(), equalTo(testData.getTmByAccession()));
+        assertThat(jannovarData.getTmByGeneSymbol(), equalTo(testData.getTmByGeneSymbol()));
+    }
+
+    @Test
+    void toJannovarDataForContigOnlyDecodesTranscriptsOnThatContig(@TempDir Path tempDir) {
+        JannovarData testData = TestFactory.buildDefaultJannovarData();
+        Path snapshotPath = tempDir.resolve("transcripts.snapshot");
+        TranscriptSnapshot.save(snapshotPath, testData);
+
+        TranscriptSnapshot instance = TranscriptSnapshot.open(snapshotPath);
+        int chr10 = testData.getRefDict().getContigNameToID().get("10");
+        JannovarData jannovarData = instance.toJannovarData(chr10);
+
+        Map<String, TranscriptModel> expected = testData.getTmByAccession().entrySet().stream()
+                .filter(entry -> entry.getValue().getChr() == chr10)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        assertThat(jannovarData.getTmByAccession(), equalTo(expected));
+        assertThat(jannovarData.getTmByGeneSymbol().keySet(), equalTo(Set.of("FGFR2")));
+        assertThat(jannovarData.getChromosomes().keySet(), equalTo(Set.of(chr10)));
+    }
+
+    @Test
+    void toJannovarDataForContigWithoutTranscripts(@TempDir Path tempDir) {
+        JannovarData testData = TestFactory.buildDefaultJannovarData();
+        Path snapshotPath = tempDir.resolve("transcripts.snapshot");
+        TranscriptSnapshot.save(snapshotPath, testData);
+
+        TranscriptSnapshot instance = TranscriptSnapshot.open(snapshotPath);
+        JannovarData jannovarData = instance.toJannovarData(testData.getRefDict().getContigNameToID().get("2"));
+        assertThat(jannovarData.getTmByAccession().isEmpty(), is(true));
+        assertThat(jannovarData.getChromosomes().isEmpty(), is(true));
+        assertThat(jannovarData.getRefDict().getContigNameToID(), equalTo(testData.getRefDict().getContigNameToID()));
+    }
+
+    @Test
+    void geneIdentifiersAreReadWithoutDecodingTranscripts(@TempDir Path tempDir) {
+        JannovarData testData = TestFactory.buildDefaultJannovarData();
+        Path snapshotPath = tempDir.resolve("transcripts.snapshot");
+        TranscriptSnapshot.save(snapshotPath, testData);
+
+        TranscriptSnapshot instance = TranscriptSnapshot.open(snapshotPath);
+        assertThat(instance.getGeneIdentifiers(), equalTo(new GeneFactory(testData).getGeneIdentifiers()));
+    }
+
+    @Test
+    void isSnapshot(@TempDir Path tempDir) {
+        Path snapshotPath = tempDir.resolve("transcripts.snapshot");
+        TranscriptSnapshot.save(snapshotPath, TestFactory.buildDefaultJannovarData());
+        assertThat(TranscriptSnapshot.isSnapshot(snapshotPath), is(true));
+
+        Path protoPath = tempDir.resolve("transcripts.ser");
+        JannovarDataProtoSerialiser.save(protoPath, TestFactory.buildDefaultJannovarData());
+        assertThat(TranscriptSnapshot.isSnapshot(protoPath), is(false));
+    }
+
+    @Test
+    void jannovarDataSourceLoaderLoadsSnapshot(@TempDir Path tempDir) {
+        JannovarData testData = TestFactory.buildDefaultJannovarData();
+        Path snapshotPath = tempDir.resolve("transcripts.snapshot");
+        TranscriptSnapshot.save(snapshotPath, testData);
+
+        JannovarData jannovarData = JannovarDataSourceLoader.loadJannovarData(snapshotPath);
+        assertThat(jannovarData.getTmByAccession(), equalTo(testData.getTmByAccession()));
+    }
+
+    @Test
+    void incorrectFileFormatThrowsException(@TempDir Path tempDir) throws Exception {
+        Path notASnapshot = tempDir.resolve("not.snapshot");
+        Files.writeString(notASnapshot, "Lorem ipsum dolor sit amet");
+        assertThrows(InvalidFileFormatException.class, () -> TranscriptSnapshot.open(notASnapshot));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.TestFactory;
+import org.monarchinitiative.exomiser.core.genome.dao.BloomAlleleKeyFilter;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class SimpleAnalysisMetricsTest {
+
+    @Test
+    void noOpIsNotEnabled() {
+        assertThat(AnalysisMetrics.noOp().isEnabled(), is(false));
+    }
+
+    @Test
+    void noOpStillRunsMeasuredCode() {
+        assertThat(AnalysisMetrics.noOp().measure(AnalysisStage.PRIORITISER, "HIPHIVE_PRIORITY", () -> "done"), equalTo("done"));
+    }
+
+    @Test
+    void emptyReport() {
+        SimpleAnalysisMetrics instance = new SimpleAnalysisMetrics();
+        Map<String, Object> report = instance.getReport();
+        assertThat(report.keySet(), contains("variants", "stages", "dataSources", "alleleKeyFilters"));
+        assertThat(report.get("variants"), equalTo(Map.of("loaded", 0L, "passed", 0L, "loadedPerSecond", 0L)));
+        assertThat(report.get("stages"), equalTo(Map.of()));
+        assertThat(report.get("dataSources"), equalTo(Map.of()));
+        assertThat(report.get("alleleKeyFilters"), equalTo(Map.of()));
+    }
+
+    @Test
+    void reportsAlleleKeyFilterCounts() {
+        SimpleAnalysisMetrics instance = new SimpleAnalysisMetrics();
+        BloomAlleleKeyFilter alleleKeyFilter = BloomAlleleKeyFilter.create(10);
+        instance.registerAlleleKeyFilter("hg19", alleleKeyFilter);
+
+        alleleKeyFilter.mightContain(TestFactory.variantBuilder(1, 12345, "A", "T").build());
+        alleleKeyFilter.mightContain(TestFactory.variantBuilder(1, 12345, "A", "G").build());
+
+        // counts are read when the report is created, not when the filter is registered
+        Map<String, Object> alleleKeyFilters = (Map<String, Object>) instance.getReport().get("alleleKeyFilters");
+        assertThat(alleleKeyFilters.get("hg19"), equalTo(Map.of("hits", 0L, "misses", 2L, "missRate", 1.0)));
+    }
+
+    @Test
+    void recordStage() {
+        SimpleAnalysisMetrics instance = new SimpleAnalysisMetrics();
+        instance.recordStage(AnalysisStage.VARIANT_FILTER, "FREQUENCY_FILTER", 1_000_000);
+        instance.recordStage(AnalysisStage.VARIANT_FILTER, "FREQUENCY_FILTER", 3_000_000);
+        instance.recordStage(AnalysisStage.GENE_SCORING, null, 2_000_000);
+
+        assertThat(instance.getTotalNanos(AnalysisStage.VARIANT_FILTER, "FREQUENCY_FILTER"), equalTo(4_000_000L));
+        assertThat(instance.getTotalNanos(AnalysisStage.VARIANT_FILTER, "QUALITY_FILTER"), equalTo(0L));
+        assertThat(instance.getTotalNanos(AnalysisStage.GENE_SCORING, null), equalTo(2_000_000L));
+
+        Map<String, Object> stages = (Map<String, Object>) instance.getReport().get("stages");
+        assertThat(stages.keySet(), contains("variant-filter", "gene-scoring"));
+        Map<String, Object> variantFilters = (Map<String, Object>) stages.get("variant-filter");
+        assertThat(variantFilters.get("FREQUENCY_FILTER"), equalTo(Map.of("count", 2L, "totalMillis", 4L, "meanMicros", 2000L, "maxMicros", 3000L)));
+        Map<String, Object> geneScoring = (Map<String, Object>) stages.get("gene-scoring");
+        assertThat(geneScoring.keySet(), contains("all"));
+    }
+
+    @Test
+    void measure() {
+        SimpleAnalysisMetrics instance = new SimpleAnalysisMetrics();
+        instance.measure(AnalysisStage.RESULTS_WRITER, "HTML", () -> {
+        });
+        Map<String, Object> stages = (Map<String, Object>) instance.getReport().get("stages");
+        Map<String, Object> writers = (Map<String, Object>) stages.get("results-writer");
+        Map<String, Object> html = (Map<String, Object>) writers.get("HTML");
+        assertThat(html.get("count"), equalTo(1L));
+    }
+
+    @Test
+    void recordDataSourceLatencyHistogram() {
+        SimpleAnalysisMetrics instance = new SimpleAnalysisMetrics();
+        instance.recordDataSourceLatency("frequency", 0);
+        instance.recordDataSourceLatency("frequency", 1);
+        instance.recordDataSourceLatency("frequency", 1000);
+        instance.recordDataSourceLatency("frequency", 1024);
+        instance.recordDataSourceLatency("frequency", 1025);
+
+        Map<String, Object> dataSources = (Map<String, Object>) instance.getReport().get("dataSources");
+        Map<String, Object> frequency = (Map<String, Object>) dataSources.get("frequency");
+        assertThat(frequency.get("count"), equalTo(5L));
+        assertThat(frequency.get("maxMicros"), equalTo(1L));
+        assertThat(frequency.get("histogramNanos"), equalTo(Map.of("1", 2L, "1024", 2L, "2048", 1L)));
+    }
+
+    @Test
+    void recordVariantCounts() {
+        SimpleAnalysisMetrics instance = new SimpleAnalysisMetrics();
+        instance.recordVariantCounts(200, 10);
+        instance.recordVariantCounts(100, 5);
+        instance.recordStage(AnalysisStage.ANALYSIS, "PASS_ONLY", 2_000_000_000L);
+
+        assertThat(instance.getVariantsLoaded(), equalTo(300L));
+        assertThat(instance.getVariantsPassed(), equalTo(15L));
+        assertThat(instance.getReport().get("variants"), equalTo(Map.of("loaded", 300L, "passed", 15L, "loadedPerSecond", 150L)));
+    }
+}
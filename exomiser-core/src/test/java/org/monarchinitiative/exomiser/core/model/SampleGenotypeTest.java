@@ -242,4 +242,15 @@ void testIsNoCall() {
         assertThat(SampleGenotype.parseGenotype("0/1").isNoCall(), equalTo(false));
         assertThat(SampleGenotype.parseGenotype("1/1/2").isNoCall(), equalTo(false));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHasAltCall() {
+        assertThat(SampleGenotype.empty().hasAltCall(), equalTo(false));
+        assertThat(SampleGenotype.noCall().hasAltCall(), equalTo(false));
+        assertThat(SampleGenotype.homRef().hasAltCall(), equalTo(false));
+        assertThat(SampleGenotype.het().hasAltCall(), equalTo(true));
+        assertThat(SampleGenotype.homAlt().hasAltCall(), equalTo(true));
+        assertThat(SampleGenotype.parseGenotype("1|0").hasAltCall(), equalTo(true));
+        assertThat(SampleGenotype.parseGenotype("0/-").hasAltCall(), equalTo(false));
+    }
+}
@@ -22,10 +22,13 @@
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class SampleGenotypesTest {
 
@@ -73,4 +76,78 @@ void testGetSampleData() {
         assertThat(instance.getSampleData(), equalTo(List.of(bart, lisa)));
         assertThat(instance.getSampleData("Bart"), equalTo(bart));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetSampleDataUnknownSample() {
+        SampleGenotypes instance = SampleGenotypes.of("Bart", SampleGenotype.het());
+        assertThat(instance.getSampleData("Homer"), is(nullValue()));
+        assertThat(instance.getSampleGenotype("Homer"), equalTo(SampleGenotype.empty()));
+        assertThat(instance.getSampleCopyNumber("Homer"), equalTo(CopyNumber.empty()));
+    }
+
+    @Test
+    void testEmpty() {
+        SampleGenotypes instance = SampleGenotypes.of();
+        assertThat(instance.isEmpty(), is(true));
+        assertThat(instance.size(), equalTo(0));
+        assertThat(instance.getSampleData(), equalTo(List.of()));
+        assertThat(instance.toString(), equalTo("{}"));
+    }
+
+    @Test
+    void testBuilderSharesSampleIndex() {
+        SampleIndex sampleIndex = SampleIndex.of("Bart", "Lisa", "Maggie");
+        SampleGenotype triploid = SampleGenotype.of(AlleleCall.REF, AlleleCall.ALT, AlleleCall.ALT);
+
+        SampleGenotypes first = SampleGenotypes.builder(sampleIndex)
+                .sampleGenotype(0, SampleGenotype.het())
+                .sampleGenotype(1, triploid)
+                .copyNumber(1, 3)
+                .build();
+        SampleGenotypes second = SampleGenotypes.builder(sampleIndex)
+                .sampleGenotype(2, SampleGenotype.phased(AlleleCall.ALT, AlleleCall.REF))
+                .build();
+
+        assertThat(first.getSampleIndex(), sameInstance(second.getSampleIndex()));
+
+        assertThat(first.getSampleGenotype("Bart"), equalTo(SampleGenotype.het()));
+        assertThat(first.getSampleCopyNumber("Bart"), equalTo(CopyNumber.empty()));
+        assertThat(first.getSampleGenotype("Lisa"), equalTo(triploid));
+        assertThat(first.getSampleCopyNumber("Lisa"), equalTo(CopyNumber.of(3)));
+        assertThat(first.getSampleGenotype("Maggie"), equalTo(SampleGenotype.empty()));
+        assertThat(first.toString(), equalTo("{Bart=0/1, Lisa=0/1/1:3, Maggie=.}"));
+
+        assertThat(second.getSampleGenotype("Bart"), equalTo(SampleGenotype.empty()));
+        assertThat(second.getSampleGenotype("Maggie"), equalTo(SampleGenotype.phased(AlleleCall.ALT, AlleleCall.REF)));
+    }
+
+    @Test
+    void testBuilderCanOnlyBeBuiltOnce() {
+        SampleGenotypes.Builder builder = SampleGenotypes.builder(SampleIndex.of("Bart"));
+        builder.build();
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    void testIteratorAndStream() {
+        SampleData bart = SampleData.of("Bart", SampleGenotype.het(), 4);
+        SampleData lisa = SampleData.of("Lisa", SampleGenotype.homAlt());
+        SampleGenotypes instance = SampleGenotypes.of(bart, lisa);
+
+        List<SampleData> iterated = new ArrayList<>();
+        instance.forEach(iterated::add);
+        assertThat(iterated, equalTo(List.of(bart, lisa)));
+        assertThat(instance.stream().collect(Collectors.toList()), equalTo(List.of(bart, lisa)));
+    }
+
+    @Test
+    void testEqualsIgnoresSampleOrder() {
+        SampleGenotypes bartLisa = SampleGenotypes.of("Bart", SampleGenotype.het(), "Lisa", SampleGenotype.homRef());
+        SampleGenotypes lisaBart = SampleGenotypes.of("Lisa", SampleGenotype.homRef(), "Bart", SampleGenotype.het());
+        assertThat(bartLisa, equalTo(lisaBart));
+        assertThat(bartLisa.hashCode(), equalTo(lisaBart.hashCode()));
+
+        SampleGenotypes lisaHomAlt = SampleGenotypes.of("Bart", SampleGenotype.het(), "Lisa", SampleGenotype.homAlt());
+        assertThat(bartLisa, not(equalTo(lisaHomAlt)));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SampleIndexTest {
+
+    @Test
+    void empty() {
+        SampleIndex instance = SampleIndex.of(List.of());
+        assertThat(instance, sameInstance(SampleIndex.empty()));
+        assertThat(instance.isEmpty(), is(true));
+        assertThat(instance.size(), equalTo(0));
+        assertThat(instance.indexOf("Bart"), equalTo(-1));
+    }
+
+    @Test
+    void indexOf() {
+        SampleIndex instance = SampleIndex.of("Homer", "Marge", "Bart");
+        assertThat(instance.size(), equalTo(3));
+        assertThat(instance.indexOf("Homer"), equalTo(0));
+        assertThat(instance.indexOf("Marge"), equalTo(1));
+        assertThat(instance.indexOf("Bart"), equalTo(2));
+        assertThat(instance.indexOf("Lisa"), equalTo(-1));
+        assertThat(instance.contains("Bart"), is(true));
+        assertThat(instance.contains("Lisa"), is(false));
+    }
+
+    @Test
+    void getSampleName() {
+        SampleIndex instance = SampleIndex.of("Homer", "Marge", "Bart");
+        assertThat(instance.getSampleName(2), equalTo("Bart"));
+        assertThat(instance.getSampleNames(), equalTo(List.of("Homer", "Marge", "Bart")));
+    }
+
+    @Test
+    void throwsExceptionWithDuplicateSampleNames() {
+        assertThrows(IllegalArgumentException.class, () -> SampleIndex.of("Bart", "Lisa", "Bart"));
+    }
+
+    @Test
+    void testEquals() {
+        assertThat(SampleIndex.of("Homer", "Marge"), equalTo(SampleIndex.of(List.of("Homer", "Marge"))));
+        assertThat(SampleIndex.of("Homer", "Marge"), not(equalTo(SampleIndex.of("Marge", "Homer"))));
+    }
+}
@@ -54,6 +54,7 @@
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -450,6 +451,12 @@ public void testGetPathogenicityScoreMissensePredictedScoreLessThanDefault() {
         assertThat(instance.getPathogenicityScore(), equalTo(expected));
     }
 
+    @Test
+    public void allFilterTypesFitInTheFilterBits() {
+        // the passed and failed filters are each held in 32 bits of a long
+        assertThat(FilterType.values().length, lessThanOrEqualTo(32));
+    }
+
     @Test
     public void testGetFailedFilterTypes() {
         Set<FilterType> expectedFilters = EnumSet.of(FAIL_FREQUENCY_RESULT.getFilterType());
@@ -558,6 +565,39 @@ public void testFailsFiltersWhenPassedAndFailedFiltersHaveBeenApplied() {
         assertThat(instance.passedFilters(), is(false));
     }
 
+    @Test
+    void testPassedFilterIsFalseWhenFilterTypeHasPassedAndFailed() {
+        instance.addFilterResult(PASS_FREQUENCY_RESULT);
+        instance.addFilterResult(FAIL_FREQUENCY_RESULT);
+        assertThat(instance.getPassedFilterTypes(), equalTo(EnumSet.of(FilterType.FREQUENCY_FILTER)));
+        assertThat(instance.getFailedFilterTypes(), equalTo(EnumSet.of(FilterType.FREQUENCY_FILTER)));
+        assertThat(instance.passedFilter(FilterType.FREQUENCY_FILTER), is(false));
+    }
+
+    @Test
+    void testAddFilterResultsConcurrently() {
+        List<FilterResult> filterResults = new ArrayList<>();
+        for (FilterType filterType : FilterType.values()) {
+            for (int i = 0; i < 100; i++) {
+                filterResults.add(filterType.ordinal() % 2 == 0 ? FilterResult.pass(filterType) : FilterResult.fail(filterType));
+            }
+        }
+        filterResults.parallelStream().forEach(instance::addFilterResult);
+
+        Set<FilterType> expectedPassed = EnumSet.noneOf(FilterType.class);
+        Set<FilterType> expectedFailed = EnumSet.noneOf(FilterType.class);
+        for (FilterType filterType : FilterType.values()) {
+            if (filterType.ordinal() % 2 == 0) {
+                expectedPassed.add(filterType);
+            } else {
+                expectedFailed.add(filterType);
+            }
+        }
+        assertThat(instance.getPassedFilterTypes(), equalTo(expectedPassed));
+        assertThat(instance.getFailedFilterTypes(), equalTo(expectedFailed));
+        assertThat(instance.getFilterStatus(), equalTo(FilterStatus.FAILED));
+    }
+
     @Test
     public void testFilterStatusWhenNoFiltersHaveBeenApplied() {
         assertThat(instance.getFilterStatus(), equalTo(FilterStatus.UNFILTERED));
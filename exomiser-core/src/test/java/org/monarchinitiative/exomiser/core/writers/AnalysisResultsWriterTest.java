@@ -39,7 +39,11 @@
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -103,6 +107,47 @@ void testWriteToFileOutputsAllModesOfinheritanceForEachFormat() throws Exception
         }
     }
 
+    @Test
+    void testWriteToFileAsyncOutputsAllModesOfinheritanceForEachFormat() throws Exception {
+        String outputPrefix = tempFile.toString();
+
+        OutputSettings settings = OutputSettings.builder()
+                .outputPrefix(outputPrefix)
+                .outputFormats(EnumSet.of(OutputFormat.TSV_GENE, OutputFormat.TSV_VARIANT, OutputFormat.JSON, OutputFormat.VCF))
+                .build();
+
+        Sample sample = Sample.builder()
+                .vcfPath(Paths.get("src/test/resources/smallTest.vcf"))
+                .build();
+
+        Analysis analysis = Analysis.builder()
+                .inheritanceModeOptions(InheritanceModeOptions.defaults())
+                .build();
+        AnalysisResults analysisResults = newAnalysisResults(sample, analysis);
+        List<Gene> originalGenes = List.copyOf(analysisResults.getGenes());
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            AnalysisResultsWriter.writeToFileAsync(analysisResults, settings, executorService).get(1, TimeUnit.MINUTES);
+        } finally {
+            executorService.shutdown();
+        }
+        // the genes are ranked using a view for each mode, rather than being sorted in place
+        assertThat(analysisResults.getGenes(), equalTo(originalGenes));
+
+        Path jsonOutputPath = Paths.get(String.format("%s.%s", outputPrefix, OutputFormat.JSON.getFileExtension()));
+        assertThat(jsonOutputPath.toFile().exists(), is(true));
+        assertThat(jsonOutputPath.toFile().delete(), is(true));
+
+        for (OutputFormat outputFormat : Arrays.asList(OutputFormat.TSV_GENE, OutputFormat.TSV_VARIANT, OutputFormat.VCF)) {
+            for (String moi : Arrays.asList("AD", "AR", "XR", "XD", "MT")) {
+                Path outputPath = Paths.get(String.format("%s_%s.%s", outputPrefix, moi, outputFormat.getFileExtension()));
+                assertThat(outputPath.toFile().exists(), is(true));
+                assertThat(outputPath.toFile().delete(), is(true));
+            }
+        }
+    }
+
     @Test
     void testWriteToFileOutputsAllModesOfinheritanceForEachFormatWhenInheritanceModeIsUndefined() throws Exception {
         String outputPrefix = tempFile.toString();
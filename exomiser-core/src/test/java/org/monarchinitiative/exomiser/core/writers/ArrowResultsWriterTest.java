@@ -0,0 +1,191 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.*;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.analysis.sample.Sample;
+import org.monarchinitiative.exomiser.core.filters.FilterResult;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.genome.TestFactory;
+import org.monarchinitiative.exomiser.core.genome.TestVariantFactory;
+import org.monarchinitiative.exomiser.core.model.FilterStatus;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.SampleGenotype;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PolyPhenScore;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArrowResultsWriterTest {
+
+    private final Analysis analysis = Analysis.builder().build();
+    private final Sample sample = Sample.builder().probandSampleName("Adam").build();
+    private AnalysisResults analysisResults;
+
+    @BeforeEach
+    void setUp() {
+        Gene fgfr2 = TestFactory.newGeneFGFR2();
+        fgfr2.addVariant(makeVariant(10, 123256215, "T", "G", FilterResult.pass(FilterType.VARIANT_EFFECT_FILTER), 1f));
+        fgfr2.addVariant(makeVariant(10, 123256214, "A", "G", FilterResult.pass(FilterType.VARIANT_EFFECT_FILTER), 0.89f));
+
+        Gene shh = TestFactory.newGeneSHH();
+        shh.addVariant(makeVariant(7, 155604800, "C", "CTT", FilterResult.fail(FilterType.VARIANT_EFFECT_FILTER), 1f));
+
+        analysisResults = AnalysisResults.builder()
+                .sample(sample)
+                .analysis(analysis)
+                .genes(List.of(fgfr2, shh))
+                .build();
+    }
+
+    private VariantEvaluation makeVariant(int chr, int pos, String ref, String alt, FilterResult filterResult, float polyPhenScore) {
+        VariantEvaluation variant = TestVariantFactory.buildVariant(chr, pos, ref, alt, SampleGenotype.het(), 30, 2.2);
+        variant.addFilterResult(filterResult);
+        variant.setPathogenicityData(PathogenicityData.of(PolyPhenScore.of(polyPhenScore)));
+        return variant;
+    }
+
+    private OutputSettings outputSettings(Path tempDir, OutputFormat outputFormat) {
+        return OutputSettings.builder()
+                .outputFormats(EnumSet.of(outputFormat))
+                .outputPrefix(tempDir.resolve("testWrite").toString())
+                .build();
+    }
+
+    @Test
+    void throwsExceptionWithNonArrowOutputFormat() {
+        assertThrows(IllegalArgumentException.class, () -> new ArrowResultsWriter(OutputFormat.TSV_GENE));
+    }
+
+    @Test
+    void writeGeneTable(@TempDir Path tempDir) throws IOException {
+        ArrowResultsWriter instance = new ArrowResultsWriter(OutputFormat.ARROW_GENE);
+        instance.writeFile(ModeOfInheritance.AUTOSOMAL_DOMINANT, analysisResults, outputSettings(tempDir, OutputFormat.ARROW_GENE));
+
+        Path outputPath = tempDir.resolve("testWrite_AD.genes.arrow");
+        assertThat(Files.exists(outputPath), is(true));
+
+        try (BufferAllocator allocator = new RootAllocator();
+             FileChannel channel = FileChannel.open(outputPath);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator, CommonsCompressionFactory.INSTANCE)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertThat(root.getSchema().getCustomMetadata(), equalTo(Map.of("exomiser.mode_of_inheritance", "AUTOSOMAL_DOMINANT", "exomiser.sample", "Adam")));
+            assertThat(reader.getRecordBlocks().size(), equalTo(1));
+            assertThat(reader.loadNextBatch(), is(true));
+            assertThat(root.getRowCount(), equalTo(2));
+
+            IntVector rank = (IntVector) root.getVector("rank");
+            VarCharVector geneSymbol = (VarCharVector) root.getVector("gene_symbol");
+            IntVector entrezGeneId = (IntVector) root.getVector("entrez_gene_id");
+            assertThat(rank.get(0), equalTo(1));
+            assertThat(geneSymbol.getObject(0).toString(), equalTo("FGFR2"));
+            assertThat(entrezGeneId.get(0), equalTo(2263));
+            assertThat(rank.get(1), equalTo(2));
+            assertThat(geneSymbol.getObject(1).toString(), equalTo("SHH"));
+
+            TinyIntVector filterStatus = (TinyIntVector) root.getVector("filter_status");
+            Dictionary filterStatusDictionary = reader.getDictionaryVectors().get(filterStatus.getField().getDictionary().getId());
+            VarCharVector filterStatusValues = (VarCharVector) filterStatusDictionary.getVector();
+            assertThat(filterStatusValues.getObject(filterStatus.get(0)).toString(), equalTo(FilterStatus.PASSED.name()));
+            assertThat(filterStatusValues.getObject(filterStatus.get(1)).toString(), equalTo(FilterStatus.FAILED.name()));
+        }
+    }
+
+    @Test
+    void writeVariantTableIsBatchedByContigInCoordinateOrder(@TempDir Path tempDir) throws IOException {
+        ArrowResultsWriter instance = new ArrowResultsWriter(OutputFormat.ARROW_VARIANT);
+        OutputSettings outputSettings = OutputSettings.builder()
+                .outputFormats(EnumSet.of(OutputFormat.ARROW_VARIANT))
+                .outputPrefix(tempDir.resolve("testWrite").toString())
+                .arrowCompression(CompressionUtil.CodecType.ZSTD)
+                .build();
+        instance.writeFile(ModeOfInheritance.ANY, analysisResults, outputSettings);
+
+        Path outputPath = tempDir.resolve("testWrite.variants.arrow");
+        assertThat(Files.exists(outputPath), is(true));
+
+        List<String> contigs = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> geneRanks = new ArrayList<>();
+        List<Float> polyphenScores = new ArrayList<>();
+        try (BufferAllocator allocator = new RootAllocator();
+             FileChannel channel = FileChannel.open(outputPath);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator, CommonsCompressionFactory.INSTANCE)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            // one batch for each of chr7 and chr10
+            assertThat(reader.getRecordBlocks().size(), equalTo(2));
+            while (reader.loadNextBatch()) {
+                IntVector contig = (IntVector) root.getVector("contig");
+                VarCharVector contigValues = (VarCharVector) reader.getDictionaryVectors().get(contig.getField().getDictionary().getId()).getVector();
+                IntVector start = (IntVector) root.getVector("start");
+                IntVector geneRank = (IntVector) root.getVector("gene_rank");
+                Float4Vector polyphen = (Float4Vector) root.getVector("polyphen");
+                Float4Vector cadd = (Float4Vector) root.getVector("cadd");
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    contigs.add(contigValues.getObject(contig.get(i)).toString());
+                    starts.add(start.get(i));
+                    geneRanks.add(geneRank.get(i));
+                    polyphenScores.add(polyphen.get(i));
+                    assertThat(cadd.getObject(i), nullValue());
+                }
+            }
+        }
+        assertThat(contigs, equalTo(List.of("7", "10", "10")));
+        assertThat(starts, equalTo(List.of(155604800, 123256214, 123256215)));
+        assertThat(geneRanks, equalTo(List.of(2, 1, 1)));
+        assertThat(polyphenScores, equalTo(List.of(1f, 0.89f, 1f)));
+    }
+
+    @Test
+    void writeStringContainsRowForEachVariant() {
+        ArrowResultsWriter instance = new ArrowResultsWriter(OutputFormat.ARROW_VARIANT);
+        OutputSettings outputSettings = OutputSettings.builder().outputFormats(EnumSet.of(OutputFormat.ARROW_VARIANT)).build();
+        String output = instance.writeString(ModeOfInheritance.ANY, analysisResults, outputSettings);
+        // a header and row for chr7 followed by a header and two rows for chr10
+        assertThat(output.lines().count(), equalTo(5L));
+    }
+}
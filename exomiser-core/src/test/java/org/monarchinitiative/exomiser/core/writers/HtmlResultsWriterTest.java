@@ -54,6 +54,7 @@
 import java.util.Collections;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -226,4 +227,37 @@ public void testWriteTemplateWithFullDataAndFullAnalysis() throws Exception {
         assertTrue(output.contains("SHH"));
     }
 
+    @Test
+    public void testWriteStringTruncatesGenesToMaxGenes() {
+        Sample sample = Sample.builder().build();
+        Analysis analysis = Analysis.builder().build();
+        AnalysisResults analysisResults = buildAnalysisResults(sample, analysis, List.of(fgfr2Gene, shhGene), Collections.emptyList());
+
+        OutputSettings maxOneGene = OutputSettings.builder().htmlMaxGenes(1).build();
+        String truncated = instance.writeString(ModeOfInheritance.ANY, analysisResults, maxOneGene);
+        assertTrue(truncated.contains("only the top <span>1</span> out of a total of"));
+        assertTrue(truncated.contains("FGFR2"));
+        assertFalse(truncated.contains("SHH"));
+
+        String unlimited = instance.writeString(ModeOfInheritance.ANY, analysisResults, OutputSettings.builder().build());
+        assertFalse(unlimited.contains("only the top"));
+        assertTrue(unlimited.contains("SHH"));
+    }
+
+    @Test
+    public void testWriteFileInChunksMatchesWriteString() throws Exception {
+        Sample sample = Sample.builder().build();
+        Analysis analysis = Analysis.builder().build();
+        AnalysisResults analysisResults = buildAnalysisResults(sample, analysis, List.of(fgfr2Gene, shhGene), Collections.emptyList());
+
+        String testOutFilePrefix = testOutDir.resolve("testWriteFileInChunksMatchesWriteString").toString();
+        OutputSettings settings = OutputSettings.builder().outputPrefix(testOutFilePrefix).build();
+
+        instance.writeFile(ModeOfInheritance.ANY, analysisResults, settings);
+        Path testOutFile = Paths.get(testOutFilePrefix + ".html");
+        String fileOutput = Files.readString(testOutFile);
+        assertTrue(testOutFile.toFile().delete());
+
+        assertEquals(instance.writeString(ModeOfInheritance.ANY, analysisResults, settings), fileOutput);
+    }
 }
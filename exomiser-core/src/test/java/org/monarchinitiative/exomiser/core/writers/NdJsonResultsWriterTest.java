@@ -0,0 +1,145 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.analysis.sample.Sample;
+import org.monarchinitiative.exomiser.core.genome.TestFactory;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.GeneScore;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the newline-delimited output of the {@link JsonResultsWriter}.
+ */
+class NdJsonResultsWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AnalysisResults analysisResults() {
+        Gene fgfr2 = TestFactory.newGeneFGFR2();
+        fgfr2.addGeneScore(GeneScore.builder()
+                .geneIdentifier(fgfr2.getGeneIdentifier())
+                .modeOfInheritance(ModeOfInheritance.AUTOSOMAL_DOMINANT)
+                .combinedScore(0.9f)
+                .build());
+        Gene rbm8a = TestFactory.newGeneRBM8A();
+        rbm8a.addGeneScore(GeneScore.builder()
+                .geneIdentifier(rbm8a.getGeneIdentifier())
+                .modeOfInheritance(ModeOfInheritance.AUTOSOMAL_DOMINANT)
+                .combinedScore(0.5f)
+                .build());
+        Gene shh = TestFactory.newGeneSHH();
+        return AnalysisResults.builder()
+                .sample(Sample.builder().build())
+                .genes(List.of(fgfr2, rbm8a, shh))
+                .build();
+    }
+
+    private List<String> geneSymbols(List<String> lines) throws Exception {
+        List<String> geneSymbols = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode jsonNode = objectMapper.readTree(line);
+            geneSymbols.add(jsonNode.get("geneSymbol").asText());
+        }
+        return geneSymbols;
+    }
+
+    @Test
+    void throwsExceptionWithNonJsonFormat() {
+        assertThrows(IllegalArgumentException.class, () -> new JsonResultsWriter(OutputFormat.VCF));
+    }
+
+    @Test
+    void writeStringWritesOneGenePerLine() throws Exception {
+        JsonResultsWriter instance = new JsonResultsWriter(OutputFormat.NDJSON);
+        String result = instance.writeString(ModeOfInheritance.ANY, analysisResults(), OutputSettings.builder().build());
+
+        assertThat(result, endsWith("\n"));
+        List<String> lines = List.of(result.split("\n"));
+        assertThat(lines.size(), equalTo(3));
+        assertThat(geneSymbols(lines), equalTo(List.of("FGFR2", "RBM8A", "SHH")));
+    }
+
+    @Test
+    void writeStringAppliesOutputSettings() throws Exception {
+        JsonResultsWriter instance = new JsonResultsWriter(OutputFormat.NDJSON);
+        OutputSettings limitToOneGene = OutputSettings.builder().numberOfGenesToShow(1).build();
+        String result = instance.writeString(ModeOfInheritance.ANY, analysisResults(), limitToOneGene);
+        assertThat(geneSymbols(List.of(result.split("\n"))), equalTo(List.of("FGFR2")));
+
+        OutputSettings minScore = OutputSettings.builder().minExomiserGeneScore(0.6f).build();
+        result = instance.writeString(ModeOfInheritance.ANY, analysisResults(), minScore);
+        assertThat(geneSymbols(List.of(result.split("\n"))), equalTo(List.of("FGFR2")));
+    }
+
+    @Test
+    void writeStringNoMatchingGenesIsEmpty() {
+        JsonResultsWriter instance = new JsonResultsWriter(OutputFormat.NDJSON);
+        String result = instance.writeString(ModeOfInheritance.MITOCHONDRIAL, analysisResults(), OutputSettings.builder().build());
+        assertThat(result, equalTo(""));
+    }
+
+    @Test
+    void writeStringJsonIsArray() throws Exception {
+        JsonResultsWriter instance = new JsonResultsWriter(OutputFormat.JSON);
+        String result = instance.writeString(ModeOfInheritance.ANY, analysisResults(), OutputSettings.builder().build());
+        JsonNode jsonNode = objectMapper.readTree(result);
+        assertThat(jsonNode.isArray(), is(true));
+        assertThat(jsonNode.size(), equalTo(3));
+    }
+
+    @Test
+    void writeFileGzipped(@TempDir Path tempDir) throws Exception {
+        JsonResultsWriter instance = new JsonResultsWriter(OutputFormat.NDJSON_GZ);
+        OutputSettings outputSettings = OutputSettings.builder()
+                .outputPrefix(tempDir.resolve("results").toString())
+                .outputFormats(EnumSet.of(OutputFormat.NDJSON_GZ))
+                .build();
+        instance.writeFile(ModeOfInheritance.ANY, analysisResults(), outputSettings);
+
+        Path outputPath = tempDir.resolve("results.ndjson.gz");
+        assertThat(Files.exists(outputPath), is(true));
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(outputPath)), StandardCharsets.UTF_8))) {
+            reader.lines().forEach(lines::add);
+        }
+        assertThat(geneSymbols(lines), equalTo(List.of("FGFR2", "RBM8A", "SHH")));
+    }
+}
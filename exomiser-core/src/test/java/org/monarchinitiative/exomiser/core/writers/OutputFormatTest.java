@@ -62,5 +62,22 @@ void testParseFormat() {
         assertThat(OutputFormat.parseFormat("json"), equalTo(OutputFormat.JSON));
         assertThat(OutputFormat.parseFormat("TSV-GENE"), equalTo(OutputFormat.TSV_GENE));
         assertThat(OutputFormat.parseFormat("TSV_GENE"), equalTo(OutputFormat.TSV_GENE));
+        assertThat(OutputFormat.parseFormat("ndjson"), equalTo(OutputFormat.NDJSON));
+        assertThat(OutputFormat.parseFormat("JSONL"), equalTo(OutputFormat.NDJSON));
+        assertThat(OutputFormat.parseFormat("NDJSON_GZ"), equalTo(OutputFormat.NDJSON_GZ));
+    }
+
+    @Test
+    public void testParseVcfGz() {
+        assertThat(OutputFormat.parseFormat("VCF_GZ"), equalTo(OutputFormat.VCF_GZ));
+        assertThat(OutputFormat.parseFormat("vcf.gz"), equalTo(OutputFormat.VCF_GZ));
+        assertThat(OutputFormat.parseFormat("vcf-gz"), equalTo(OutputFormat.VCF_GZ));
+        assertThat(OutputFormat.VCF_GZ.getFileExtension(), equalTo("vcf.gz"));
+    }
+
+    @Test
+    public void testParseArrow() {
+        assertThat(OutputFormat.parseFormat("ARROW_GENE"), equalTo(OutputFormat.ARROW_GENE));
+        assertThat(OutputFormat.parseFormat("arrow-variant"), equalTo(OutputFormat.ARROW_VARIANT));
     }
 }
@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.core.writers;
 
+import org.apache.arrow.vector.compression.CompressionUtil;
 import org.junit.jupiter.api.Test;
 import org.monarchinitiative.exomiser.api.v1.OutputProto;
 
@@ -41,6 +42,9 @@ class OutputSettingsProtoConverterTest {
             .setOutputPrefix("frood")
             .addOutputFormats(OutputFormat.HTML.toString())
             .addOutputFormats(OutputFormat.JSON.toString())
+            .setVcfMaxRecordsInRam(1000)
+            .setArrowCompression("ZSTD")
+            .setHtmlMaxGenes(100)
             .build();
 
     private final OutputSettings domain = OutputSettings.builder()
@@ -48,6 +52,9 @@ class OutputSettingsProtoConverterTest {
             .numberOfGenesToShow(10)
             .outputPrefix("frood")
             .outputFormats(Set.of(OutputFormat.HTML, OutputFormat.JSON))
+            .vcfMaxRecordsInRam(1000)
+            .arrowCompression(CompressionUtil.CodecType.ZSTD)
+            .htmlMaxGenes(100)
             .build();
 
     @Test
@@ -59,4 +66,16 @@ void toProto() {
     void toDomain() {
         assertThat(instance.toDomain(proto), equalTo(domain));
     }
+
+    @Test
+    void toDomainUnsetVcfMaxRecordsInRamIsDefault() {
+        OutputProto.OutputOptions unset = OutputProto.OutputOptions.getDefaultInstance();
+        assertThat(instance.toDomain(unset).getVcfMaxRecordsInRam(), equalTo(VcfResultsWriter.DEFAULT_MAX_RECORDS_IN_RAM));
+    }
+
+    @Test
+    void toDomainUnsetArrowCompressionIsNoCompression() {
+        OutputProto.OutputOptions unset = OutputProto.OutputOptions.getDefaultInstance();
+        assertThat(instance.toDomain(unset).getArrowCompression(), equalTo(CompressionUtil.CodecType.NO_COMPRESSION));
+    }
 }
\ No newline at end of file
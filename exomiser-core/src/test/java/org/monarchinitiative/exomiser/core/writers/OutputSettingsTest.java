@@ -40,6 +40,7 @@
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  *
@@ -79,6 +80,36 @@ public void testThatBuilderCanSetNumberOfGenesToShow() {
         assertThat(instance.getNumberOfGenesToShow(), equalTo(numGenes));
     }
 
+    @Test
+    public void testThatDefaultVcfMaxRecordsInRamIsOneHundredThousand() {
+        OutputSettings instance = OutputSettings.builder().build();
+        assertThat(instance.getVcfMaxRecordsInRam(), equalTo(100_000));
+    }
+
+    @Test
+    public void testThatBuilderCanSetVcfMaxRecordsInRam() {
+        OutputSettings instance = OutputSettings.builder()
+                .vcfMaxRecordsInRam(500)
+                .build();
+        assertThat(instance.getVcfMaxRecordsInRam(), equalTo(500));
+    }
+
+    @Test
+    public void testThatDefaultHtmlMaxGenesIsZero() {
+        OutputSettings instance = OutputSettings.builder().build();
+        assertThat(instance.getHtmlMaxGenes(), equalTo(0));
+    }
+
+    @Test
+    public void testThatBuilderRejectsNegativeHtmlMaxGenes() {
+        assertThrows(IllegalArgumentException.class, () -> OutputSettings.builder().htmlMaxGenes(-1));
+    }
+
+    @Test
+    public void testThatBuilderRejectsZeroVcfMaxRecordsInRam() {
+        assertThrows(IllegalArgumentException.class, () -> OutputSettings.builder().vcfMaxRecordsInRam(0));
+    }
+
     /**
      * Test of getOutputPrefix method, of class ExomiserSettings.
      */
@@ -162,6 +193,9 @@ public void testCanOutputAsYaml() throws Exception {
                 "outputPrefix: \"\"\n" +
                 "outputFormats:\n" +
                 "- \"HTML\"\n" +
+                "vcfMaxRecordsInRam: 100000\n" +
+                "arrowCompression: \"NO_COMPRESSION\"\n" +
+                "htmlMaxGenes: 0\n" +
                 "numGenes: 0\n";
         assertThat(output, equalTo(expected));
     }
@@ -71,4 +71,10 @@ void testGetJsonResultsWriter() {
         assertThat(result, instanceOf(JsonResultsWriter.class));
     }
 
+    @Test
+    void testGetArrowResultsWriter() {
+        assertThat(ResultsWriterFactory.getResultsWriter(OutputFormat.ARROW_GENE), instanceOf(ArrowResultsWriter.class));
+        assertThat(ResultsWriterFactory.getResultsWriter(OutputFormat.ARROW_VARIANT), instanceOf(ArrowResultsWriter.class));
+    }
+
 }
@@ -153,4 +153,20 @@ void multiSampleMultiVariantMultiType() {
         );
         assertThat(result, equalTo(expected));
     }
-}
\ No newline at end of file
+
+    @Test
+    void countVariantIncrementally() {
+        VariantEvaluation missense = TestFactory.variantBuilder(1, 12345, "A", "T")
+                .variantEffect(VariantEffect.MISSENSE_VARIANT)
+                .sampleGenotypes(SampleGenotypes.of(arthur, SampleGenotype.het()))
+                .build();
+
+        VariantEffectCounter instance = new VariantEffectCounter(List.of(arthur));
+        instance.countVariant(missense);
+        instance.countVariant(missense);
+
+        List<VariantEffectCount> result = instance.getVariantEffectCounts(EnumSet.of(VariantEffect.MISSENSE_VARIANT));
+        assertThat(result, equalTo(List.of(new VariantEffectCount(VariantEffect.MISSENSE_VARIANT, List.of(2)))));
+        assertThat(instance.getVariantEffectCounts().size(), equalTo(VariantEffect.values().length));
+    }
+}
@@ -22,7 +22,9 @@
 
 import de.charite.compbio.jannovar.annotation.VariantEffect;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFFileReader;
+import htsjdk.variant.vcf.VCFHeader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -50,6 +52,7 @@
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Tests for the {@link VcfResultsWriter} class.
@@ -420,4 +423,62 @@ public void testHomozygousAltAlleleOutputVcfContainsConcatenatedVariantScoresOnO
                 + "10\t123256215\t.\tT\tG,A\t100\t.\tExContribAltAllele=0;ExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=2263;ExGeneSymbol=FGFR2;ExVarEff=frameshift_variant,missense_variant;ExVarScore=1.0,0.6;GENE=FGFR2;INHERITANCE=AD;MIM=101600\tGT\t1/2\n";
         assertThat(output, equalTo(expected));
     }
+
+    @Test
+    public void testConstructorThrowsExceptionWithNonVcfOutputFormat() {
+        assertThrows(IllegalArgumentException.class, () -> new VcfResultsWriter(OutputFormat.JSON));
+    }
+
+    @Test
+    public void testWriteStringWithSharedHeader() {
+        VCFHeader outputVcfHeader = VcfResultsWriter.readOutputVcfHeader(sample.getVcfPath());
+        VcfResultsWriter sharedHeaderInstance = new VcfResultsWriter(OutputFormat.VCF, outputVcfHeader);
+        AnalysisResults analysisResults = buildAnalysisResults(sample, analysis, fgfr2Gene, shhGene);
+
+        String expected = instance.writeString(ModeOfInheritance.ANY, analysisResults, settings);
+        assertThat(sharedHeaderInstance.writeString(ModeOfInheritance.ANY, analysisResults, settings), equalTo(expected));
+        // the shared header must not be modified by the writer
+        assertThat(sharedHeaderInstance.writeString(ModeOfInheritance.ANY, analysisResults, settings), equalTo(expected));
+    }
+
+    @Test
+    public void testWriteStringVcfGzIsSortedByCoordinate() {
+        VcfResultsWriter sortingInstance = new VcfResultsWriter(OutputFormat.VCF_GZ);
+        fgfr2Gene.addVariant(fgfr2ContributingVariant);
+        // genes are in rank order, not coordinate order
+        AnalysisResults analysisResults = buildAnalysisResults(sample, analysis, fgfr2Gene, shhGene);
+
+        String vcf = sortingInstance.writeString(ModeOfInheritance.ANY, analysisResults, settings);
+        final String expected = EXPECTED_HEADER
+                + "7\t155604800\t.\tC\tCTT\t1\t.\tExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=6469;ExGeneSymbol=SHH;ExVarEff=frameshift_variant;ExVarScore=1.0\tGT:RD\t0/1:30\n"
+                + "10\t123256214\t.\tA\tG\t2.20\t.\tExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=2263;ExGeneSymbol=FGFR2;ExVarEff=missense_variant;ExVarScore=0.89\tGT:RD\t0/1:30\n"
+                + "10\t123256215\t.\tT\tG\t2.20\t.\tExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=2263;ExGeneSymbol=FGFR2;ExVarEff=missense_variant;ExVarScore=1.0\tGT:RD\t0/1:30\n";
+        assertThat(vcf, equalTo(expected));
+    }
+
+    @Test
+    public void testWriteVcfGzFileIsBgzippedAndIndexed(@TempDir Path tempDir) {
+        VcfResultsWriter sortingInstance = new VcfResultsWriter(OutputFormat.VCF_GZ);
+        fgfr2Gene.addVariant(fgfr2ContributingVariant);
+        AnalysisResults analysisResults = buildAnalysisResults(sample, analysis, fgfr2Gene, shhGene);
+
+        Path vcfOutFilePrefix = tempDir.resolve("test-vcf-writer");
+        OutputSettings outputSettings = OutputSettings.builder()
+                .outputFormats(EnumSet.of(OutputFormat.VCF_GZ))
+                .outputPrefix(vcfOutFilePrefix.toString())
+                .build();
+        sortingInstance.writeFile(ModeOfInheritance.ANY, analysisResults, outputSettings);
+
+        Path vcfOutFile = tempDir.resolve("test-vcf-writer.vcf.gz");
+        assertThat(Files.exists(vcfOutFile), equalTo(true));
+        assertThat(Files.exists(tempDir.resolve("test-vcf-writer.vcf.gz.tbi")), equalTo(true));
+
+        try (VCFFileReader vcfFileReader = new VCFFileReader(vcfOutFile, true)) {
+            List<Integer> starts = vcfFileReader.iterator().stream().map(VariantContext::getStart).collect(toList());
+            assertThat(starts, equalTo(List.of(155604800, 123256214, 123256215)));
+
+            List<Integer> chr10Starts = vcfFileReader.query("10", 123256000, 123257000).stream().map(VariantContext::getStart).collect(toList());
+            assertThat(chr10Starts, equalTo(List.of(123256214, 123256215)));
+        }
+    }
 }
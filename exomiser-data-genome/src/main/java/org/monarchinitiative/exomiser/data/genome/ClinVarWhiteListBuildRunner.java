@@ -28,6 +28,8 @@
 import htsjdk.tribble.index.tabix.TabixIndex;
 import htsjdk.tribble.readers.LineIterator;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.dao.MappedVariantWhiteList;
+import org.monarchinitiative.exomiser.core.genome.dao.VariantWhiteListLoader;
 import org.monarchinitiative.exomiser.data.genome.indexers.ClinVarWhiteListFileAlleleIndexer;
 import org.monarchinitiative.exomiser.data.genome.indexers.Indexer;
 import org.monarchinitiative.exomiser.data.genome.model.Allele;
@@ -95,6 +97,10 @@ public void run() {
         } catch (IOException e) {
             logger.error("Unable to write whitelist tabix index.", e);
         }
+
+        // and finally the memory-mappable version which doesn't need parsing on startup
+        Path whiteListBinaryPath = outPath.resolve(buildInfo.getBuildString() + "_clinvar_whitelist.bin");
+        MappedVariantWhiteList.write(VariantWhiteListLoader.readAlleleKeys(whiteListBgZipPath), whiteListBinaryPath);
     }
 
     private static class ExomiserTabixCodec extends AsciiFeatureCodec<ExomiserTabixFeature> {
@@ -20,7 +20,10 @@
 
 package org.monarchinitiative.exomiser.data.genome;
 
+import de.charite.compbio.jannovar.data.JannovarData;
 import org.monarchinitiative.exomiser.core.genome.jannovar.JannovarDataFactory;
+import org.monarchinitiative.exomiser.core.genome.jannovar.JannovarDataProtoSerialiser;
+import org.monarchinitiative.exomiser.core.genome.jannovar.TranscriptSnapshot;
 import org.monarchinitiative.exomiser.core.genome.jannovar.TranscriptSource;
 import org.monarchinitiative.exomiser.data.genome.model.BuildInfo;
 import org.slf4j.Logger;
@@ -50,7 +53,11 @@ public void run() {
         Arrays.stream(TranscriptSource.values()).forEach(transcriptSource -> {
             String outputName = String.format("%s_transcripts_%s.ser", buildInfo.getBuildString(), transcriptSource);
             logger.info("Building {}", outputName);
-            jannovarDataFactory.buildAndWrite(buildInfo.getAssembly(), transcriptSource, outPath.resolve(outputName));
+            JannovarData jannovarData = jannovarDataFactory.buildData(buildInfo.getAssembly(), transcriptSource);
+            JannovarDataProtoSerialiser.save(outPath.resolve(outputName), jannovarData);
+            // memory-mappable version for faster start-up - this is larger as it's not compressed
+            String snapshotName = String.format("%s_transcripts_%s.snapshot", buildInfo.getBuildString(), transcriptSource);
+            TranscriptSnapshot.save(outPath.resolve(snapshotName), jannovarData);
         });
     }
 }
@@ -22,6 +22,7 @@
 
 import org.h2.mvstore.MVMap;
 import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.core.genome.dao.BloomAlleleKeyFilter;
 import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
@@ -71,6 +72,8 @@ public void run() {
         MVMap<AlleleKey, AlleleProperties> alleleMVMap = MvStoreUtil.openAlleleMVMap(mvStore);
         logger.info("Written {} alleles to store", alleleMVMap.size());
 
+        writeAlleleKeyFilter(alleleMVMap);
+
         // super-important step for producing as small a store as possible, Could double (or more?) when this is in progress
         logger.info("Compacting store...");
         mvStore.compactMoveChunks();
@@ -78,4 +81,19 @@ public void run() {
         logger.info("Closing store");
         mvStore.close();
     }
+
+    /**
+     * Writes a membership filter of all the keys in the store so that lookups for alleles which are not present in the
+     * store can be skipped at runtime.
+     */
+    private void writeAlleleKeyFilter(MVMap<AlleleKey, AlleleProperties> alleleMVMap) {
+        Path filterPath = buildPath.resolve(buildInfo.getBuildString() + "_variants.bloom");
+        logger.info("Building allele filter for {} alleles...", alleleMVMap.sizeAsLong());
+        BloomAlleleKeyFilter alleleKeyFilter = BloomAlleleKeyFilter.create(alleleMVMap.sizeAsLong());
+        for (AlleleKey alleleKey : alleleMVMap.keySet()) {
+            alleleKeyFilter.put(alleleKey);
+        }
+        logger.info("Writing allele filter to {}", filterPath);
+        alleleKeyFilter.writeTo(filterPath);
+    }
 }
@@ -21,6 +21,7 @@
 package org.monarchinitiative.exomiser.autoconfigure;
 
 import org.monarchinitiative.exomiser.autoconfigure.genome.GenomeAnalysisServiceAutoConfiguration;
+import org.monarchinitiative.exomiser.autoconfigure.metrics.AnalysisMetricsAutoConfiguration;
 import org.monarchinitiative.exomiser.autoconfigure.phenotype.PrioritiserAutoConfiguration;
 import org.monarchinitiative.exomiser.core.Exomiser;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisFactory;
@@ -38,7 +39,8 @@
 @EnableConfigurationProperties({ExomiserProperties.class})
 @Import({
         PrioritiserAutoConfiguration.class,
-        GenomeAnalysisServiceAutoConfiguration.class
+        GenomeAnalysisServiceAutoConfiguration.class,
+        AnalysisMetricsAutoConfiguration.class
 })
 @ComponentScan(basePackageClasses = {Exomiser.class}, basePackages = {"org.monarchinitiative.exomiser.core.analysis"})
 public class ExomiserAutoConfiguration {
@@ -20,8 +20,11 @@
 
 package org.monarchinitiative.exomiser.autoconfigure;
 
+import org.monarchinitiative.exomiser.autoconfigure.genome.AnnotatedSampleStoreProperties;
 import org.monarchinitiative.exomiser.autoconfigure.genome.Hg19GenomeProperties;
 import org.monarchinitiative.exomiser.autoconfigure.genome.Hg38GenomeProperties;
+import org.monarchinitiative.exomiser.autoconfigure.genome.VariantCacheProperties;
+import org.monarchinitiative.exomiser.autoconfigure.genome.VcfReaderProperties;
 import org.monarchinitiative.exomiser.autoconfigure.phenotype.PhenotypeProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -48,6 +51,18 @@ public class ExomiserProperties {
     @NestedConfigurationProperty
     private Hg38GenomeProperties hg38 = new Hg38GenomeProperties();
 
+    //exomiser.variant-cache...
+    @NestedConfigurationProperty
+    private VariantCacheProperties variantCache = new VariantCacheProperties();
+
+    //exomiser.vcf-reader...
+    @NestedConfigurationProperty
+    private VcfReaderProperties vcfReader = new VcfReaderProperties();
+
+    //exomiser.annotated-sample-store...
+    @NestedConfigurationProperty
+    private AnnotatedSampleStoreProperties annotatedSampleStore = new AnnotatedSampleStoreProperties();
+
     public String getDataDirectory() {
         return dataDirectory;
     }
@@ -88,4 +103,28 @@ public void setHg38(Hg38GenomeProperties hg38) {
         this.hg38 = hg38;
     }
 
+    public VariantCacheProperties getVariantCache() {
+        return variantCache;
+    }
+
+    public void setVariantCache(VariantCacheProperties variantCache) {
+        this.variantCache = variantCache;
+    }
+
+    public VcfReaderProperties getVcfReader() {
+        return vcfReader;
+    }
+
+    public void setVcfReader(VcfReaderProperties vcfReader) {
+        this.vcfReader = vcfReader;
+    }
+
+    public AnnotatedSampleStoreProperties getAnnotatedSampleStore() {
+        return annotatedSampleStore;
+    }
+
+    public void setAnnotatedSampleStore(AnnotatedSampleStoreProperties annotatedSampleStore) {
+        this.annotatedSampleStore = annotatedSampleStore;
+    }
+
 }
@@ -21,6 +21,7 @@
 package org.monarchinitiative.exomiser.autoconfigure.genome;
 
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.LazyJannovarVariantAnnotator;
 import org.monarchinitiative.exomiser.core.genome.jannovar.TranscriptSource;
 
 import java.nio.file.Path;
@@ -34,6 +35,8 @@ public abstract class AbstractGenomeProperties implements GenomeProperties {
     private final GenomeAssembly assembly;
     private TranscriptSource transcriptSource = TranscriptSource.ENSEMBL;
     private String dataVersion = "";
+    // maximum number of contigs with decoded transcripts when using a transcript snapshot
+    private int transcriptCacheContigs = LazyJannovarVariantAnnotator.DEFAULT_MAX_CONTIGS;
 
     private Path dataDirectory;
 
@@ -89,6 +92,14 @@ public void setTranscriptSource(String name) {
         this.transcriptSource = TranscriptSource.parseValue(name);
     }
 
+    public int getTranscriptCacheContigs() {
+        return transcriptCacheContigs;
+    }
+
+    public void setTranscriptCacheContigs(int transcriptCacheContigs) {
+        this.transcriptCacheContigs = transcriptCacheContigs;
+    }
+
     public String getVariantWhiteListPath() {
         return variantWhiteListPath;
     }
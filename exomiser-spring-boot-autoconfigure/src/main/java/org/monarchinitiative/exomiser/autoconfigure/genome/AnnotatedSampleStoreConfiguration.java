@@ -0,0 +1,66 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import org.monarchinitiative.exomiser.core.analysis.AnnotatedSampleStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Provides the {@link AnnotatedSampleStore} used by the analysis runners, configured using the
+ * exomiser.annotated-sample-store properties, see {@link AnnotatedSampleStoreProperties}. The data version of the store
+ * is made from the data version and transcript source of each configured genome assembly, so that changing these will
+ * not re-use variants annotated with the previous data.
+ *
+ * @since 13.1.0
+ */
+@Configuration
+@EnableConfigurationProperties(AnnotatedSampleStoreProperties.class)
+public class AnnotatedSampleStoreConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnnotatedSampleStoreConfiguration.class);
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AnnotatedSampleStore annotatedSampleStore(AnnotatedSampleStoreProperties annotatedSampleStoreProperties, ObjectProvider<GenomeProperties> genomeProperties) {
+        String directory = annotatedSampleStoreProperties.getDirectory();
+        if (directory == null || directory.isBlank()) {
+            return AnnotatedSampleStore.disabled();
+        }
+        String dataVersion = genomeProperties.stream()
+                .sorted(Comparator.comparing(GenomeProperties::getAssembly))
+                .map(properties -> properties.getAssembly() + "_" + properties.getDataVersion() + "_" + properties.getTranscriptSource())
+                .collect(joining(","));
+        int maxEntries = annotatedSampleStoreProperties.getMaxEntries();
+        logger.info("Storing up to {} annotated samples in {} for data version {}", maxEntries, directory, dataVersion);
+        return AnnotatedSampleStore.of(Path.of(directory), dataVersion, maxEntries);
+    }
+}
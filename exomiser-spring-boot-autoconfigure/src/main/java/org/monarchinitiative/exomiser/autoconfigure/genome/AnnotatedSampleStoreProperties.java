@@ -0,0 +1,59 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import org.monarchinitiative.exomiser.core.analysis.AnnotatedSampleStore;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configures the store for the annotated and filtered variants of a sample, which allows re-analyses of the same VCF
+ * file and variant filters with different phenotypes or prioritisers to skip the variant annotation and filtering.
+ * This is disabled unless a directory is specified e.g.
+ * <pre>
+ * exomiser.annotated-sample-store.directory=/data/exomiser-annotated-samples
+ * exomiser.annotated-sample-store.max-entries=100
+ * </pre>
+ * The least recently used annotated samples are removed from the directory once it holds more than max-entries.
+ *
+ * @since 13.1.0
+ */
+@ConfigurationProperties("exomiser.annotated-sample-store")
+public class AnnotatedSampleStoreProperties {
+
+    private String directory = "";
+    private int maxEntries = AnnotatedSampleStore.DEFAULT_MAX_ENTRIES;
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.VariantAnnotator;
+import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
+import org.monarchinitiative.svart.Variant;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * {@link VariantAnnotator} which shares the annotations of an allele between all the samples analysed by the same
+ * application, e.g. a CLI batch. The annotations only depend on the allele and the transcript data, so the common
+ * variants seen in every sample of a cohort are only annotated by Jannovar once. The sample genotypes, frequency and
+ * pathogenicity data are added to these by the {@link org.monarchinitiative.exomiser.core.genome.VariantFactory} and
+ * {@link org.monarchinitiative.exomiser.core.genome.VariantDataService} for each sample as usual, the latter already
+ * being cached in the other {@link VariantCaches}.
+ * <p>
+ * Breakends are not cached as their annotations depend on the mate position, which isn't part of the
+ * {@link VariantCacheKey}. Variants on the negative strand or using another coordinate system share the annotations of
+ * the same allele on the positive strand, as the {@link VariantCacheKey} is normalised to this.
+ *
+ * @since 13.1.0
+ */
+class CachingVariantAnnotator implements VariantAnnotator {
+
+    private final VariantAnnotator variantAnnotator;
+    private final Cache<Object, Object> annotationCache;
+
+    CachingVariantAnnotator(VariantAnnotator variantAnnotator, Cache<Object, Object> annotationCache) {
+        this.variantAnnotator = variantAnnotator;
+        this.annotationCache = annotationCache;
+    }
+
+    @Override
+    public GenomeAssembly genomeAssembly() {
+        return variantAnnotator.genomeAssembly();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<VariantAnnotation> annotate(@Nullable Variant variant) {
+        if (variant == null || variant.isBreakend()) {
+            return variantAnnotator.annotate(variant);
+        }
+        // the VariantAnnotation and TranscriptAnnotation are immutable so are safe to share between samples
+        return (List<VariantAnnotation>) annotationCache.get(VariantCacheKey.of(variant), key -> List.copyOf(variantAnnotator.annotate(variant)));
+    }
+}
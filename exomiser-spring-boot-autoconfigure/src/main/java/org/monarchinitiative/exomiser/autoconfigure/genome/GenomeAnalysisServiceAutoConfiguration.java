@@ -39,7 +39,9 @@
 @Import({
         Hg19GenomeAnalysisServiceAutoConfiguration.class,
         Hg38GenomeAnalysisServiceAutoConfiguration.class,
-        VariantCacheConfiguration.class})
+        VariantCacheConfiguration.class,
+        VcfReaderConfiguration.class,
+        AnnotatedSampleStoreConfiguration.class})
 public class GenomeAnalysisServiceAutoConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(GenomeAnalysisServiceAutoConfiguration.class);
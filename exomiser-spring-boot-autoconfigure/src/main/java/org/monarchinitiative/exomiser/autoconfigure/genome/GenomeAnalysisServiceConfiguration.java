@@ -26,6 +26,7 @@
 import org.monarchinitiative.exomiser.core.genome.GenomeDataService;
 import org.monarchinitiative.exomiser.core.genome.VariantAnnotator;
 import org.monarchinitiative.exomiser.core.genome.VariantDataService;
+import org.monarchinitiative.exomiser.core.genome.dao.AlleleKeyFilter;
 import org.monarchinitiative.exomiser.core.genome.dao.AllelePropertiesDao;
 import org.monarchinitiative.exomiser.core.genome.dao.FrequencyDao;
 import org.monarchinitiative.exomiser.core.genome.dao.PathogenicityDao;
@@ -51,6 +52,8 @@ public interface GenomeAnalysisServiceConfiguration {
 
     VariantWhiteList variantWhiteList();
 
+    AlleleKeyFilter alleleKeyFilter();
+
     //The classes below require Spring to managed the caching
     GenomeAnalysisService genomeAnalysisService();
 
@@ -20,17 +20,18 @@
 
 package org.monarchinitiative.exomiser.autoconfigure.genome;
 
-import de.charite.compbio.jannovar.data.JannovarData;
 import org.h2.mvstore.MVStore;
 import org.monarchinitiative.exomiser.core.genome.*;
 import org.monarchinitiative.exomiser.core.genome.dao.AllelePropertiesDaoAdapter;
 import org.monarchinitiative.exomiser.core.genome.dao.RegulatoryFeatureDao;
 import org.monarchinitiative.exomiser.core.genome.dao.TadDao;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
 import org.monarchinitiative.exomiser.core.model.ChromosomalRegionIndex;
 import org.monarchinitiative.exomiser.core.model.RegulatoryFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.sql.DataSource;
 import java.nio.file.Path;
 
@@ -51,11 +52,32 @@ public abstract class GenomeAnalysisServiceConfigurer implements GenomeAnalysisS
 
     protected final DataSource genomeDataSource;
 
-    protected final JannovarData jannovarData;
     protected final MVStore mvStore;
 
+    @Nullable
+    protected final VariantCaches variantCaches;
+
     protected GenomeAnalysisServiceConfigurer(GenomeProperties genomeProperties, Path exomiserDataDirectory) {
+        this(genomeProperties, exomiserDataDirectory, null);
+    }
+
+    /**
+     * @param variantCaches {@link VariantCaches} providing the variant annotation cache. If null the variants will be
+     *                      annotated by Jannovar every time they are seen.
+     * @since 13.1.0
+     */
+    protected GenomeAnalysisServiceConfigurer(GenomeProperties genomeProperties, Path exomiserDataDirectory, @Nullable VariantCaches variantCaches) {
+        this(genomeProperties, exomiserDataDirectory, variantCaches, AnalysisMetrics.noOp());
+    }
+
+    /**
+     * @param analysisMetrics {@link AnalysisMetrics} to which the hit and miss counts of the allele key filter are
+     *                        reported.
+     * @since 13.1.0
+     */
+    protected GenomeAnalysisServiceConfigurer(GenomeProperties genomeProperties, Path exomiserDataDirectory, @Nullable VariantCaches variantCaches, AnalysisMetrics analysisMetrics) {
         this.genomeProperties = genomeProperties;
+        this.variantCaches = variantCaches;
         logger.debug("Loading data sources for {} {} {}", genomeProperties.getDataVersion(), genomeProperties.getAssembly(), genomeProperties
                 .getTranscriptSource());
         GenomeDataResolver genomeDataResolver = new GenomeDataResolver(genomeProperties, exomiserDataDirectory);
@@ -63,13 +85,21 @@ protected GenomeAnalysisServiceConfigurer(GenomeProperties genomeProperties, Pat
 
         this.genomeDataSource = genomeProperties.genomeDataSource();
 
-        this.jannovarData = genomeDataSourceLoader.getJannovarData();
         this.mvStore = genomeDataSourceLoader.getMvStore();
+        analysisMetrics.registerAlleleKeyFilter(genomeProperties.getAssembly().toString(), genomeDataSourceLoader.getAlleleKeyFilter());
     }
 
     protected VariantAnnotator buildVariantAnnotator() {
         ChromosomalRegionIndex<RegulatoryFeature> regulatoryRegionIndex = genomeDataService().getRegulatoryRegionIndex();
-        return new JannovarVariantAnnotator(genomeProperties.getAssembly(), jannovarData, regulatoryRegionIndex);
+        VariantAnnotator jannovarVariantAnnotator = genomeDataSourceLoader.getTranscriptSnapshot()
+                .<VariantAnnotator>map(transcriptSnapshot -> new LazyJannovarVariantAnnotator(genomeProperties.getAssembly(), transcriptSnapshot, regulatoryRegionIndex, genomeProperties.getTranscriptCacheContigs()))
+                .orElseGet(() -> new JannovarVariantAnnotator(genomeProperties.getAssembly(), genomeDataSourceLoader.getJannovarData(), regulatoryRegionIndex));
+        if (variantCaches == null) {
+            return jannovarVariantAnnotator;
+        }
+        return variantCaches.getAnnotationCache(genomeProperties.getAssembly())
+                .<VariantAnnotator>map(annotationCache -> new CachingVariantAnnotator(jannovarVariantAnnotator, annotationCache))
+                .orElse(jannovarVariantAnnotator);
     }
 
     //This method is calling the public interface of the concrete implementation so that the caching works on the DAOs
@@ -85,13 +115,16 @@ protected VariantDataService buildVariantDataService() {
                 .svFrequencyDao(svFrequencyDao())
                 .svPathogenicityDao(svPathogenicityDao())
                 .variantWhiteList(variantWhiteList())
+                .alleleKeyFilter(alleleKeyFilter())
                 .build();
     }
 
     protected GenomeDataService buildGenomeDataService() {
         RegulatoryFeatureDao regulatoryFeatureDao = new RegulatoryFeatureDao(genomeDataSource);
         TadDao tadDao = new TadDao(genomeDataSource);
-        GeneFactory geneFactory = new GeneFactory(jannovarData);
+        GeneFactory geneFactory = genomeDataSourceLoader.getTranscriptSnapshot()
+                .map(transcriptSnapshot -> new GeneFactory(transcriptSnapshot.getGeneIdentifiers()))
+                .orElseGet(() -> new GeneFactory(genomeDataSourceLoader.getJannovarData()));
         return new GenomeDataServiceImpl(geneFactory, regulatoryFeatureDao, tadDao);
     }
 
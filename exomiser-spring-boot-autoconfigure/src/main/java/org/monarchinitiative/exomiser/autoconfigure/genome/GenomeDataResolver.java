@@ -95,11 +95,24 @@ public Path getTranscriptFilePath() {
         return assemblyDataDirectory.resolve(transcriptFileNameValue);
     }
 
+    public Path getTranscriptSnapshotPath() {
+        TranscriptSource transcriptSource = genomeProperties.getTranscriptSource();
+        //e.g 2109_hg19_transcripts_ensembl.snapshot
+        String snapshotFileNameValue = String.format("%s_transcripts_%s.snapshot", versionAssemblyPrefix, transcriptSource
+                .toString());
+        return assemblyDataDirectory.resolve(snapshotFileNameValue);
+    }
+
     public Path getVariantsMvStorePath() {
         String mvStoreFileName = String.format("%s_variants.mv.db", versionAssemblyPrefix);
         return resolveAbsoluteResourcePath(mvStoreFileName);
     }
 
+    public Path getVariantsAlleleFilterPath() {
+        String filterFileName = String.format("%s_variants.bloom", versionAssemblyPrefix);
+        return resolveAbsoluteResourcePath(filterFileName);
+    }
+
     public Path getGenomeDbPath() {
         //omit the .h2.db extensions
         String dbFileName = String.format("%s_genome", versionAssemblyPrefix);
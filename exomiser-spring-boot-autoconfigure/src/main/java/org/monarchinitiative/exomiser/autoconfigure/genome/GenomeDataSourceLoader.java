@@ -24,11 +24,15 @@
 import org.h2.mvstore.MVStore;
 import org.monarchinitiative.exomiser.core.genome.dao.*;
 import org.monarchinitiative.exomiser.core.genome.jannovar.JannovarDataSourceLoader;
+import org.monarchinitiative.exomiser.core.genome.jannovar.TranscriptSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -43,8 +47,13 @@ public class GenomeDataSourceLoader {
     private final GenomeProperties genomeProperties;
     private final GenomeDataResolver genomeDataResolver;
 
-    private final JannovarData jannovarData;
+    // only one of these is present when loaded, the JannovarData is decoded from the snapshot when first requested
+    @Nullable
+    private final TranscriptSnapshot transcriptSnapshot;
+    @Nullable
+    private JannovarData jannovarData;
     private final MVStore mvStore;
+    private final AlleleKeyFilter alleleKeyFilter;
 
     private final VariantWhiteList variantWhiteList;
 
@@ -60,13 +69,15 @@ public GenomeDataSourceLoader(GenomeProperties genomeProperties, GenomeDataResol
         this.genomeProperties = genomeProperties;
         this.genomeDataResolver = genomeDataResolver;
 
-        this.jannovarData = loadJannovarData();
+        this.transcriptSnapshot = openTranscriptSnapshot();
+        this.jannovarData = transcriptSnapshot == null ? loadJannovarData() : null;
         // n.b. the JannovarData can be loaded asynchronously, but it takes about a second longer to do so. Meanwhile the rest
         // of the data requiring loading here takes about 1-2 secs, so there isn't really a lot to gain from all the concurrency
         // shenanigans, but I've left the code here as a reminder.
         // start this here as it'll take a while longer than all the others put together
 //        CompletableFuture<JannovarData> jannovarDataFuture = loadJannovarDataAsync();
         this.mvStore = loadMvStore();
+        this.alleleKeyFilter = loadAlleleKeyFilter();
         this.variantWhiteList = loadVariantWhiteList();
 
         this.localFrequencyTabixDataSource = getTabixDataSourceOrDefault("LOCAL", genomeProperties.getLocalFrequencyPath());
@@ -89,6 +100,17 @@ private CompletableFuture<JannovarData> loadJannovarDataAsync() {
         return jannovarDataFuture;
     }
 
+    @Nullable
+    private TranscriptSnapshot openTranscriptSnapshot() {
+        // prefer the memory-mapped snapshot if it has been provided as the transcripts are only decoded when required
+        Path transcriptSnapshotPath = genomeDataResolver.getTranscriptSnapshotPath();
+        if (Files.exists(transcriptSnapshotPath)) {
+            logger.debug("Opening transcript snapshot from {}", transcriptSnapshotPath);
+            return TranscriptSnapshot.open(transcriptSnapshotPath);
+        }
+        return null;
+    }
+
     private JannovarData loadJannovarData() {
         Path transcriptFilePath = genomeDataResolver.getTranscriptFilePath();
         logger.debug("Loading transcript data from {}", transcriptFilePath);
@@ -101,6 +123,16 @@ private MVStore loadMvStore() {
         return MvStoreDataSourceLoader.openMvStore(mvStoreAbsolutePath);
     }
 
+    private AlleleKeyFilter loadAlleleKeyFilter() {
+        Path alleleFilterPath = genomeDataResolver.getVariantsAlleleFilterPath();
+        if (Files.exists(alleleFilterPath)) {
+            logger.debug("Opening allele filter from {}", alleleFilterPath);
+            return BloomAlleleKeyFilter.load(alleleFilterPath);
+        }
+        logger.debug("No allele filter found at {} - all variants will be looked-up in the MVStore", alleleFilterPath);
+        return AlleleKeyFilter.acceptAll();
+    }
+
     private VariantWhiteList loadVariantWhiteList() {
         Path variantWhiteListPath = genomeDataResolver.resolvePathOrNullIfEmpty(genomeProperties.getVariantWhiteListPath());
         if (variantWhiteListPath != null) {
@@ -121,7 +153,23 @@ private TabixDataSource getTabixDataSourceOrDefault(String dataSourceName, Strin
         }
     }
 
-    public JannovarData getJannovarData() {
+    /**
+     * @return the {@link TranscriptSnapshot} if one was found in the data directory, otherwise empty in which case the
+     * transcripts have been loaded from the .ser file into the {@link #getJannovarData()}
+     * @since 13.1.0
+     */
+    public Optional<TranscriptSnapshot> getTranscriptSnapshot() {
+        return Optional.ofNullable(transcriptSnapshot);
+    }
+
+    /**
+     * @return the {@link JannovarData} containing all the transcripts. If these are provided by a
+     * {@link TranscriptSnapshot} then every transcript is decoded when this is first called.
+     */
+    public synchronized JannovarData getJannovarData() {
+        if (jannovarData == null) {
+            jannovarData = Objects.requireNonNull(transcriptSnapshot).toJannovarData();
+        }
         return jannovarData;
     }
 
@@ -129,6 +177,10 @@ public MVStore getMvStore() {
         return mvStore;
     }
 
+    public AlleleKeyFilter getAlleleKeyFilter() {
+        return alleleKeyFilter;
+    }
+
     public VariantWhiteList getVariantWhiteList() {
         return variantWhiteList;
     }
@@ -158,7 +210,8 @@ public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         GenomeDataSourceLoader that = (GenomeDataSourceLoader) o;
-        return Objects.equals(jannovarData, that.jannovarData) &&
+        // n.b. the jannovarData is not included as this can be lazily decoded from the transcriptSnapshot
+        return Objects.equals(transcriptSnapshot, that.transcriptSnapshot) &&
                 Objects.equals(mvStore, that.mvStore) &&
                 Objects.equals(localFrequencyTabixDataSource, that.localFrequencyTabixDataSource) &&
                 Objects.equals(caddSnvTabixDataSource, that.caddSnvTabixDataSource) &&
@@ -168,7 +221,8 @@ public boolean equals(Object o) {
 
     @Override
     public int hashCode() {
-        return Objects.hash(jannovarData, mvStore, localFrequencyTabixDataSource, caddSnvTabixDataSource, caddIndelTabixDataSource, remmTabixDataSource);
+        // n.b. the jannovarData is not included as this can be lazily decoded from the transcriptSnapshot
+        return Objects.hash(transcriptSnapshot, mvStore, localFrequencyTabixDataSource, caddSnvTabixDataSource, caddIndelTabixDataSource, remmTabixDataSource);
     }
 
 }
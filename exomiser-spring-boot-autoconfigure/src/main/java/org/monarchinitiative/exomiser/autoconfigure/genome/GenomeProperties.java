@@ -47,6 +47,10 @@ interface GenomeProperties {
 
     void setTranscriptSource(String name);
 
+    int getTranscriptCacheContigs();
+
+    void setTranscriptCacheContigs(int transcriptCacheContigs);
+
     Path getDataDirectory();
 
     void setDataDirectory(String dataDirectory);
@@ -28,11 +28,14 @@
 import org.monarchinitiative.exomiser.core.genome.VariantAnnotator;
 import org.monarchinitiative.exomiser.core.genome.VariantDataService;
 import org.monarchinitiative.exomiser.core.genome.dao.*;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.PropertySource;
 
 import javax.annotation.PreDestroy;
@@ -48,13 +51,17 @@
 @EnableConfigurationProperties(Hg19GenomeProperties.class)
 public class Hg19GenomeAnalysisServiceAutoConfiguration extends GenomeAnalysisServiceConfigurer {
 
-    public Hg19GenomeAnalysisServiceAutoConfiguration(Hg19GenomeProperties hg19GenomeProperties, Path exomiserDataDirectory) {
-        super(hg19GenomeProperties, exomiserDataDirectory);
+    public Hg19GenomeAnalysisServiceAutoConfiguration(Hg19GenomeProperties hg19GenomeProperties, Path exomiserDataDirectory, ObjectProvider<VariantCaches> variantCaches, ObjectProvider<AnalysisMetrics> analysisMetrics) {
+        super(hg19GenomeProperties, exomiserDataDirectory, variantCaches.getIfAvailable(), analysisMetrics.getIfAvailable(AnalysisMetrics::noOp));
     }
 
+    /**
+     * Lazily created, as when using a transcript snapshot this will decode all the transcripts.
+     */
+    @Lazy
     @Bean("hg19jannovarData")
     public JannovarData jannovarData() {
-        return jannovarData;
+        return genomeDataSourceLoader.getJannovarData();
     }
 
     @Bean("hg19mvStore")
@@ -95,6 +102,12 @@ public VariantWhiteList variantWhiteList() {
         return genomeDataSourceLoader.getVariantWhiteList();
     }
 
+    @Bean("hg19alleleKeyFilter")
+    @Override
+    public AlleleKeyFilter alleleKeyFilter() {
+        return genomeDataSourceLoader.getAlleleKeyFilter();
+    }
+
     //These require Spring to manage the caching and are called by buildVariantDataService
     @Bean("hg19genomeAnalysisService")
     @Override
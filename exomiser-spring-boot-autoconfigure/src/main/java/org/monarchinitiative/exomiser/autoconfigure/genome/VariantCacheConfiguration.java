@@ -20,16 +20,28 @@
 
 package org.monarchinitiative.exomiser.autoconfigure.genome;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheResolver;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
+ * Configures the bounded variant data caches used by the variant DAOs. These are sized using the
+ * exomiser.variant-cache properties, see {@link VariantCacheProperties}. If Micrometer is on the classpath the cache
+ * statistics are also published to the application {@link MeterRegistry}.
+ *
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(VariantCacheProperties.class)
 public class VariantCacheConfiguration {
 
     @Bean
@@ -37,4 +49,25 @@ public KeyGenerator variantKeyGenerator() {
         return new VariantKeyGenerator();
     }
 
+    @Bean
+    public VariantCaches variantCaches(VariantCacheProperties variantCacheProperties) {
+        return VariantCaches.of(variantCacheProperties);
+    }
+
+    @Bean
+    public CacheResolver variantCacheResolver(VariantCaches variantCaches) {
+        return new SimpleCacheResolver(variantCaches.getCacheManager());
+    }
+
+    @Configuration
+    @ConditionalOnClass({MeterRegistry.class, CaffeineCacheMetrics.class})
+    static class VariantCacheMetricsConfiguration {
+
+        @Bean
+        public MeterBinder variantCacheMetrics(VariantCaches variantCaches) {
+            return meterRegistry -> variantCaches.getNativeCaches()
+                    .forEach((cacheName, cache) -> CaffeineCacheMetrics.monitor(meterRegistry, cache, cacheName));
+        }
+    }
+
 }
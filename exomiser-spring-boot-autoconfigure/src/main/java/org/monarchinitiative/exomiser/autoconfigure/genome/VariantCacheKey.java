@@ -0,0 +1,123 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.Variant;
+
+/**
+ * Compact cache key for the variant data caches. The contig and start position are packed into a single long and the
+ * hash is computed once on creation so that probing a cache only requires one allocation and no re-hashing of the
+ * allele strings. The ref and alt are the strings of the {@link Variant} itself, rather than copies.
+ * <p>
+ * Variants are keyed on the positive strand using one-based, fully-closed coordinates, the same as an
+ * {@link AlleleKey}, so that the same allele has the same key whatever the strand and coordinate system of the
+ * {@link Variant}.
+ * <p>
+ * Symbolic variants also include the end position in the key, as structural variants of the same type starting at the
+ * same position can have very different frequency and pathogenicity data.
+ * <p>
+ * The caches are all assembly-specific, so the assembly is not included in the key.
+ *
+ * @since 13.1.0
+ */
+public final class VariantCacheKey {
+
+    private final long contigStart;
+    private final int end;
+    private final String ref;
+    private final String alt;
+    private final int hash;
+
+    private VariantCacheKey(int contigId, int start, int end, String ref, String alt) {
+        this.contigStart = ((long) contigId << 32) | (start & 0xFFFFFFFFL);
+        this.end = end;
+        this.ref = ref;
+        this.alt = alt;
+        this.hash = computeHash(contigStart, end, ref, alt);
+    }
+
+    private static int computeHash(long contigStart, int end, String ref, String alt) {
+        int result = Long.hashCode(contigStart);
+        result = 31 * result + end;
+        result = 31 * result + ref.hashCode();
+        result = 31 * result + alt.hashCode();
+        return result;
+    }
+
+    public static VariantCacheKey of(Variant variant) {
+        // n.b. the variant is only converted when not already on the positive strand, as this creates a new instance
+        Variant positiveStrand = variant.strand() == Strand.POSITIVE ? variant : variant.withStrand(Strand.POSITIVE);
+        int start = positiveStrand.startWithCoordinateSystem(CoordinateSystem.FULLY_CLOSED);
+        int end = positiveStrand.isSymbolic() ? positiveStrand.endWithCoordinateSystem(CoordinateSystem.FULLY_CLOSED) : 0;
+        return new VariantCacheKey(positiveStrand.contigId(), start, end, positiveStrand.ref(), positiveStrand.alt());
+    }
+
+    public static VariantCacheKey of(AlleleKey alleleKey) {
+        return new VariantCacheKey(alleleKey.getChr(), alleleKey.getPosition(), 0, alleleKey.getRef(), alleleKey.getAlt());
+    }
+
+    public int contigId() {
+        return (int) (contigStart >>> 32);
+    }
+
+    public int start() {
+        return (int) contigStart;
+    }
+
+    public String ref() {
+        return ref;
+    }
+
+    public String alt() {
+        return alt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VariantCacheKey that = (VariantCacheKey) o;
+        return hash == that.hash &&
+                contigStart == that.contigStart &&
+                end == that.end &&
+                ref.equals(that.ref) &&
+                alt.equals(that.alt);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "VariantCacheKey{" +
+                "contigId=" + contigId() +
+                ", start=" + start() +
+                (end == 0 ? "" : ", end=" + end) +
+                ", ref='" + ref + '\'' +
+                ", alt='" + alt + '\'' +
+                '}';
+    }
+}
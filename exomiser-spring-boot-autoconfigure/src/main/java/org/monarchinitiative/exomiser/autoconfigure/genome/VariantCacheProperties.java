@@ -0,0 +1,133 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configures the bounded caches used for the variant frequency and pathogenicity data. Each data source for each
+ * assembly, e.g. hg19.allele or hg38.cadd, has its own cache bounded either by the number of entries or, if a
+ * maximum-weight is given, by the estimated memory used by the entries. The default bounds can be overridden for a
+ * source using its name without the assembly prefix e.g.
+ * <pre>
+ * exomiser.variant-cache.maximum-size=100000
+ * exomiser.variant-cache.sources.allele.maximum-size=500000
+ * exomiser.variant-cache.sources.cadd.maximum-weight=64MB
+ * exomiser.variant-cache.sources.[sv.freq].maximum-size=1000
+ * </pre>
+ *
+ * @since 13.1.0
+ */
+@ConfigurationProperties("exomiser.variant-cache")
+public class VariantCacheProperties {
+
+    private boolean enabled = true;
+
+    private boolean recordStats = true;
+
+    private long maximumSize = 100_000;
+
+    private DataSize maximumWeight;
+
+    private Map<String, SourceCacheProperties> sources = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isRecordStats() {
+        return recordStats;
+    }
+
+    public void setRecordStats(boolean recordStats) {
+        this.recordStats = recordStats;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public DataSize getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public void setMaximumWeight(DataSize maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+    public Map<String, SourceCacheProperties> getSources() {
+        return sources;
+    }
+
+    public void setSources(Map<String, SourceCacheProperties> sources) {
+        this.sources = sources;
+    }
+
+    /**
+     * @param cacheName the full cache name, e.g. hg19.allele
+     * @return the bounds for the named cache, using the defaults where these have not been specified for the source
+     */
+    SourceCacheProperties resolve(String cacheName) {
+        // strip the assembly prefix e.g. hg19.sv.freq -> sv.freq
+        int dotIndex = cacheName.indexOf('.');
+        String source = dotIndex == -1 ? cacheName : cacheName.substring(dotIndex + 1);
+        SourceCacheProperties sourceProperties = sources.getOrDefault(source, new SourceCacheProperties());
+        SourceCacheProperties resolved = new SourceCacheProperties();
+        resolved.setMaximumSize(sourceProperties.getMaximumSize() == null ? maximumSize : sourceProperties.getMaximumSize());
+        resolved.setMaximumWeight(sourceProperties.getMaximumWeight() == null ? maximumWeight : sourceProperties.getMaximumWeight());
+        return resolved;
+    }
+
+    public static class SourceCacheProperties {
+
+        private Long maximumSize;
+
+        private DataSize maximumWeight;
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public DataSize getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        public void setMaximumWeight(DataSize maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.google.protobuf.MessageLite;
+import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+
+import java.util.List;
+
+/**
+ * Rough estimate of the heap used by a cached variant data entry, in bytes. This doesn't need to be exact, only
+ * proportional to the real size so that a maximum-weight bound behaves sensibly across the different data sources.
+ *
+ * @since 13.1.0
+ */
+class VariantCacheWeigher implements Weigher<Object, Object> {
+
+    // cache node and VariantCacheKey
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final int OBJECT_OVERHEAD = 32;
+    private static final int PER_VALUE = 40;
+    // gene symbol and id, transcript accession and HGVS strings
+    private static final int PER_TRANSCRIPT_ANNOTATION = 256;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        return ENTRY_OVERHEAD + weighValue(value);
+    }
+
+    private static int weighValue(Object value) {
+        if (value instanceof FrequencyData) {
+            FrequencyData frequencyData = (FrequencyData) value;
+            String rsId = frequencyData.getRsId();
+            int rsIdWeight = rsId == null ? 0 : rsId.length() * 2;
+            return OBJECT_OVERHEAD + rsIdWeight + frequencyData.getKnownFrequencies().size() * PER_VALUE;
+        }
+        if (value instanceof PathogenicityData) {
+            PathogenicityData pathogenicityData = (PathogenicityData) value;
+            int clinVarWeight = pathogenicityData.hasClinVarData() ? 256 : 0;
+            return OBJECT_OVERHEAD + clinVarWeight + pathogenicityData.getPredictedPathogenicityScores().size() * PER_VALUE;
+        }
+        if (value instanceof List) {
+            // variant annotations from the CachingVariantAnnotator
+            int weight = OBJECT_OVERHEAD;
+            for (Object element : (List<?>) value) {
+                weight += OBJECT_OVERHEAD;
+                if (element instanceof VariantAnnotation) {
+                    weight += ((VariantAnnotation) element).getTranscriptAnnotations().size() * PER_TRANSCRIPT_ANNOTATION;
+                }
+            }
+            return weight;
+        }
+        if (value instanceof MessageLite) {
+            // protobuf messages, e.g. AlleleProperties, are several times larger on the heap than serialised
+            return OBJECT_OVERHEAD + ((MessageLite) value).getSerializedSize() * 4;
+        }
+        return OBJECT_OVERHEAD;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Holds the bounded Caffeine caches for the variant data sources. Caffeine uses a Window TinyLFU eviction policy which
+ * keeps a high hit rate for the skewed access pattern of a batch of samples, where common variants are seen in every
+ * sample and most others only once, whilst never growing beyond the configured bounds.
+ * <p>
+ * Note that the {@link CacheManager} is deliberately not exposed as a bean so that it doesn't clash with any cache
+ * manager configured by the application using the spring.cache properties. The caches are used via the
+ * variantCacheResolver named in the @Cacheable annotations of the variant DAOs.
+ *
+ * @since 13.1.0
+ */
+public class VariantCaches {
+
+    private static final Logger logger = LoggerFactory.getLogger(VariantCaches.class);
+
+    /**
+     * The names of the caches used in the @Cacheable annotations of the variant data DAOs and by the
+     * {@link CachingVariantAnnotator} for each assembly.
+     */
+    public static final List<String> CACHE_NAMES = List.of(
+            "hg19.allele", "hg19.cadd", "hg19.remm", "hg19.local", "hg19.sv.freq", "hg19.sv.path", "hg19.test_path",
+            "hg38.allele", "hg38.cadd", "hg38.remm", "hg38.local", "hg38.sv.freq", "hg38.sv.path", "hg38.test_path",
+            "hg19.annotation", "hg38.annotation"
+    );
+
+    private final CacheManager cacheManager;
+    private final Map<String, Cache<Object, Object>> nativeCaches;
+
+    private VariantCaches(CacheManager cacheManager, Map<String, Cache<Object, Object>> nativeCaches) {
+        this.cacheManager = cacheManager;
+        this.nativeCaches = Collections.unmodifiableMap(nativeCaches);
+    }
+
+    public static VariantCaches of(VariantCacheProperties properties) {
+        if (!properties.isEnabled()) {
+            logger.info("Variant data caching disabled");
+            return new VariantCaches(new NoOpCacheManager(), Map.of());
+        }
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // any other cache names will be created on demand using the default bounds
+        cacheManager.setCaffeine(caffeine(properties, properties.resolve("")));
+        Map<String, Cache<Object, Object>> nativeCaches = new LinkedHashMap<>();
+        for (String cacheName : CACHE_NAMES) {
+            VariantCacheProperties.SourceCacheProperties bounds = properties.resolve(cacheName);
+            Cache<Object, Object> cache = caffeine(properties, bounds).build();
+            cacheManager.registerCustomCache(cacheName, cache);
+            nativeCaches.put(cacheName, cache);
+            logger.debug("Created {} cache bounded to {}", cacheName, describe(bounds));
+        }
+        logger.info("Variant data caching enabled with caches bounded to {}", describe(properties.resolve("")));
+        return new VariantCaches(cacheManager, nativeCaches);
+    }
+
+    private static Caffeine<Object, Object> caffeine(VariantCacheProperties properties, VariantCacheProperties.SourceCacheProperties bounds) {
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder();
+        DataSize maximumWeight = bounds.getMaximumWeight();
+        if (maximumWeight != null) {
+            caffeine.maximumWeight(maximumWeight.toBytes()).weigher(new VariantCacheWeigher());
+        } else {
+            caffeine.maximumSize(bounds.getMaximumSize());
+        }
+        if (properties.isRecordStats()) {
+            caffeine.recordStats();
+        }
+        return caffeine;
+    }
+
+    private static String describe(VariantCacheProperties.SourceCacheProperties bounds) {
+        return bounds.getMaximumWeight() == null ? bounds.getMaximumSize() + " entries" : bounds.getMaximumWeight().toString();
+    }
+
+    public CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    /**
+     * @return the underlying Caffeine caches, keyed by cache name. This will be empty if caching is disabled.
+     */
+    public Map<String, Cache<Object, Object>> getNativeCaches() {
+        return nativeCaches;
+    }
+
+    /**
+     * @return the cache of variant annotations for the given assembly, used by the {@link CachingVariantAnnotator}, or
+     * empty if caching is disabled.
+     * @since 13.1.0
+     */
+    public Optional<Cache<Object, Object>> getAnnotationCache(GenomeAssembly genomeAssembly) {
+        return Optional.ofNullable(nativeCaches.get(genomeAssembly + ".annotation"));
+    }
+
+    /**
+     * @return a map of the size and, if recorded, the hit and eviction statistics for each cache which has been used.
+     */
+    public Map<String, Object> getReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        nativeCaches.forEach((name, cache) -> {
+            CacheStats stats = cache.stats();
+            if (stats.requestCount() > 0) {
+                Map<String, Object> cacheReport = new LinkedHashMap<>();
+                cacheReport.put("size", cache.estimatedSize());
+                cacheReport.put("requests", stats.requestCount());
+                cacheReport.put("hits", stats.hitCount());
+                cacheReport.put("misses", stats.missCount());
+                cacheReport.put("hitRate", stats.hitRate());
+                cacheReport.put("evictions", stats.evictionCount());
+                report.put(name, cacheReport);
+            }
+        });
+        return report;
+    }
+}
@@ -20,14 +20,19 @@
 
 package org.monarchinitiative.exomiser.autoconfigure.genome;
 
-import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
 import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.cache.interceptor.SimpleKey;
 
 import java.lang.reflect.Method;
 
 /**
+ * {@link KeyGenerator} for the variant data caches. Lookups of a single {@link Variant}, or an {@link AlleleKey} for a
+ * {@link GenomeAssembly}, are keyed using a {@link VariantCacheKey} directly rather than being wrapped in a
+ * {@link SimpleKey}.
+ *
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
 public class VariantKeyGenerator implements KeyGenerator {
@@ -41,14 +46,19 @@ public Object generate(Object o, Method method, Object... params) {
      * Generate a key based on the specified parameters.
      */
     public static Object generateKey(Object... params) {
-        if (params.length == 0) {
-            return SimpleKey.EMPTY;
-        }
         if (params.length == 1) {
             Object param = params[0];
             if (param instanceof Variant) {
-                return AlleleProtoAdaptor.toAlleleKey((Variant) param);
+                return VariantCacheKey.of((Variant) param);
             }
+            return param == null ? SimpleKey.EMPTY : param;
+        }
+        // the caches are assembly-specific so the assembly is redundant
+        if (params.length == 2 && params[0] instanceof AlleleKey && params[1] instanceof GenomeAssembly) {
+            return VariantCacheKey.of((AlleleKey) params[0]);
+        }
+        if (params.length == 0) {
+            return SimpleKey.EMPTY;
         }
         return new SimpleKey(params);
     }
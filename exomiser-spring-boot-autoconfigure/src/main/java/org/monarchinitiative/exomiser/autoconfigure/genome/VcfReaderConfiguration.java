@@ -0,0 +1,57 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import org.monarchinitiative.exomiser.core.genome.VcfReaderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the {@link VcfReaderFactory} used by the analysis runners to read the sample VCF, configured using the
+ * exomiser.vcf-reader properties, see {@link VcfReaderProperties}.
+ *
+ * @since 13.1.0
+ */
+@Configuration
+@EnableConfigurationProperties(VcfReaderProperties.class)
+public class VcfReaderConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(VcfReaderConfiguration.class);
+
+    @Bean
+    @ConditionalOnMissingBean
+    public VcfReaderFactory vcfReaderFactory(VcfReaderProperties vcfReaderProperties) {
+        if (vcfReaderProperties.isSharded()) {
+            logger.info("Reading indexed VCF files in parallel shards of {} bases", vcfReaderProperties.getShardLength());
+            return VcfReaderFactory.sharded(vcfReaderProperties.getShardLength());
+        }
+        int parserThreads = vcfReaderProperties.getParserThreads();
+        if (parserThreads > 0) {
+            logger.info("Reading VCF files using {} parser threads", parserThreads);
+            return VcfReaderFactory.parallel(parserThreads, vcfReaderProperties.getBatchSize());
+        }
+        return VcfReaderFactory.sequential();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configures how the sample VCF file is read. By default the records are decompressed and parsed on the analysis
+ * thread. For large, multi-sample VCF files setting a number of parser threads moves this work onto separate threads,
+ * with the BGZF blocks being inflated ahead of the reader e.g.
+ * <pre>
+ * exomiser.vcf-reader.parser-threads=4
+ * exomiser.vcf-reader.batch-size=1000
+ * </pre>
+ * Alternatively, BGZF compressed VCF files with a tabix index can be split into regions of the genome which are read
+ * and analysed in parallel. VCF files without an index are read on the analysis thread e.g.
+ * <pre>
+ * exomiser.vcf-reader.sharded=true
+ * exomiser.vcf-reader.shard-length=10000000
+ * </pre>
+ *
+ * @since 13.1.0
+ */
+@ConfigurationProperties("exomiser.vcf-reader")
+public class VcfReaderProperties {
+
+    private int parserThreads = 0;
+
+    private int batchSize = 1000;
+
+    private boolean sharded = false;
+
+    private int shardLength = 10_000_000;
+
+    public int getParserThreads() {
+        return parserThreads;
+    }
+
+    public void setParserThreads(int parserThreads) {
+        this.parserThreads = parserThreads;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    public void setSharded(boolean sharded) {
+        this.sharded = sharded;
+    }
+
+    public int getShardLength() {
+        return shardLength;
+    }
+
+    public void setShardLength(int shardLength) {
+        this.shardLength = shardLength;
+    }
+}
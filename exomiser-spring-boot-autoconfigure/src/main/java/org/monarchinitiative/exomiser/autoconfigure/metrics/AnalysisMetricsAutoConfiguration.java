@@ -0,0 +1,74 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the {@link AnalysisMetrics} used by the analysis runners. When {@code exomiser.metrics.enabled=true}, Micrometer
+ * is on the classpath and the application has a {@link MeterRegistry}, for example by including the
+ * spring-boot-starter-actuator, the analysis stage timings are published to that registry and can be viewed using the
+ * actuator metrics endpoint. Otherwise a no-op instance is used, as timing every variant is not free. Applications can
+ * supply their own {@link AnalysisMetrics} bean to override these.
+ *
+ * @since 13.1.0
+ */
+@Configuration
+@ConditionalOnClass(AnalysisMetrics.class)
+public class AnalysisMetricsAutoConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisMetricsAutoConfiguration.class);
+
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnProperty(name = "exomiser.metrics.enabled", havingValue = "true")
+    static class MicrometerAnalysisMetricsConfiguration {
+
+        // The MeterRegistry is looked up lazily rather than using @ConditionalOnBean, as the actuator metrics
+        // auto-configuration is not guaranteed to have been processed before this one.
+        @Bean
+        @ConditionalOnMissingBean
+        public AnalysisMetrics analysisMetrics(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            MeterRegistry meterRegistry = meterRegistryProvider.getIfUnique();
+            if (meterRegistry == null) {
+                logger.debug("No MeterRegistry found - analysis metrics will not be recorded");
+                return AnalysisMetrics.noOp();
+            }
+            logger.info("Recording analysis metrics to {}", meterRegistry.getClass().getSimpleName());
+            return new MicrometerAnalysisMetrics(meterRegistry);
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AnalysisMetrics analysisMetrics() {
+        return AnalysisMetrics.noOp();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.monarchinitiative.exomiser.core.genome.dao.AlleleKeyFilter;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisStage;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AnalysisMetrics} implementation publishing to a Micrometer {@link MeterRegistry}. The following meters are
+ * registered:
+ * <ul>
+ *     <li>{@code exomiser.analysis.stage} - a timer tagged with the {@code stage} and {@code step} of the analysis</li>
+ *     <li>{@code exomiser.datasource.latency} - a timer, with percentile histogram, tagged with the {@code source}</li>
+ *     <li>{@code exomiser.analysis.variants} - a counter tagged with the variant {@code state}, either loaded or passed</li>
+ *     <li>{@code exomiser.allele.key.filter} - a counter read from each registered filter, tagged with the {@code filter}
+ *     name and the {@code result}, either hit or miss</li>
+ * </ul>
+ * The meters are cached so that the registry is not consulted on every variant.
+ *
+ * @since 13.1.0
+ */
+public class MicrometerAnalysisMetrics implements AnalysisMetrics {
+
+    static final String STAGE_TIMER = "exomiser.analysis.stage";
+    static final String DATA_SOURCE_TIMER = "exomiser.datasource.latency";
+    static final String VARIANTS_COUNTER = "exomiser.analysis.variants";
+    static final String ALLELE_KEY_FILTER_COUNTER = "exomiser.allele.key.filter";
+
+    private static final String ALL_STEPS = "all";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<AnalysisStage, ConcurrentMap<String, Timer>> stageTimers = new EnumMap<>(AnalysisStage.class);
+    private final ConcurrentMap<String, Timer> dataSourceTimers = new ConcurrentHashMap<>();
+    private final Counter variantsLoaded;
+    private final Counter variantsPassed;
+
+    public MicrometerAnalysisMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = Objects.requireNonNull(meterRegistry);
+        for (AnalysisStage stage : AnalysisStage.values()) {
+            stageTimers.put(stage, new ConcurrentHashMap<>());
+        }
+        this.variantsLoaded = Counter.builder(VARIANTS_COUNTER)
+                .description("Number of variants read from the sample VCF")
+                .tag("state", "loaded")
+                .register(meterRegistry);
+        this.variantsPassed = Counter.builder(VARIANTS_COUNTER)
+                .description("Number of variants read from the sample VCF")
+                .tag("state", "passed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordStage(AnalysisStage stage, String step, long durationNanos) {
+        stageTimers.get(stage)
+                .computeIfAbsent(step == null ? ALL_STEPS : step, key -> registerStageTimer(stage, key))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer registerStageTimer(AnalysisStage stage, String step) {
+        return Timer.builder(STAGE_TIMER)
+                .description("Time spent in each stage of an analysis")
+                .tag("stage", stage.getMetricName())
+                .tag("step", step)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordDataSourceLatency(String dataSource, long durationNanos) {
+        dataSourceTimers.computeIfAbsent(dataSource, this::registerDataSourceTimer)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer registerDataSourceTimer(String dataSource) {
+        return Timer.builder(DATA_SOURCE_TIMER)
+                .description("Latency of variant data source lookups")
+                .tag("source", dataSource)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordVariantCounts(long loaded, long passed) {
+        variantsLoaded.increment(loaded);
+        variantsPassed.increment(passed);
+    }
+
+    @Override
+    public void registerAlleleKeyFilter(String name, AlleleKeyFilter alleleKeyFilter) {
+        FunctionCounter.builder(ALLELE_KEY_FILTER_COUNTER, alleleKeyFilter, AlleleKeyFilter::getHitCount)
+                .description("Number of allele store lookups checked against the allele key filter")
+                .tag("filter", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder(ALLELE_KEY_FILTER_COUNTER, alleleKeyFilter, AlleleKeyFilter::getMissCount)
+                .description("Number of allele store lookups checked against the allele key filter")
+                .tag("filter", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String toString() {
+        return "MicrometerAnalysisMetrics{" +
+                "meterRegistry=" + meterRegistry.getClass().getSimpleName() +
+                '}';
+    }
+}
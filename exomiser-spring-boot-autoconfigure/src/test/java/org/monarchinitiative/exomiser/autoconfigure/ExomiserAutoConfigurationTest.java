@@ -20,10 +20,14 @@
 
 package org.monarchinitiative.exomiser.autoconfigure;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.autoconfigure.metrics.MicrometerAnalysisMetrics;
 import org.monarchinitiative.exomiser.core.Exomiser;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisServiceProvider;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisMetrics;
 import org.monarchinitiative.exomiser.core.phenotype.PhenotypeMatchService;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.cache.CacheManager;
@@ -32,6 +36,7 @@
 import org.springframework.context.annotation.Configuration;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 
@@ -55,6 +60,27 @@ public void testAutoConfiguration() {
 
         PhenotypeMatchService phenotypeMatchService = (PhenotypeMatchService) context.getBean("phenotypeMatchService");
         assertThat(phenotypeMatchService, instanceOf(PhenotypeMatchService.class));
+
+        AnalysisMetrics analysisMetrics = context.getBean(AnalysisMetrics.class);
+        assertThat(analysisMetrics, equalTo(AnalysisMetrics.noOp()));
+    }
+
+    @Test
+    public void testAutoConfigurationWithMeterRegistry() {
+        load(MeterRegistryConfiguration.class, TEST_DATA_ENV, "exomiser.hg19.data-version=1710", "exomiser.phenotype.data-version=1710", "exomiser.metrics.enabled=true");
+        Exomiser exomiser = (Exomiser) context.getBean("exomiser");
+        assertThat(exomiser, instanceOf(Exomiser.class));
+
+        AnalysisMetrics analysisMetrics = context.getBean(AnalysisMetrics.class);
+        assertThat(analysisMetrics, instanceOf(MicrometerAnalysisMetrics.class));
+    }
+
+    @Test
+    public void testAutoConfigurationWithMeterRegistryMetricsNotEnabled() {
+        load(MeterRegistryConfiguration.class, TEST_DATA_ENV, "exomiser.hg19.data-version=1710", "exomiser.phenotype.data-version=1710");
+
+        AnalysisMetrics analysisMetrics = context.getBean(AnalysisMetrics.class);
+        assertThat(analysisMetrics, equalTo(AnalysisMetrics.noOp()));
     }
 
     @Test
@@ -97,4 +123,19 @@ public CacheManager noOpCacheManager() {
         }
     }
 
+    @Configuration
+    @ImportAutoConfiguration(value = ExomiserAutoConfiguration.class)
+    protected static class MeterRegistryConfiguration {
+
+        @Bean
+        public CacheManager noOpCacheManager() {
+            return new NoOpCacheManager();
+        }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
 }
\ No newline at end of file
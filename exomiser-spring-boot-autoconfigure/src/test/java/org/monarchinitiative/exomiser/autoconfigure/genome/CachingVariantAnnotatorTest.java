@@ -0,0 +1,125 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.charite.compbio.jannovar.annotation.VariantEffect;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.genome.VariantAnnotator;
+import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.Position;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.Variant;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+class CachingVariantAnnotatorTest {
+
+    /**
+     * Annotates every variant to the same gene, counting the number of times it is called.
+     */
+    private static class CountingVariantAnnotator implements VariantAnnotator {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public GenomeAssembly genomeAssembly() {
+            return GenomeAssembly.HG19;
+        }
+
+        @Override
+        public List<VariantAnnotation> annotate(Variant variant) {
+            count.incrementAndGet();
+            return variant == null ? List.of() : List.of(VariantAnnotation.of("FGFR2", "2263", VariantEffect.MISSENSE_VARIANT, List.of()));
+        }
+    }
+
+    private final CountingVariantAnnotator countingVariantAnnotator = new CountingVariantAnnotator();
+    private final Cache<Object, Object> annotationCache = Caffeine.newBuilder().maximumSize(100).build();
+    private final CachingVariantAnnotator instance = new CachingVariantAnnotator(countingVariantAnnotator, annotationCache);
+
+    private static Variant variant(int position, String ref, String alt) {
+        return Variant.of(GenomeAssembly.HG19.getContigById(10), "", Strand.POSITIVE, CoordinateSystem.oneBased(), Position.of(position), ref, alt);
+    }
+
+    @Test
+    void genomeAssembly() {
+        assertThat(instance.genomeAssembly(), equalTo(GenomeAssembly.HG19));
+    }
+
+    @Test
+    void nullVariantIsNotCached() {
+        assertThat(instance.annotate(null), equalTo(List.of()));
+        assertThat(annotationCache.estimatedSize(), equalTo(0L));
+    }
+
+    @Test
+    void sameAlleleFromDifferentSamplesIsOnlyAnnotatedOnce() {
+        List<VariantAnnotation> first = instance.annotate(variant(123256215, "T", "G"));
+        // a new Variant instance, as would be created from the VCF of another sample
+        List<VariantAnnotation> second = instance.annotate(variant(123256215, "T", "G"));
+
+        assertThat(second, sameInstance(first));
+        assertThat(countingVariantAnnotator.count.get(), equalTo(1));
+    }
+
+    @Test
+    void sameAlleleInDifferentCoordinateSystemIsOnlyAnnotatedOnce() {
+        List<VariantAnnotation> oneBased = instance.annotate(variant(123256215, "T", "G"));
+        Variant zeroBased = Variant.of(GenomeAssembly.HG19.getContigById(10), "", Strand.POSITIVE, CoordinateSystem.LEFT_OPEN, Position.of(123256214), "T", "G");
+
+        assertThat(instance.annotate(zeroBased), sameInstance(oneBased));
+        assertThat(countingVariantAnnotator.count.get(), equalTo(1));
+    }
+
+    @Test
+    void sameAlleleOnNegativeStrandIsOnlyAnnotatedOnce() {
+        Variant positive = variant(123256215, "T", "G");
+        List<VariantAnnotation> positiveAnnotations = instance.annotate(positive);
+
+        assertThat(instance.annotate(positive.withStrand(Strand.NEGATIVE)), sameInstance(positiveAnnotations));
+        assertThat(countingVariantAnnotator.count.get(), equalTo(1));
+    }
+
+    @Test
+    void differentAllelesAreAnnotatedSeparately() {
+        instance.annotate(variant(123256215, "T", "G"));
+        instance.annotate(variant(123256215, "T", "A"));
+        instance.annotate(variant(123256216, "T", "G"));
+
+        assertThat(countingVariantAnnotator.count.get(), equalTo(3));
+        assertThat(annotationCache.estimatedSize(), equalTo(3L));
+    }
+
+    @Test
+    void annotationsAreTheSameAsTheUnderlyingAnnotator() {
+        Variant variant = variant(123256215, "T", "G");
+        assertThat(instance.annotate(variant), equalTo(countingVariantAnnotator.annotate(variant)));
+    }
+}
@@ -136,6 +136,17 @@ void testGetTranscriptPathRefseq() {
                 .toAbsolutePath()));
     }
 
+    @Test
+    void testGetTranscriptSnapshotPath() {
+        GenomeProperties genomeProperties = new Hg19GenomeProperties();
+        genomeProperties.setDataVersion("1710");
+        genomeProperties.setTranscriptSource("ensembl");
+
+        GenomeDataResolver instance = new GenomeDataResolver(genomeProperties, exomiserDataDirectory);
+        assertThat(instance.getTranscriptSnapshotPath(), equalTo(exomiserDataDirectory.resolve("1710_hg19/1710_hg19_transcripts_ensembl.snapshot")
+                .toAbsolutePath()));
+    }
+
     @Test
     void testGetVariantsMvStorePath() {
         GenomeProperties genomeProperties = new Hg19GenomeProperties();
@@ -146,6 +157,16 @@ void testGetVariantsMvStorePath() {
                 .toAbsolutePath()));
     }
 
+    @Test
+    void testGetVariantsAlleleFilterPath() {
+        GenomeProperties genomeProperties = new Hg19GenomeProperties();
+        genomeProperties.setDataVersion("1710");
+
+        GenomeDataResolver instance = new GenomeDataResolver(genomeProperties, exomiserDataDirectory);
+        assertThat(instance.getVariantsAlleleFilterPath(), equalTo(exomiserDataDirectory.resolve("1710_hg19/1710_hg19_variants.bloom")
+                .toAbsolutePath()));
+    }
+
     @Test
     void testGetGenomeDbPath() {
         GenomeProperties genomeProperties = new Hg19GenomeProperties();
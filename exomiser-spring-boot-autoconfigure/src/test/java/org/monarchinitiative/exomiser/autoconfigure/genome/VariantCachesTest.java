@@ -0,0 +1,152 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class VariantCachesTest {
+
+    @Test
+    void createsCacheForEachVariantDataSource() {
+        VariantCaches instance = VariantCaches.of(new VariantCacheProperties());
+        assertThat(instance.getNativeCaches().keySet(), equalTo(Set.copyOf(VariantCaches.CACHE_NAMES)));
+        for (String cacheName : VariantCaches.CACHE_NAMES) {
+            assertThat(instance.getCacheManager().getCache(cacheName), notNullValue());
+        }
+    }
+
+    @Test
+    void disabledCachesAreNoOp() {
+        VariantCacheProperties properties = new VariantCacheProperties();
+        properties.setEnabled(false);
+        VariantCaches instance = VariantCaches.of(properties);
+        assertThat(instance.getCacheManager(), instanceOf(NoOpCacheManager.class));
+        assertThat(instance.getNativeCaches().isEmpty(), is(true));
+        assertThat(instance.getReport().isEmpty(), is(true));
+    }
+
+    @Test
+    void providesAnnotationCacheForEachAssembly() {
+        VariantCaches instance = VariantCaches.of(new VariantCacheProperties());
+        assertThat(instance.getAnnotationCache(GenomeAssembly.HG19).orElseThrow(), sameInstance(instance.getNativeCaches().get("hg19.annotation")));
+        assertThat(instance.getAnnotationCache(GenomeAssembly.HG38).orElseThrow(), sameInstance(instance.getNativeCaches().get("hg38.annotation")));
+    }
+
+    @Test
+    void disabledCachesHaveNoAnnotationCache() {
+        VariantCacheProperties properties = new VariantCacheProperties();
+        properties.setEnabled(false);
+        VariantCaches instance = VariantCaches.of(properties);
+        assertThat(instance.getAnnotationCache(GenomeAssembly.HG19).isPresent(), is(false));
+    }
+
+    @Test
+    void cachesAreBoundedBySize() {
+        VariantCacheProperties properties = new VariantCacheProperties();
+        properties.setMaximumSize(100);
+        VariantCaches instance = VariantCaches.of(properties);
+
+        Cache<Object, Object> alleleCache = instance.getNativeCaches().get("hg19.allele");
+        for (int i = 0; i < 1000; i++) {
+            alleleCache.put(i, FrequencyData.empty());
+        }
+        alleleCache.cleanUp();
+        assertThat(alleleCache.estimatedSize(), lessThanOrEqualTo(100L));
+    }
+
+    @Test
+    void sourceSizeOverridesDefaultSize() {
+        VariantCacheProperties.SourceCacheProperties caddProperties = new VariantCacheProperties.SourceCacheProperties();
+        caddProperties.setMaximumSize(10L);
+        VariantCacheProperties properties = new VariantCacheProperties();
+        properties.setMaximumSize(1000);
+        properties.setSources(Map.of("cadd", caddProperties));
+        VariantCaches instance = VariantCaches.of(properties);
+
+        Cache<Object, Object> caddCache = instance.getNativeCaches().get("hg38.cadd");
+        Cache<Object, Object> remmCache = instance.getNativeCaches().get("hg38.remm");
+        for (int i = 0; i < 100; i++) {
+            caddCache.put(i, FrequencyData.empty());
+            remmCache.put(i, FrequencyData.empty());
+        }
+        caddCache.cleanUp();
+        remmCache.cleanUp();
+        assertThat(caddCache.estimatedSize(), lessThanOrEqualTo(10L));
+        assertThat(remmCache.estimatedSize(), equalTo(100L));
+    }
+
+    @Test
+    void resolvesSourceNamesContainingDots() {
+        VariantCacheProperties.SourceCacheProperties svFreqProperties = new VariantCacheProperties.SourceCacheProperties();
+        svFreqProperties.setMaximumWeight(DataSize.ofMegabytes(1));
+        VariantCacheProperties properties = new VariantCacheProperties();
+        properties.setSources(Map.of("sv.freq", svFreqProperties));
+
+        assertThat(properties.resolve("hg19.sv.freq").getMaximumWeight(), equalTo(DataSize.ofMegabytes(1)));
+        assertThat(properties.resolve("hg19.sv.path").getMaximumWeight(), nullValue());
+        assertThat(properties.resolve("hg19.sv.path").getMaximumSize(), equalTo(100_000L));
+    }
+
+    @Test
+    void cachesAreBoundedByWeight() {
+        VariantCacheProperties properties = new VariantCacheProperties();
+        properties.setMaximumWeight(DataSize.ofKilobytes(10));
+        VariantCaches instance = VariantCaches.of(properties);
+
+        Cache<Object, Object> localCache = instance.getNativeCaches().get("hg19.local");
+        FrequencyData frequencyData = FrequencyData.of("rs12345", Frequency.of(FrequencySource.LOCAL, 0.1f));
+        for (int i = 0; i < 1000; i++) {
+            localCache.put(i, frequencyData);
+        }
+        localCache.cleanUp();
+        // each entry is estimated at a couple of hundred bytes
+        assertThat(localCache.estimatedSize(), lessThan(100L));
+    }
+
+    @Test
+    void reportsStatsForUsedCaches() {
+        VariantCaches instance = VariantCaches.of(new VariantCacheProperties());
+        org.springframework.cache.Cache alleleCache = instance.getCacheManager().getCache("hg19.allele");
+        alleleCache.put("key", FrequencyData.empty());
+        alleleCache.get("key");
+        alleleCache.get("missing");
+
+        Map<String, Object> report = instance.getReport();
+        assertThat(report.keySet(), equalTo(Set.of("hg19.allele")));
+        Map<?, ?> alleleReport = (Map<?, ?>) report.get("hg19.allele");
+        assertThat(alleleReport.get("hits"), equalTo(1L));
+        assertThat(alleleReport.get("misses"), equalTo(1L));
+        assertThat(alleleReport.get("hitRate"), equalTo(0.5));
+    }
+}
@@ -32,6 +32,8 @@
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
@@ -52,14 +54,63 @@ public void returnsKeyForVariant() throws Exception {
                 .build();
         // AlleleKey has no genomeAssembly. This might have been a bit of an oversight, but with assembly-specific caches
         // created in version 10.1.1 its OK to use the AlleleKey as the cache key
-        AlleleProto.AlleleKey expected = AlleleProto.AlleleKey.newBuilder()
+        AlleleProto.AlleleKey alleleKey = AlleleProto.AlleleKey.newBuilder()
                 .setChr(1)
                 .setPosition(2345)
                 .setRef("A")
                 .setAlt("T")
                 .build();
 
-        assertThat(instance.generate(new Object(), Object.class.getMethod("toString"), variant), equalTo(expected));
+        Object key = instance.generate(new Object(), Object.class.getMethod("toString"), variant);
+        assertThat(key, equalTo(VariantCacheKey.of(alleleKey)));
+        assertThat(key.hashCode(), equalTo(VariantCacheKey.of(alleleKey).hashCode()));
+    }
+
+    @Test
+    public void returnsOneBasedKeyForZeroBasedVariant() throws Exception {
+        Variant variant = VariantEvaluation.builder()
+                .with(GenomeAssembly.HG19.getContigById(1), "", Strand.POSITIVE, CoordinateSystem.LEFT_OPEN, Position.of(2344), "A", "T")
+                .build();
+        AlleleProto.AlleleKey alleleKey = AlleleProto.AlleleKey.newBuilder()
+                .setChr(1)
+                .setPosition(2345)
+                .setRef("A")
+                .setAlt("T")
+                .build();
+
+        assertThat(instance.generate(new Object(), Object.class.getMethod("toString"), variant), equalTo(VariantCacheKey.of(alleleKey)));
+    }
+
+    @Test
+    public void returnsSameKeyForAlleleKeyAndAssembly() throws Exception {
+        AlleleProto.AlleleKey alleleKey = AlleleProto.AlleleKey.newBuilder()
+                .setChr(1)
+                .setPosition(2345)
+                .setRef("A")
+                .setAlt("T")
+                .build();
+
+        assertThat(instance.generate(new Object(), Object.class.getMethod("toString"), alleleKey, GenomeAssembly.HG19), equalTo(VariantCacheKey.of(alleleKey)));
+    }
+
+    @Test
+    public void symbolicVariantKeysIncludeEnd() throws Exception {
+        Variant shortDeletion = VariantEvaluation.builder()
+                .with(GenomeAssembly.HG19.getContigById(1), "", Strand.POSITIVE, CoordinateSystem.oneBased(), Position.of(100), Position.of(200), "A", "<DEL>", -100)
+                .build();
+        Variant longDeletion = VariantEvaluation.builder()
+                .with(GenomeAssembly.HG19.getContigById(1), "", Strand.POSITIVE, CoordinateSystem.oneBased(), Position.of(100), Position.of(20000), "A", "<DEL>", -19900)
+                .build();
+
+        Object shortDeletionKey = instance.generate(new Object(), Object.class.getMethod("toString"), shortDeletion);
+        Object longDeletionKey = instance.generate(new Object(), Object.class.getMethod("toString"), longDeletion);
+        assertThat(shortDeletionKey, not(equalTo(longDeletionKey)));
+    }
+
+    @Test
+    public void returnsSingleParameterAsKey() throws Exception {
+        Object object = new Object();
+        assertThat(instance.generate(new Object(), Object.class.getMethod("toString"), object), sameInstance(object));
     }
 
     @Test
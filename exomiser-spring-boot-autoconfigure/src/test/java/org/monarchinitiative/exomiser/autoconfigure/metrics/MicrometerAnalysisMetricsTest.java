@@ -0,0 +1,96 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.autoconfigure.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.monarchinitiative.exomiser.core.genome.dao.AlleleKeyFilter;
+import org.monarchinitiative.exomiser.core.metrics.AnalysisStage;
+import org.monarchinitiative.exomiser.core.model.Variant;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class MicrometerAnalysisMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MicrometerAnalysisMetrics instance = new MicrometerAnalysisMetrics(meterRegistry);
+
+    @Test
+    void recordStage() {
+        instance.recordStage(AnalysisStage.VARIANT_FILTER, "FREQUENCY_FILTER", 1_000_000);
+        instance.recordStage(AnalysisStage.VARIANT_FILTER, "FREQUENCY_FILTER", 2_000_000);
+
+        Timer timer = meterRegistry.get(MicrometerAnalysisMetrics.STAGE_TIMER)
+                .tag("stage", "variant-filter")
+                .tag("step", "FREQUENCY_FILTER")
+                .timer();
+        assertThat(timer.count(), equalTo(2L));
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS), equalTo(3.0));
+    }
+
+    @Test
+    void recordStageWithoutStep() {
+        instance.recordStage(AnalysisStage.GENE_SCORING, null, 1_000_000);
+
+        Timer timer = meterRegistry.get(MicrometerAnalysisMetrics.STAGE_TIMER)
+                .tag("stage", "gene-scoring")
+                .tag("step", "all")
+                .timer();
+        assertThat(timer.count(), equalTo(1L));
+    }
+
+    @Test
+    void recordDataSourceLatency() {
+        instance.recordDataSourceLatency("pathogenicity-tabix", 5_000_000);
+
+        Timer timer = meterRegistry.get(MicrometerAnalysisMetrics.DATA_SOURCE_TIMER)
+                .tag("source", "pathogenicity-tabix")
+                .timer();
+        assertThat(timer.count(), equalTo(1L));
+        assertThat(timer.max(TimeUnit.MILLISECONDS), equalTo(5.0));
+    }
+
+    @Test
+    void recordVariantCounts() {
+        instance.recordVariantCounts(1000, 20);
+        instance.recordVariantCounts(500, 10);
+
+        assertThat(meterRegistry.get(MicrometerAnalysisMetrics.VARIANTS_COUNTER).tag("state", "loaded").counter().count(), equalTo(1500.0));
+        assertThat(meterRegistry.get(MicrometerAnalysisMetrics.VARIANTS_COUNTER).tag("state", "passed").counter().count(), equalTo(30.0));
+    }
+
+    @Test
+    void registerAlleleKeyFilter() {
+        AlleleKeyFilter alleleKeyFilter = AlleleKeyFilter.acceptAll();
+        instance.registerAlleleKeyFilter("hg38", alleleKeyFilter);
+
+        alleleKeyFilter.mightContain(Mockito.mock(Variant.class));
+        alleleKeyFilter.mightContain(Mockito.mock(Variant.class));
+
+        assertThat(meterRegistry.get(MicrometerAnalysisMetrics.ALLELE_KEY_FILTER_COUNTER).tag("filter", "hg38").tag("result", "hit").functionCounter().count(), equalTo(2.0));
+        assertThat(meterRegistry.get(MicrometerAnalysisMetrics.ALLELE_KEY_FILTER_COUNTER).tag("filter", "hg38").tag("result", "miss").functionCounter().count(), equalTo(0.0));
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.test.synthetic;
+
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.samtools.util.IOUtil;
+import htsjdk.tribble.SimpleFeature;
+import htsjdk.tribble.index.Index;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.index.tabix.TabixIndexCreator;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.monarchinitiative.exomiser.core.genome.dao.serialisers.MvStoreUtil;
+import org.monarchinitiative.exomiser.core.genome.jannovar.JannovarDataProtoSerialiser;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Creates a complete, but tiny, Exomiser HG19 and phenotype data directory suitable for running full analyses of a VCF
+ * written by the {@link SyntheticVcfWriter}. The genome and phenotype databases are copied from an existing template
+ * data directory, such as the 1710 test data in the exomiser-spring-boot-autoconfigure test resources, the transcripts
+ * are created by the {@link SyntheticTranscriptModels} and the variant frequency, pathogenicity and REMM data are
+ * generated for a random fraction of the small variants in the VCF.
+ *
+ * @since 13.1.0
+ */
+public class SyntheticDataDirectory {
+
+    public static final String DATA_VERSION = "1710";
+
+    private static final String HG19_PREFIX = DATA_VERSION + "_hg19";
+    private static final String PHENOTYPE_PREFIX = DATA_VERSION + "_phenotype";
+    private static final String[] TRANSCRIPT_SOURCES = {"ensembl", "refseq", "ucsc"};
+    private static final String[] FREQUENCY_KEYS = {"KG", "TOPMED", "ESP_ALL", "EXAC_NFE", "GNOMAD_E_NFE", "GNOMAD_G_NFE"};
+    private static final String[] PATHOGENICITY_KEYS = {"POLYPHEN", "SIFT", "MUT_TASTER", "REVEL", "MVP"};
+
+    private final Path path;
+    private final Path remmPath;
+
+    private SyntheticDataDirectory(Path path, Path remmPath) {
+        this.path = path;
+        this.remmPath = remmPath;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return the Spring properties required for the Exomiser to use this data directory
+     */
+    public Map<String, String> getProperties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("exomiser.data-directory", path.toAbsolutePath().toString());
+        properties.put("exomiser.hg19.data-version", DATA_VERSION);
+        properties.put("exomiser.hg19.remm-path", remmPath.toAbsolutePath().toString());
+        properties.put("exomiser.phenotype.data-version", DATA_VERSION);
+        return properties;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private Path templateDataDirectory;
+        private Path vcfPath;
+        private int numGenes = 20_000;
+        private double annotatedFraction = 0.5;
+        private long seed = 42;
+
+        private Builder() {
+        }
+
+        /**
+         * @param templateDataDirectory an Exomiser data directory containing 1710 hg19 and phenotype data
+         */
+        public Builder templateDataDirectory(Path templateDataDirectory) {
+            this.templateDataDirectory = templateDataDirectory;
+            return this;
+        }
+
+        /**
+         * @param vcfPath VCF file for which the variant and REMM data should be generated
+         */
+        public Builder vcfPath(Path vcfPath) {
+            this.vcfPath = vcfPath;
+            return this;
+        }
+
+        public Builder numGenes(int numGenes) {
+            this.numGenes = numGenes;
+            return this;
+        }
+
+        /**
+         * @param annotatedFraction the fraction of small variants in the VCF which will have frequency, pathogenicity
+         *                          and REMM data, between 0 and 1
+         */
+        public Builder annotatedFraction(double annotatedFraction) {
+            if (annotatedFraction < 0 || annotatedFraction > 1) {
+                throw new IllegalArgumentException("annotatedFraction must be between 0 and 1, got " + annotatedFraction);
+            }
+            this.annotatedFraction = annotatedFraction;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Writes the data directory to the given path, which will be created if it does not already exist.
+         */
+        public SyntheticDataDirectory build(Path dataDirectory) {
+            Objects.requireNonNull(templateDataDirectory, "templateDataDirectory must be specified");
+            Objects.requireNonNull(vcfPath, "vcfPath must be specified");
+            try {
+                Path hg19Directory = Files.createDirectories(dataDirectory.resolve(HG19_PREFIX));
+                Path templateHg19Directory = templateDataDirectory.resolve(HG19_PREFIX);
+                copy(templateHg19Directory.resolve(HG19_PREFIX + "_genome.h2.db"), hg19Directory);
+                copy(templateHg19Directory.resolve(HG19_PREFIX + "_sv.mv.db"), hg19Directory);
+
+                Path phenotypeDirectory = Files.createDirectories(dataDirectory.resolve(PHENOTYPE_PREFIX));
+                try (Stream<Path> phenotypeFiles = Files.list(templateDataDirectory.resolve(PHENOTYPE_PREFIX))) {
+                    for (Path phenotypeFile : (Iterable<Path>) phenotypeFiles::iterator) {
+                        copy(phenotypeFile, phenotypeDirectory);
+                    }
+                }
+
+                for (String transcriptSource : TRANSCRIPT_SOURCES) {
+                    Path transcriptsPath = hg19Directory.resolve(HG19_PREFIX + "_transcripts_" + transcriptSource + ".ser");
+                    JannovarDataProtoSerialiser.save(transcriptsPath, SyntheticTranscriptModels.createJannovarData(numGenes, seed));
+                }
+
+                Path remmPath = Files.createDirectories(dataDirectory.resolve("remm")).resolve("remmData.tsv.gz");
+                writeVariantData(hg19Directory.resolve(HG19_PREFIX + "_variants.mv.db"), remmPath);
+                return new SyntheticDataDirectory(dataDirectory, remmPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to create synthetic data directory " + dataDirectory, e);
+            }
+        }
+
+        private static void copy(Path source, Path targetDirectory) throws IOException {
+            Files.copy(source, targetDirectory.resolve(source.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        /**
+         * Streams through the VCF adding the allele properties to the MVStore and writing the REMM scores for the same
+         * positions. As the VCF is sorted the REMM file can be indexed as it is written.
+         */
+        private void writeVariantData(Path mvStorePath, Path remmPath) throws IOException {
+            Random random = new Random(seed);
+            // columns are 1-based: chr=1, start=2, end=2, with the header starting with a '#'
+            TabixIndexCreator indexCreator = new TabixIndexCreator(new TabixFormat(TabixFormat.GENERIC_FLAGS, 1, 2, 2, '#', 0));
+            MVStore mvStore = new MVStore.Builder().fileName(mvStorePath.toString()).compress().open();
+            try (BufferedReader reader = IOUtil.openFileForBufferedReading(vcfPath.toFile());
+                 BlockCompressedOutputStream remmOutputStream = new BlockCompressedOutputStream(remmPath.toFile())) {
+                MVMap<AlleleKey, AlleleProperties> alleleMap = MvStoreUtil.openAlleleMVMap(mvStore);
+                remmOutputStream.write("#Chrom\tPosition\tRemmScore\n".getBytes(StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] fields = line.split("\t", 6);
+                    String alt = fields[4];
+                    if (alt.startsWith("<") || random.nextDouble() >= annotatedFraction) {
+                        continue;
+                    }
+                    int chr = Integer.parseInt(fields[0]);
+                    int pos = Integer.parseInt(fields[1]);
+                    AlleleKey alleleKey = AlleleKey.newBuilder()
+                            .setChr(chr)
+                            .setPosition(pos)
+                            .setRef(fields[3])
+                            .setAlt(alt)
+                            .build();
+                    alleleMap.put(alleleKey, randomAlleleProperties(random));
+
+                    indexCreator.addFeature(new SimpleFeature(fields[0], pos, pos), remmOutputStream.getFilePointer());
+                    String remmLine = fields[0] + "\t" + pos + "\t" + random.nextFloat() + "\n";
+                    remmOutputStream.write(remmLine.getBytes(StandardCharsets.UTF_8));
+                }
+                remmOutputStream.flush();
+                Index index = indexCreator.finalizeIndex(remmOutputStream.getFilePointer());
+                index.write(Path.of(remmPath + ".tbi"));
+            } finally {
+                mvStore.close();
+            }
+        }
+
+        private static AlleleProperties randomAlleleProperties(Random random) {
+            AlleleProperties.Builder builder = AlleleProperties.newBuilder()
+                    .setRsId("rs" + random.nextInt(Integer.MAX_VALUE));
+            for (String key : FREQUENCY_KEYS) {
+                if (random.nextBoolean()) {
+                    // mostly rare, as for the variants of interest in a real sample
+                    builder.putProperties(key, random.nextFloat() * random.nextFloat());
+                }
+            }
+            for (String key : PATHOGENICITY_KEYS) {
+                if (random.nextBoolean()) {
+                    builder.putProperties(key, random.nextFloat());
+                }
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.test.synthetic;
+
+import com.google.common.collect.ImmutableList;
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
+import de.charite.compbio.jannovar.reference.PositionType;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds synthetic HG19 {@link TranscriptModel} for use where real transcript data is unavailable or too large, e.g.
+ * benchmarks and load tests. Each gene has a single forward-strand transcript of five 150bp exons separated by 2kb
+ * introns. Genes are laid out round-robin across the autosomes every 50kb from 1Mb. Gene i has the symbol GENEi and
+ * the Entrez identifier 100000 + i.
+ *
+ * @since 13.1.0
+ */
+public class SyntheticTranscriptModels {
+
+    public static final int FIRST_ENTREZ_ID = 100_000;
+
+    private static final ReferenceDictionary REF_DICT = HG19RefDictBuilder.build();
+
+    private static final int NUM_AUTOSOMES = 22;
+    private static final int FIRST_GENE_START = 1_000_000;
+    private static final int GENE_SPACING = 50_000;
+    private static final int NUM_EXONS = 5;
+    private static final int EXON_LENGTH = 150;
+    private static final int INTRON_LENGTH = 2_000;
+    private static final int UTR_LENGTH = 30;
+
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    private SyntheticTranscriptModels() {
+        //static utility class
+    }
+
+    public static ReferenceDictionary referenceDictionary() {
+        return REF_DICT;
+    }
+
+    /**
+     * @param numGenes the number of genes to create, up to around 20000 before the smallest autosomes are filled
+     * @param seed     seed for the random transcript sequences
+     * @return a list of one {@link TranscriptModel} per gene
+     */
+    public static List<TranscriptModel> create(int numGenes, long seed) {
+        Random random = new Random(seed);
+        List<TranscriptModel> transcriptModels = new ArrayList<>(numGenes);
+        for (int i = 0; i < numGenes; i++) {
+            transcriptModels.add(buildTranscriptModel(i, random));
+        }
+        return Collections.unmodifiableList(transcriptModels);
+    }
+
+    public static JannovarData createJannovarData(int numGenes, long seed) {
+        return new JannovarData(REF_DICT, ImmutableList.copyOf(create(numGenes, seed)));
+    }
+
+    private static TranscriptModel buildTranscriptModel(int geneIndex, Random random) {
+        int chr = 1 + (geneIndex % NUM_AUTOSOMES);
+        int txStart = FIRST_GENE_START + (geneIndex / NUM_AUTOSOMES) * GENE_SPACING;
+        int entrezId = FIRST_ENTREZ_ID + geneIndex;
+
+        TranscriptModelBuilder builder = new TranscriptModelBuilder();
+        builder.setGeneSymbol("GENE" + geneIndex);
+        builder.setGeneID(String.valueOf(entrezId));
+        builder.getAltGeneIDs().put("ENTREZ_ID", String.valueOf(entrezId));
+        builder.getAltGeneIDs().put("HGNC_SYMBOL", "GENE" + geneIndex);
+        builder.setAccession("NM_" + entrezId + ".1");
+        builder.setStrand(Strand.FWD);
+
+        StringBuilder sequence = new StringBuilder(NUM_EXONS * EXON_LENGTH);
+        int exonStart = txStart;
+        for (int exon = 0; exon < NUM_EXONS; exon++) {
+            builder.addExonRegion(zeroBasedInterval(chr, exonStart, exonStart + EXON_LENGTH));
+            for (int base = 0; base < EXON_LENGTH; base++) {
+                sequence.append(BASES[random.nextInt(BASES.length)]);
+            }
+            exonStart += EXON_LENGTH + INTRON_LENGTH;
+        }
+        int txEnd = exonStart - INTRON_LENGTH;
+        builder.setTXRegion(zeroBasedInterval(chr, txStart, txEnd));
+        // start the CDS with a methionine after a short 5' UTR
+        sequence.replace(UTR_LENGTH, UTR_LENGTH + 3, "ATG");
+        builder.setCDSRegion(zeroBasedInterval(chr, txStart + UTR_LENGTH, txEnd - UTR_LENGTH));
+        builder.setSequence(sequence.toString());
+        return builder.build();
+    }
+
+    private static GenomeInterval zeroBasedInterval(int chr, int start, int end) {
+        return new GenomeInterval(REF_DICT, Strand.FWD, chr, start, end, PositionType.ZERO_BASED);
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.test.synthetic;
+
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes a coordinate-sorted, multi-sample, synthetic HG19 VCF file of an arbitrary size. The records are spread
+ * across the autosomes in proportion to their length so that, with several million records, the file resembles a
+ * whole-genome call set. Most records are SNVs with around one in ten being a small insertion or deletion and, if
+ * requested, a fraction being symbolic structural variants. Files with a name ending in .gz are written bgzipped.
+ * <p>
+ * The first sample is always the affected proband and is heterozygous or homozygous alt for every record. Any other
+ * samples are the unaffected mother, father and siblings of the proband as written by {@link #writePed(Path)}.
+ * <p>
+ * The output is entirely determined by the builder arguments so the same file can be re-created for comparing
+ * successive releases.
+ *
+ * @since 13.1.0
+ */
+public class SyntheticVcfWriter {
+
+    public static final String PROBAND = "proband";
+    private static final String FAMILY = "family";
+    private static final String MOTHER = "mother";
+    private static final String FATHER = "father";
+
+    private static final int NUM_AUTOSOMES = 22;
+    private static final String[] BASES = {"A", "C", "G", "T"};
+    private static final String[] SV_TYPES = {"DEL", "DUP", "INV", "INS"};
+    private static final String[] PROBAND_GENOTYPES = {"0/1", "0/1", "1/1"};
+    private static final String[] RELATIVE_GENOTYPES = {"0/0", "0/0", "0/1", "0/1", "1/1"};
+
+    private final int numRecords;
+    private final double svFraction;
+    private final long seed;
+    private final List<String> sampleNames;
+
+    private SyntheticVcfWriter(Builder builder) {
+        this.numRecords = builder.numRecords;
+        this.svFraction = builder.svFraction;
+        this.seed = builder.seed;
+        this.sampleNames = createSampleNames(builder.numSamples);
+    }
+
+    private static List<String> createSampleNames(int numSamples) {
+        List<String> names = new ArrayList<>(numSamples);
+        names.add(PROBAND);
+        if (numSamples > 1) {
+            names.add(MOTHER);
+        }
+        if (numSamples > 2) {
+            names.add(FATHER);
+        }
+        for (int i = 3; i < numSamples; i++) {
+            names.add("sibling" + (i - 2));
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    public int getNumRecords() {
+        return numRecords;
+    }
+
+    public double getSvFraction() {
+        return svFraction;
+    }
+
+    public List<String> getSampleNames() {
+        return sampleNames;
+    }
+
+    public String getProbandSampleName() {
+        return PROBAND;
+    }
+
+    /**
+     * Writes the VCF file to the given path, bgzipping the output if the file name ends with .gz
+     *
+     * @return the path of the written VCF file
+     */
+    public Path write(Path vcfPath) {
+        Random random = new Random(seed);
+        try (Writer writer = openWriter(vcfPath)) {
+            writeHeader(writer);
+            ReferenceDictionary refDict = SyntheticTranscriptModels.referenceDictionary();
+            long genomeLength = 0;
+            for (int chr = 1; chr <= NUM_AUTOSOMES; chr++) {
+                genomeLength += refDict.getContigIDToLength().get(chr);
+            }
+            int recordsWritten = 0;
+            for (int chr = 1; chr <= NUM_AUTOSOMES; chr++) {
+                int chrLength = refDict.getContigIDToLength().get(chr);
+                int chrRecords = chr == NUM_AUTOSOMES ? numRecords - recordsWritten : (int) ((long) numRecords * chrLength / genomeLength);
+                // one record is placed at random in each equal-sized bin of the chromosome, so the positions are sorted
+                // and never overlap the end of the contig
+                int binSize = chrRecords == 0 ? chrLength : Math.max(1, (chrLength - 100) / chrRecords);
+                StringBuilder line = new StringBuilder(128);
+                for (int i = 0; i < chrRecords; i++) {
+                    int position = 1 + i * binSize + random.nextInt(binSize);
+                    line.setLength(0);
+                    appendRecord(line, chr, position, random);
+                    writer.write(line.toString());
+                }
+                recordsWritten += chrRecords;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write synthetic VCF " + vcfPath, e);
+        }
+        return vcfPath;
+    }
+
+    private static Writer openWriter(Path vcfPath) throws IOException {
+        OutputStream outputStream = vcfPath.toString().endsWith(".gz") ? new BlockCompressedOutputStream(vcfPath.toFile()) : Files.newOutputStream(vcfPath);
+        return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private void writeHeader(Writer writer) throws IOException {
+        ReferenceDictionary refDict = SyntheticTranscriptModels.referenceDictionary();
+        writer.write("##fileformat=VCFv4.2\n");
+        writer.write("##FILTER=<ID=PASS,Description=\"All filters passed\">\n");
+        writer.write("##INFO=<ID=SVTYPE,Number=1,Type=String,Description=\"Type of structural variant\">\n");
+        writer.write("##INFO=<ID=END,Number=1,Type=Integer,Description=\"End position of the variant described in this record\">\n");
+        writer.write("##INFO=<ID=SVLEN,Number=.,Type=Integer,Description=\"Difference in length between REF and ALT alleles\">\n");
+        writer.write("##ALT=<ID=DEL,Description=\"Deletion\">\n");
+        writer.write("##ALT=<ID=DUP,Description=\"Duplication\">\n");
+        writer.write("##ALT=<ID=INV,Description=\"Inversion\">\n");
+        writer.write("##ALT=<ID=INS,Description=\"Insertion\">\n");
+        writer.write("##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">\n");
+        for (int chr = 1; chr <= NUM_AUTOSOMES; chr++) {
+            writer.write("##contig=<ID=" + chr + ",length=" + refDict.getContigIDToLength().get(chr) + ",assembly=GRCh37>\n");
+        }
+        writer.write("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\t" + String.join("\t", sampleNames) + "\n");
+    }
+
+    private void appendRecord(StringBuilder line, int chr, int position, Random random) {
+        String ref = BASES[random.nextInt(BASES.length)];
+        String alt;
+        String info = ".";
+        if (random.nextDouble() < svFraction) {
+            String svType = SV_TYPES[random.nextInt(SV_TYPES.length)];
+            int svLength = 50 + random.nextInt(50_000);
+            alt = "<" + svType + ">";
+            if ("INS".equals(svType)) {
+                info = "SVTYPE=INS;END=" + position + ";SVLEN=" + svLength;
+            } else {
+                int svLen = "DEL".equals(svType) ? -svLength : svLength;
+                info = "SVTYPE=" + svType + ";END=" + (position + svLength) + ";SVLEN=" + svLen;
+            }
+        } else {
+            alt = BASES[(indexOf(ref) + 1 + random.nextInt(3)) % BASES.length];
+            int variantType = random.nextInt(20);
+            if (variantType == 0) {
+                alt = ref + alt;
+            } else if (variantType == 1) {
+                ref = ref + alt;
+                alt = ref.substring(0, 1);
+            }
+        }
+        line.append(chr).append('\t').append(position).append("\t.\t").append(ref).append('\t').append(alt)
+                .append('\t').append(30 + random.nextInt(1000)).append("\tPASS\t").append(info).append("\tGT");
+        line.append('\t').append(PROBAND_GENOTYPES[random.nextInt(PROBAND_GENOTYPES.length)]);
+        for (int i = 1; i < sampleNames.size(); i++) {
+            line.append('\t').append(RELATIVE_GENOTYPES[random.nextInt(RELATIVE_GENOTYPES.length)]);
+        }
+        line.append('\n');
+    }
+
+    private static int indexOf(String base) {
+        for (int i = 0; i < BASES.length; i++) {
+            if (BASES[i].equals(base)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown base " + base);
+    }
+
+    /**
+     * Writes a PED file for the samples in the VCF. The proband is the affected child of the mother and father, any
+     * other samples are their unaffected children.
+     *
+     * @return the path of the written PED file
+     */
+    public Path writePed(Path pedPath) {
+        List<String> lines = new ArrayList<>(sampleNames.size());
+        boolean hasParents = sampleNames.size() > 2;
+        for (int i = 0; i < sampleNames.size(); i++) {
+            String sampleName = sampleNames.get(i);
+            boolean isParent = MOTHER.equals(sampleName) || FATHER.equals(sampleName);
+            String paternalId = hasParents && !isParent ? FATHER : "0";
+            String maternalId = hasParents && !isParent ? MOTHER : "0";
+            // sex: 1=male, 2=female, status: 1=unaffected, 2=affected
+            String sex = FATHER.equals(sampleName) || (!isParent && i % 2 == 0) ? "1" : "2";
+            String status = PROBAND.equals(sampleName) ? "2" : "1";
+            lines.add(String.join("\t", FAMILY, sampleName, paternalId, maternalId, sex, status));
+        }
+        try {
+            Files.write(pedPath, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write synthetic PED " + pedPath, e);
+        }
+        return pedPath;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private int numRecords = 10_000;
+        private int numSamples = 1;
+        private double svFraction = 0;
+        private long seed = 42;
+
+        private Builder() {
+        }
+
+        public Builder numRecords(int numRecords) {
+            if (numRecords < 0) {
+                throw new IllegalArgumentException("numRecords must be positive, got " + numRecords);
+            }
+            this.numRecords = numRecords;
+            return this;
+        }
+
+        public Builder numSamples(int numSamples) {
+            if (numSamples < 1) {
+                throw new IllegalArgumentException("numSamples must be at least 1, got " + numSamples);
+            }
+            this.numSamples = numSamples;
+            return this;
+        }
+
+        /**
+         * @param svFraction the fraction of records which should be symbolic structural variants, between 0 and 1
+         */
+        public Builder svFraction(double svFraction) {
+            if (svFraction < 0 || svFraction > 1) {
+                throw new IllegalArgumentException("svFraction must be between 0 and 1, got " + svFraction);
+            }
+            this.svFraction = svFraction;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public SyntheticVcfWriter build() {
+            return new SyntheticVcfWriter(this);
+        }
+    }
+}
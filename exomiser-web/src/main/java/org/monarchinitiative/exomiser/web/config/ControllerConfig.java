@@ -25,6 +25,8 @@
  */
 package org.monarchinitiative.exomiser.web.config;
 
+import org.monarchinitiative.exomiser.core.Exomiser;
+import org.monarchinitiative.exomiser.web.service.AnalysisJobService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +34,8 @@
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 
+import java.time.Duration;
+
 /**
  *
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
@@ -68,4 +72,13 @@ public Boolean clinicalInstance() {
         }
         return clinicalInstance;
     }
+
+    @Bean(destroyMethod = "shutdown")
+    public AnalysisJobService analysisJobService(Exomiser exomiser) {
+        int maxConcurrentJobs = env.getProperty("exomiser.web.max-concurrent-jobs", Integer.class, 2);
+        int maxQueuedJobs = env.getProperty("exomiser.web.max-queued-jobs", Integer.class, 20);
+        Duration jobRetention = Duration.ofMinutes(env.getProperty("exomiser.web.job-retention-minutes", Long.class, 60L));
+        int maxFinishedJobs = env.getProperty("exomiser.web.max-finished-jobs", Integer.class, AnalysisJobService.DEFAULT_MAX_FINISHED_JOBS);
+        return new AnalysisJobService(exomiser, maxVariants(), maxConcurrentJobs, maxQueuedJobs, jobRetention, maxFinishedJobs);
+    }
 }
@@ -21,14 +21,15 @@
 
 import org.monarchinitiative.exomiser.web.dao.ExomiserDao;
 import org.monarchinitiative.exomiser.web.model.SelectOption;
+import org.monarchinitiative.exomiser.web.model.SelectOptionIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.PostConstruct;
-import java.util.*;
-import java.util.Map.Entry;
+import java.util.List;
+import java.util.Map;
 
 /**
  *
@@ -38,12 +39,15 @@
 @RequestMapping("data")
 public class DataController {
     private static final Logger logger = LoggerFactory.getLogger(DataController.class);
-    
+
+    // the autocomplete boxes only show a handful of options so there's no point in sending thousands of them back
+    private static final int MAX_RESULTS = 50;
+
     private final ExomiserDao exomiserDao;
 
-    private Set<SelectOption> hpoSelectOptions;
-    private Set<SelectOption> diseaseSelectOptions;
-    private Set<SelectOption> geneSelectOptions;
+    private SelectOptionIndex hpoSelectOptions;
+    private SelectOptionIndex diseaseSelectOptions;
+    private SelectOptionIndex geneSelectOptions;
 
     @Autowired
     public DataController(ExomiserDao exomiserDao) {
@@ -53,57 +57,39 @@ public DataController(ExomiserDao exomiserDao) {
     @PostConstruct
     private void setUp() {
         Map<String, String> hpoTerms = exomiserDao.getHpoTerms();
-        hpoSelectOptions = makeSelectOptionsFromMap(hpoTerms);
+        hpoSelectOptions = SelectOptionIndex.of(hpoTerms);
 
         Map<String, String> diseases = exomiserDao.getDiseases();
-        diseaseSelectOptions = makeSelectOptionsFromMap(diseases);
+        diseaseSelectOptions = SelectOptionIndex.of(diseases);
 
         Map<String, String> genes = exomiserDao.getGenes();
-        geneSelectOptions = makeSelectOptionsFromMap(genes);
-        
+        geneSelectOptions = SelectOptionIndex.of(genes);
+
         logger.info("Loaded {} HPO, {} disease and {} gene select options", hpoSelectOptions.size(), diseaseSelectOptions.size(), geneSelectOptions.size());
     }
 
-    private Set<SelectOption> makeSelectOptionsFromMap(Map<String, String> inputMap) {
-        Set<SelectOption> selectOptions = new HashSet<>();
-        for (Entry<String, String> entry : inputMap.entrySet()) {
-            selectOptions.add(new SelectOption(entry.getKey(), entry.getValue()));
-        }
-        return selectOptions;
-    }
-        
     @GetMapping(value = "disease", produces = "application/json;charset=UTF-8")
     public @ResponseBody List<SelectOption> getDiseaseOptionsContainingTerm(@RequestParam(value="term") String term) {
-        logger.info("Searching for disease term '{}'", term);
+        logger.debug("Searching for disease term '{}'", term);
         return findSelectOptionContainingTerm(term, diseaseSelectOptions);
     }
     
     @GetMapping(value = "hpo", produces = "application/json;charset=UTF-8")
     public @ResponseBody List<SelectOption> getHpoTermOptionsContainingTerm(@RequestParam(value="term") String term) {
-        logger.info("Searching for HPO term '{}'", term);
+        logger.debug("Searching for HPO term '{}'", term);
         return findSelectOptionContainingTerm(term, hpoSelectOptions);
     }
 
     @GetMapping(value = "gene", produces = "application/json;charset=UTF-8")
     public @ResponseBody List<SelectOption> getGeneOptionsContainingTerm(@RequestParam(value="term") String term) {
-        logger.info("Searching for gene name '{}'", term);
+        logger.debug("Searching for gene name '{}'", term);
         return findSelectOptionContainingTerm(term, geneSelectOptions);
     }
 
-    
-    private List<SelectOption> findSelectOptionContainingTerm(String term, Set<SelectOption> selectOptions) {
-        List<SelectOption> matches = new ArrayList<>();
-        
-        for (SelectOption selectOption : selectOptions) {
-            if (selectOption.getText().toLowerCase().contains(term.toLowerCase())) {
-                matches.add(selectOption);
-            }
-        }
-        Collections.sort(matches);
-        logger.info("Returning {}", matches);
+    private List<SelectOption> findSelectOptionContainingTerm(String term, SelectOptionIndex selectOptionIndex) {
+        List<SelectOption> matches = selectOptionIndex.search(term, MAX_RESULTS);
+        logger.debug("Returning {}", matches);
         return matches;
     }
 
-
-
 }
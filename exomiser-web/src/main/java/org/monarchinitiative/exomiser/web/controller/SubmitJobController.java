@@ -37,7 +37,6 @@
 import org.monarchinitiative.exomiser.core.analysis.util.PedFiles;
 import org.monarchinitiative.exomiser.core.filters.FilterReport;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
-import org.monarchinitiative.exomiser.core.genome.VcfFiles;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.GeneticInterval;
 import org.monarchinitiative.exomiser.core.model.Pedigree;
@@ -47,15 +46,22 @@
 import org.monarchinitiative.exomiser.core.prioritisers.PriorityType;
 import org.monarchinitiative.exomiser.core.prioritisers.service.PriorityService;
 import org.monarchinitiative.exomiser.core.writers.*;
+import org.monarchinitiative.exomiser.web.model.AnalysisJob;
+import org.monarchinitiative.exomiser.web.service.AnalysisJobService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.annotation.Nullable;
 import javax.servlet.http.HttpSession;
@@ -65,6 +71,7 @@
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.monarchinitiative.exomiser.core.prioritisers.PriorityType.*;
 
@@ -78,6 +85,7 @@ public class SubmitJobController {
     private static final Logger logger = LoggerFactory.getLogger(SubmitJobController.class);
 
     private static final String SUBMIT_PAGE = "submit";
+    private static final String JOB_PAGE = "job";
     private static final Set<VariantEffect> NON_EXONIC_VARIANT_EFFECTS = Sets.immutableEnumSet(
             VariantEffect.UPSTREAM_GENE_VARIANT,
             VariantEffect.INTERGENIC_VARIANT,
@@ -89,8 +97,6 @@ public class SubmitJobController {
             VariantEffect.REGULATORY_REGION_VARIANT
     );
 
-    @Autowired
-    private Integer maxVariants;
     @Autowired
     private Integer maxGenes;
     @Autowired
@@ -100,6 +106,8 @@ public class SubmitJobController {
     private Exomiser exomiser;
     @Autowired
     private PriorityService priorityService;
+    @Autowired
+    private AnalysisJobService analysisJobService;
 
     @GetMapping(value = SUBMIT_PAGE)
     public String submit() {
@@ -148,25 +156,54 @@ public String submit(
         logger.info("Using disease: {}", diseaseId);
         logger.info("Using phenotypes: {}", phenotypes);
 
-        long numVariantsInSample = VcfFiles.readVariantContexts(vcfPath).count();
-        if (numVariantsInSample > maxVariants) {
-            logger.info("{} contains {} variants - this is more than the allowed maximum of {}."
-                    + "Returning user to submit page", vcfPath, numVariantsInSample, maxVariants);
+        Sample sample = buildSample(vcfPath, pedPath, proband, phenotypes);
+        Analysis analysis = buildAnalysis(geneticInterval, minimumQuality, removeDbSnp, keepOffTarget, keepNonPathogenic, modeOfInheritance, frequency, makeGenesToKeep(genesToFilter), prioritiser);
+        // The number of variants in the sample is checked against the maxVariants limit as the analysis runs, so
+        // the VCF is only read once.
+        try {
+            AnalysisJob job = analysisJobService.submit(sample, analysis, () -> cleanUpSampleFiles(vcfPath, pedPath));
+            logger.info("Submitted {} as analysis job {}", vcfPath.getFileName(), job.getId());
+            return "redirect:" + JOB_PAGE + "?id=" + job.getId();
+        } catch (RejectedExecutionException e) {
+            logger.info("Analysis queue is full - returning user to submission page");
             cleanUpSampleFiles(vcfPath, pedPath);
-            model.addAttribute("numVariants", numVariantsInSample);
-            return "resubmitWithFewerVariants";
-        } else {
-            logger.info("{} contains {} variants - within set limit of {}", vcfPath, numVariantsInSample, maxVariants);
+            model.addAttribute("serverBusy", true);
+            return SUBMIT_PAGE;
         }
+    }
 
-        Sample sample = buildSample(vcfPath, pedPath, proband, phenotypes);
-        Analysis analysis = buildAnalysis(geneticInterval, minimumQuality, removeDbSnp, keepOffTarget, keepNonPathogenic, modeOfInheritance, frequency, makeGenesToKeep(genesToFilter), prioritiser);
-        AnalysisResults analysisResults = exomiser.run(sample, analysis);
+    @GetMapping(value = JOB_PAGE)
+    public String job(@RequestParam("id") String jobId, Model model) {
+        AnalysisJob job = getJobOrThrow(jobId);
+        switch (job.getStatus()) {
+            case COMPLETED:
+                AnalysisResults analysisResults = job.getAnalysisResults();
+                buildResultsModel(model, analysisResults.getAnalysis(), analysisResults);
+                logger.info("Returning results of job {} to user", jobId);
+                return "results";
+            case REJECTED:
+                model.addAttribute("numVariants", job.getLoadedVariants());
+                return "resubmitWithFewerVariants";
+            default:
+                model.addAttribute("job", job);
+                return "jobStatus";
+        }
+    }
+
+    @GetMapping(value = JOB_PAGE + "-status", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<String, Object> jobStatus(@RequestParam("id") String jobId) {
+        return getJobOrThrow(jobId).toStatusMap();
+    }
+
+    @GetMapping(value = JOB_PAGE + "-progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter jobProgress(@RequestParam("id") String jobId) {
+        return analysisJobService.streamProgress(getJobOrThrow(jobId));
+    }
 
-        buildResultsModel(model, analysis, analysisResults);
-        logger.info("Returning {} results to user", vcfPath.getFileName());
-        cleanUpSampleFiles(vcfPath, pedPath);
-        return "results";
+    private AnalysisJob getJobOrThrow(String jobId) {
+        return analysisJobService.getJob(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No analysis job found with id " + jobId));
     }
 
     private Sample buildSample(Path vcfPath, Path pedPath, String proband, List<String> phenotypes) {
@@ -298,8 +335,9 @@ private void buildResultsModel(Model model, Analysis analysis, AnalysisResults a
         model.addAttribute("sampleNames", sampleNames);
 
         //write out the variant type counters
-        List<VariantEvaluation> variantEvaluations = analysisResults.getVariantEvaluations();
-        List<VariantEffectCount> variantEffectCounters = ResultsWriterUtils.makeVariantEffectCounters(sampleNames, variantEvaluations);
+        List<VariantEffectCount> variantEffectCounters = analysisResults.getVariantEffectCounts().isEmpty()
+                ? ResultsWriterUtils.makeVariantEffectCounters(sampleNames, analysisResults.getVariantEvaluations())
+                : ResultsWriterUtils.selectReportedVariantEffectCounts(analysisResults.getVariantEffectCounts());
         model.addAttribute("variantTypeCounters", variantEffectCounters);
 
         List<Gene> sampleGenes = analysisResults.getGenes();
@@ -0,0 +1,143 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.web.model;
+
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tracks the state of an analysis submitted through the web interface. Instances are updated by the worker thread
+ * running the analysis and read by the request threads polling for progress, hence the volatile fields.
+ *
+ * @since 13.1.0
+ */
+public class AnalysisJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, REJECTED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == REJECTED;
+        }
+    }
+
+    private final String id;
+    private final Instant submitted;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile int loadedVariants;
+    private volatile int passedVariants;
+    private volatile String message = "";
+    private volatile AnalysisResults analysisResults;
+
+    public AnalysisJob() {
+        this(UUID.randomUUID().toString());
+    }
+
+    public AnalysisJob(String id) {
+        this.id = id;
+        this.submitted = Instant.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Instant getSubmitted() {
+        return submitted;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return status.isFinished();
+    }
+
+    public int getLoadedVariants() {
+        return loadedVariants;
+    }
+
+    public int getPassedVariants() {
+        return passedVariants;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public AnalysisResults getAnalysisResults() {
+        return analysisResults;
+    }
+
+    public void started() {
+        this.status = Status.RUNNING;
+    }
+
+    public void updateProgress(int loadedVariants, int passedVariants) {
+        this.loadedVariants = loadedVariants;
+        this.passedVariants = passedVariants;
+    }
+
+    public void completed(AnalysisResults analysisResults) {
+        this.analysisResults = analysisResults;
+        this.status = Status.COMPLETED;
+    }
+
+    public void failed(String message) {
+        this.message = message;
+        this.status = Status.FAILED;
+    }
+
+    public void rejected(String message) {
+        this.message = message;
+        this.status = Status.REJECTED;
+    }
+
+    /**
+     * @return a summary of the job state suitable for serialising to JSON for the status and progress endpoints.
+     */
+    public Map<String, Object> toStatusMap() {
+        Map<String, Object> statusMap = new LinkedHashMap<>();
+        statusMap.put("id", id);
+        statusMap.put("status", status);
+        statusMap.put("loadedVariants", loadedVariants);
+        statusMap.put("passedVariants", passedVariants);
+        statusMap.put("message", message);
+        return statusMap;
+    }
+
+    @Override
+    public String toString() {
+        return "AnalysisJob{" +
+                "id='" + id + '\'' +
+                ", status=" + status +
+                ", loadedVariants=" + loadedVariants +
+                ", passedVariants=" + passedVariants +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.web.model;
+
+import java.util.*;
+
+/**
+ * Immutable in-memory search index of {@link SelectOption} used to serve the autocomplete requests from the
+ * submission page. Matches are case-insensitive and ranked with an exact match on the option value (i.e. the HPO,
+ * disease or gene identifier) first, followed by options whose text starts with the search term, then options whose
+ * text contains the term. Each rank is sorted alphabetically, by text, and the results are capped at the requested
+ * maximum.
+ * <p>
+ * Prefix matches are found using a binary search over the options sorted by their lower-case text. Substring matches
+ * use a trigram index to select candidates containing the rarest trigram in the search term, which are then verified.
+ * Search terms shorter than a trigram fall back to a scan over the pre-computed lower-case text, stopping once enough
+ * matches have been found.
+ *
+ * @since 13.1.0
+ */
+public class SelectOptionIndex {
+
+    private static final int GRAM_SIZE = 3;
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final SelectOption[] options;
+    private final String[] lowerCaseTexts;
+    private final Map<String, Integer> valueIndex;
+    private final Map<Long, int[]> trigramIndex;
+
+    private SelectOptionIndex(Collection<SelectOption> selectOptions) {
+        this.options = selectOptions.stream()
+                .distinct()
+                .sorted(Comparator.comparing((SelectOption option) -> toLowerCase(option.getText()))
+                        .thenComparing(SelectOption::getText)
+                        .thenComparing(SelectOption::getValue))
+                .toArray(SelectOption[]::new);
+        this.lowerCaseTexts = new String[options.length];
+        this.valueIndex = new HashMap<>(options.length * 2);
+        Map<Long, PostingsBuilder> postings = new HashMap<>();
+        for (int i = 0; i < options.length; i++) {
+            SelectOption option = options[i];
+            String lowerCaseText = toLowerCase(option.getText());
+            lowerCaseTexts[i] = lowerCaseText;
+            valueIndex.putIfAbsent(toLowerCase(option.getValue()), i);
+            for (int start = 0; start + GRAM_SIZE <= lowerCaseText.length(); start++) {
+                postings.computeIfAbsent(trigram(lowerCaseText, start), key -> new PostingsBuilder()).add(i);
+            }
+        }
+        this.trigramIndex = new HashMap<>(postings.size() * 2);
+        postings.forEach((key, builder) -> trigramIndex.put(key, builder.build()));
+    }
+
+    public static SelectOptionIndex of(Collection<SelectOption> selectOptions) {
+        return new SelectOptionIndex(selectOptions);
+    }
+
+    public static SelectOptionIndex of(Map<String, String> valuesAndTexts) {
+        List<SelectOption> selectOptions = new ArrayList<>(valuesAndTexts.size());
+        valuesAndTexts.forEach((value, text) -> selectOptions.add(new SelectOption(value, text)));
+        return new SelectOptionIndex(selectOptions);
+    }
+
+    public int size() {
+        return options.length;
+    }
+
+    /**
+     * @param term       the case-insensitive search term. An empty term matches all options.
+     * @param maxResults the maximum number of results to return
+     * @return up to maxResults matching options, in rank order
+     */
+    public List<SelectOption> search(String term, int maxResults) {
+        if (maxResults <= 0) {
+            return Collections.emptyList();
+        }
+        String query = toLowerCase(term == null ? "" : term);
+        int capacity = Math.min(maxResults, options.length);
+        List<SelectOption> matches = new ArrayList<>(capacity);
+        BitSet added = new BitSet(options.length);
+
+        // 1. exact identifier
+        Integer exactValue = valueIndex.get(query);
+        if (exactValue != null) {
+            addMatch(exactValue, matches, added);
+        }
+        // 2. text prefix - the matching options are contiguous in the sorted array
+        int prefixStart = lowerBound(query);
+        for (int i = prefixStart; i < options.length && matches.size() < maxResults && lowerCaseTexts[i].startsWith(query); i++) {
+            addMatch(i, matches, added);
+        }
+        // 3. text substring
+        if (matches.size() < maxResults) {
+            int[] candidates = query.length() < GRAM_SIZE ? null : rarestTrigramPostings(query);
+            if (candidates == null) {
+                for (int i = 0; i < options.length && matches.size() < maxResults; i++) {
+                    addIfSubstringMatch(i, query, matches, added);
+                }
+            } else {
+                for (int i = 0; i < candidates.length && matches.size() < maxResults; i++) {
+                    addIfSubstringMatch(candidates[i], query, matches, added);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void addIfSubstringMatch(int i, String query, List<SelectOption> matches, BitSet added) {
+        if (!added.get(i) && lowerCaseTexts[i].contains(query)) {
+            addMatch(i, matches, added);
+        }
+    }
+
+    private void addMatch(int i, List<SelectOption> matches, BitSet added) {
+        if (!added.get(i)) {
+            added.set(i);
+            matches.add(options[i]);
+        }
+    }
+
+    private int[] rarestTrigramPostings(String query) {
+        int[] rarest = null;
+        for (int start = 0; start + GRAM_SIZE <= query.length(); start++) {
+            int[] postings = trigramIndex.getOrDefault(trigram(query, start), NO_POSTINGS);
+            if (rarest == null || postings.length < rarest.length) {
+                rarest = postings;
+                if (rarest.length == 0) {
+                    break;
+                }
+            }
+        }
+        return rarest;
+    }
+
+    private int lowerBound(String query) {
+        int low = 0;
+        int high = lowerCaseTexts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lowerCaseTexts[mid].compareTo(query) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    private static String toLowerCase(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Growable list of ascending option indices for a single trigram. Each option is only added once, however many
+     * times the trigram occurs in its text.
+     */
+    private static class PostingsBuilder {
+        private int[] postings = new int[4];
+        private int size = 0;
+
+        void add(int optionIndex) {
+            if (size > 0 && postings[size - 1] == optionIndex) {
+                return;
+            }
+            if (size == postings.length) {
+                postings = Arrays.copyOf(postings, size * 2);
+            }
+            postings[size++] = optionIndex;
+        }
+
+        int[] build() {
+            return Arrays.copyOf(postings, size);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.web.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.monarchinitiative.exomiser.core.Exomiser;
+import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisProgressListener;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.analysis.sample.Sample;
+import org.monarchinitiative.exomiser.web.model.AnalysisJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs analyses submitted through the web interface on a bounded pool of worker threads so that request threads are
+ * not held open for the duration of an analysis. Jobs which can't be queued are rejected immediately, rather than
+ * allowing the server to be overwhelmed. Queued and running jobs are always kept, finished jobs are retained for a
+ * limited time after they finish, up to a maximum number, so that their results can be collected.
+ * <p>
+ * The number of variants in the sample is counted whilst the analysis is streaming the VCF, so the file is only read
+ * once. Samples exceeding the maximum number of variants are aborted as soon as the running count of the analysis
+ * passes the limit.
+ *
+ * @since 13.1.0
+ */
+public class AnalysisJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobService.class);
+
+    private static final long PROGRESS_INTERVAL_MILLIS = 1000;
+    private static final long PROGRESS_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    public static final int DEFAULT_MAX_FINISHED_JOBS = 100;
+
+    private final Exomiser exomiser;
+    private final int maxVariants;
+
+    private final ThreadPoolExecutor analysisExecutor;
+    private final ScheduledExecutorService progressScheduler;
+    // queued and running jobs - this is bounded by the size of the executor pool and queue
+    private final Map<String, AnalysisJob> activeJobs = new ConcurrentHashMap<>();
+    // finished jobs hold the full AnalysisResults, so these are only kept for a limited time and number
+    private final Cache<String, AnalysisJob> finishedJobs;
+
+    public AnalysisJobService(Exomiser exomiser, int maxVariants, int maxConcurrentJobs, int maxQueuedJobs, Duration jobRetention) {
+        this(exomiser, maxVariants, maxConcurrentJobs, maxQueuedJobs, jobRetention, DEFAULT_MAX_FINISHED_JOBS);
+    }
+
+    public AnalysisJobService(Exomiser exomiser, int maxVariants, int maxConcurrentJobs, int maxQueuedJobs, Duration jobRetention, int maxFinishedJobs) {
+        this.exomiser = exomiser;
+        this.maxVariants = maxVariants;
+        this.analysisExecutor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedJobs),
+                new ThreadFactoryBuilder().setNameFormat("exomiser-analysis-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.progressScheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("exomiser-analysis-progress-%d").setDaemon(true).build());
+        this.finishedJobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobRetention)
+                .maximumSize(maxFinishedJobs)
+                .build();
+        logger.info("Running up to {} concurrent analyses with {} queued. Up to {} finished jobs will be retained for {}", maxConcurrentJobs, maxQueuedJobs, maxFinishedJobs, jobRetention);
+    }
+
+    /**
+     * Queues the analysis of the sample for execution. The cleanUp action is always run once the job has finished,
+     * regardless of whether it completed successfully.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public AnalysisJob submit(Sample sample, Analysis analysis, Runnable cleanUp) {
+        AnalysisJob job = new AnalysisJob();
+        activeJobs.put(job.getId(), job);
+        try {
+            analysisExecutor.execute(() -> runJob(job, sample, analysis, cleanUp));
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(job.getId());
+            throw e;
+        }
+        logger.info("Queued analysis job {} - {} jobs waiting", job.getId(), analysisExecutor.getQueue().size());
+        return job;
+    }
+
+    private void runJob(AnalysisJob job, Sample sample, Analysis analysis, Runnable cleanUp) {
+        job.started();
+        logger.info("Running analysis job {} for VCF {}", job.getId(), sample.getVcfPath());
+        AnalysisProgressListener progressListener = new AnalysisProgressListener() {
+            @Override
+            public void variantsLoaded(int loaded, int passed) {
+                job.updateProgress(loaded, passed);
+                if (loaded > maxVariants) {
+                    throw new VariantLimitExceededException(maxVariants);
+                }
+            }
+
+            @Override
+            public int variantLimit() {
+                return maxVariants;
+            }
+        };
+        try {
+            AnalysisResults analysisResults = exomiser.run(sample, analysis, progressListener);
+            job.completed(analysisResults);
+            logger.info("Finished analysis job {}", job.getId());
+        } catch (VariantLimitExceededException e) {
+            logger.info("{} contains more than the allowed maximum of {} variants. Rejecting job {}", sample.getVcfPath(), maxVariants, job.getId());
+            job.rejected(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Analysis job {} failed", job.getId(), e);
+            job.failed(e.getMessage());
+        } finally {
+            // the retention time starts from when the job finished
+            finishedJobs.put(job.getId(), job);
+            activeJobs.remove(job.getId());
+            cleanUp.run();
+        }
+    }
+
+    public Optional<AnalysisJob> getJob(String id) {
+        AnalysisJob activeJob = activeJobs.get(id);
+        if (activeJob != null) {
+            return Optional.of(activeJob);
+        }
+        return Optional.ofNullable(finishedJobs.getIfPresent(id));
+    }
+
+    /**
+     * Pushes the status of the job to the client as a server-sent 'progress' event every second until the job
+     * is finished.
+     */
+    public SseEmitter streamProgress(AnalysisJob job) {
+        SseEmitter emitter = new SseEmitter(PROGRESS_TIMEOUT_MILLIS);
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicReference<ScheduledFuture<?>> progressTask = new AtomicReference<>();
+        Runnable stop = () -> {
+            done.set(true);
+            ScheduledFuture<?> task = progressTask.get();
+            if (task != null) {
+                task.cancel(false);
+            }
+        };
+        emitter.onCompletion(stop);
+        emitter.onTimeout(stop);
+        emitter.onError(throwable -> stop.run());
+
+        Runnable sendProgress = () -> {
+            if (done.get()) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(job.toStatusMap(), MediaType.APPLICATION_JSON));
+                if (job.isFinished()) {
+                    stop.run();
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Unable to send progress for job {} - client has likely disconnected", job.getId());
+                stop.run();
+                emitter.completeWithError(e);
+            }
+        };
+        progressTask.set(progressScheduler.scheduleAtFixedRate(sendProgress, 0, PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS));
+        // catch the case where the job finished before the task reference was set
+        if (done.get()) {
+            stop.run();
+        }
+        return emitter;
+    }
+
+    public void shutdown() {
+        logger.info("Shutting down analysis job executor");
+        analysisExecutor.shutdownNow();
+        progressScheduler.shutdownNow();
+    }
+
+    private static class VariantLimitExceededException extends RuntimeException {
+
+        VariantLimitExceededException(int maxVariants) {
+            super("Sample contains more than the allowed maximum of " + maxVariants + " variants");
+        }
+    }
+}
@@ -52,4 +52,16 @@ public void submitJobControllerGetReturnsOkStatusAndSubmitPage() throws Exceptio
                 .andExpect(view().name("submit"));
     }
 
+    @Test
+    public void unknownJobReturnsNotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/job").param("id", "wibble"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void unknownJobStatusReturnsNotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/job-status").param("id", "wibble"))
+                .andExpect(status().isNotFound());
+    }
+
 }
@@ -0,0 +1,127 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.web.model;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Compares the latency of the original linear scan used by the DataController with the {@link SelectOptionIndex}
+ * for autocomplete-style requests from several concurrent clients, using about as many options as there are HPO
+ * terms, diseases and genes.
+ */
+public class SelectOptionIndexPerformanceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SelectOptionIndexPerformanceTest.class);
+
+    private static final int NUM_OPTIONS = 46_000;
+    private static final int NUM_THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 5_000;
+    private static final int MAX_RESULTS = 50;
+
+    private static final String[] WORDS = {"abnormal", "cleft", "palate", "morphology", "syndrome", "renal", "cardiac",
+            "hypoplasia", "dysplasia", "short", "stature", "muscle", "weakness", "seizure", "skeletal", "facial",
+            "macrocephaly", "hearing", "loss", "retinal", "dystrophy", "intellectual", "disability", "kidney", "cyst"};
+
+    @Disabled("Performance test - won't run on CI server")
+    @Test
+    void concurrentAutocompleteLatency() throws Exception {
+        Random random = new Random(42);
+        List<SelectOption> selectOptions = new ArrayList<>(NUM_OPTIONS);
+        for (int i = 0; i < NUM_OPTIONS; i++) {
+            StringBuilder text = new StringBuilder();
+            int numWords = 2 + random.nextInt(4);
+            for (int w = 0; w < numWords; w++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                text.append(w == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word).append(' ');
+            }
+            selectOptions.add(new SelectOption(String.format("HP:%07d", i), text.toString().trim()));
+        }
+        // simulate someone typing, one request per keystroke
+        List<String> terms = new ArrayList<>();
+        for (String word : WORDS) {
+            for (int length = 1; length <= word.length(); length++) {
+                terms.add(word.substring(0, length));
+            }
+        }
+
+        Set<SelectOption> optionSet = new HashSet<>(selectOptions);
+        Function<String, List<SelectOption>> linearScan = term -> {
+            List<SelectOption> matches = new ArrayList<>();
+            for (SelectOption selectOption : optionSet) {
+                if (selectOption.getText().toLowerCase().contains(term.toLowerCase())) {
+                    matches.add(selectOption);
+                }
+            }
+            Collections.sort(matches);
+            return matches;
+        };
+        SelectOptionIndex index = SelectOptionIndex.of(selectOptions);
+        Function<String, List<SelectOption>> indexed = term -> index.search(term, MAX_RESULTS);
+
+        // warm-up
+        runConcurrently("linear scan (warm-up)", linearScan, terms);
+        runConcurrently("index (warm-up)", indexed, terms);
+
+        runConcurrently("linear scan", linearScan, terms);
+        runConcurrently("index", indexed, terms);
+    }
+
+    private void runConcurrently(String name, Function<String, List<SelectOption>> search, List<String> terms) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(NUM_THREADS);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < NUM_THREADS; t++) {
+            int offset = t;
+            futures.add(executorService.submit(() -> {
+                long[] latencies = new long[REQUESTS_PER_THREAD];
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    String term = terms.get((i + offset) % terms.size());
+                    long start = System.nanoTime();
+                    search.apply(term);
+                    latencies[i] = System.nanoTime() - start;
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[NUM_THREADS * REQUESTS_PER_THREAD];
+        int pos = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, pos, latencies.length);
+            pos += latencies.length;
+        }
+        executorService.shutdown();
+        Arrays.sort(all);
+        logger.info("{}: {} threads, {} requests p50={}ms p99={}ms max={}ms", name, NUM_THREADS, all.length,
+                String.format("%.3f", percentile(all, 0.50)), String.format("%.3f", percentile(all, 0.99)), String.format("%.3f", all[all.length - 1] / 1e6));
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+}
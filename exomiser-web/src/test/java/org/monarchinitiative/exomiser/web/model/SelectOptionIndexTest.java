@@ -0,0 +1,121 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.web.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SelectOptionIndexTest {
+
+    private final SelectOption cleftPalate = new SelectOption("HP:0000175", "Cleft palate");
+    private final SelectOption cleftLip = new SelectOption("HP:0410030", "Cleft lip");
+    private final SelectOption submucousCleftPalate = new SelectOption("HP:0000176", "Submucous cleft hard palate");
+    private final SelectOption highPalate = new SelectOption("HP:0000218", "High palate");
+    private final SelectOption knees = new SelectOption("HP:5678000", "Knobbly knees");
+
+    private final SelectOptionIndex instance = SelectOptionIndex.of(List.of(highPalate, submucousCleftPalate, knees, cleftPalate, cleftLip));
+
+    @Test
+    void size() {
+        assertThat(instance.size(), equalTo(5));
+    }
+
+    @Test
+    void ofMap() {
+        Map<String, String> genes = new LinkedHashMap<>();
+        genes.put("2263", "FGFR2");
+        genes.put("2260", "FGFR1");
+        SelectOptionIndex geneIndex = SelectOptionIndex.of(genes);
+        assertThat(geneIndex.search("fgfr", 10), contains(new SelectOption("2260", "FGFR1"), new SelectOption("2263", "FGFR2")));
+    }
+
+    @Test
+    void emptyTermReturnsAllOptionsSortedAndCapped() {
+        assertThat(instance.search("", 10), contains(cleftLip, cleftPalate, highPalate, knees, submucousCleftPalate));
+        assertThat(instance.search("", 2), contains(cleftLip, cleftPalate));
+    }
+
+    @Test
+    void prefixMatchesRankAboveSubstringMatches() {
+        assertThat(instance.search("cleft", 10), contains(cleftLip, cleftPalate, submucousCleftPalate));
+    }
+
+    @Test
+    void substringMatchesAreSortedAlphabetically() {
+        assertThat(instance.search("palate", 10), contains(cleftPalate, highPalate, submucousCleftPalate));
+    }
+
+    @Test
+    void searchIsCaseInsensitive() {
+        assertThat(instance.search("PALATE", 10), contains(cleftPalate, highPalate, submucousCleftPalate));
+    }
+
+    @Test
+    void shortTermsMatchSubstrings() {
+        assertThat(instance.search("e", 10), contains(cleftLip, cleftPalate, highPalate, knees, submucousCleftPalate));
+        assertThat(instance.search("ee", 10), contains(knees));
+    }
+
+    @Test
+    void exactIdentifierRanksFirst() {
+        SelectOption idInText = new SelectOption("HP:0000001", "Abnormality HP:0000175 related");
+        SelectOptionIndex index = SelectOptionIndex.of(List.of(idInText, cleftPalate));
+        assertThat(index.search("hp:0000175", 10), contains(cleftPalate, idInText));
+    }
+
+    @Test
+    void exactTextMatchRanksFirstOfPrefixMatches() {
+        SelectOption adh1 = new SelectOption("124", "ADH1");
+        SelectOption adh1a = new SelectOption("125", "ADH1A");
+        SelectOptionIndex index = SelectOptionIndex.of(List.of(adh1a, adh1));
+        assertThat(index.search("adh1", 10), contains(adh1, adh1a));
+    }
+
+    @Test
+    void resultsAreCapped() {
+        assertThat(instance.search("palate", 2), contains(cleftPalate, highPalate));
+    }
+
+    @Test
+    void zeroMaxResultsReturnsEmptyList() {
+        assertThat(instance.search("palate", 0), is(empty()));
+    }
+
+    @Test
+    void noMatchesReturnsEmptyList() {
+        assertThat(instance.search("wibble", 10), is(empty()));
+        assertThat(instance.search("xq", 10), is(empty()));
+    }
+
+    @Test
+    void termWithRepeatedTrigram() {
+        SelectOption aaaa = new SelectOption("1", "aaaa");
+        SelectOptionIndex index = SelectOptionIndex.of(List.of(aaaa));
+        assertThat(index.search("aaa", 10), contains(aaaa));
+        assertThat(index.search("aaaaa", 10), is(empty()));
+    }
+}
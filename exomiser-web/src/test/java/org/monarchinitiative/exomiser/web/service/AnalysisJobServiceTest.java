@@ -0,0 +1,179 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2021 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.web.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.Exomiser;
+import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisProgressListener;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.analysis.sample.Sample;
+import org.monarchinitiative.exomiser.web.model.AnalysisJob;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class AnalysisJobServiceTest {
+
+    private final Sample sample = Sample.builder().build();
+    private final Analysis analysis = Analysis.builder().build();
+    private final Exomiser exomiser = Mockito.mock(Exomiser.class);
+
+    private AnalysisJobService instance;
+
+    @AfterEach
+    void tearDown() {
+        if (instance != null) {
+            instance.shutdown();
+        }
+    }
+
+    private AnalysisJob waitUntilFinished(AnalysisJob job) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (!job.isFinished() && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        return job;
+    }
+
+    @Test
+    void completedJobHasResults() throws Exception {
+        AnalysisResults analysisResults = AnalysisResults.builder().sample(sample).analysis(analysis).build();
+        when(exomiser.run(any(Sample.class), any(Analysis.class), any(AnalysisProgressListener.class))).thenAnswer(invocation -> {
+            AnalysisProgressListener listener = invocation.getArgument(2);
+            listener.variantsLoaded(10, 2);
+            return analysisResults;
+        });
+        instance = new AnalysisJobService(exomiser, 100, 1, 1, Duration.ofMinutes(1));
+
+        AtomicBoolean cleanedUp = new AtomicBoolean(false);
+        AnalysisJob job = waitUntilFinished(instance.submit(sample, analysis, () -> cleanedUp.set(true)));
+
+        assertThat(job.getStatus(), equalTo(AnalysisJob.Status.COMPLETED));
+        assertThat(job.getAnalysisResults(), equalTo(analysisResults));
+        assertThat(job.getLoadedVariants(), equalTo(10));
+        assertThat(job.getPassedVariants(), equalTo(2));
+        assertThat(cleanedUp.get(), is(true));
+        assertThat(instance.getJob(job.getId()).isPresent(), is(true));
+    }
+
+    @Test
+    void jobExceedingMaxVariantsIsRejected() throws Exception {
+        when(exomiser.run(any(Sample.class), any(Analysis.class), any(AnalysisProgressListener.class))).thenAnswer(invocation -> {
+            AnalysisProgressListener listener = invocation.getArgument(2);
+            listener.variantsLoaded(1000, 10);
+            listener.variantsLoaded(2000, 20);
+            throw new AssertionError("Analysis should have been aborted");
+        });
+        instance = new AnalysisJobService(exomiser, 1500, 1, 1, Duration.ofMinutes(1));
+
+        AtomicBoolean cleanedUp = new AtomicBoolean(false);
+        AnalysisJob job = waitUntilFinished(instance.submit(sample, analysis, () -> cleanedUp.set(true)));
+
+        assertThat(job.getStatus(), equalTo(AnalysisJob.Status.REJECTED));
+        assertThat(job.getLoadedVariants(), equalTo(2000));
+        assertThat(cleanedUp.get(), is(true));
+    }
+
+    @Test
+    void progressListenerReportsMaxVariantsAsLimit() throws Exception {
+        AtomicInteger variantLimit = new AtomicInteger();
+        when(exomiser.run(any(Sample.class), any(Analysis.class), any(AnalysisProgressListener.class))).thenAnswer(invocation -> {
+            AnalysisProgressListener listener = invocation.getArgument(2);
+            variantLimit.set(listener.variantLimit());
+            return AnalysisResults.builder().build();
+        });
+        instance = new AnalysisJobService(exomiser, 1500, 1, 1, Duration.ofMinutes(1));
+
+        waitUntilFinished(instance.submit(sample, analysis, () -> {}));
+
+        assertThat(variantLimit.get(), equalTo(1500));
+    }
+
+    @Test
+    void runningJobIsNotExpired() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(exomiser.run(any(Sample.class), any(Analysis.class), any(AnalysisProgressListener.class))).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return AnalysisResults.builder().build();
+        });
+        instance = new AnalysisJobService(exomiser, 100, 1, 1, Duration.ofMillis(1), 1);
+
+        AnalysisJob job = instance.submit(sample, analysis, () -> {});
+        running.await(5, TimeUnit.SECONDS);
+        Thread.sleep(20);
+        assertThat(instance.getJob(job.getId()).isPresent(), is(true));
+        release.countDown();
+    }
+
+    @Test
+    void failedJobReportsMessage() throws Exception {
+        when(exomiser.run(any(Sample.class), any(Analysis.class), any(AnalysisProgressListener.class)))
+                .thenThrow(new IllegalStateException("Bad VCF"));
+        instance = new AnalysisJobService(exomiser, 100, 1, 1, Duration.ofMinutes(1));
+
+        AnalysisJob job = waitUntilFinished(instance.submit(sample, analysis, () -> {}));
+
+        assertThat(job.getStatus(), equalTo(AnalysisJob.Status.FAILED));
+        assertThat(job.getMessage(), equalTo("Bad VCF"));
+    }
+
+    @Test
+    void submitThrowsExceptionWhenQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(exomiser.run(any(Sample.class), any(Analysis.class), any(AnalysisProgressListener.class))).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return AnalysisResults.builder().build();
+        });
+        instance = new AnalysisJobService(exomiser, 100, 1, 1, Duration.ofMinutes(1));
+
+        instance.submit(sample, analysis, () -> {});
+        running.await(5, TimeUnit.SECONDS);
+        AnalysisJob queued = instance.submit(sample, analysis, () -> {});
+        assertThat(queued.getStatus(), equalTo(AnalysisJob.Status.QUEUED));
+
+        assertThrows(RejectedExecutionException.class, () -> instance.submit(sample, analysis, () -> {}));
+        release.countDown();
+    }
+
+    @Test
+    void unknownJobIsEmpty() {
+        instance = new AnalysisJobService(exomiser, 100, 1, 1, Duration.ofMinutes(1));
+        assertThat(instance.getJob("wibble").isPresent(), is(false));
+    }
+}